@@ -0,0 +1,49 @@
+package com.example.foodvan;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import com.bumptech.glide.GlideBuilder;
+import com.bumptech.glide.annotation.GlideModule;
+import com.bumptech.glide.load.DecodeFormat;
+import com.bumptech.glide.load.engine.bitmap_recycle.LruBitmapPool;
+import com.bumptech.glide.load.engine.cache.InternalCacheDiskCacheFactory;
+import com.bumptech.glide.load.engine.cache.LruResourceCache;
+import com.bumptech.glide.load.engine.cache.MemorySizeCalculator;
+import com.bumptech.glide.module.AppGlideModule;
+import com.bumptech.glide.request.RequestOptions;
+
+/**
+ * App-wide Glide configuration: memory and disk budgets sized for the image-heavy van and menu lists.
+ */
+@GlideModule
+public final class FoodVanGlideModule extends AppGlideModule {
+
+    private static final String DISK_CACHE_NAME = "image_cache";
+    private static final long DISK_CACHE_BYTES = 250L * 1024 * 1024;
+    private static final float MEMORY_CACHE_SCREENS = 3;
+    private static final float BITMAP_POOL_SCREENS = 4;
+
+    @Override
+    public void applyOptions(@NonNull Context context, @NonNull GlideBuilder builder) {
+        // Keep roughly three screens of decoded list images so scrolling back is a memory hit
+        MemorySizeCalculator calculator = new MemorySizeCalculator.Builder(context)
+                .setMemoryCacheScreens(MEMORY_CACHE_SCREENS)
+                .setBitmapPoolScreens(BITMAP_POOL_SCREENS)
+                .build();
+        builder.setMemoryCache(new LruResourceCache(calculator.getMemoryCacheSize()));
+        builder.setBitmapPool(new LruBitmapPool(calculator.getBitmapPoolSize()));
+        builder.setDiskCache(new InternalCacheDiskCacheFactory(context, DISK_CACHE_NAME, DISK_CACHE_BYTES));
+
+        // Food photos are opaque, so RGB_565 halves bitmap memory; Glide falls back for images with alpha
+        builder.setDefaultRequestOptions(new RequestOptions().format(DecodeFormat.PREFER_RGB_565));
+        builder.setLogLevel(Log.ERROR);
+    }
+
+    @Override
+    public boolean isManifestParsingEnabled() {
+        return false;
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.foodvan.activities;
+
+import android.content.Context;
+import android.content.Intent;
+import android.content.pm.ApplicationInfo;
+import android.os.Bundle;
+import android.widget.TextView;
+import android.widget.Toast;
+
+import androidx.appcompat.app.AppCompatActivity;
+
+import com.example.foodvan.R;
+import com.example.foodvan.utils.AppExecutors;
+import com.example.foodvan.utils.ImageLoadMetrics;
+import com.example.foodvan.utils.InstrumentedExecutor;
+import com.example.foodvan.utils.MetricsDumper;
+import com.example.foodvan.utils.MetricsRegistry;
+import com.google.android.material.appbar.MaterialToolbar;
+
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * MetricsDebugActivity - Debug builds only. Shows the MetricsRegistry counters, gauges and
+ * latency percentiles alongside executor and image loading stats. Opened by long-pressing the
+ * build number on the About screen.
+ */
+public class MetricsDebugActivity extends AppCompatActivity {
+
+    private TextView tvMetrics;
+
+    /**
+     * Opens the screen if this is a debuggable build; does nothing otherwise.
+     */
+    public static boolean startIfDebuggable(Context context) {
+        if ((context.getApplicationInfo().flags & ApplicationInfo.FLAG_DEBUGGABLE) == 0) {
+            return false;
+        }
+        context.startActivity(new Intent(context, MetricsDebugActivity.class));
+        return true;
+    }
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        if ((getApplicationInfo().flags & ApplicationInfo.FLAG_DEBUGGABLE) == 0) {
+            finish();
+            return;
+        }
+        setContentView(R.layout.activity_metrics_debug);
+
+        MaterialToolbar toolbar = findViewById(R.id.toolbar);
+        toolbar.setNavigationOnClickListener(v -> finish());
+        tvMetrics = findViewById(R.id.tv_metrics);
+
+        findViewById(R.id.btn_refresh).setOnClickListener(v -> render());
+        findViewById(R.id.btn_reset).setOnClickListener(v -> {
+            MetricsRegistry.getInstance().reset();
+            ImageLoadMetrics.getInstance().reset();
+            render();
+        });
+        findViewById(R.id.btn_dump).setOnClickListener(v -> dump());
+    }
+
+    @Override
+    protected void onResume() {
+        super.onResume();
+        render();
+    }
+
+    private void dump() {
+        MetricsDumper dumper = MetricsDumper.getInstance(this);
+        AppExecutors.getInstance().io().execute(() -> {
+            dumper.dump();
+            runOnUiThread(() -> Toast.makeText(this, "Written to " + dumper.getFile(), Toast.LENGTH_LONG).show());
+        });
+    }
+
+    private void render() {
+        MetricsRegistry.Snapshot snapshot = MetricsRegistry.getInstance().snapshot();
+        StringBuilder text = new StringBuilder();
+
+        text.append("LATENCY (ms)           count    p50    p90    p99    max\n");
+        for (Map.Entry<String, MetricsRegistry.HistogramSummary> entry : snapshot.histograms.entrySet()) {
+            MetricsRegistry.HistogramSummary h = entry.getValue();
+            text.append(String.format(Locale.US, "%-22s %6d %6.1f %6.1f %6.1f %6.1f\n",
+                    entry.getKey(), h.count, h.p50Nanos / 1e6, h.p90Nanos / 1e6, h.p99Nanos / 1e6, h.maxNanos / 1e6));
+        }
+
+        text.append("\nGAUGES\n");
+        for (Map.Entry<String, Long> entry : snapshot.gauges.entrySet()) {
+            text.append(String.format(Locale.US, "%-40s %8d\n", entry.getKey(), entry.getValue()));
+        }
+
+        text.append("\nCOUNTERS\n");
+        for (Map.Entry<String, Long> entry : snapshot.counters.entrySet()) {
+            text.append(String.format(Locale.US, "%-40s %8d\n", entry.getKey(), entry.getValue()));
+        }
+
+        text.append("\nEXECUTORS\n");
+        for (InstrumentedExecutor.Stats stats : AppExecutors.getInstance().stats()) {
+            text.append(stats).append('\n');
+        }
+
+        text.append('\n').append(ImageLoadMetrics.getInstance()).append('\n');
+        tvMetrics.setText(text);
+    }
+}
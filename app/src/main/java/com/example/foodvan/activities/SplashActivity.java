@@ -7,8 +7,6 @@ import android.animation.ObjectAnimator;
 import android.animation.ValueAnimator;
 import android.content.Intent;
 import android.os.Bundle;
-import android.os.Handler;
-import android.os.Looper;
 import android.view.View;
 import android.view.WindowManager;
 import android.view.animation.AccelerateDecelerateInterpolator;
@@ -22,7 +20,10 @@ import androidx.appcompat.app.AppCompatActivity;
 import androidx.core.content.ContextCompat;
 
 import com.example.foodvan.activities.auth.LoginActivity;
+import com.example.foodvan.activities.customer.CustomerHomeActivity;
+import com.example.foodvan.activities.vendor.VendorDashboardActivity;
 import com.example.foodvan.R;
+import com.example.foodvan.utils.StartupInitializer;
 import com.google.android.material.card.MaterialCardView;
 
 /**
@@ -43,11 +44,10 @@ public class SplashActivity extends AppCompatActivity {
 
     // Animation variables
     private AnimatorSet masterAnimatorSet;
-    private Handler splashHandler;
+    private StartupInitializer.OnReadyListener readyListener;
     private boolean animationsCompleted = false;
     
     // Timing constants
-    private static final int SPLASH_DURATION = 3500; // 3.5 seconds
     private static final int LOGO_ANIMATION_DURATION = 1200;
     private static final int TEXT_ANIMATION_DURATION = 800;
     private static final int PROGRESS_ANIMATION_DURATION = 2000;
@@ -320,13 +320,15 @@ public class SplashActivity extends AppCompatActivity {
         // Start animations
         masterAnimatorSet.start();
         
-        // Setup splash timer
-        splashHandler = new Handler(Looper.getMainLooper());
-        splashHandler.postDelayed(this::navigateToLoginActivity, SPLASH_DURATION);
+        // Leave as soon as startup knows the first screen
+        StartupInitializer startupInitializer = StartupInitializer.getInstance(this);
+        readyListener = this::navigateToDestination;
+        startupInitializer.whenReady(readyListener);
+        startupInitializer.start();
     }
 
-    private void navigateToLoginActivity() {
-        if (isFinishing()) return;
+    private void navigateToDestination(StartupInitializer.Destination destination) {
+        if (isFinishing() || isDestroyed()) return;
         
         // Create smooth transition animation
         ObjectAnimator fadeOut = ObjectAnimator.ofFloat(findViewById(R.id.splash_root), "alpha", 1f, 0f);
@@ -336,8 +338,19 @@ public class SplashActivity extends AppCompatActivity {
         fadeOut.addListener(new AnimatorListenerAdapter() {
             @Override
             public void onAnimationEnd(Animator animation) {
-                // Navigate to LoginActivity
-                Intent intent = new Intent(SplashActivity.this, LoginActivity.class);
+                // Signed-in users go straight to their dashboard
+                Intent intent;
+                switch (destination) {
+                    case VENDOR_DASHBOARD:
+                        intent = new Intent(SplashActivity.this, VendorDashboardActivity.class);
+                        break;
+                    case CUSTOMER_HOME:
+                        intent = new Intent(SplashActivity.this, CustomerHomeActivity.class);
+                        break;
+                    default:
+                        intent = new Intent(SplashActivity.this, LoginActivity.class);
+                        break;
+                }
                 startActivity(intent);
                 
                 // Custom transition animation
@@ -361,8 +374,8 @@ public class SplashActivity extends AppCompatActivity {
             masterAnimatorSet.removeAllListeners();
         }
         
-        if (splashHandler != null) {
-            splashHandler.removeCallbacksAndMessages(null);
+        if (readyListener != null) {
+            StartupInitializer.getInstance(this).removeListener(readyListener);
         }
         
         // Clear references
@@ -13,6 +13,7 @@ import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.foodvan.R;
+import com.example.foodvan.activities.MetricsDebugActivity;
 import com.example.foodvan.adapters.ChangelogAdapter;
 import com.example.foodvan.adapters.TeamMemberAdapter;
 import com.example.foodvan.models.ChangelogEntry;
@@ -105,6 +106,9 @@ public class AboutFoodVanActivity extends AppCompatActivity {
         btnTwitter.setOnClickListener(v -> openUrl("https://twitter.com/foodvan"));
         btnWhatsapp.setOnClickListener(v -> openWhatsApp());
         btnWebsite.setOnClickListener(v -> openUrl("https://foodvan.com"));
+        
+        // Hidden entry to the metrics screen in debug builds
+        tvBuild.setOnLongClickListener(v -> MetricsDebugActivity.startIfDebuggable(this));
     }
 
     private void loadData() {
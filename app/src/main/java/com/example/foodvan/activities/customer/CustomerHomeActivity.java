@@ -20,17 +20,23 @@ import androidx.recyclerview.widget.RecyclerView;
 import android.content.res.ColorStateList;
 import android.util.Log;
 
+import com.bumptech.glide.Glide;
 import com.example.foodvan.R;
 import com.example.foodvan.activities.auth.LoginActivity;
 import com.example.foodvan.adapters.FoodVanAdapter;
+import com.example.foodvan.adapters.MenuItemAdapter;
 import com.example.foodvan.models.FoodVan;
 import com.example.foodvan.models.FilterCriteria;
 import com.example.foodvan.models.User;
 import com.example.foodvan.utils.FirebaseManager;
+import com.example.foodvan.utils.ImageLoader;
 import com.example.foodvan.utils.LocationHelper;
+import com.example.foodvan.utils.MetricsRegistry;
 import com.example.foodvan.utils.SessionManager;
 import com.example.foodvan.utils.FilterManager;
+import com.example.foodvan.utils.VanPrefetcher;
 import com.example.foodvan.fragments.FilterBottomSheetFragment;
+import com.example.foodvan.workers.OrderIndexBackfillWorker;
 import com.google.android.gms.location.FusedLocationProviderClient;
 import com.google.android.gms.location.LocationServices;
 import com.google.android.gms.maps.CameraUpdateFactory;
@@ -42,6 +48,8 @@ import com.google.android.gms.maps.model.LatLng;
 import com.google.android.gms.maps.model.Marker;
 import com.google.android.gms.maps.model.MarkerOptions;
 import com.google.android.material.floatingactionbutton.FloatingActionButton;
+import com.google.firebase.auth.FirebaseAuth;
+import com.google.firebase.auth.FirebaseUser;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -56,6 +64,7 @@ public class CustomerHomeActivity extends AppCompatActivity implements OnMapRead
     private FusedLocationProviderClient fusedLocationClient;
     private RecyclerView rvNearbyVans;
     private FoodVanAdapter foodVanAdapter;
+    private VanPrefetcher vanPrefetcher;
     private FloatingActionButton fabCart, fabFilter;
     
     private SessionManager sessionManager;
@@ -69,8 +78,11 @@ public class CustomerHomeActivity extends AppCompatActivity implements OnMapRead
     // Filter Components
     private FilterManager filterManager;
     private FilterCriteria currentFilter;
+    // Whether the list shows filter results, so scrolling to its end ranks the next page
+    private boolean pagingFilterResults;
     
     private static final int LOCATION_PERMISSION_REQUEST_CODE = 1001;
+    private static final int FILTER_PAGE_SIZE = 20;
     private static final String TAG = "CustomerHomeActivity";
 
     @Override
@@ -131,6 +143,12 @@ public class CustomerHomeActivity extends AppCompatActivity implements OnMapRead
             fusedLocationClient = LocationServices.getFusedLocationProviderClient(this);
             nearbyVans = new ArrayList<>();
             allVans = new ArrayList<>();
+
+            // Orders placed before customer_orders existed are copied in once
+            FirebaseUser user = FirebaseAuth.getInstance().getCurrentUser();
+            if (user != null) {
+                OrderIndexBackfillWorker.schedule(this, OrderIndexBackfillWorker.ROLE_CUSTOMER, user.getUid());
+            }
             
             // Initialize filter components
             initializeFilterManager();
@@ -148,6 +166,22 @@ public class CustomerHomeActivity extends AppCompatActivity implements OnMapRead
                 foodVanAdapter = new FoodVanAdapter(nearbyVans, this::onFoodVanClick);
                 rvNearbyVans.setLayoutManager(new LinearLayoutManager(this, LinearLayoutManager.HORIZONTAL, false));
                 rvNearbyVans.setAdapter(foodVanAdapter);
+                rvNearbyVans.addOnScrollListener(foodVanAdapter.createPreloader(this, Glide.with(this)));
+
+                vanPrefetcher = new VanPrefetcher(this, Glide.with(this), firebaseManager,
+                        ImageLoader.dpToPx(this, MenuItemAdapter.IMAGE_SIZE_DP));
+                rvNearbyVans.addOnScrollListener(new RecyclerView.OnScrollListener() {
+                    @Override
+                    public void onScrollStateChanged(@NonNull RecyclerView recyclerView, int newState) {
+                        // Scrolling away cancels the pass; once settled, prefetch the vans now on screen
+                        if (newState == RecyclerView.SCROLL_STATE_DRAGGING) {
+                            vanPrefetcher.cancel();
+                        } else if (newState == RecyclerView.SCROLL_STATE_IDLE) {
+                            loadMoreFilteredVans();
+                            vanPrefetcher.schedule(visibleVans());
+                        }
+                    }
+                });
             } else {
                 Log.e(TAG, "Cannot setup RecyclerView - rvNearbyVans or nearbyVans is null");
             }
@@ -248,10 +282,15 @@ public class CustomerHomeActivity extends AppCompatActivity implements OnMapRead
                     
                     nearbyVans.clear();
                     nearbyVans.addAll(foodVans);
+                    pagingFilterResults = false;
                     foodVanAdapter.notifyDataSetChanged();
                     
                     // Add markers to map
                     addFoodVanMarkersToMap(foodVans);
+
+                    if (vanPrefetcher != null) {
+                        vanPrefetcher.schedule(nearbyVans);
+                    }
                     
                     // Update filter manager with current location
                     if (filterManager != null && currentLocation != null) {
@@ -301,12 +340,27 @@ public class CustomerHomeActivity extends AppCompatActivity implements OnMapRead
     }
 
     private void openFoodVanMenu(FoodVan van) {
+        VanPrefetcher.recordVisit(this, van.getVanId());
         Intent intent = new Intent(this, MenuActivity.class);
         intent.putExtra("food_van_id", van.getVanId());
         intent.putExtra("food_van_name", van.getName());
+        intent.putExtra(MenuActivity.EXTRA_OPENED_AT, MetricsRegistry.getInstance().startTimer());
         startActivity(intent);
     }
 
+    private List<FoodVan> visibleVans() {
+        RecyclerView.LayoutManager layoutManager = rvNearbyVans.getLayoutManager();
+        if (!(layoutManager instanceof LinearLayoutManager)) {
+            return nearbyVans;
+        }
+        int first = ((LinearLayoutManager) layoutManager).findFirstVisibleItemPosition();
+        int last = ((LinearLayoutManager) layoutManager).findLastVisibleItemPosition();
+        if (first == RecyclerView.NO_POSITION || last >= nearbyVans.size()) {
+            return nearbyVans;
+        }
+        return new ArrayList<>(nearbyVans.subList(first, last + 1));
+    }
+
     private void openCart() {
         Intent intent = new Intent(this, CartActivity.class);
         startActivity(intent);
@@ -412,6 +466,14 @@ public class CustomerHomeActivity extends AppCompatActivity implements OnMapRead
             loadNearbyFoodVans();
         }
     }
+
+    @Override
+    protected void onPause() {
+        super.onPause();
+        if (vanPrefetcher != null) {
+            vanPrefetcher.cancel();
+        }
+    }
     
     // Filter-related methods
     private void initializeFilterManager() {
@@ -466,16 +528,19 @@ public class CustomerHomeActivity extends AppCompatActivity implements OnMapRead
         // Convert FoodVan list to User list for filtering
         List<User> vendorUsers = convertFoodVansToUsers(allVans);
         
-        filterManager.applyFilters(currentFilter, new FilterManager.FilterResultCallback() {
+        // Only the first page is ranked now; the rest as the list scrolls to its end
+        filterManager.applyFilters(currentFilter, FILTER_PAGE_SIZE, new FilterManager.FilterResultCallback() {
             @Override
             public void onFilterResults(List<User> filteredVendors, int totalCount) {
                 runOnUiThread(() -> {
                     // Convert back to FoodVan and update UI
                     List<FoodVan> filteredVans = convertUsersToFoodVans(filteredVendors);
                     updateVansList(filteredVans);
-                    updateMapMarkers(filteredVans);
+                    // Only the list is paged; the map shows every match
+                    updateMapMarkers(convertUsersToFoodVans(filterManager.getMatches()));
+                    pagingFilterResults = true;
                     
-                    String message = filteredVans.size() + " of " + totalCount + " food vans found";
+                    String message = filterManager.getMatchCount() + " of " + totalCount + " food vans found";
                     Toast.makeText(CustomerHomeActivity.this, message, Toast.LENGTH_SHORT).show();
                     
                     Log.d(TAG, "Filters applied: " + message);
@@ -492,10 +557,27 @@ public class CustomerHomeActivity extends AppCompatActivity implements OnMapRead
         });
     }
     
+    private void loadMoreFilteredVans() {
+        if (!pagingFilterResults || !filterManager.hasMoreResults()) {
+            return;
+        }
+        RecyclerView.LayoutManager layoutManager = rvNearbyVans.getLayoutManager();
+        if (!(layoutManager instanceof LinearLayoutManager)
+                || ((LinearLayoutManager) layoutManager).findLastVisibleItemPosition() < nearbyVans.size() - 3) {
+            return;
+        }
+        int start = nearbyVans.size();
+        nearbyVans.addAll(convertUsersToFoodVans(filterManager.nextResults(FILTER_PAGE_SIZE)));
+        foodVanAdapter.notifyItemRangeInserted(start, nearbyVans.size() - start);
+    }
+    
     private void updateVansList(List<FoodVan> filteredVans) {
         nearbyVans.clear();
         nearbyVans.addAll(filteredVans);
         foodVanAdapter.notifyDataSetChanged();
+        if (vanPrefetcher != null) {
+            vanPrefetcher.schedule(nearbyVans);
+        }
     }
     
     private void updateMapMarkers(List<FoodVan> filteredVans) {
@@ -31,7 +31,9 @@ import com.example.foodvan.models.User;
 import com.example.foodvan.services.LocationService;
 import com.example.foodvan.utils.MapStyleUtils;
 import com.example.foodvan.utils.FilterManager;
+import com.example.foodvan.utils.FirebaseMetrics;
 import com.example.foodvan.fragments.FilterBottomSheetFragment;
+import com.example.foodvan.utils.SnapshotMappers;
 import com.google.android.gms.location.FusedLocationProviderClient;
 import com.google.android.gms.location.LocationServices;
 import com.google.android.gms.maps.CameraUpdateFactory;
@@ -83,6 +85,7 @@ public class CustomerMapActivity extends AppCompatActivity implements OnMapReady
     // Firebase
     private DatabaseReference vendorsRef;
     private ValueEventListener vendorsListener;
+    private ValueEventListener trackedVendorsListener;
 
     // Map Data
     private Map<String, Marker> vendorMarkers = new HashMap<>();
@@ -349,8 +352,9 @@ public class CustomerMapActivity extends AppCompatActivity implements OnMapReady
     }
 
     private void startListeningToVendors() {
-        if (vendorsRef != null && vendorsListener != null) {
-            vendorsRef.addValueEventListener(vendorsListener);
+        // Permission callbacks can enable location features more than once; listen only once
+        if (vendorsRef != null && vendorsListener != null && trackedVendorsListener == null) {
+            trackedVendorsListener = FirebaseMetrics.attach("customer_map.vendors", vendorsRef, vendorsListener);
         }
     }
 
@@ -361,7 +365,7 @@ public class CustomerMapActivity extends AppCompatActivity implements OnMapReady
 
         for (DataSnapshot vendorSnapshot : dataSnapshot.getChildren()) {
             try {
-                FoodVan vendor = vendorSnapshot.getValue(FoodVan.class);
+                FoodVan vendor = SnapshotMappers.get(vendorSnapshot, FoodVan.class);
                 if (vendor != null && vendor.isOnline() && vendor.getLatitude() != 0 && vendor.getLongitude() != 0) {
                     addVendorMarker(vendor);
                     nearbyVendors.add(vendor);
@@ -587,8 +591,9 @@ public class CustomerMapActivity extends AppCompatActivity implements OnMapReady
         super.onDestroy();
         
         // Clean up Firebase listeners
-        if (vendorsRef != null && vendorsListener != null) {
-            vendorsRef.removeEventListener(vendorsListener);
+        if (vendorsRef != null && trackedVendorsListener != null) {
+            FirebaseMetrics.detach("customer_map.vendors", vendorsRef, trackedVendorsListener);
+            trackedVendorsListener = null;
         }
         
         // Clean up location services
@@ -26,6 +26,7 @@ import androidx.swiperefreshlayout.widget.SwipeRefreshLayout;
 import com.example.foodvan.R;
 import com.example.foodvan.adapters.FavoriteOrdersAdapter;
 import com.example.foodvan.models.FavoriteOrder;
+import com.example.foodvan.utils.FirebaseListeners;
 import com.example.foodvan.utils.SessionManager;
 import com.google.android.material.appbar.MaterialToolbar;
 import com.google.android.material.button.MaterialButton;
@@ -54,6 +55,8 @@ public class FavoriteOrdersActivity extends AppCompatActivity implements Favorit
 
     private static final String TAG = "FavoriteOrdersActivity";
 
+    private final FirebaseListeners liveListeners = new FirebaseListeners();
+
     // UI Components
     private MaterialToolbar toolbar;
     private SwipeRefreshLayout swipeRefreshLayout;
@@ -260,7 +263,7 @@ public class FavoriteOrdersActivity extends AppCompatActivity implements Favorit
 
         showProgress(true);
         
-        favoritesRef.addValueEventListener(new ValueEventListener() {
+        liveListeners.listen("favorite_orders.favorites", favoritesRef, new ValueEventListener() {
             @Override
             public void onDataChange(@NonNull DataSnapshot snapshot) {
                 allFavorites.clear();
@@ -677,6 +680,7 @@ public class FavoriteOrdersActivity extends AppCompatActivity implements Favorit
     @Override
     protected void onDestroy() {
         super.onDestroy();
+        liveListeners.stopAll();
         if (mainHandler != null) {
             mainHandler.removeCallbacksAndMessages(null);
         }
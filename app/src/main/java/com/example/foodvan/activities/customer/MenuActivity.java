@@ -21,6 +21,8 @@ import com.example.foodvan.models.FoodVan;
 import com.example.foodvan.utils.CartManager;
 import com.example.foodvan.utils.FirebaseManager;
 import com.example.foodvan.utils.FavoritesManager;
+import com.example.foodvan.utils.MenuCatalog;
+import com.example.foodvan.utils.MetricsRegistry;
 import com.google.android.material.floatingactionbutton.FloatingActionButton;
 
 import java.util.ArrayList;
@@ -32,6 +34,9 @@ import java.util.List;
  */
 public class MenuActivity extends AppCompatActivity {
 
+    // MetricsRegistry timer started when the van was tapped, for time-to-menu
+    public static final String EXTRA_OPENED_AT = "opened_at";
+
     private ImageView ivVanImage;
     private TextView tvVanName, tvVanDescription, tvVanRating, tvVanDistance;
     private RecyclerView rvMenuItems;
@@ -47,6 +52,8 @@ public class MenuActivity extends AppCompatActivity {
     private FirebaseManager firebaseManager;
     private CartManager cartManager;
     private FavoritesManager favoritesManager;
+    private long openedAt;
+    private boolean menuShown;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -88,6 +95,7 @@ public class MenuActivity extends AppCompatActivity {
     private void getIntentData() {
         foodVanId = getIntent().getStringExtra("food_van_id");
         foodVanName = getIntent().getStringExtra("food_van_name");
+        openedAt = getIntent().getLongExtra(EXTRA_OPENED_AT, MetricsRegistry.getInstance().startTimer());
         
         if (foodVanName != null) {
             setTitle(foodVanName);
@@ -153,9 +161,18 @@ public class MenuActivity extends AppCompatActivity {
     private void loadMenuItems() {
         if (foodVanId == null) return;
         
-        firebaseManager.getMenuItems(foodVanId, new FirebaseManager.OnMenuItemsLoadListener() {
+        MenuCatalog catalog = MenuCatalog.getInstance(this);
+        // A hit means the menu was already in memory, usually from the home screen's prefetch
+        String timeToMenu = catalog.isCached(MenuCatalog.Source.REALTIME_MENU, foodVanId)
+                ? "menu.time_to_menu.hit" : "menu.time_to_menu.miss";
+        catalog.get(MenuCatalog.Source.REALTIME_MENU, foodVanId,
+                firebaseManager::fetchMenuItems, new MenuCatalog.OnCatalogListener() {
             @Override
             public void onSuccess(List<com.example.foodvan.models.MenuItem> items) {
+                if (!menuShown) {
+                    menuShown = true;
+                    MetricsRegistry.getInstance().stopTimer(timeToMenu, openedAt);
+                }
                 menuItems.clear();
                 menuItems.addAll(items);
                 menuItemAdapter.notifyDataSetChanged();
@@ -165,7 +182,7 @@ public class MenuActivity extends AppCompatActivity {
             }
 
             @Override
-            public void onFailure(String error) {
+            public void onError(String error) {
                 Toast.makeText(MenuActivity.this, 
                     "Error loading menu: " + error, Toast.LENGTH_SHORT).show();
             }
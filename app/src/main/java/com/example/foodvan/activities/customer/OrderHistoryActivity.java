@@ -20,6 +20,10 @@ import android.widget.Toast;
 import androidx.annotation.NonNull;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.appcompat.widget.Toolbar;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.Observer;
+import androidx.paging.LoadState;
+import androidx.paging.PagingData;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 import androidx.swiperefreshlayout.widget.SwipeRefreshLayout;
@@ -27,7 +31,10 @@ import androidx.swiperefreshlayout.widget.SwipeRefreshLayout;
 import com.example.foodvan.R;
 import com.example.foodvan.activities.customer.CustomerHomeActivity;
 import com.example.foodvan.adapters.OrderHistoryAdapter;
+import com.example.foodvan.adapters.OrderHistoryPagingAdapter;
 import com.example.foodvan.models.Order;
+import com.example.foodvan.repositories.OrderRepository;
+import com.example.foodvan.utils.OrderHistoryQuery;
 import com.example.foodvan.utils.SessionManager;
 import com.google.android.material.button.MaterialButton;
 import com.google.android.material.card.MaterialCardView;
@@ -36,16 +43,8 @@ import com.google.android.material.chip.ChipGroup;
 import com.google.android.material.progressindicator.LinearProgressIndicator;
 import com.google.android.material.snackbar.Snackbar;
 import com.google.android.material.textfield.TextInputEditText;
-import com.google.firebase.database.DataSnapshot;
-import com.google.firebase.database.DatabaseError;
-import com.google.firebase.database.DatabaseReference;
-import com.google.firebase.database.FirebaseDatabase;
-import com.google.firebase.database.Query;
-import com.google.firebase.database.ValueEventListener;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
+import kotlin.Unit;
 
 /**
  * OrderHistoryActivity - Comprehensive order history management
@@ -54,6 +53,7 @@ import java.util.List;
 public class OrderHistoryActivity extends AppCompatActivity implements OrderHistoryAdapter.OnOrderActionListener {
 
     private static final String TAG = "OrderHistoryActivity";
+    private static final long SEARCH_DEBOUNCE_MS = 300;
 
     // UI Components
     private Toolbar toolbar;
@@ -74,11 +74,14 @@ public class OrderHistoryActivity extends AppCompatActivity implements OrderHist
 
     // Data & Services
     private SessionManager sessionManager;
-    private DatabaseReference ordersRef;
-    private OrderHistoryAdapter adapter;
-    private List<Order> allOrders;
-    private List<Order> filteredOrders;
-    private String currentFilter = "ALL";
+    private OrderRepository orderRepository;
+    private OrderHistoryPagingAdapter adapter;
+    private LiveData<PagingData<Order>> historyLiveData;
+    private final Observer<PagingData<Order>> historyObserver =
+            pagingData -> adapter.submitData(getLifecycle(), pagingData);
+    private final Runnable searchRunnable = this::observeOrderHistory;
+    private boolean reachedRemoteEnd = false;
+    private String currentFilter = OrderHistoryQuery.FILTER_ALL;
     private String currentSearchQuery = "";
 
     @Override
@@ -99,17 +102,7 @@ public class OrderHistoryActivity extends AppCompatActivity implements OrderHist
     private void initializeServices() {
         sessionManager = new SessionManager(this);
         mainHandler = new Handler(Looper.getMainLooper());
-        
-        // Initialize Firebase reference
-        String userId = sessionManager.getUserId();
-        if (userId != null) {
-            ordersRef = FirebaseDatabase.getInstance()
-                    .getReference("orders")
-                    .child(userId);
-        }
-        
-        allOrders = new ArrayList<>();
-        filteredOrders = new ArrayList<>();
+        orderRepository = new OrderRepository(this);
     }
 
     private void initializeViews() {
@@ -164,9 +157,20 @@ public class OrderHistoryActivity extends AppCompatActivity implements OrderHist
             Log.e(TAG, "RecyclerView is null, cannot setup");
             return;
         }
-        adapter = new OrderHistoryAdapter(this, filteredOrders, this);
+        adapter = new OrderHistoryPagingAdapter(this);
         rvOrders.setLayoutManager(new LinearLayoutManager(this));
         rvOrders.setAdapter(adapter);
+        
+        adapter.addLoadStateListener(loadStates -> {
+            if (loadStates.getRefresh() instanceof LoadState.NotLoading) {
+                updateUI();
+            }
+            // The cache has been scrolled to its end, so fetch the next older page from Firestore
+            if (loadStates.getAppend().getEndOfPaginationReached() && !reachedRemoteEnd) {
+                loadOlderOrders();
+            }
+            return Unit.INSTANCE;
+        });
     }
 
     private void setupClickListeners() {
@@ -234,7 +238,8 @@ public class OrderHistoryActivity extends AppCompatActivity implements OrderHist
                     @Override
                     public void afterTextChanged(Editable s) {
                         currentSearchQuery = s.toString().trim();
-                        applyFiltersAndSearch();
+                        mainHandler.removeCallbacks(searchRunnable);
+                        mainHandler.postDelayed(searchRunnable, SEARCH_DEBOUNCE_MS);
                     }
                 });
             }
@@ -245,16 +250,16 @@ public class OrderHistoryActivity extends AppCompatActivity implements OrderHist
                     if (!checkedIds.isEmpty()) {
                         int checkedId = checkedIds.get(0);
                         if (checkedId == R.id.chip_all) {
-                            currentFilter = "ALL";
+                            currentFilter = OrderHistoryQuery.FILTER_ALL;
                         } else if (checkedId == R.id.chip_delivered) {
-                            currentFilter = "DELIVERED";
+                            currentFilter = OrderHistoryQuery.FILTER_DELIVERED;
                         } else if (checkedId == R.id.chip_cancelled) {
-                            currentFilter = "CANCELLED";
+                            currentFilter = OrderHistoryQuery.FILTER_CANCELLED;
                         }
                         // Commented out chip_ongoing as it doesn't exist in layout
                         // } else if (checkedId == R.id.chip_ongoing) {
                         //     currentFilter = "ONGOING";
-                        applyFiltersAndSearch();
+                        observeOrderHistory();
                     }
                 });
             }
@@ -263,115 +268,78 @@ public class OrderHistoryActivity extends AppCompatActivity implements OrderHist
         }
     }
 
+    /**
+     * Shows the cached history immediately, then fetches only orders newer than the cache.
+     */
     private void loadOrderHistory() {
-        if (ordersRef == null) {
+        if (sessionManager.getUserId() == null) {
             Log.w(TAG, "User not logged in, showing empty state");
             showEmptyState();
             return;
         }
 
+        if (historyLiveData == null) {
+            observeOrderHistory();
+        }
         showProgress(true);
         
-        // Query orders ordered by timestamp (most recent first)
-        Query query = ordersRef.orderByChild("orderTime");
-        
-        query.addValueEventListener(new ValueEventListener() {
+        orderRepository.syncCustomerOrders(new OrderRepository.OnSyncListener() {
             @Override
-            public void onDataChange(@NonNull DataSnapshot snapshot) {
-                allOrders.clear();
-                
-                for (DataSnapshot orderSnapshot : snapshot.getChildren()) {
-                    Order order = orderSnapshot.getValue(Order.class);
-                    if (order != null) {
-                        allOrders.add(order);
-                    }
-                }
-                
-                // Sort by order time (most recent first)
-                Collections.sort(allOrders, (o1, o2) -> 
-                    Long.compare(o2.getOrderTime(), o1.getOrderTime()));
-                
-                applyFiltersAndSearch();
-                showProgress(false);
-                
-                // Stop swipe refresh if active
-                if (swipeRefreshLayout != null) {
-                    swipeRefreshLayout.setRefreshing(false);
-                }
+            public void onSuccess(int ordersFetched, boolean reachedEnd) {
+                reachedRemoteEnd = reachedEnd;
+                stopLoadingIndicators();
             }
 
             @Override
-            public void onCancelled(@NonNull DatabaseError error) {
-                Log.e(TAG, "Failed to load order history", error.toException());
-                showProgress(false);
-                
-                // Stop swipe refresh if active
-                if (swipeRefreshLayout != null) {
-                    swipeRefreshLayout.setRefreshing(false);
-                }
-                
-                showError("Failed to load order history: " + error.getMessage());
+            public void onError(String error) {
+                Log.e(TAG, "Failed to sync order history: " + error);
+                stopLoadingIndicators();
+                showError(error);
             }
         });
     }
 
-    private void applyFiltersAndSearch() {
-        filteredOrders.clear();
-        
-        for (Order order : allOrders) {
-            boolean matchesFilter = false;
-            boolean matchesSearch = false;
-            
-            // Apply status filter
-            switch (currentFilter) {
-                case "ALL":
-                    matchesFilter = true;
-                    break;
-                case "DELIVERED":
-                    matchesFilter = "DELIVERED".equals(order.getStatus());
-                    break;
-                case "ONGOING":
-                    matchesFilter = isOngoingOrder(order.getStatus());
-                    break;
-                case "CANCELLED":
-                    matchesFilter = "CANCELLED".equals(order.getStatus());
-                    break;
-            }
-            
-            // Apply search filter
-            if (currentSearchQuery.isEmpty()) {
-                matchesSearch = true;
-            } else {
-                String query = currentSearchQuery.toLowerCase();
-                matchesSearch = (order.getOrderId() != null && order.getOrderId().toLowerCase().contains(query)) ||
-                               (order.getVanName() != null && order.getVanName().toLowerCase().contains(query));
+    private void loadOlderOrders() {
+        orderRepository.loadOlderCustomerOrders(new OrderRepository.OnSyncListener() {
+            @Override
+            public void onSuccess(int ordersFetched, boolean reachedEnd) {
+                reachedRemoteEnd = reachedEnd;
             }
-            
-            if (matchesFilter && matchesSearch) {
-                filteredOrders.add(order);
+
+            @Override
+            public void onError(String error) {
+                Log.e(TAG, "Failed to load older orders: " + error);
             }
+        });
+    }
+
+    /**
+     * (Re)subscribes the list to the local query for the current filter and search text.
+     */
+    private void observeOrderHistory() {
+        if (historyLiveData != null) {
+            historyLiveData.removeObserver(historyObserver);
         }
-        
-        updateUI();
+        historyLiveData = orderRepository.getCustomerOrderHistory(currentFilter, currentSearchQuery);
+        historyLiveData.observe(this, historyObserver);
     }
 
-    private boolean isOngoingOrder(String status) {
-        return "PLACED".equals(status) || 
-               "CONFIRMED".equals(status) || 
-               "PREPARING".equals(status) || 
-               "READY".equals(status);
+    private void stopLoadingIndicators() {
+        showProgress(false);
+        if (swipeRefreshLayout != null) {
+            swipeRefreshLayout.setRefreshing(false);
+        }
     }
 
     private void updateUI() {
-        if (filteredOrders.isEmpty()) {
-            if (allOrders.isEmpty()) {
+        if (adapter.getItemCount() == 0) {
+            if (OrderHistoryQuery.FILTER_ALL.equals(currentFilter) && currentSearchQuery.isEmpty()) {
                 showEmptyState();
             } else {
                 showNoResultsState();
             }
         } else {
             hideEmptyState();
-            adapter.notifyDataSetChanged();
         }
     }
 
@@ -498,7 +466,7 @@ public class OrderHistoryActivity extends AppCompatActivity implements OrderHist
     // @Override
     public void onTrackOrderClicked(Order order) {
         // Navigate to order tracking
-        if (isOngoingOrder(order.getStatus())) {
+        if (OrderHistoryQuery.ONGOING_STATUSES.contains(order.getStatus())) {
             // TODO: Navigate to order tracking activity
             Toast.makeText(this, "Order tracking will be implemented", Toast.LENGTH_SHORT).show();
         } else {
@@ -528,15 +496,6 @@ public class OrderHistoryActivity extends AppCompatActivity implements OrderHist
         }
     }
 
-    @Override
-    protected void onResume() {
-        super.onResume();
-        // Refresh data when returning to activity
-        if (!allOrders.isEmpty()) {
-            applyFiltersAndSearch();
-        }
-    }
-
     // Animation Methods
     private void animateEmptyStateIn() {
         if (cardEmptyState == null) return;
@@ -655,7 +614,7 @@ public class OrderHistoryActivity extends AppCompatActivity implements OrderHist
     
     private void updateEmptyStateContent() {
         if (tvEmptyTitle != null && tvEmptyMessage != null) {
-            if ("ALL".equals(currentFilter)) {
+            if (OrderHistoryQuery.FILTER_ALL.equals(currentFilter)) {
                 tvEmptyTitle.setText("No Orders Yet");
                 tvEmptyMessage.setText("Your order history will appear here once you place your first order");
             } else {
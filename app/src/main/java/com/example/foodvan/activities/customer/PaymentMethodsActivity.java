@@ -16,6 +16,7 @@ import androidx.recyclerview.widget.RecyclerView;
 import com.example.foodvan.R;
 import com.example.foodvan.adapters.PaymentMethodsAdapter;
 import com.example.foodvan.models.PaymentMethod;
+import com.example.foodvan.utils.FirebaseListeners;
 import com.example.foodvan.utils.SessionManager;
 import com.google.android.material.card.MaterialCardView;
 import com.google.android.material.floatingactionbutton.FloatingActionButton;
@@ -38,6 +39,8 @@ public class PaymentMethodsActivity extends AppCompatActivity implements Payment
 
     private static final String TAG = "PaymentMethodsActivity";
 
+    private final FirebaseListeners liveListeners = new FirebaseListeners();
+
     // UI Components
     private Toolbar toolbar;
     private TextView tvPaymentCount;
@@ -122,7 +125,7 @@ public class PaymentMethodsActivity extends AppCompatActivity implements Payment
 
         showProgress(true);
         
-        paymentMethodsRef.addValueEventListener(new ValueEventListener() {
+        liveListeners.listen("payment_methods.methods", paymentMethodsRef, new ValueEventListener() {
             @Override
             public void onDataChange(@NonNull DataSnapshot snapshot) {
                 paymentMethods.clear();
@@ -350,6 +353,7 @@ public class PaymentMethodsActivity extends AppCompatActivity implements Payment
     @Override
     protected void onDestroy() {
         super.onDestroy();
+        liveListeners.stopAll();
         if (paymentMethodDialog != null) {
             paymentMethodDialog.dismiss();
         }
@@ -29,6 +29,7 @@ import androidx.swiperefreshlayout.widget.SwipeRefreshLayout;
 import com.example.foodvan.R;
 import com.example.foodvan.models.Review;
 import com.example.foodvan.models.Vendor;
+import com.example.foodvan.utils.FirebaseListeners;
 import com.example.foodvan.utils.ReviewsManager;
 import com.example.foodvan.utils.SessionManager;
 import com.google.android.material.appbar.MaterialToolbar;
@@ -62,7 +63,9 @@ import java.util.Locale;
 public class ReviewsRatingsMainActivity extends AppCompatActivity {
 
     private static final String TAG = "ReviewsRatingsMain";
-    
+
+    private final FirebaseListeners liveListeners = new FirebaseListeners();
+
     // UI Components
     private MaterialToolbar toolbar;
     private SwipeRefreshLayout swipeRefresh;
@@ -284,7 +287,7 @@ public class ReviewsRatingsMainActivity extends AppCompatActivity {
             .child("user_reviews")
             .child(userId);
             
-        reviewsRef.addValueEventListener(new ValueEventListener() {
+        liveListeners.listen("reviews_ratings.reviews", reviewsRef, new ValueEventListener() {
             @Override
             public void onDataChange(@NonNull DataSnapshot snapshot) {
                 allReviews.clear();
@@ -713,4 +716,10 @@ public class ReviewsRatingsMainActivity extends AppCompatActivity {
             }
         }
     }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        liveListeners.stopAll();
+    }
 }
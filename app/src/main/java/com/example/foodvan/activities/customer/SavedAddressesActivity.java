@@ -15,6 +15,7 @@ import androidx.recyclerview.widget.RecyclerView;
 import com.example.foodvan.R;
 import com.example.foodvan.adapters.SavedAddressesAdapter;
 import com.example.foodvan.models.Address;
+import com.example.foodvan.utils.FirebaseListeners;
 import com.example.foodvan.utils.FirebaseManager;
 import com.example.foodvan.utils.SessionManager;
 import com.google.android.material.card.MaterialCardView;
@@ -53,6 +54,8 @@ public class SavedAddressesActivity extends AppCompatActivity implements SavedAd
 
     private static final String TAG = "SavedAddressesActivity";
 
+    private final FirebaseListeners liveListeners = new FirebaseListeners();
+
     // UI Components
     private Toolbar toolbar;
     private TextView tvAddressCount;
@@ -159,7 +162,7 @@ public class SavedAddressesActivity extends AppCompatActivity implements SavedAd
 
         showProgress(true);
         
-        addressesRef.addValueEventListener(new ValueEventListener() {
+        liveListeners.listen("saved_addresses.addresses", addressesRef, new ValueEventListener() {
             @Override
             public void onDataChange(@NonNull DataSnapshot snapshot) {
                 addressesList.clear();
@@ -636,6 +639,7 @@ public class SavedAddressesActivity extends AppCompatActivity implements SavedAd
     @Override
     protected void onDestroy() {
         super.onDestroy();
+        liveListeners.stopAll();
         if (addEditDialog != null && addEditDialog.isShowing()) {
             addEditDialog.dismiss();
         }
@@ -10,8 +10,10 @@ import androidx.annotation.NonNull;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.bumptech.glide.Glide;
+import com.bumptech.glide.load.resource.bitmap.CenterCrop;
 import com.bumptech.glide.load.resource.bitmap.RoundedCorners;
 import com.example.foodvan.R;
+import com.example.foodvan.utils.ImageLoader;
 import com.google.android.material.button.MaterialButton;
 import com.google.android.material.card.MaterialCardView;
 
@@ -22,6 +24,9 @@ import java.util.List;
  */
 public class AttachmentAdapter extends RecyclerView.Adapter<AttachmentAdapter.AttachmentViewHolder> {
 
+    // Matches card_attachment in item_attachment.xml
+    private static final int IMAGE_SIZE_DP = 80;
+
     private final List<Uri> attachmentUris;
     private final OnAttachmentClickListener clickListener;
 
@@ -69,11 +74,14 @@ public class AttachmentAdapter extends RecyclerView.Adapter<AttachmentAdapter.At
 
         public void bind(Uri uri, int position) {
             // Load image thumbnail using Glide
+            // Decode at tile size rather than the full camera resolution
+            int sizePx = ImageLoader.dpToPx(itemView.getContext(), IMAGE_SIZE_DP);
             Glide.with(itemView.getContext())
                 .load(uri)
+                .override(sizePx, sizePx)
                 .placeholder(R.drawable.ic_image_placeholder)
                 .error(R.drawable.ic_image_error)
-                .transform(new RoundedCorners(12))
+                .transform(new CenterCrop(), new RoundedCorners(12))
                 .into(ivThumbnail);
             
             // Set click listeners
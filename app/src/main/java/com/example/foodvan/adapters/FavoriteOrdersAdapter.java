@@ -16,10 +16,12 @@ import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.bumptech.glide.Glide;
+import com.bumptech.glide.load.resource.bitmap.CenterCrop;
 import com.bumptech.glide.load.resource.bitmap.RoundedCorners;
 import com.bumptech.glide.request.RequestOptions;
 import com.example.foodvan.R;
 import com.example.foodvan.models.FavoriteOrder;
+import com.example.foodvan.utils.ImageLoader;
 import com.google.android.material.button.MaterialButton;
 import com.google.android.material.card.MaterialCardView;
 import com.google.android.material.checkbox.MaterialCheckBox;
@@ -32,7 +34,11 @@ import java.util.List;
  */
 public class FavoriteOrdersAdapter extends RecyclerView.Adapter<FavoriteOrdersAdapter.FavoriteViewHolder> {
 
+    // Matches card_image in item_favorite_order.xml
+    private static final int IMAGE_SIZE_DP = 80;
+
     private Context context;
+    private final int imageSizePx;
     private List<FavoriteOrder> favoriteOrders;
     private List<FavoriteOrder> selectedItems;
     private OnFavoriteActionListener listener;
@@ -51,6 +57,7 @@ public class FavoriteOrdersAdapter extends RecyclerView.Adapter<FavoriteOrdersAd
         this.favoriteOrders = favoriteOrders != null ? favoriteOrders : new ArrayList<>();
         this.selectedItems = new ArrayList<>();
         this.listener = listener;
+        this.imageSizePx = ImageLoader.dpToPx(context, IMAGE_SIZE_DP);
     }
 
     @NonNull
@@ -189,12 +196,11 @@ public class FavoriteOrdersAdapter extends RecyclerView.Adapter<FavoriteOrdersAd
             
             // Load image with Glide
             if (favorite.getImageUrl() != null && !favorite.getImageUrl().isEmpty()) {
-                Glide.with(context)
-                    .load(favorite.getImageUrl())
+                ImageLoader.request(Glide.with(context), favorite.getImageUrl(), imageSizePx, imageSizePx)
                     .apply(new RequestOptions()
                         .placeholder(R.drawable.placeholder_food_item)
                         .error(R.drawable.placeholder_food_item)
-                        .transform(new RoundedCorners(24)))
+                        .transform(new CenterCrop(), new RoundedCorners(24)))
                     .into(ivItemImage);
             } else {
                 ivItemImage.setImageResource(R.drawable.placeholder_food_item);
@@ -9,9 +9,9 @@ import android.widget.TextView;
 import androidx.annotation.NonNull;
 import androidx.recyclerview.widget.RecyclerView;
 
-import com.bumptech.glide.Glide;
 import com.example.foodvan.R;
 import com.example.foodvan.models.MenuItem;
+import com.example.foodvan.utils.ImageLoader;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -21,6 +21,9 @@ import java.util.List;
  */
 public class FilterPreviewAdapter extends RecyclerView.Adapter<FilterPreviewAdapter.PreviewViewHolder> {
     
+    // Preview cards in item_filter_preview.xml are 80dp square
+    private static final int IMAGE_SIZE_DP = 80;
+    
     private List<MenuItem> items = new ArrayList<>();
     
     public void setItems(List<MenuItem> items) {
@@ -62,17 +65,10 @@ public class FilterPreviewAdapter extends RecyclerView.Adapter<FilterPreviewAdap
             // Set item name
             tvPreviewName.setText(item.getName());
             
-            // Load item image
-            if (item.getImageUrl() != null && !item.getImageUrl().isEmpty()) {
-                Glide.with(itemView.getContext())
-                        .load(item.getImageUrl())
-                        .placeholder(R.drawable.ic_fastfood)
-                        .error(R.drawable.ic_fastfood)
-                        .centerCrop()
-                        .into(ivPreviewItem);
-            } else {
-                ivPreviewItem.setImageResource(R.drawable.ic_fastfood);
-            }
+            // Load item thumbnail at preview size
+            int sizePx = ImageLoader.dpToPx(itemView.getContext(), IMAGE_SIZE_DP);
+            ImageLoader.load(ivPreviewItem, item.getImageUrl(), item.getThumbnailUrl(),
+                    sizePx, sizePx, R.drawable.ic_fastfood);
         }
     }
 }
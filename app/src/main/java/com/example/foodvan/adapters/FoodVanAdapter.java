@@ -1,5 +1,6 @@
 package com.example.foodvan.adapters;
 
+import android.content.Context;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -9,19 +10,34 @@ import android.widget.TextView;
 import androidx.annotation.NonNull;
 import androidx.recyclerview.widget.RecyclerView;
 
-import com.bumptech.glide.Glide;
+import com.bumptech.glide.ListPreloader;
+import com.bumptech.glide.RequestBuilder;
+import com.bumptech.glide.RequestManager;
+import com.bumptech.glide.integration.recyclerview.RecyclerViewPreloader;
+import com.bumptech.glide.util.FixedPreloadSizeProvider;
 import com.example.foodvan.R;
 import com.example.foodvan.models.FoodVan;
+import com.example.foodvan.utils.ImageLoader;
 
+import java.util.Collections;
 import java.util.List;
 
 /**
  * FoodVanAdapter - RecyclerView adapter for displaying food vans
  */
-public class FoodVanAdapter extends RecyclerView.Adapter<FoodVanAdapter.FoodVanViewHolder> {
+public class FoodVanAdapter extends RecyclerView.Adapter<FoodVanAdapter.FoodVanViewHolder>
+        implements ListPreloader.PreloadModelProvider<FoodVan> {
+
+    // Matches iv_van_image in item_food_van.xml
+    private static final int IMAGE_WIDTH_DP = 280;
+    private static final int IMAGE_HEIGHT_DP = 160;
+    private static final int MAX_PRELOAD = 4;
 
     private List<FoodVan> foodVans;
     private OnFoodVanClickListener clickListener;
+    private RequestManager preloadGlide;
+    private int imageWidthPx;
+    private int imageHeightPx;
 
     public interface OnFoodVanClickListener {
         void onFoodVanClick(FoodVan foodVan);
@@ -35,6 +51,10 @@ public class FoodVanAdapter extends RecyclerView.Adapter<FoodVanAdapter.FoodVanV
     @NonNull
     @Override
     public FoodVanViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        if (imageWidthPx == 0) {
+            imageWidthPx = ImageLoader.dpToPx(parent.getContext(), IMAGE_WIDTH_DP);
+            imageHeightPx = ImageLoader.dpToPx(parent.getContext(), IMAGE_HEIGHT_DP);
+        }
         View view = LayoutInflater.from(parent.getContext())
                 .inflate(R.layout.item_food_van, parent, false);
         return new FoodVanViewHolder(view);
@@ -56,6 +76,35 @@ public class FoodVanAdapter extends RecyclerView.Adapter<FoodVanAdapter.FoodVanV
         notifyDataSetChanged();
     }
 
+    /**
+     * Scroll listener that warms van images a few cards ahead of the visible ones.
+     */
+    public RecyclerViewPreloader<FoodVan> createPreloader(Context context, RequestManager glide) {
+        this.preloadGlide = glide;
+        this.imageWidthPx = ImageLoader.dpToPx(context, IMAGE_WIDTH_DP);
+        this.imageHeightPx = ImageLoader.dpToPx(context, IMAGE_HEIGHT_DP);
+        return new RecyclerViewPreloader<>(glide, this,
+                new FixedPreloadSizeProvider<>(imageWidthPx, imageHeightPx), MAX_PRELOAD);
+    }
+
+    @NonNull
+    @Override
+    public List<FoodVan> getPreloadItems(int position) {
+        if (foodVans == null || position >= foodVans.size()) {
+            return Collections.emptyList();
+        }
+        FoodVan foodVan = foodVans.get(position);
+        if (foodVan.getImageUrl() == null || foodVan.getImageUrl().isEmpty()) {
+            return Collections.emptyList();
+        }
+        return Collections.singletonList(foodVan);
+    }
+
+    @Override
+    public RequestBuilder<?> getPreloadRequestBuilder(@NonNull FoodVan foodVan) {
+        return ImageLoader.request(preloadGlide, foodVan.getImageUrl(), imageWidthPx, imageHeightPx);
+    }
+
     class FoodVanViewHolder extends RecyclerView.ViewHolder {
         private ImageView ivVanImage;
         private TextView tvVanName;
@@ -111,16 +160,9 @@ public class FoodVanAdapter extends RecyclerView.Adapter<FoodVanAdapter.FoodVanV
                 statusIndicator.setBackgroundColor(itemView.getContext().getResources().getColor(android.R.color.holo_red_dark));
             }
 
-            // Load van image
-            if (foodVan.getImageUrl() != null && !foodVan.getImageUrl().isEmpty()) {
-                Glide.with(itemView.getContext())
-                        .load(foodVan.getImageUrl())
-                        .placeholder(R.drawable.placeholder_food_van)
-                        .error(R.drawable.placeholder_food_van)
-                        .into(ivVanImage);
-            } else {
-                ivVanImage.setImageResource(R.drawable.placeholder_food_van);
-            }
+            // Load van image at card size
+            ImageLoader.load(ivVanImage, foodVan.getImageUrl(), null,
+                    imageWidthPx, imageHeightPx, R.drawable.placeholder_food_van);
         }
     }
 }
@@ -10,22 +10,36 @@ import androidx.annotation.NonNull;
 import androidx.core.content.ContextCompat;
 import androidx.recyclerview.widget.RecyclerView;
 
-import com.bumptech.glide.Glide;
+import com.bumptech.glide.ListPreloader;
+import com.bumptech.glide.RequestBuilder;
+import com.bumptech.glide.RequestManager;
+import com.bumptech.glide.integration.recyclerview.RecyclerViewPreloader;
+import com.bumptech.glide.util.FixedPreloadSizeProvider;
 import com.example.foodvan.R;
 import com.example.foodvan.models.MenuItem;
+import com.example.foodvan.utils.ImageLoader;
+import com.example.foodvan.utils.ThumbnailUrlResolver;
 import com.google.android.material.button.MaterialButton;
 import com.google.android.material.checkbox.MaterialCheckBox;
 import com.google.android.material.imageview.ShapeableImageView;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
 
-public class ManageMenuAdapter extends RecyclerView.Adapter<ManageMenuAdapter.MenuItemViewHolder> {
+public class ManageMenuAdapter extends RecyclerView.Adapter<ManageMenuAdapter.MenuItemViewHolder>
+        implements ListPreloader.PreloadModelProvider<String> {
+
+    // Matches food_image in item_manage_menu.xml
+    private static final int IMAGE_SIZE_DP = 80;
+    private static final int MAX_PRELOAD = 10;
 
     private Context context;
+    private final int imageSizePx;
     private List<MenuItem> menuItems;
     private OnMenuItemActionListener listener;
+    private RequestManager preloadGlide;
     private boolean isSelectionMode = false;
     private List<MenuItem> selectedItems = new ArrayList<>();
 
@@ -40,6 +54,33 @@ public class ManageMenuAdapter extends RecyclerView.Adapter<ManageMenuAdapter.Me
         this.context = context;
         this.menuItems = menuItems;
         this.listener = listener;
+        this.imageSizePx = ImageLoader.dpToPx(context, IMAGE_SIZE_DP);
+    }
+
+    /**
+     * Scroll listener that warms the thumbnails of the next rows before they are bound.
+     */
+    public RecyclerViewPreloader<String> createPreloader(RequestManager glide) {
+        this.preloadGlide = glide;
+        return new RecyclerViewPreloader<>(glide, this,
+                new FixedPreloadSizeProvider<>(imageSizePx, imageSizePx), MAX_PRELOAD);
+    }
+
+    @NonNull
+    @Override
+    public List<String> getPreloadItems(int position) {
+        if (position >= menuItems.size()) {
+            return Collections.emptyList();
+        }
+        MenuItem item = menuItems.get(position);
+        String url = ThumbnailUrlResolver.resolve(item.getImageUrl(), item.getThumbnailUrl(),
+                imageSizePx, imageSizePx);
+        return url == null || url.isEmpty() ? Collections.emptyList() : Collections.singletonList(url);
+    }
+
+    @Override
+    public RequestBuilder<?> getPreloadRequestBuilder(@NonNull String url) {
+        return ImageLoader.request(preloadGlide, url, imageSizePx, imageSizePx);
     }
 
     @NonNull
@@ -140,17 +181,9 @@ public class ManageMenuAdapter extends RecyclerView.Adapter<ManageMenuAdapter.Me
                 availabilityStatus.setTextColor(ContextCompat.getColor(context, R.color.white));
             }
 
-            // Load image
-            if (menuItem.getImageUrl() != null && !menuItem.getImageUrl().isEmpty()) {
-                Glide.with(context)
-                        .load(menuItem.getImageUrl())
-                        .placeholder(R.drawable.ic_add_photo_placeholder)
-                        .error(R.drawable.ic_add_photo_placeholder)
-                        .centerCrop()
-                        .into(foodImage);
-            } else {
-                foodImage.setImageResource(R.drawable.ic_add_photo_placeholder);
-            }
+            // Load thumbnail at row size
+            ImageLoader.load(foodImage, menuItem.getImageUrl(), menuItem.getThumbnailUrl(),
+                    imageSizePx, imageSizePx, R.drawable.ic_add_photo_placeholder);
 
             // Adjust UI based on availability
             float alpha = menuItem.isAvailable() ? 1.0f : 0.6f;
@@ -10,9 +10,9 @@ import android.widget.TextView;
 import androidx.annotation.NonNull;
 import androidx.recyclerview.widget.RecyclerView;
 
-import com.bumptech.glide.Glide;
 import com.example.foodvan.R;
 import com.example.foodvan.models.MenuItem;
+import com.example.foodvan.utils.ImageLoader;
 
 import java.util.List;
 
@@ -21,8 +21,12 @@ import java.util.List;
  */
 public class MenuItemAdapter extends RecyclerView.Adapter<MenuItemAdapter.MenuItemViewHolder> {
 
+    // Matches iv_item_image in item_menu_item.xml; prefetched thumbnails use the same size
+    public static final int IMAGE_SIZE_DP = 80;
+
     private List<MenuItem> menuItems;
     private OnMenuItemClickListener clickListener;
+    private int imageSizePx;
 
     public interface OnMenuItemClickListener {
         void onAddToCart(MenuItem item);
@@ -38,6 +42,9 @@ public class MenuItemAdapter extends RecyclerView.Adapter<MenuItemAdapter.MenuIt
     @NonNull
     @Override
     public MenuItemViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        if (imageSizePx == 0) {
+            imageSizePx = ImageLoader.dpToPx(parent.getContext(), IMAGE_SIZE_DP);
+        }
         View view = LayoutInflater.from(parent.getContext())
                 .inflate(R.layout.item_menu_item, parent, false);
         return new MenuItemViewHolder(view);
@@ -181,15 +188,8 @@ public class MenuItemAdapter extends RecyclerView.Adapter<MenuItemAdapter.MenuIt
             }
 
             // Load item image
-            if (menuItem.getImageUrl() != null && !menuItem.getImageUrl().isEmpty()) {
-                Glide.with(itemView.getContext())
-                        .load(menuItem.getImageUrl())
-                        .placeholder(R.drawable.placeholder_food_item)
-                        .error(R.drawable.placeholder_food_item)
-                        .into(ivItemImage);
-            } else {
-                ivItemImage.setImageResource(R.drawable.placeholder_food_item);
-            }
+            ImageLoader.load(ivItemImage, menuItem.getImageUrl(), menuItem.getThumbnailUrl(),
+                    imageSizePx, imageSizePx, R.drawable.placeholder_food_item);
         }
     }
 }
@@ -45,7 +45,7 @@ public class OrderHistoryAdapter extends RecyclerView.Adapter<OrderHistoryAdapte
     @Override
     public OrderViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
         View view = LayoutInflater.from(context).inflate(R.layout.item_order_history, parent, false);
-        return new OrderViewHolder(view);
+        return new OrderViewHolder(view, listener);
     }
 
     @Override
@@ -59,8 +59,14 @@ public class OrderHistoryAdapter extends RecyclerView.Adapter<OrderHistoryAdapte
         return orders.size();
     }
 
-    class OrderViewHolder extends RecyclerView.ViewHolder {
+    /**
+     * Shared with OrderHistoryPagingAdapter, so it only depends on the order it was bound to.
+     */
+    static class OrderViewHolder extends RecyclerView.ViewHolder {
         
+        private final OnOrderActionListener listener;
+        private Order boundOrder;
+
         private TextView tvOrderId;
         private TextView tvOrderStatus;
         private TextView tvCustomerName;
@@ -69,8 +75,9 @@ public class OrderHistoryAdapter extends RecyclerView.Adapter<OrderHistoryAdapte
         private TextView tvOrderTotal;
         private MaterialButton btnViewDetails;
 
-        public OrderViewHolder(@NonNull View itemView) {
+        public OrderViewHolder(@NonNull View itemView, OnOrderActionListener listener) {
             super(itemView);
+            this.listener = listener;
             
             // Initialize views based on our professional layout
             tvOrderId = itemView.findViewById(R.id.tv_order_id);
@@ -86,16 +93,15 @@ public class OrderHistoryAdapter extends RecyclerView.Adapter<OrderHistoryAdapte
 
         private void setupClickListeners() {
             btnViewDetails.setOnClickListener(v -> {
-                if (listener != null) {
-                    int position = getAdapterPosition();
-                    if (position != RecyclerView.NO_POSITION) {
-                        listener.onViewOrderDetails(orders.get(position));
-                    }
+                if (listener != null && boundOrder != null) {
+                    listener.onViewOrderDetails(boundOrder);
                 }
             });
         }
 
         public void bind(Order order) {
+            boundOrder = order;
+            
             // Set Order ID
             tvOrderId.setText("#" + (order.getId() != null ? order.getId() : "ORD" + System.currentTimeMillis()));
             
@@ -0,0 +1,58 @@
+package com.example.foodvan.adapters;
+
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+
+import androidx.annotation.NonNull;
+import androidx.paging.PagingDataAdapter;
+import androidx.recyclerview.widget.DiffUtil;
+
+import com.example.foodvan.R;
+import com.example.foodvan.models.Order;
+
+import java.util.Objects;
+
+/**
+ * Paged variant of OrderHistoryAdapter for histories served from the local order cache
+ */
+public class OrderHistoryPagingAdapter extends PagingDataAdapter<Order, OrderHistoryAdapter.OrderViewHolder> {
+
+    private static final DiffUtil.ItemCallback<Order> DIFF_CALLBACK = new DiffUtil.ItemCallback<Order>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull Order oldItem, @NonNull Order newItem) {
+            return Objects.equals(oldItem.getOrderId(), newItem.getOrderId());
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull Order oldItem, @NonNull Order newItem) {
+            return Objects.equals(oldItem.getStatus(), newItem.getStatus())
+                    && Objects.equals(oldItem.getPaymentStatus(), newItem.getPaymentStatus())
+                    && Objects.equals(oldItem.getCustomerName(), newItem.getCustomerName())
+                    && oldItem.getOrderTime() == newItem.getOrderTime()
+                    && oldItem.getTotalAmount() == newItem.getTotalAmount();
+        }
+    };
+
+    private final OrderHistoryAdapter.OnOrderActionListener listener;
+
+    public OrderHistoryPagingAdapter(OrderHistoryAdapter.OnOrderActionListener listener) {
+        super(DIFF_CALLBACK);
+        this.listener = listener;
+    }
+
+    @NonNull
+    @Override
+    public OrderHistoryAdapter.OrderViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        View view = LayoutInflater.from(parent.getContext()).inflate(R.layout.item_order_history, parent, false);
+        return new OrderHistoryAdapter.OrderViewHolder(view, listener);
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull OrderHistoryAdapter.OrderViewHolder holder, int position) {
+        Order order = getItem(position);
+        if (order != null) {
+            holder.bind(order);
+        }
+    }
+}
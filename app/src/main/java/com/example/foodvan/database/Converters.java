@@ -1,32 +1,83 @@
 package com.example.foodvan.database;
 
 import androidx.room.TypeConverter;
+
+import com.example.foodvan.models.Order;
+import com.example.foodvan.utils.CompactLists;
 import com.google.gson.Gson;
 import com.google.gson.reflect.TypeToken;
 
 import java.lang.reflect.Type;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
- * Room type converters for complex data types
+ * Room type converters for complex data types. Lists are written in the CompactLists format;
+ * rows still holding the Gson JSON written by earlier versions are read with Gson until
+ * OrderDatabase's background pass rewrites them.
  */
 public class Converters {
     private static final Gson gson = new Gson();
+    private static final Type STRING_LIST_TYPE = new TypeToken<List<String>>() {}.getType();
+    private static final Type ORDER_ITEMS_TYPE = new TypeToken<List<Order.OrderItem>>() {}.getType();
 
     @TypeConverter
     public static String fromStringList(List<String> value) {
+        return CompactLists.encodeStrings(value);
+    }
+
+    @TypeConverter
+    public static List<String> toStringList(String value) {
         if (value == null) {
             return null;
         }
-        return gson.toJson(value);
+        if (CompactLists.isCompact(value)) {
+            return CompactLists.decodeStrings(value);
+        }
+        return gson.fromJson(value, STRING_LIST_TYPE);
     }
 
     @TypeConverter
-    public static List<String> toStringList(String value) {
+    public static String fromOrderItems(List<Order.OrderItem> value) {
+        if (value == null) {
+            return null;
+        }
+        CompactLists.Writer writer = new CompactLists.Writer(16 + value.size() * 64);
+        writer.writeInt(value.size());
+        for (Order.OrderItem item : value) {
+            writer.writeString(item.getItemId())
+                    .writeString(item.getItemName())
+                    .writeDouble(item.getPrice())
+                    .writeInt(item.getQuantity())
+                    .writeString(item.getSpecialInstructions());
+        }
+        return writer.toString();
+    }
+
+    @TypeConverter
+    public static List<Order.OrderItem> toOrderItems(String value) {
         if (value == null) {
             return null;
         }
-        Type listType = new TypeToken<List<String>>() {}.getType();
-        return gson.fromJson(value, listType);
+        if (!CompactLists.isCompact(value)) {
+            return gson.fromJson(value, ORDER_ITEMS_TYPE);
+        }
+        CompactLists.Reader reader = new CompactLists.Reader(value);
+        int count = reader.readInt();
+        List<Order.OrderItem> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Order.OrderItem item = new Order.OrderItem(reader.readString(), reader.readString(),
+                    reader.readDouble(), reader.readInt());
+            item.setSpecialInstructions(reader.readString());
+            items.add(item);
+        }
+        return items;
+    }
+
+    /**
+     * Re-encodes a legacy JSON items value in the current format.
+     */
+    static String rewriteOrderItems(String value) {
+        return fromOrderItems(toOrderItems(value));
     }
 }
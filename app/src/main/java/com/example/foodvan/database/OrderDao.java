@@ -0,0 +1,99 @@
+package com.example.foodvan.database;
+
+import androidx.paging.PagingSource;
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+import androidx.room.Transaction;
+
+import java.util.List;
+
+/**
+ * Data Access Object for cached orders. Every history query is served by one of the
+ * (owner, orderTime) or (owner, status, orderTime) indexes.
+ */
+@Dao
+public interface OrderDao {
+
+    @Query("SELECT * FROM orders WHERE customerId = :customerId ORDER BY orderTime DESC, orderId DESC")
+    PagingSource<Integer, OrderEntity> getCustomerOrders(String customerId);
+
+    @Query("SELECT * FROM orders WHERE customerId = :customerId AND status IN (:statuses) ORDER BY orderTime DESC, orderId DESC")
+    PagingSource<Integer, OrderEntity> getCustomerOrdersByStatus(String customerId, List<String> statuses);
+
+    @Query("SELECT orders.* FROM orders JOIN orders_fts ON orders.rowid = orders_fts.rowid " +
+           "WHERE orders_fts MATCH :match AND orders.customerId = :customerId " +
+           "AND (:anyStatus OR orders.status IN (:statuses)) ORDER BY orders.orderTime DESC, orders.orderId DESC")
+    PagingSource<Integer, OrderEntity> searchCustomerOrders(String customerId, String match,
+                                                           boolean anyStatus, List<String> statuses);
+
+    @Query("SELECT * FROM orders WHERE customerId = :customerId ORDER BY orderTime DESC, orderId DESC")
+    List<OrderEntity> getCustomerOrderList(String customerId);
+
+    @Query("SELECT * FROM orders WHERE vendorId = :vendorId ORDER BY orderTime DESC, orderId DESC")
+    List<OrderEntity> getVendorOrderList(String vendorId);
+
+    @Query("SELECT orderId FROM orders WHERE customerId = :customerId AND status IN (:statuses)")
+    List<String> getCustomerOrderIdsByStatus(String customerId, List<String> statuses);
+
+    @Query("SELECT orderId FROM orders WHERE vendorId = :vendorId AND status IN (:statuses)")
+    List<String> getVendorOrderIdsByStatus(String vendorId, List<String> statuses);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void insertOrders(List<OrderEntity> orders);
+
+    @Query("UPDATE orders SET status = :status, lastSyncedAt = :syncTime WHERE orderId = :orderId")
+    void updateStatus(String orderId, String status, long syncTime);
+
+    @Query("SELECT * FROM order_sync_state WHERE scope = :scope")
+    OrderSyncStateEntity getSyncState(String scope);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void saveSyncState(OrderSyncStateEntity state);
+
+    // Only ever moves forward, so a sync that started earlier can't roll back a later one
+    @Query("UPDATE order_sync_state SET newestOrderTime = :orderTime, newestOrderId = :orderId " +
+           "WHERE scope = :scope AND (newestOrderTime < :orderTime " +
+           "OR (newestOrderTime = :orderTime AND newestOrderId < :orderId))")
+    void advanceNewestCursor(String scope, long orderTime, String orderId);
+
+    @Query("UPDATE order_sync_state SET lastSyncedAt = :syncedAt WHERE scope = :scope")
+    void setLastSyncedAt(String scope, long syncedAt);
+
+    @Query("UPDATE order_sync_state SET oldestOrderTime = :orderTime, oldestOrderId = :orderId, " +
+           "reachedEnd = :reachedEnd WHERE scope = :scope")
+    void setOldestCursor(String scope, long orderTime, String orderId, boolean reachedEnd);
+
+    /**
+     * Saves what a "new orders" fetch owns: the newest cursor. The first page of a history
+     * also seeds the oldest cursor; after that only older pages move it.
+     *
+     * @return the stored state afterwards
+     */
+    @Transaction
+    default OrderSyncStateEntity saveNewerPage(OrderSyncStateEntity state) {
+        OrderSyncStateEntity stored = getSyncState(state.getScope());
+        if (stored == null || stored.isEmpty()) {
+            saveSyncState(state);
+        } else {
+            if (!state.isEmpty()) {
+                advanceNewestCursor(state.getScope(), state.getNewestOrderTime(), state.getNewestOrderId());
+            }
+            setLastSyncedAt(state.getScope(), state.getLastSyncedAt());
+        }
+        return getSyncState(state.getScope());
+    }
+
+    // Raw items column, bypassing the converter, for rewriting rows still in legacy JSON
+    @Query("SELECT orderId, items FROM orders WHERE items LIKE '[%' LIMIT :limit")
+    List<ItemsRow> getLegacyItems(int limit);
+
+    @Query("UPDATE orders SET items = :items WHERE orderId = :orderId")
+    void setRawItems(String orderId, String items);
+
+    class ItemsRow {
+        public String orderId;
+        public String items;
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.foodvan.database;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.room.Database;
+import androidx.room.Room;
+import androidx.room.RoomDatabase;
+import androidx.room.migration.Migration;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+
+import com.example.foodvan.utils.AppExecutors;
+import com.example.foodvan.utils.InstrumentedExecutor;
+
+import java.util.List;
+
+/**
+ * Room Database for the local order history cache
+ */
+@Database(
+    entities = {OrderEntity.class, OrderFtsEntity.class, OrderSyncStateEntity.class, OrderMutationEntity.class},
+    version = 4,
+    exportSchema = false
+)
+public abstract class OrderDatabase extends RoomDatabase {
+
+    private static final String TAG = "OrderDatabase";
+    private static final String DATABASE_NAME = "order_database";
+    private static final int REWRITE_BATCH_SIZE = 200;
+    private static volatile OrderDatabase INSTANCE;
+
+    /**
+     * Version 2 adds the outbox of order status changes waiting to be flushed.
+     */
+    static final Migration MIGRATION_1_2 = new Migration(1, 2) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase database) {
+            database.execSQL("CREATE TABLE IF NOT EXISTS `order_outbox` (`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, "
+                    + "`backend` TEXT, `orderId` TEXT, `vendorId` TEXT, `status` TEXT, "
+                    + "`clientTime` INTEGER NOT NULL, `reason` TEXT)");
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_order_outbox_orderId` ON `order_outbox` (`orderId`)");
+        }
+    };
+
+    /**
+     * Version 3 stores order items in the CompactLists format instead of JSON. The schema is
+     * unchanged and Converters reads both, so rows are rewritten after opening, in the
+     * background, rather than in here.
+     */
+    static final Migration MIGRATION_2_3 = new Migration(2, 3) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase database) {
+            // No schema change
+        }
+    };
+
+    /**
+     * Version 4 lets the outbox keep changes the server rejected for good, marked failed.
+     */
+    static final Migration MIGRATION_3_4 = new Migration(3, 4) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase database) {
+            database.execSQL("ALTER TABLE `order_outbox` ADD COLUMN `failedAt` INTEGER NOT NULL DEFAULT 0");
+            database.execSQL("ALTER TABLE `order_outbox` ADD COLUMN `error` TEXT");
+        }
+    };
+
+    public abstract OrderDao orderDao();
+
+    public abstract OrderOutboxDao orderOutboxDao();
+
+    public static OrderDatabase getInstance(Context context) {
+        if (INSTANCE == null) {
+            synchronized (OrderDatabase.class) {
+                if (INSTANCE == null) {
+                    Context appContext = context.getApplicationContext();
+                    INSTANCE = Room.databaseBuilder(
+                            appContext,
+                            OrderDatabase.class,
+                            DATABASE_NAME
+                    )
+                    .addMigrations(MIGRATION_1_2, MIGRATION_2_3, MIGRATION_3_4)
+                    .addCallback(new RoomDatabase.Callback() {
+                        @Override
+                        public void onOpen(@NonNull SupportSQLiteDatabase db) {
+                            AppExecutors.getInstance().io().execute(InstrumentedExecutor.Priority.BACKGROUND,
+                                    () -> rewriteLegacyItems(getInstance(appContext)));
+                        }
+                    })
+                    // No destructive fallback: the outbox holds writes not yet on the server,
+                    // so every version bump needs a migration
+                    .build();
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    /**
+     * Re-encodes order items still stored as JSON, a batch per transaction so foreground
+     * queries can interleave. Finds nothing once every row has been rewritten.
+     */
+    static void rewriteLegacyItems(OrderDatabase database) {
+        OrderDao dao = database.orderDao();
+        List<OrderDao.ItemsRow> batch;
+        while (!(batch = dao.getLegacyItems(REWRITE_BATCH_SIZE)).isEmpty()) {
+            List<OrderDao.ItemsRow> rows = batch;
+            database.runInTransaction(() -> {
+                for (OrderDao.ItemsRow row : rows) {
+                    String rewritten;
+                    try {
+                        rewritten = Converters.rewriteOrderItems(row.items);
+                    } catch (RuntimeException e) {
+                        // Unreadable with either format, so it can't be shown anyway
+                        Log.w(TAG, "Dropping unreadable items for order " + row.orderId, e);
+                        rewritten = null;
+                    }
+                    dao.setRawItems(row.orderId, rewritten);
+                }
+            });
+        }
+    }
+
+    public static void destroyInstance() {
+        INSTANCE = null;
+    }
+}
@@ -0,0 +1,314 @@
+package com.example.foodvan.database;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+import androidx.room.TypeConverters;
+
+import com.example.foodvan.models.Order;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Room entity for caching orders locally. The composite indexes match the history queries,
+ * which always filter by one owner and read newest first.
+ */
+@Entity(
+    tableName = "orders",
+    indices = {
+        @Index(value = {"customerId", "orderTime"}),
+        @Index(value = {"vendorId", "orderTime"}),
+        @Index(value = {"customerId", "status", "orderTime"}),
+        @Index(value = {"vendorId", "status", "orderTime"})
+    }
+)
+@TypeConverters({Converters.class})
+public class OrderEntity {
+    @PrimaryKey
+    @NonNull
+    private String orderId = "";
+
+    private String customerId;
+    private String customerName;
+    private String customerPhone;
+    private String vendorId;
+    private String vanId;
+    private String vanName;
+    private List<Order.OrderItem> items;
+    private double subtotal;
+    private double deliveryFee;
+    private double tax;
+    private double discount;
+    private double totalAmount;
+    private String status;
+    private String paymentMethod;
+    private String paymentStatus;
+    private String deliveryAddress;
+    private String specialInstructions;
+    private int estimatedDeliveryTime;
+    private long orderTime;
+    private long confirmedTime;
+    private long readyTime;
+    private long deliveredTime;
+    private long lastSyncedAt;
+
+    public OrderEntity() {
+        // Default constructor required for Room
+    }
+
+    // Constructor from Order model
+    public static OrderEntity fromOrder(Order order) {
+        OrderEntity entity = new OrderEntity();
+        entity.orderId = order.getOrderId();
+        entity.customerId = order.getCustomerId();
+        entity.customerName = order.getCustomerName();
+        entity.customerPhone = order.getCustomerPhone();
+        entity.vendorId = order.getVendorId();
+        entity.vanId = order.getVanId();
+        entity.vanName = order.getVanName();
+        entity.items = order.getItems();
+        entity.subtotal = order.getSubtotal();
+        entity.deliveryFee = order.getDeliveryFee();
+        entity.tax = order.getTax();
+        entity.discount = order.getDiscount();
+        entity.totalAmount = order.getTotalAmount();
+        // Older orders were written with lower-case statuses
+        entity.status = order.getStatus() != null ? order.getStatus().toUpperCase(Locale.US) : null;
+        entity.paymentMethod = order.getPaymentMethod();
+        entity.paymentStatus = order.getPaymentStatus();
+        entity.deliveryAddress = order.getDeliveryAddress();
+        entity.specialInstructions = order.getSpecialInstructions();
+        entity.estimatedDeliveryTime = order.getEstimatedDeliveryTime();
+        entity.orderTime = order.getOrderTime();
+        entity.confirmedTime = order.getConfirmedTime();
+        entity.readyTime = order.getReadyTime();
+        entity.deliveredTime = order.getDeliveredTime();
+        entity.lastSyncedAt = System.currentTimeMillis();
+        return entity;
+    }
+
+    // Convert to Order model
+    public Order toOrder() {
+        Order order = new Order();
+        order.setOrderId(orderId);
+        order.setCustomerId(customerId);
+        order.setCustomerName(customerName);
+        order.setCustomerPhone(customerPhone);
+        order.setVendorId(vendorId);
+        order.setVanId(vanId);
+        order.setVanName(vanName);
+        order.setItems(items);
+        order.setSubtotal(subtotal);
+        order.setDeliveryFee(deliveryFee);
+        order.setTax(tax);
+        order.setDiscount(discount);
+        order.setTotalAmount(totalAmount);
+        order.setStatus(status);
+        order.setPaymentMethod(paymentMethod);
+        order.setPaymentStatus(paymentStatus);
+        order.setDeliveryAddress(deliveryAddress);
+        order.setSpecialInstructions(specialInstructions);
+        order.setEstimatedDeliveryTime(estimatedDeliveryTime);
+        order.setOrderTime(orderTime);
+        order.setConfirmedTime(confirmedTime);
+        order.setReadyTime(readyTime);
+        order.setDeliveredTime(deliveredTime);
+        return order;
+    }
+
+    // Getters and Setters
+    @NonNull
+    public String getOrderId() {
+        return orderId;
+    }
+
+    public void setOrderId(@NonNull String orderId) {
+        this.orderId = orderId;
+    }
+
+    public String getCustomerId() {
+        return customerId;
+    }
+
+    public void setCustomerId(String customerId) {
+        this.customerId = customerId;
+    }
+
+    public String getCustomerName() {
+        return customerName;
+    }
+
+    public void setCustomerName(String customerName) {
+        this.customerName = customerName;
+    }
+
+    public String getCustomerPhone() {
+        return customerPhone;
+    }
+
+    public void setCustomerPhone(String customerPhone) {
+        this.customerPhone = customerPhone;
+    }
+
+    public String getVendorId() {
+        return vendorId;
+    }
+
+    public void setVendorId(String vendorId) {
+        this.vendorId = vendorId;
+    }
+
+    public String getVanId() {
+        return vanId;
+    }
+
+    public void setVanId(String vanId) {
+        this.vanId = vanId;
+    }
+
+    public String getVanName() {
+        return vanName;
+    }
+
+    public void setVanName(String vanName) {
+        this.vanName = vanName;
+    }
+
+    public List<Order.OrderItem> getItems() {
+        return items;
+    }
+
+    public void setItems(List<Order.OrderItem> items) {
+        this.items = items;
+    }
+
+    public double getSubtotal() {
+        return subtotal;
+    }
+
+    public void setSubtotal(double subtotal) {
+        this.subtotal = subtotal;
+    }
+
+    public double getDeliveryFee() {
+        return deliveryFee;
+    }
+
+    public void setDeliveryFee(double deliveryFee) {
+        this.deliveryFee = deliveryFee;
+    }
+
+    public double getTax() {
+        return tax;
+    }
+
+    public void setTax(double tax) {
+        this.tax = tax;
+    }
+
+    public double getDiscount() {
+        return discount;
+    }
+
+    public void setDiscount(double discount) {
+        this.discount = discount;
+    }
+
+    public double getTotalAmount() {
+        return totalAmount;
+    }
+
+    public void setTotalAmount(double totalAmount) {
+        this.totalAmount = totalAmount;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getPaymentMethod() {
+        return paymentMethod;
+    }
+
+    public void setPaymentMethod(String paymentMethod) {
+        this.paymentMethod = paymentMethod;
+    }
+
+    public String getPaymentStatus() {
+        return paymentStatus;
+    }
+
+    public void setPaymentStatus(String paymentStatus) {
+        this.paymentStatus = paymentStatus;
+    }
+
+    public String getDeliveryAddress() {
+        return deliveryAddress;
+    }
+
+    public void setDeliveryAddress(String deliveryAddress) {
+        this.deliveryAddress = deliveryAddress;
+    }
+
+    public String getSpecialInstructions() {
+        return specialInstructions;
+    }
+
+    public void setSpecialInstructions(String specialInstructions) {
+        this.specialInstructions = specialInstructions;
+    }
+
+    public int getEstimatedDeliveryTime() {
+        return estimatedDeliveryTime;
+    }
+
+    public void setEstimatedDeliveryTime(int estimatedDeliveryTime) {
+        this.estimatedDeliveryTime = estimatedDeliveryTime;
+    }
+
+    public long getOrderTime() {
+        return orderTime;
+    }
+
+    public void setOrderTime(long orderTime) {
+        this.orderTime = orderTime;
+    }
+
+    public long getConfirmedTime() {
+        return confirmedTime;
+    }
+
+    public void setConfirmedTime(long confirmedTime) {
+        this.confirmedTime = confirmedTime;
+    }
+
+    public long getReadyTime() {
+        return readyTime;
+    }
+
+    public void setReadyTime(long readyTime) {
+        this.readyTime = readyTime;
+    }
+
+    public long getDeliveredTime() {
+        return deliveredTime;
+    }
+
+    public void setDeliveredTime(long deliveredTime) {
+        this.deliveredTime = deliveredTime;
+    }
+
+    public long getLastSyncedAt() {
+        return lastSyncedAt;
+    }
+
+    public void setLastSyncedAt(long lastSyncedAt) {
+        this.lastSyncedAt = lastSyncedAt;
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.foodvan.database;
+
+import androidx.room.Entity;
+import androidx.room.Fts4;
+
+/**
+ * Full-text index over the searchable order columns. Room keeps it in step with the
+ * orders table through triggers, so search never scans the whole cache.
+ */
+@Fts4(contentEntity = OrderEntity.class)
+@Entity(tableName = "orders_fts")
+public class OrderFtsEntity {
+    private String orderId;
+    private String vanName;
+    private String customerName;
+
+    public String getOrderId() {
+        return orderId;
+    }
+
+    public void setOrderId(String orderId) {
+        this.orderId = orderId;
+    }
+
+    public String getVanName() {
+        return vanName;
+    }
+
+    public void setVanName(String vanName) {
+        this.vanName = vanName;
+    }
+
+    public String getCustomerName() {
+        return customerName;
+    }
+
+    public void setCustomerName(String customerName) {
+        this.customerName = customerName;
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.foodvan.database;
+
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+import com.example.foodvan.utils.OrderOutbox;
+
+/**
+ * A status change made on this device that has not reached the server yet. Rows are
+ * flushed in id order by OrderOutboxWorker and deleted once written. A change the server
+ * rejects for good is kept with failedAt and error set, and no longer flushed.
+ */
+@Entity(tableName = "order_outbox", indices = {@Index("orderId")})
+public class OrderMutationEntity {
+    @PrimaryKey(autoGenerate = true)
+    private long id;
+
+    private String backend;
+    private String orderId;
+    private String vendorId;
+    private String status;
+    private long clientTime;
+    private String reason;
+    @ColumnInfo(defaultValue = "0")
+    private long failedAt;
+    private String error;
+
+    public OrderMutationEntity() {
+        // Default constructor required for Room
+    }
+
+    public static OrderMutationEntity create(String backend, String orderId, String vendorId,
+                                             String status, long clientTime, String reason) {
+        OrderMutationEntity entity = new OrderMutationEntity();
+        entity.setBackend(backend);
+        entity.setOrderId(orderId);
+        entity.setVendorId(vendorId);
+        entity.setStatus(status);
+        entity.setClientTime(clientTime);
+        entity.setReason(reason);
+        return entity;
+    }
+
+    public OrderOutbox.Mutation toMutation() {
+        return new OrderOutbox.Mutation(id, backend, orderId, vendorId, status, clientTime, reason);
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    public String getBackend() {
+        return backend;
+    }
+
+    public void setBackend(String backend) {
+        this.backend = backend;
+    }
+
+    public String getOrderId() {
+        return orderId;
+    }
+
+    public void setOrderId(String orderId) {
+        this.orderId = orderId;
+    }
+
+    public String getVendorId() {
+        return vendorId;
+    }
+
+    public void setVendorId(String vendorId) {
+        this.vendorId = vendorId;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public long getClientTime() {
+        return clientTime;
+    }
+
+    public void setClientTime(long clientTime) {
+        this.clientTime = clientTime;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    public void setReason(String reason) {
+        this.reason = reason;
+    }
+
+    public long getFailedAt() {
+        return failedAt;
+    }
+
+    public void setFailedAt(long failedAt) {
+        this.failedAt = failedAt;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.foodvan.database;
+
+import androidx.lifecycle.LiveData;
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.Query;
+
+import java.util.List;
+
+/**
+ * Data Access Object for the queue of order status changes waiting to be flushed
+ */
+@Dao
+public interface OrderOutboxDao {
+
+    @Insert
+    long insert(OrderMutationEntity mutation);
+
+    @Query("SELECT * FROM order_outbox WHERE failedAt = 0 ORDER BY id ASC LIMIT :limit")
+    List<OrderMutationEntity> getPending(int limit);
+
+    @Query("SELECT COUNT(*) FROM order_outbox WHERE failedAt = 0")
+    LiveData<Integer> observePendingCount();
+
+    @Query("DELETE FROM order_outbox WHERE id IN (:ids)")
+    void deleteByIds(List<Long> ids);
+
+    // Dead-lettered: kept for inspection but never flushed again
+    @Query("UPDATE order_outbox SET failedAt = :failedAt, error = :error WHERE id IN (:ids)")
+    void markFailed(List<Long> ids, long failedAt, String error);
+}
@@ -0,0 +1,113 @@
+package com.example.foodvan.database;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.PrimaryKey;
+
+import com.example.foodvan.utils.OrderPageCursor;
+
+/**
+ * Remote paging cursors for one order history (a customer's or a vendor's). The newest
+ * cursor is where the next "new orders" fetch starts, the oldest is where the next
+ * backfill page starts.
+ */
+@Entity(tableName = "order_sync_state")
+public class OrderSyncStateEntity {
+    @PrimaryKey
+    @NonNull
+    private String scope = "";
+
+    private long newestOrderTime;
+    private String newestOrderId;
+    private long oldestOrderTime;
+    private String oldestOrderId;
+    private boolean reachedEnd;
+    private long lastSyncedAt;
+
+    public OrderSyncStateEntity() {
+        // Default constructor required for Room
+    }
+
+    public static String scopeFor(String ownerField, String ownerId) {
+        return ownerField + ":" + ownerId;
+    }
+
+    public boolean isEmpty() {
+        return newestOrderId == null;
+    }
+
+    public OrderPageCursor toCursor() {
+        OrderPageCursor cursor = new OrderPageCursor();
+        cursor.newestOrderTime = newestOrderTime;
+        cursor.newestOrderId = newestOrderId;
+        cursor.oldestOrderTime = oldestOrderTime;
+        cursor.oldestOrderId = oldestOrderId;
+        cursor.reachedEnd = reachedEnd;
+        return cursor;
+    }
+
+    public void setCursor(OrderPageCursor cursor) {
+        newestOrderTime = cursor.newestOrderTime;
+        newestOrderId = cursor.newestOrderId;
+        oldestOrderTime = cursor.oldestOrderTime;
+        oldestOrderId = cursor.oldestOrderId;
+        reachedEnd = cursor.reachedEnd;
+    }
+
+    @NonNull
+    public String getScope() {
+        return scope;
+    }
+
+    public void setScope(@NonNull String scope) {
+        this.scope = scope;
+    }
+
+    public long getNewestOrderTime() {
+        return newestOrderTime;
+    }
+
+    public void setNewestOrderTime(long newestOrderTime) {
+        this.newestOrderTime = newestOrderTime;
+    }
+
+    public String getNewestOrderId() {
+        return newestOrderId;
+    }
+
+    public void setNewestOrderId(String newestOrderId) {
+        this.newestOrderId = newestOrderId;
+    }
+
+    public long getOldestOrderTime() {
+        return oldestOrderTime;
+    }
+
+    public void setOldestOrderTime(long oldestOrderTime) {
+        this.oldestOrderTime = oldestOrderTime;
+    }
+
+    public String getOldestOrderId() {
+        return oldestOrderId;
+    }
+
+    public void setOldestOrderId(String oldestOrderId) {
+        this.oldestOrderId = oldestOrderId;
+    }
+
+    public boolean isReachedEnd() {
+        return reachedEnd;
+    }
+
+    public void setReachedEnd(boolean reachedEnd) {
+        this.reachedEnd = reachedEnd;
+    }
+
+    public long getLastSyncedAt() {
+        return lastSyncedAt;
+    }
+
+    public void setLastSyncedAt(long lastSyncedAt) {
+        this.lastSyncedAt = lastSyncedAt;
+    }
+}
@@ -24,6 +24,7 @@ import com.example.foodvan.adapters.FilterPreviewAdapter;
 import com.example.foodvan.models.MenuFilter;
 import com.example.foodvan.models.MenuItem;
 import com.example.foodvan.utils.FilterUtils;
+import com.example.foodvan.utils.MenuFacetEngine;
 import com.example.foodvan.viewmodels.MenuFilterViewModel;
 import com.google.android.material.bottomsheet.BottomSheetBehavior;
 import com.google.android.material.bottomsheet.BottomSheetDialog;
@@ -38,6 +39,7 @@ import com.google.android.material.textview.MaterialTextView;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 
 /**
  * Bottom sheet fragment for menu filtering and sorting
@@ -240,13 +242,13 @@ public class MenuFilterBottomSheet extends BottomSheetDialogFragment {
             for (int id : checkedIds) {
                 Chip chip = group.findViewById(id);
                 if (chip != null) {
-                    String category = chip.getText().toString();
-                    if ("All".equals(category)) {
+                    if (id == R.id.chip_all_categories) {
                         allSelected = true;
                         selectedCategories.clear();
                         break;
-                    } else {
-                        selectedCategories.add(category);
+                    } else if (chip.getTag() instanceof String) {
+                        // The text carries a count, the tag the category itself
+                        selectedCategories.add((String) chip.getTag());
                     }
                 }
             }
@@ -367,6 +369,9 @@ public class MenuFilterBottomSheet extends BottomSheetDialogFragment {
             }
         });
         
+        // Observe facet counts
+        viewModel.getFacets().observe(getViewLifecycleOwner(), this::updateFacetCounts);
+        
         // Observe loading state
         viewModel.getIsLoading().observe(getViewLifecycleOwner(), isLoading -> {
             if (isLoading != null) {
@@ -433,6 +438,7 @@ public class MenuFilterBottomSheet extends BottomSheetDialogFragment {
         for (String category : categories) {
             Chip chip = new Chip(requireContext());
             chip.setText(category);
+            chip.setTag(category);
             chip.setCheckable(true);
             chip.setChipBackgroundColorResource(R.color.chip_background_selector);
             chip.setChipStrokeColorResource(R.color.primary_color);
@@ -472,7 +478,7 @@ public class MenuFilterBottomSheet extends BottomSheetDialogFragment {
                     View child = chipGroupCategories.getChildAt(i);
                     if (child instanceof Chip) {
                         Chip chip = (Chip) child;
-                        if (category.equals(chip.getText().toString())) {
+                        if (category.equals(chip.getTag())) {
                             chip.setChecked(true);
                             break;
                         }
@@ -482,6 +488,34 @@ public class MenuFilterBottomSheet extends BottomSheetDialogFragment {
         }
     }
     
+    /**
+     * Shows on each chip how many items it would match given the other filters.
+     */
+    private void updateFacetCounts(MenuFacetEngine.Result facets) {
+        if (facets == null) return;
+        
+        if (chipGroupCategories != null) {
+            for (int i = 0; i < chipGroupCategories.getChildCount(); i++) {
+                View child = chipGroupCategories.getChildAt(i);
+                if (child instanceof Chip && child.getTag() instanceof String) {
+                    String category = (String) child.getTag();
+                    ((Chip) child).setText(countLabel(category, facets.getCategoryCount(category)));
+                }
+            }
+        }
+        
+        if (chipGroupAvailability != null) {
+            Chip available = chipGroupAvailability.findViewById(R.id.chip_available);
+            Chip outOfStock = chipGroupAvailability.findViewById(R.id.chip_out_of_stock);
+            if (available != null) available.setText(countLabel("Available", facets.getAvailableCount()));
+            if (outOfStock != null) outOfStock.setText(countLabel("Out of Stock", facets.getOutOfStockCount()));
+        }
+    }
+    
+    private static String countLabel(String label, int count) {
+        return String.format(Locale.getDefault(), "%s (%d)", label, count);
+    }
+    
     private void updateAvailabilityChips(MenuFilter filter) {
         chipGroupAvailability.clearCheck();
         
@@ -10,6 +10,7 @@ public class FoodItem {
     private double price;
     private String category;
     private String imageUrl;
+    private String thumbnailUrl;
     private boolean isVegetarian;
     private boolean isAvailable;
     private String vendorId;
@@ -89,6 +90,14 @@ public class FoodItem {
         this.imageUrl = imageUrl;
     }
 
+    public String getThumbnailUrl() {
+        return thumbnailUrl;
+    }
+
+    public void setThumbnailUrl(String thumbnailUrl) {
+        this.thumbnailUrl = thumbnailUrl;
+    }
+
     public boolean isVegetarian() {
         return isVegetarian;
     }
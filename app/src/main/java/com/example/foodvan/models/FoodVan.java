@@ -1,11 +1,14 @@
 package com.example.foodvan.models;
 
+import com.example.foodvan.mapper.SnapshotModel;
+
 import java.io.Serializable;
 import java.util.List;
 
 /**
  * FoodVan model class representing a food vendor's van
  */
+@SnapshotModel
 public class FoodVan implements Serializable {
     private String vanId;
     private String vendorId;
@@ -1,16 +1,20 @@
 package com.example.foodvan.models;
 
+import com.example.foodvan.mapper.SnapshotModel;
+
 import java.io.Serializable;
 
 /**
  * MenuItem model class representing food items in a van's menu
  */
+@SnapshotModel
 public class MenuItem implements Serializable {
     private String itemId;
     private String vanId;
     private String name;
     private String description;
     private String imageUrl;
+    private String thumbnailUrl; // Downsized variant for list rows
     private double price;
     private String category;
     private boolean isVegetarian;
@@ -59,6 +63,39 @@ public class MenuItem implements Serializable {
         this.lastUpdated = System.currentTimeMillis();
     }
 
+    /**
+     * A copy that can be changed without touching the original, e.g. one held by a cache.
+     */
+    public MenuItem(MenuItem other) {
+        this.itemId = other.itemId;
+        this.vanId = other.vanId;
+        this.name = other.name;
+        this.description = other.description;
+        this.imageUrl = other.imageUrl;
+        this.thumbnailUrl = other.thumbnailUrl;
+        this.price = other.price;
+        this.category = other.category;
+        this.isVegetarian = other.isVegetarian;
+        this.isVegan = other.isVegan;
+        this.isGlutenFree = other.isGlutenFree;
+        this.isSpicy = other.isSpicy;
+        this.isAvailable = other.isAvailable;
+        this.preparationTime = other.preparationTime;
+        this.rating = other.rating;
+        this.totalRatings = other.totalRatings;
+        this.ingredients = other.ingredients;
+        this.calories = other.calories;
+        this.discount = other.discount;
+        this.isBestSeller = other.isBestSeller;
+        this.isNew = other.isNew;
+        this.cartQuantity = other.cartQuantity;
+        this.createdAt = other.createdAt;
+        this.orderCount = other.orderCount;
+        this.lastUpdated = other.lastUpdated;
+        this.vendorId = other.vendorId;
+        this.imageUri = other.imageUri;
+    }
+
     // Getters and Setters
     public String getItemId() {
         return itemId;
@@ -109,6 +146,14 @@ public class MenuItem implements Serializable {
         this.imageUrl = imageUrl;
     }
 
+    public String getThumbnailUrl() {
+        return thumbnailUrl;
+    }
+
+    public void setThumbnailUrl(String thumbnailUrl) {
+        this.thumbnailUrl = thumbnailUrl;
+    }
+
     public double getPrice() {
         return price;
     }
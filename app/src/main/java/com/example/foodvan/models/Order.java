@@ -1,11 +1,15 @@
 package com.example.foodvan.models;
 
+import com.example.foodvan.mapper.SnapshotModel;
+
 import java.io.Serializable;
 import java.util.List;
+import java.util.Locale;
 
 /**
  * Order model class representing customer orders
  */
+@SnapshotModel
 public class Order implements Serializable {
     private String orderId;
     private String customerId;
@@ -322,6 +326,23 @@ public class Order implements Serializable {
         this.orderId = id;
     }
 
+    // Stored with the order so vendor_orders can be range-queried by status, newest first
+    public String getStatusKey() {
+        return statusKey(status, orderTime);
+    }
+
+    // Always derived from status and orderTime; accepted so a read keeps the property
+    public void setStatusKey(String statusKey) {
+    }
+
+    /**
+     * "{STATUS}_{orderTime}" with the time zero-padded to 13 digits, wide enough for any
+     * millisecond timestamp, so string order matches time order within a status.
+     */
+    public static String statusKey(String status, long orderTime) {
+        return (status != null ? status : "") + "_" + String.format(Locale.US, "%013d", orderTime);
+    }
+
     public String getOrderDate() {
         // Return formatted date string for filtering
         java.text.SimpleDateFormat sdf = new java.text.SimpleDateFormat("yyyy-MM-dd", java.util.Locale.getDefault());
@@ -373,6 +394,7 @@ public class Order implements Serializable {
     }
 
     // Inner class for order items
+    @SnapshotModel
     public static class OrderItem implements Serializable {
         private String itemId;
         private String itemName;
@@ -9,7 +9,8 @@ public enum SortBy {
     PRICE("Price", "💰", "Sort by average price"),
     POPULARITY("Popularity", "🔥", "Sort by number of orders"),
     NEWEST("Newest", "🆕", "Sort by recently added vans"),
-    NAME("Name", "🔤", "Sort alphabetically by van name");
+    NAME("Name", "🔤", "Sort alphabetically by van name"),
+    RECOMMENDED("Recommended", "✨", "Sort by distance, rating, orders and freshness together");
     
     private final String displayName;
     private final String emoji;
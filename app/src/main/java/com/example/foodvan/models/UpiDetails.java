@@ -6,7 +6,8 @@ package com.example.foodvan.models;
 public class UpiDetails {
     private String upiId;
     private boolean isVerified;
-    private String qrCodeData;
+    private String paymentUrl; // upi:// URL encoded in the QR code; the image itself is cached locally
+    private String qrCodeData; // Legacy base64 PNG, only read when there is no UPI ID to render from
     private long lastUpdated;
 
     public UpiDetails() {
@@ -16,7 +17,7 @@ public class UpiDetails {
     public UpiDetails(String upiId) {
         this.upiId = upiId;
         this.isVerified = false;
-        this.qrCodeData = null;
+        this.paymentUrl = null;
         this.lastUpdated = System.currentTimeMillis();
     }
 
@@ -29,6 +30,10 @@ public class UpiDetails {
         return isVerified;
     }
 
+    public String getPaymentUrl() {
+        return paymentUrl;
+    }
+
     public String getQrCodeData() {
         return qrCodeData;
     }
@@ -46,6 +51,10 @@ public class UpiDetails {
         isVerified = verified;
     }
 
+    public void setPaymentUrl(String paymentUrl) {
+        this.paymentUrl = paymentUrl;
+    }
+
     public void setQrCodeData(String qrCodeData) {
         this.qrCodeData = qrCodeData;
     }
@@ -59,7 +68,7 @@ public class UpiDetails {
         return "UpiDetails{" +
                 "upiId='" + upiId + '\'' +
                 ", isVerified=" + isVerified +
-                ", qrCodeData='" + qrCodeData + '\'' +
+                ", paymentUrl='" + paymentUrl + '\'' +
                 ", lastUpdated=" + lastUpdated +
                 '}';
     }
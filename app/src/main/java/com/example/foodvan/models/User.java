@@ -1,10 +1,13 @@
 package com.example.foodvan.models;
 
+import com.example.foodvan.mapper.SnapshotModel;
+
 import java.io.Serializable;
 
 /**
  * User model class for both customers and vendors
  */
+@SnapshotModel
 public class User implements Serializable {
     private String userId;
     private String name;
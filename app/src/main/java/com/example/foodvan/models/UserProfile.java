@@ -15,6 +15,7 @@ public class UserProfile implements Serializable {
     private String email;
     private String phoneNumber;
     private String profileImageUrl;
+    private String profileThumbnailUrl; // Downsized variant for avatars in lists
     private String dateOfBirth;
     private String gender;
     private String pronouns; // he/him, she/her, they/them, custom
@@ -110,6 +111,15 @@ public class UserProfile implements Serializable {
         updateLastModified();
     }
     
+    public String getProfileThumbnailUrl() {
+        return profileThumbnailUrl;
+    }
+    
+    public void setProfileThumbnailUrl(String profileThumbnailUrl) {
+        this.profileThumbnailUrl = profileThumbnailUrl;
+        updateLastModified();
+    }
+    
     public String getDateOfBirth() {
         return dateOfBirth;
     }
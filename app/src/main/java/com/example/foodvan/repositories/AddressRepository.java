@@ -3,6 +3,7 @@ package com.example.foodvan.repositories;
 import android.util.Log;
 import androidx.annotation.NonNull;
 import com.example.foodvan.models.Address;
+import com.example.foodvan.utils.FirebaseListeners;
 import com.google.firebase.database.DataSnapshot;
 import com.google.firebase.database.DatabaseError;
 import com.google.firebase.database.DatabaseReference;
@@ -17,6 +18,7 @@ public class AddressRepository {
     private static final String TAG = "AddressRepository";
     private DatabaseReference addressesRef;
     private String vendorId;
+    private final FirebaseListeners liveListeners = new FirebaseListeners();
 
     public AddressRepository(String vendorId) {
         this.vendorId = vendorId;
@@ -117,7 +119,7 @@ public class AddressRepository {
 
     // Get all addresses
     public void getAllAddresses(AddressListCallback callback) {
-        addressesRef.addValueEventListener(new ValueEventListener() {
+        liveListeners.listen("vendor_addresses.all", addressesRef, new ValueEventListener() {
             @Override
             public void onDataChange(@NonNull DataSnapshot snapshot) {
                 List<Address> addresses = new ArrayList<>();
@@ -231,8 +233,8 @@ public class AddressRepository {
 
     // Get deletable addresses (non-primary addresses)
     public void getDeletableAddresses(AddressListCallback callback) {
-        addressesRef.orderByChild("primary").equalTo(false)
-            .addValueEventListener(new ValueEventListener() {
+        liveListeners.listen("vendor_addresses.deletable",
+            addressesRef.orderByChild("primary").equalTo(false), new ValueEventListener() {
                 @Override
                 public void onDataChange(@NonNull DataSnapshot snapshot) {
                     List<Address> addresses = new ArrayList<>();
@@ -256,14 +258,6 @@ public class AddressRepository {
 
     // Clean up listeners
     public void cleanup() {
-        if (addressesRef != null) {
-            addressesRef.removeEventListener(new ValueEventListener() {
-                @Override
-                public void onDataChange(@NonNull DataSnapshot snapshot) {}
-
-                @Override
-                public void onCancelled(@NonNull DatabaseError error) {}
-            });
-        }
+        liveListeners.stopAll();
     }
 }
@@ -4,20 +4,17 @@ import android.content.Context;
 import android.net.Uri;
 
 import com.example.foodvan.models.FoodItem;
+import com.example.foodvan.utils.ImageUploadPipeline;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.firestore.FirebaseFirestore;
-import com.google.firebase.storage.FirebaseStorage;
-import com.google.firebase.storage.StorageReference;
 
 import java.util.HashMap;
 import java.util.Map;
-import java.util.UUID;
 
 public class FoodItemRepository {
 
     private final Context context;
     private final FirebaseFirestore db;
-    private final FirebaseStorage storage;
     private final FirebaseAuth auth;
 
     public interface OnFoodItemOperationListener {
@@ -33,7 +30,6 @@ public class FoodItemRepository {
     public FoodItemRepository(Context context) {
         this.context = context;
         this.db = FirebaseFirestore.getInstance();
-        this.storage = FirebaseStorage.getInstance();
         this.auth = FirebaseAuth.getInstance();
     }
 
@@ -44,12 +40,19 @@ public class FoodItemRepository {
             return;
         }
 
+        // Reserve the document ID up front so the image path stays stable across retries
+        if (foodItem.getId() == null) {
+            foodItem.setId(db.collection("foodItems").document().getId());
+        }
+
         // First upload image, then save food item data
-        uploadFoodImage(foodItem.getImageUri(), new OnImageUploadListener() {
+        uploadFoodImage(foodItem.getImageUri(), "food_images/" + vendorId + "/" + foodItem.getId(),
+                new OnImageUploadListener() {
             @Override
-            public void onSuccess(String imageUrl) {
-                // Update food item with uploaded image URL
+            public void onSuccess(String imageUrl, String thumbnailUrl) {
+                // Update food item with uploaded image URLs
                 foodItem.setImageUrl(imageUrl);
+                foodItem.setThumbnailUrl(thumbnailUrl);
                 foodItem.setVendorId(vendorId);
                 foodItem.setCreatedAt(new java.util.Date(System.currentTimeMillis()));
                 
@@ -64,7 +67,7 @@ public class FoodItemRepository {
         });
     }
 
-    private void uploadFoodImage(String imageUri, OnImageUploadListener listener) {
+    private void uploadFoodImage(String imageUri, String storagePath, OnImageUploadListener listener) {
         if (imageUri == null || imageUri.isEmpty()) {
             listener.onError("No image selected");
             return;
@@ -72,21 +75,22 @@ public class FoodItemRepository {
 
         try {
             Uri uri = Uri.parse(imageUri);
-            String fileName = "food_images/" + UUID.randomUUID().toString() + ".jpg";
-            StorageReference imageRef = storage.getReference().child(fileName);
-
-            imageRef.putFile(uri)
-                    .addOnSuccessListener(taskSnapshot -> {
-                        imageRef.getDownloadUrl()
-                                .addOnSuccessListener(downloadUri -> {
-                                    listener.onSuccess(downloadUri.toString());
-                                })
-                                .addOnFailureListener(e -> {
-                                    listener.onError("Failed to get download URL: " + e.getMessage());
-                                });
-                    })
-                    .addOnFailureListener(e -> {
-                        listener.onError("Failed to upload image: " + e.getMessage());
+            ImageUploadPipeline.getInstance(context).upload(uri, storagePath,
+                    new ImageUploadPipeline.UploadCallback() {
+                        @Override
+                        public void onProgress(int progress) {
+                            // Progress is not surfaced for food items
+                        }
+
+                        @Override
+                        public void onSuccess(String imageUrl, String thumbnailUrl) {
+                            listener.onSuccess(imageUrl, thumbnailUrl);
+                        }
+
+                        @Override
+                        public void onError(String error) {
+                            listener.onError(error);
+                        }
                     });
         } catch (Exception e) {
             listener.onError("Invalid image URI: " + e.getMessage());
@@ -100,14 +104,15 @@ public class FoodItemRepository {
         foodItemData.put("category", foodItem.getCategory());
         foodItemData.put("description", foodItem.getDescription());
         foodItemData.put("imageUrl", foodItem.getImageUrl());
+        foodItemData.put("thumbnailUrl", foodItem.getThumbnailUrl());
         foodItemData.put("isAvailable", foodItem.isAvailable());
         foodItemData.put("vendorId", foodItem.getVendorId());
         foodItemData.put("createdAt", foodItem.getCreatedAt());
 
         db.collection("foodItems")
-                .add(foodItemData)
-                .addOnSuccessListener(documentReference -> {
-                    foodItem.setId(documentReference.getId());
+                .document(foodItem.getId())
+                .set(foodItemData)
+                .addOnSuccessListener(aVoid -> {
                     listener.onSuccess("Food item added successfully!");
                 })
                 .addOnFailureListener(e -> {
@@ -187,7 +192,7 @@ public class FoodItemRepository {
     }
 
     private interface OnImageUploadListener {
-        void onSuccess(String imageUrl);
+        void onSuccess(String imageUrl, String thumbnailUrl);
         void onError(String error);
     }
 }
@@ -9,7 +9,13 @@ import com.example.foodvan.models.FAQ;
 import com.example.foodvan.models.Order;
 import com.example.foodvan.models.SupportContact;
 import com.example.foodvan.models.SupportTicket;
+import com.example.foodvan.utils.FirebaseManager;
+import com.example.foodvan.utils.OrderSubmission;
 import com.example.foodvan.utils.SessionManager;
+import com.example.foodvan.utils.SnapshotMappers;
+import com.example.foodvan.utils.VendorOrderIndex;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.database.DataSnapshot;
 import com.google.firebase.database.DatabaseError;
@@ -36,7 +42,6 @@ public class HelpSupportRepository {
     private static final String FAQS_PATH = "support/faqs";
     private static final String SUPPORT_CONTACTS_PATH = "config/supportContacts";
     private static final String SUPPORT_TICKETS_PATH = "supportTickets";
-    private static final String ORDERS_PATH = "orders";
 
     private final Context context;
     private final DatabaseReference databaseRef;
@@ -246,31 +251,40 @@ public class HelpSupportRepository {
             return;
         }
 
-        databaseRef.child(ORDERS_PATH)
-                .orderByChild("customerId")
-                .equalTo(customerId)
+        // Newest entries of the customer's index, then the orders themselves
+        databaseRef.child(OrderSubmission.CUSTOMER_ORDERS_PATH)
+                .child(customerId)
+                .orderByChild(VendorOrderIndex.ORDER_TIME)
                 .limitToLast(limit)
                 .addListenerForSingleValueEvent(new ValueEventListener() {
                     @Override
                     public void onDataChange(@NonNull DataSnapshot snapshot) {
-                        List<Order> orders = new ArrayList<>();
-                        
-                        for (DataSnapshot orderSnapshot : snapshot.getChildren()) {
-                            try {
-                                Order order = orderSnapshot.getValue(Order.class);
-                                if (order != null) {
-                                    orders.add(order);
+                        FirebaseManager firebaseManager = new FirebaseManager();
+                        List<Task<DataSnapshot>> reads = new ArrayList<>();
+                        for (DataSnapshot entry : snapshot.getChildren()) {
+                            reads.add(firebaseManager.fetchIndexedOrder(entry));
+                        }
+
+                        Tasks.whenAllComplete(reads).addOnCompleteListener(task -> {
+                            List<Order> orders = new ArrayList<>();
+                            for (Task<DataSnapshot> read : reads) {
+                                if (!read.isSuccessful()) continue;
+                                try {
+                                    Order order = SnapshotMappers.get(read.getResult(), Order.class);
+                                    if (order != null) {
+                                        orders.add(order);
+                                    }
+                                } catch (Exception e) {
+                                    Log.e(TAG, "Error parsing order: " + e.getMessage());
                                 }
-                            } catch (Exception e) {
-                                Log.e(TAG, "Error parsing order: " + e.getMessage());
                             }
-                        }
-                        
-                        // Sort by order time (newest first)
-                        Collections.sort(orders, (o1, o2) -> 
-                                Long.compare(o2.getOrderTime(), o1.getOrderTime()));
-                        
-                        listener.onSuccess(orders);
+
+                            // Sort by order time (newest first)
+                            Collections.sort(orders, (o1, o2) ->
+                                    Long.compare(o2.getOrderTime(), o1.getOrderTime()));
+
+                            listener.onSuccess(orders);
+                        });
                     }
 
                     @Override
@@ -1,10 +1,11 @@
 package com.example.foodvan.repositories;
 
 import android.content.Context;
-import android.content.SharedPreferences;
 import androidx.annotation.NonNull;
 
 import com.example.foodvan.models.MenuFilter;
+import com.example.foodvan.utils.KeyValueStore;
+import com.example.foodvan.utils.KeyValueStores;
 import com.example.foodvan.utils.SessionManager;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.database.DataSnapshot;
@@ -30,7 +31,7 @@ public class MenuFilterRepository {
     private static final String KEY_LAST_USED_FILTER = "last_used_filter";
     
     private final Context context;
-    private final SharedPreferences preferences;
+    private final KeyValueStore preferences;
     private final Gson gson;
     private final SessionManager sessionManager;
     private final FirebaseAuth firebaseAuth;
@@ -38,7 +39,7 @@ public class MenuFilterRepository {
     
     public MenuFilterRepository(Context context) {
         this.context = context.getApplicationContext();
-        this.preferences = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+        this.preferences = KeyValueStores.get(context, PREFS_NAME);
         this.gson = new Gson();
         this.sessionManager = new SessionManager(context);
         this.firebaseAuth = FirebaseAuth.getInstance();
@@ -48,7 +49,7 @@ public class MenuFilterRepository {
     // Local persistence methods
     
     /**
-     * Save the last used filter to SharedPreferences
+     * Save the last used filter to the local store
      */
     public void saveLastUsedFilter(MenuFilter filter) {
         try {
@@ -62,7 +63,7 @@ public class MenuFilterRepository {
     }
     
     /**
-     * Get the last used filter from SharedPreferences
+     * Get the last used filter from the local store
      */
     public MenuFilter getLastUsedFilter() {
         try {
@@ -78,7 +79,7 @@ public class MenuFilterRepository {
     }
     
     /**
-     * Clear the last used filter from SharedPreferences
+     * Clear the last used filter from the local store
      */
     public void clearLastUsedFilter() {
         preferences.edit()
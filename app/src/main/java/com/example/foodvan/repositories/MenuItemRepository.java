@@ -4,6 +4,10 @@ import android.content.Context;
 import android.net.Uri;
 
 import com.example.foodvan.models.MenuItem;
+import com.example.foodvan.utils.AppExecutors;
+import com.example.foodvan.utils.MenuCatalog;
+import com.example.foodvan.utils.SnapshotMappers;
+import com.google.android.gms.tasks.Task;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.firestore.FirebaseFirestore;
 import com.google.firebase.storage.FirebaseStorage;
@@ -116,6 +120,7 @@ public class MenuItemRepository {
                 .add(menuItemData)
                 .addOnSuccessListener(documentReference -> {
                     menuItem.setItemId(documentReference.getId());
+                    MenuCatalog.getInstance(context).invalidate(menuItem.getVendorId());
                     listener.onSuccess("Food item added successfully!");
                 })
                 .addOnFailureListener(e -> {
@@ -130,21 +135,34 @@ public class MenuItemRepository {
             return;
         }
 
-        db.collection("menuItems")
+        // Served from the catalog cache; onSuccess runs again if a newer menu arrives
+        MenuCatalog.getInstance(context).get(MenuCatalog.Source.MENU_ITEMS, vendorId, this::fetchVendorMenuItems,
+                new MenuCatalog.OnCatalogListener() {
+                    @Override
+                    public void onSuccess(java.util.List<MenuItem> items) {
+                        listener.onSuccess(items);
+                    }
+
+                    @Override
+                    public void onError(String error) {
+                        listener.onError("Failed to load menu items: " + error);
+                    }
+                });
+    }
+
+    private Task<java.util.List<MenuItem>> fetchVendorMenuItems(String vendorId) {
+        return db.collection("menuItems")
                 .whereEqualTo("vendorId", vendorId)
                 .orderBy("createdAt", com.google.firebase.firestore.Query.Direction.DESCENDING)
                 .get()
-                .addOnSuccessListener(queryDocumentSnapshots -> {
+                .continueWith(AppExecutors.getInstance().cpu(), task -> {
                     java.util.List<MenuItem> menuItems = new java.util.ArrayList<>();
-                    queryDocumentSnapshots.forEach(document -> {
-                        MenuItem menuItem = document.toObject(MenuItem.class);
+                    task.getResult().forEach(document -> {
+                        MenuItem menuItem = SnapshotMappers.get(document, MenuItem.class);
                         menuItem.setItemId(document.getId());
                         menuItems.add(menuItem);
                     });
-                    listener.onSuccess(menuItems);
-                })
-                .addOnFailureListener(e -> {
-                    listener.onError("Failed to load menu items: " + e.getMessage());
+                    return menuItems;
                 });
     }
 
@@ -166,6 +184,7 @@ public class MenuItemRepository {
                 .document(menuItem.getItemId())
                 .update(updates)
                 .addOnSuccessListener(aVoid -> {
+                    invalidateCurrentVendor();
                     listener.onSuccess("Menu item updated successfully!");
                 })
                 .addOnFailureListener(e -> {
@@ -183,6 +202,7 @@ public class MenuItemRepository {
                 .document(menuItemId)
                 .delete()
                 .addOnSuccessListener(aVoid -> {
+                    invalidateCurrentVendor();
                     listener.onSuccess("Menu item deleted successfully!");
                 })
                 .addOnFailureListener(e -> {
@@ -190,6 +210,13 @@ public class MenuItemRepository {
                 });
     }
 
+    private void invalidateCurrentVendor() {
+        String vendorId = getCurrentVendorId();
+        if (vendorId != null) {
+            MenuCatalog.getInstance(context).invalidate(vendorId);
+        }
+    }
+
     private String getCurrentVendorId() {
         return auth.getCurrentUser() != null ? auth.getCurrentUser().getUid() : null;
     }
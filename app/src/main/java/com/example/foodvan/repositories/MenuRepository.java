@@ -5,34 +5,51 @@ import android.os.Handler;
 import android.os.Looper;
 
 import com.example.foodvan.models.MenuItem;
+import com.example.foodvan.utils.AppExecutors;
+import com.example.foodvan.utils.BulkWriteEngine;
+import com.example.foodvan.utils.CsvRowReader;
+import com.example.foodvan.utils.FirebaseMetrics;
+import com.example.foodvan.utils.MenuCatalog;
+import com.example.foodvan.utils.MenuImporter;
+import com.example.foodvan.utils.SnapshotMappers;
+import com.example.foodvan.utils.XlsxRowReader;
 import com.example.foodvan.viewmodels.MenuManagementViewModel;
+import com.google.android.gms.tasks.Task;
 import com.google.firebase.firestore.FirebaseFirestore;
 import com.google.firebase.firestore.WriteBatch;
+import com.google.firebase.firestore.DocumentReference;
 import com.google.firebase.firestore.DocumentSnapshot;
 import com.google.firebase.firestore.Query;
 
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.util.AbstractMap;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.Executor;
 
 public class MenuRepository {
 
     private final FirebaseFirestore firestore;
-    private final ExecutorService executorService;
+    private final Executor executorService;
+    private final Executor validationExecutor;
+    // Imports block while their chunks commit, so they get a lane of their own, not an io thread
+    private final Executor importExecutor;
     private final Handler mainHandler;
     private final Context context;
 
     public MenuRepository(Context context) {
         this.context = context;
         this.firestore = FirebaseFirestore.getInstance();
-        this.executorService = Executors.newFixedThreadPool(3);
+        this.executorService = AppExecutors.getInstance().io();
+        this.validationExecutor = AppExecutors.getInstance().cpu();
+        this.importExecutor = AppExecutors.getInstance().serialExecutor("menu_import");
         this.mainHandler = new Handler(Looper.getMainLooper());
     }
 
@@ -42,6 +59,11 @@ public class MenuRepository {
         void onError(String error);
     }
 
+    public interface BulkCallback extends MenuCallback<Void> {
+        default void onProgress(int progress, String status) {
+        }
+    }
+
     public interface ImportCallback {
         void onProgress(int progress, String status);
         void onSuccess(int itemsImported);
@@ -54,98 +76,85 @@ public class MenuRepository {
         void onError(String error);
     }
 
-    // Get menu items for a vendor
+    // Get menu items for a vendor; cached, so onSuccess may run again when a newer menu arrives
     public void getMenuItems(String vendorId, MenuCallback<List<MenuItem>> callback) {
-        firestore.collection("vendors")
+        MenuCatalog.getInstance(context).get(MenuCatalog.Source.VENDOR_MENU, vendorId, this::fetchMenuItems,
+                new MenuCatalog.OnCatalogListener() {
+                    @Override
+                    public void onSuccess(List<MenuItem> items) {
+                        callback.onSuccess(items);
+                    }
+
+                    @Override
+                    public void onError(String error) {
+                        callback.onError(error);
+                    }
+                });
+    }
+
+    private Task<List<MenuItem>> fetchMenuItems(String vendorId) {
+        return FirebaseMetrics.track("menu.getMenuItems", firestore.collection("vendors")
                 .document(vendorId)
                 .collection("menu")
                 .whereEqualTo("visible", true)
                 .orderBy("createdAt", Query.Direction.DESCENDING)
-                .get()
-                .addOnSuccessListener(queryDocumentSnapshots -> {
+                .get())
+                .continueWith(validationExecutor, task -> {
                     List<MenuItem> menuItems = new ArrayList<>();
-                    for (DocumentSnapshot document : queryDocumentSnapshots.getDocuments()) {
-                        MenuItem item = document.toObject(MenuItem.class);
+                    for (DocumentSnapshot document : task.getResult().getDocuments()) {
+                        MenuItem item = SnapshotMappers.get(document, MenuItem.class);
                         if (item != null) {
                             item.setId(document.getId());
                             menuItems.add(item);
                         }
                     }
-                    callback.onSuccess(menuItems);
-                })
-                .addOnFailureListener(e -> callback.onError(e.getMessage()));
+                    return menuItems;
+                });
     }
 
     // Bulk update category
-    public void bulkUpdateCategory(String vendorId, Set<String> itemIds, String newCategory, MenuCallback<Void> callback) {
-        WriteBatch batch = firestore.batch();
-        
-        for (String itemId : itemIds) {
-            batch.update(firestore.collection("vendors")
-                    .document(vendorId)
-                    .collection("menu")
-                    .document(itemId), "category", newCategory);
-        }
-        
-        // Add audit log entry
-        Map<String, Object> auditEntry = createAuditEntry("BULK_CATEGORY_UPDATE", itemIds, 
-                Map.of("newCategory", newCategory));
-        batch.set(firestore.collection("vendors")
-                .document(vendorId)
-                .collection("audit")
-                .document(), auditEntry);
-        
-        batch.commit()
-                .addOnSuccessListener(aVoid -> callback.onSuccess(null))
-                .addOnFailureListener(e -> callback.onError(e.getMessage()));
+    public void bulkUpdateCategory(String vendorId, Set<String> itemIds, String newCategory, BulkCallback callback) {
+        String operationId = newAuditId(vendorId);
+        BulkWriteEngine<String> engine = new BulkWriteEngine<>(1, 1, retryScheduler());
+
+        engine.run(new ArrayList<>(itemIds), (chunkIndex, chunk, chunkCallback) -> {
+            WriteBatch batch = firestore.batch();
+            for (String itemId : chunk) {
+                batch.update(menuDocument(vendorId, itemId), "category", newCategory);
+            }
+            addAuditEntry(batch, vendorId, operationId, chunkIndex,
+                    createAuditEntry("BULK_CATEGORY_UPDATE", chunk, Map.of("newCategory", newCategory)));
+            commit(batch, chunkCallback);
+        }, bulkListener(vendorId, callback));
     }
 
     // Bulk update prices
-    public void bulkUpdatePrices(String vendorId, Set<String> itemIds, 
+    public void bulkUpdatePrices(String vendorId, Map<String, Double> currentPrices,
                                MenuManagementViewModel.PriceUpdateType type, double value, 
-                               MenuCallback<Void> callback) {
-        
-        // First, get current prices to calculate new ones
-        List<String> itemIdsList = new ArrayList<>(itemIds);
-        getPricesForItems(vendorId, itemIdsList, new MenuCallback<Map<String, Double>>() {
-            @Override
-            public void onSuccess(Map<String, Double> currentPrices) {
-                WriteBatch batch = firestore.batch();
-                Map<String, Double> newPrices = new HashMap<>();
-                
-                for (Map.Entry<String, Double> entry : currentPrices.entrySet()) {
-                    String itemId = entry.getKey();
-                    double currentPrice = entry.getValue();
-                    double newPrice = calculateNewPrice(currentPrice, type, value);
-                    
-                    // Ensure price is not negative
-                    newPrice = Math.max(0, newPrice);
-                    newPrices.put(itemId, newPrice);
-                    
-                    batch.update(firestore.collection("vendors")
-                            .document(vendorId)
-                            .collection("menu")
-                            .document(itemId), "price", newPrice);
-                }
-                
-                // Add audit log entry
-                Map<String, Object> auditEntry = createAuditEntry("BULK_PRICE_UPDATE", itemIds,
-                        Map.of("updateType", type.toString(), "value", value, "newPrices", newPrices));
-                batch.set(firestore.collection("vendors")
-                        .document(vendorId)
-                        .collection("audit")
-                        .document(), auditEntry);
-                
-                batch.commit()
-                        .addOnSuccessListener(aVoid -> callback.onSuccess(null))
-                        .addOnFailureListener(e -> callback.onError(e.getMessage()));
-            }
+                               BulkCallback callback) {
+        // New prices are computed from the caller's cached snapshot instead of re-reading the menu,
+        // and written as absolute values so a retried chunk cannot apply the change twice
+        List<Map.Entry<String, Double>> newPrices = new ArrayList<>(currentPrices.size());
+        for (Map.Entry<String, Double> entry : currentPrices.entrySet()) {
+            double newPrice = Math.max(0, calculateNewPrice(entry.getValue(), type, value));
+            newPrices.add(new AbstractMap.SimpleImmutableEntry<>(entry.getKey(), newPrice));
+        }
 
-            @Override
-            public void onError(String error) {
-                callback.onError(error);
+        String operationId = newAuditId(vendorId);
+        BulkWriteEngine<Map.Entry<String, Double>> engine = new BulkWriteEngine<>(1, 1, retryScheduler());
+
+        engine.run(newPrices, (chunkIndex, chunk, chunkCallback) -> {
+            WriteBatch batch = firestore.batch();
+            Map<String, Double> chunkPrices = new HashMap<>();
+            for (Map.Entry<String, Double> entry : chunk) {
+                batch.update(menuDocument(vendorId, entry.getKey()), "price", entry.getValue());
+                chunkPrices.put(entry.getKey(), entry.getValue());
             }
-        });
+            addAuditEntry(batch, vendorId, operationId, chunkIndex,
+                    createAuditEntry("BULK_PRICE_UPDATE", chunkPrices.keySet(),
+                            Map.of("updateType", type.toString(), "value", value, "newPrices", chunkPrices)));
+            commit(batch, chunkCallback);
+        }, bulkListener(vendorId, callback));
     }
 
     private double calculateNewPrice(double currentPrice, MenuManagementViewModel.PriceUpdateType type, double value) {
@@ -165,89 +174,155 @@ public class MenuRepository {
         }
     }
 
-    private void getPricesForItems(String vendorId, List<String> itemIds, MenuCallback<Map<String, Double>> callback) {
-        Map<String, Double> prices = new HashMap<>();
-        
-        // Get prices for all items (simplified - in production, use batch get)
-        firestore.collection("vendors")
+    // Bulk delete (soft delete)
+    public void bulkDelete(String vendorId, Set<String> itemIds, BulkCallback callback) {
+        String operationId = newAuditId(vendorId);
+        long deletedAt = System.currentTimeMillis();
+        long restoreBy = deletedAt + (30L * 24 * 60 * 60 * 1000); // 30 days
+
+        // Two writes per item: hide it and move it to trash for recovery
+        BulkWriteEngine<String> engine = new BulkWriteEngine<>(2, 1, retryScheduler());
+
+        engine.run(new ArrayList<>(itemIds), (chunkIndex, chunk, chunkCallback) -> {
+            WriteBatch batch = firestore.batch();
+            for (String itemId : chunk) {
+                // Soft delete by setting visible = false
+                batch.update(menuDocument(vendorId, itemId), "visible", false);
+                batch.set(firestore.collection("vendors")
+                        .document(vendorId)
+                        .collection("trash")
+                        .document(itemId), Map.of(
+                            "originalId", itemId,
+                            "deletedAt", deletedAt,
+                            "restoreBy", restoreBy
+                        ));
+            }
+            addAuditEntry(batch, vendorId, operationId, chunkIndex,
+                    createAuditEntry("BULK_DELETE", chunk, Map.of()));
+            commit(batch, chunkCallback);
+        }, bulkListener(vendorId, callback));
+    }
+
+    // Retries only start the next commit, so they can wait on the main thread
+    private static BulkWriteEngine.Scheduler retryScheduler() {
+        return AppExecutors.getInstance().mainThread()::executeDelayed;
+    }
+
+    private DocumentReference menuDocument(String vendorId, String itemId) {
+        return firestore.collection("vendors")
                 .document(vendorId)
                 .collection("menu")
-                .get()
-                .addOnSuccessListener(queryDocumentSnapshots -> {
-                    for (DocumentSnapshot document : queryDocumentSnapshots.getDocuments()) {
-                        if (itemIds.contains(document.getId())) {
-                            Double price = document.getDouble("price");
-                            if (price != null) {
-                                prices.put(document.getId(), price);
-                            }
-                        }
-                    }
-                    callback.onSuccess(prices);
-                })
-                .addOnFailureListener(e -> callback.onError(e.getMessage()));
+                .document(itemId);
     }
 
-    // Bulk delete (soft delete)
-    public void bulkDelete(String vendorId, Set<String> itemIds, MenuCallback<Void> callback) {
-        WriteBatch batch = firestore.batch();
-        
-        for (String itemId : itemIds) {
-            // Soft delete by setting visible = false
-            batch.update(firestore.collection("vendors")
-                    .document(vendorId)
-                    .collection("menu")
-                    .document(itemId), "visible", false);
-            
-            // Move to trash collection for recovery
-            batch.set(firestore.collection("vendors")
-                    .document(vendorId)
-                    .collection("trash")
-                    .document(itemId), Map.of(
-                        "originalId", itemId,
-                        "deletedAt", System.currentTimeMillis(),
-                        "restoreBy", System.currentTimeMillis() + (30L * 24 * 60 * 60 * 1000) // 30 days
-                    ));
-        }
-        
-        // Add audit log entry
-        Map<String, Object> auditEntry = createAuditEntry("BULK_DELETE", itemIds, Map.of());
+    private String newAuditId(String vendorId) {
+        return firestore.collection("vendors")
+                .document(vendorId)
+                .collection("audit")
+                .document()
+                .getId();
+    }
+
+    // One audit document per chunk with a deterministic ID, so a retried chunk overwrites its own entry
+    private void addAuditEntry(WriteBatch batch, String vendorId, String operationId, int chunkIndex,
+                               Map<String, Object> auditEntry) {
+        auditEntry.put("operationId", operationId);
+        auditEntry.put("chunk", chunkIndex);
         batch.set(firestore.collection("vendors")
                 .document(vendorId)
                 .collection("audit")
-                .document(), auditEntry);
-        
-        batch.commit()
-                .addOnSuccessListener(aVoid -> callback.onSuccess(null))
-                .addOnFailureListener(e -> callback.onError(e.getMessage()));
+                .document(operationId + "_" + chunkIndex), auditEntry);
+    }
+
+    private void commit(WriteBatch batch, BulkWriteEngine.ChunkCallback chunkCallback) {
+        FirebaseMetrics.track("menu.commit", batch.commit())
+                .addOnSuccessListener(aVoid -> chunkCallback.onSuccess())
+                .addOnFailureListener(e -> chunkCallback.onError(e.getMessage()));
+    }
+
+    private BulkWriteEngine.Listener bulkListener(String vendorId, BulkCallback callback) {
+        return new BulkWriteEngine.Listener() {
+            @Override
+            public void onChunkCommitted(int completedChunks, int totalChunks, int itemsWritten) {
+                callback.onProgress(completedChunks * 100 / totalChunks,
+                        "Updated " + itemsWritten + " items (" + completedChunks + "/" + totalChunks + ")");
+            }
+
+            @Override
+            public void onComplete(int itemsWritten) {
+                MenuCatalog.getInstance(context).invalidate(vendorId);
+                callback.onSuccess(null);
+            }
+
+            @Override
+            public void onError(String error) {
+                // Earlier chunks may have committed
+                MenuCatalog.getInstance(context).invalidate(vendorId);
+                callback.onError(error);
+            }
+        };
     }
 
     // Import menu items
     public void importMenuItems(String vendorId, String filePath, String format, ImportCallback callback) {
-        executorService.execute(() -> {
+        importExecutor.execute(() -> {
             try {
-                mainHandler.post(() -> callback.onProgress(10, "Reading file..."));
-                
-                // TODO: Implement actual CSV/Excel parsing
-                // For now, simulate the process
-                Thread.sleep(1000);
-                mainHandler.post(() -> callback.onProgress(30, "Parsing items..."));
-                
-                Thread.sleep(1000);
-                mainHandler.post(() -> callback.onProgress(60, "Validating data..."));
-                
-                Thread.sleep(1000);
-                mainHandler.post(() -> callback.onProgress(80, "Uploading to database..."));
-                
-                // Simulate successful import
-                Thread.sleep(1000);
-                mainHandler.post(() -> callback.onSuccess(25)); // 25 items imported
-                
+                mainHandler.post(() -> callback.onProgress(0, "Reading file..."));
+
+                File file = new File(filePath);
+                MenuImporter.RowSource source;
+                if ("XLSX".equalsIgnoreCase(format) || filePath.toLowerCase().endsWith(".xlsx")) {
+                    source = new XlsxRowReader(file);
+                } else {
+                    source = new CsvRowReader(new FileInputStream(file), file.length());
+                }
+
+                MenuImporter importer = new MenuImporter(vendorId, validationExecutor,
+                        (items, commitCallback) -> commitImportBatch(vendorId, items, commitCallback));
+                MenuImporter.Result result = importer.run(source,
+                        (progress, status) -> mainHandler.post(() -> callback.onProgress(progress, status)));
+
+                MenuCatalog.getInstance(context).invalidate(vendorId);
+                if (result.skipped > 0) {
+                    mainHandler.post(() -> callback.onProgress(100,
+                            "Skipped " + result.skipped + " invalid rows"));
+                }
+                mainHandler.post(() -> callback.onSuccess(result.imported));
+
             } catch (Exception e) {
+                MenuCatalog.getInstance(context).invalidate(vendorId);
                 mainHandler.post(() -> callback.onError(e.getMessage()));
             }
         });
     }
 
+    private void commitImportBatch(String vendorId, List<MenuItem> items, MenuImporter.CommitCallback callback) {
+        WriteBatch batch = firestore.batch();
+        for (MenuItem item : items) {
+            Map<String, Object> data = new HashMap<>();
+            data.put("name", item.getName());
+            data.put("description", item.getDescription());
+            data.put("price", item.getPrice());
+            data.put("category", item.getCategory());
+            data.put("available", item.isAvailable());
+            data.put("imageUrl", item.getImageUrl());
+            data.put("vendorId", vendorId);
+            data.put("visible", true);
+            data.put("createdAt", item.getCreatedAt());
+            data.put("lastUpdated", item.getLastUpdated());
+
+            batch.set(firestore.collection("vendors")
+                    .document(vendorId)
+                    .collection("menu")
+                    .document(), data);
+        }
+
+        FirebaseMetrics.track("menu.commitImportBatch", batch.commit())
+                // Not on the import's lane, which is blocked waiting for these to free a slot
+                .addOnSuccessListener(validationExecutor, aVoid -> callback.onSuccess())
+                .addOnFailureListener(validationExecutor, e -> callback.onError(e.getMessage()));
+    }
+
     // Export menu items
     public void exportMenuItems(String vendorId, List<MenuItem> items, String format, ExportCallback callback) {
         executorService.execute(() -> {
@@ -352,7 +427,7 @@ public class MenuRepository {
                    .replace("\t", "\\t");
     }
 
-    private Map<String, Object> createAuditEntry(String action, Set<String> itemIds, Map<String, Object> metadata) {
+    private Map<String, Object> createAuditEntry(String action, Collection<String> itemIds, Map<String, Object> metadata) {
         Map<String, Object> auditEntry = new HashMap<>();
         auditEntry.put("action", action);
         auditEntry.put("itemIds", new ArrayList<>(itemIds));
@@ -360,10 +435,4 @@ public class MenuRepository {
         auditEntry.put("metadata", metadata);
         return auditEntry;
     }
-
-    public void cleanup() {
-        if (executorService != null && !executorService.isShutdown()) {
-            executorService.shutdown();
-        }
-    }
 }
@@ -0,0 +1,74 @@
+package com.example.foodvan.repositories;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.lifecycle.LiveData;
+
+import com.example.foodvan.database.OrderDao;
+import com.example.foodvan.database.OrderDatabase;
+import com.example.foodvan.database.OrderMutationEntity;
+import com.example.foodvan.database.OrderOutboxDao;
+import com.example.foodvan.utils.AppExecutors;
+import com.example.foodvan.workers.OrderOutboxWorker;
+
+import java.util.Locale;
+import java.util.concurrent.Executor;
+
+/**
+ * OrderOutboxRepository - Records order status changes locally and lets OrderOutboxWorker
+ * push them to the server. The cached order moves to the new status straight away, so
+ * vendors can keep working through a dead zone; the change is stamped with the time it was
+ * made, which is what the flush compares against the server copy.
+ */
+public class OrderOutboxRepository {
+
+    private static final String TAG = "OrderOutboxRepository";
+
+    private static volatile OrderOutboxRepository instance;
+
+    private final Context context;
+    private final OrderOutboxDao outboxDao;
+    private final OrderDao orderDao;
+    private final Executor ioExecutor;
+
+    private OrderOutboxRepository(Context context) {
+        this.context = context.getApplicationContext();
+        OrderDatabase database = OrderDatabase.getInstance(this.context);
+        this.outboxDao = database.orderOutboxDao();
+        this.orderDao = database.orderDao();
+        this.ioExecutor = AppExecutors.getInstance().serialExecutor("order_outbox");
+    }
+
+    public static OrderOutboxRepository getInstance(Context context) {
+        if (instance == null) {
+            synchronized (OrderOutboxRepository.class) {
+                if (instance == null) {
+                    instance = new OrderOutboxRepository(context);
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Queues a status change and schedules a flush.
+     *
+     * @param backend  OrderOutbox.BACKEND_REALTIME or OrderOutbox.BACKEND_FIRESTORE
+     * @param vendorId owner of the vendor_orders index entry, if any
+     * @param reason   cancellation reason, or null
+     */
+    public void enqueueStatusChange(String backend, String orderId, String vendorId, String status, String reason) {
+        long clientTime = System.currentTimeMillis();
+        ioExecutor.execute(() -> {
+            outboxDao.insert(OrderMutationEntity.create(backend, orderId, vendorId, status, clientTime, reason));
+            orderDao.updateStatus(orderId, status.toUpperCase(Locale.US), clientTime);
+            Log.d(TAG, "Queued " + status + " for order " + orderId);
+            OrderOutboxWorker.schedule(context);
+        });
+    }
+
+    public LiveData<Integer> getPendingCount() {
+        return outboxDao.observePendingCount();
+    }
+}
@@ -1,21 +1,68 @@
 package com.example.foodvan.repositories;
 
 import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
 
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+import androidx.lifecycle.Transformations;
+import androidx.paging.Pager;
+import androidx.paging.PagingConfig;
+import androidx.paging.PagingData;
+import androidx.paging.PagingDataTransforms;
+import androidx.paging.PagingLiveData;
+
+import com.example.foodvan.database.OrderDao;
+import com.example.foodvan.database.OrderDatabase;
+import com.example.foodvan.database.OrderEntity;
+import com.example.foodvan.database.OrderSyncStateEntity;
 import com.example.foodvan.models.Order;
+import com.example.foodvan.models.OrderMapper;
+import com.example.foodvan.utils.AppExecutors;
+import com.example.foodvan.utils.FirebaseMetrics;
+import com.example.foodvan.utils.OrderHistoryQuery;
+import com.example.foodvan.utils.OrderOutbox;
+import com.example.foodvan.utils.OrderPageCursor;
+import com.example.foodvan.utils.SnapshotMappers;
 import com.google.firebase.auth.FirebaseAuth;
+import com.google.firebase.firestore.FieldPath;
 import com.google.firebase.firestore.FirebaseFirestore;
 import com.google.firebase.firestore.Query;
 import com.google.firebase.firestore.QueryDocumentSnapshot;
+import com.google.firebase.firestore.QuerySnapshot;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 
+/**
+ * OrderRepository - Order history is served from the local Room cache and filled from
+ * Firestore with cursor-paged queries: new orders above the newest cached one when a
+ * history opens, older pages below the oldest cached one when the list reaches its end.
+ */
 public class OrderRepository {
 
+    private static final String TAG = "OrderRepository";
+    private static final String ORDERS_COLLECTION = "orders";
+    private static final String CUSTOMER_ID = OrderMapper.CUSTOMER_ID;
+    private static final String VENDOR_ID = OrderMapper.VENDOR_ID;
+    private static final String ORDER_TIME = OrderMapper.ORDER_TIME;
+    public static final int PAGE_SIZE = 20;
+    // Firestore limit for whereIn values
+    private static final int MAX_IN_VALUES = 30;
+
     private final Context context;
     private final FirebaseFirestore db;
     private final FirebaseAuth auth;
+    private final OrderDao orderDao;
+    private final Executor ioExecutor;
+    private final Handler mainHandler;
+    private final Set<String> olderPagesInFlight = ConcurrentHashMap.newKeySet();
 
     public interface OnOrdersLoadListener {
         void onSuccess(List<Order> orders);
@@ -27,35 +74,84 @@ public class OrderRepository {
         void onError(String error);
     }
 
+    public interface OnSyncListener {
+        void onSuccess(int ordersFetched, boolean reachedEnd);
+        void onError(String error);
+    }
+
     public OrderRepository(Context context) {
         this.context = context;
         this.db = FirebaseFirestore.getInstance();
         this.auth = FirebaseAuth.getInstance();
+        this.orderDao = OrderDatabase.getInstance(context).orderDao();
+        this.ioExecutor = AppExecutors.getInstance().serialExecutor("orders");
+        this.mainHandler = new Handler(Looper.getMainLooper());
+    }
+
+    /**
+     * Pages the signed-in customer's cached history, newest first. Filter and search run as
+     * indexed Room queries, so the list renders from disk without waiting for the network.
+     *
+     * @param filter one of the OrderHistoryQuery.FILTER_* values
+     */
+    public LiveData<PagingData<Order>> getCustomerOrderHistory(String filter, String search) {
+        String customerId = getCurrentCustomerId();
+        if (customerId == null) {
+            return new MutableLiveData<>(PagingData.empty());
+        }
+
+        List<String> statuses = OrderHistoryQuery.statusesFor(filter);
+        String match = OrderHistoryQuery.toFtsMatch(search);
+        Pager<Integer, OrderEntity> pager = new Pager<>(new PagingConfig(PAGE_SIZE, PAGE_SIZE, false), () -> {
+            if (match != null) {
+                return orderDao.searchCustomerOrders(customerId, match, statuses == null,
+                        statuses != null ? statuses : Collections.emptyList());
+            } else if (statuses != null) {
+                return orderDao.getCustomerOrdersByStatus(customerId, statuses);
+            }
+            return orderDao.getCustomerOrders(customerId);
+        });
+        return Transformations.map(PagingLiveData.getLiveData(pager),
+                pagingData -> PagingDataTransforms.map(pagingData, ioExecutor, OrderEntity::toOrder));
+    }
+
+    /**
+     * Fetches only orders placed since the newest cached one, and refreshes cached orders
+     * that are still in progress since their status may have moved on.
+     */
+    public void syncCustomerOrders(OnSyncListener listener) {
+        String customerId = getCurrentCustomerId();
+        if (customerId == null) {
+            listener.onError("User not authenticated");
+            return;
+        }
+        refreshOngoingOrders(CUSTOMER_ID, customerId);
+        syncNewerOrders(CUSTOMER_ID, customerId, listener);
     }
 
+    /**
+     * Fetches the next older page into the cache; the paged list picks it up automatically.
+     */
+    public void loadOlderCustomerOrders(OnSyncListener listener) {
+        String customerId = getCurrentCustomerId();
+        if (customerId == null) {
+            listener.onError("User not authenticated");
+            return;
+        }
+        loadOlderOrders(CUSTOMER_ID, customerId, listener);
+    }
+
+    /**
+     * Delivers the cached history straight away, then again after new orders and one
+     * older page have been fetched. Further pages are left to loadOlder calls.
+     */
     public void loadVendorOrders(OnOrdersLoadListener listener) {
         String vendorId = getCurrentVendorId();
         if (vendorId == null) {
             listener.onError("User not authenticated");
             return;
         }
-
-        db.collection("orders")
-                .whereEqualTo("vendorId", vendorId)
-                .orderBy("orderTime", Query.Direction.DESCENDING)
-                .get()
-                .addOnSuccessListener(queryDocumentSnapshots -> {
-                    List<Order> orders = new ArrayList<>();
-                    for (QueryDocumentSnapshot document : queryDocumentSnapshots) {
-                        Order order = document.toObject(Order.class);
-                        order.setOrderId(document.getId());
-                        orders.add(order);
-                    }
-                    listener.onSuccess(orders);
-                })
-                .addOnFailureListener(e -> {
-                    listener.onError("Failed to load orders: " + e.getMessage());
-                });
+        loadOwnerOrders(VENDOR_ID, vendorId, listener);
     }
 
     public void loadCustomerOrders(OnOrdersLoadListener listener) {
@@ -64,40 +160,201 @@ public class OrderRepository {
             listener.onError("User not authenticated");
             return;
         }
+        loadOwnerOrders(CUSTOMER_ID, customerId, listener);
+    }
+
+    private void loadOwnerOrders(String ownerField, String ownerId, OnOrdersLoadListener listener) {
+        deliverCachedOrders(ownerField, ownerId, listener);
+        refreshOngoingOrders(ownerField, ownerId);
+        syncNewerOrders(ownerField, ownerId, new OnSyncListener() {
+            @Override
+            public void onSuccess(int ordersFetched, boolean reachedEnd) {
+                loadOlderPage(ownerField, ownerId, listener);
+            }
 
-        db.collection("orders")
-                .whereEqualTo("customerId", customerId)
-                .orderBy("orderTime", Query.Direction.DESCENDING)
-                .get()
-                .addOnSuccessListener(queryDocumentSnapshots -> {
-                    List<Order> orders = new ArrayList<>();
-                    for (QueryDocumentSnapshot document : queryDocumentSnapshots) {
-                        Order order = document.toObject(Order.class);
-                        order.setOrderId(document.getId());
-                        orders.add(order);
+            @Override
+            public void onError(String error) {
+                listener.onError(error);
+            }
+        });
+    }
+
+    private void loadOlderPage(String ownerField, String ownerId, OnOrdersLoadListener listener) {
+        loadOlderOrders(ownerField, ownerId, new OnSyncListener() {
+            @Override
+            public void onSuccess(int ordersFetched, boolean reachedEnd) {
+                deliverCachedOrders(ownerField, ownerId, listener);
+            }
+
+            @Override
+            public void onError(String error) {
+                listener.onError(error);
+            }
+        });
+    }
+
+    private void deliverCachedOrders(String ownerField, String ownerId, OnOrdersLoadListener listener) {
+        ioExecutor.execute(() -> {
+            List<OrderEntity> entities = VENDOR_ID.equals(ownerField)
+                    ? orderDao.getVendorOrderList(ownerId)
+                    : orderDao.getCustomerOrderList(ownerId);
+            List<Order> orders = new ArrayList<>(entities.size());
+            for (OrderEntity entity : entities) {
+                orders.add(entity.toOrder());
+            }
+            mainHandler.post(() -> listener.onSuccess(orders));
+        });
+    }
+
+    private void syncNewerOrders(String ownerField, String ownerId, OnSyncListener listener) {
+        ioExecutor.execute(() -> fetchNewerPage(ownerField, ownerId, loadSyncState(ownerField, ownerId), 0, listener));
+    }
+
+    /**
+     * The first sync of a history fetches only its newest page. Later syncs walk forward from
+     * the newest cached order, page by page, until they catch up.
+     */
+    private void fetchNewerPage(String ownerField, String ownerId, OrderSyncStateEntity state,
+                                int fetchedSoFar, OnSyncListener listener) {
+        boolean firstSync = state.isEmpty();
+        Query query = db.collection(ORDERS_COLLECTION).whereEqualTo(ownerField, ownerId);
+        if (firstSync) {
+            query = query.orderBy(ORDER_TIME, Query.Direction.DESCENDING)
+                    .orderBy(FieldPath.documentId(), Query.Direction.DESCENDING);
+        } else {
+            query = query.orderBy(ORDER_TIME, Query.Direction.ASCENDING)
+                    .orderBy(FieldPath.documentId(), Query.Direction.ASCENDING)
+                    .startAfter(state.getNewestOrderTime(), state.getNewestOrderId());
+        }
+
+        FirebaseMetrics.track("orders.fetchNewerPage", query.limit(PAGE_SIZE).get())
+                .addOnSuccessListener(snapshots -> ioExecutor.execute(() -> {
+                    List<Order> page = toOrders(snapshots);
+                    storeOrders(page);
+                    OrderPageCursor cursor = state.toCursor();
+                    boolean more = cursor.onNewerPage(page, PAGE_SIZE);
+                    state.setCursor(cursor);
+                    state.setLastSyncedAt(System.currentTimeMillis());
+                    // An older page may have landed meanwhile; only the newest cursor is ours
+                    OrderSyncStateEntity stored = orderDao.saveNewerPage(state);
+
+                    int fetched = fetchedSoFar + page.size();
+                    if (more) {
+                        fetchNewerPage(ownerField, ownerId, stored, fetched, listener);
+                    } else {
+                        mainHandler.post(() -> listener.onSuccess(fetched, stored.isReachedEnd()));
                     }
-                    listener.onSuccess(orders);
-                })
+                }))
                 .addOnFailureListener(e -> {
-                    listener.onError("Failed to load orders: " + e.getMessage());
+                    Log.e(TAG, "Error syncing new orders", e);
+                    mainHandler.post(() -> listener.onError("Failed to load orders: " + e.getMessage()));
                 });
     }
 
+    private void loadOlderOrders(String ownerField, String ownerId, OnSyncListener listener) {
+        String scope = OrderSyncStateEntity.scopeFor(ownerField, ownerId);
+        if (!olderPagesInFlight.add(scope)) {
+            // The page in flight lands in the cache on its own; report where paging stands now
+            ioExecutor.execute(() -> {
+                boolean reachedEnd = loadSyncState(ownerField, ownerId).isReachedEnd();
+                mainHandler.post(() -> listener.onSuccess(0, reachedEnd));
+            });
+            return;
+        }
+
+        ioExecutor.execute(() -> {
+            OrderSyncStateEntity state = loadSyncState(ownerField, ownerId);
+            if (state.isEmpty() || state.isReachedEnd()) {
+                // Nothing cached yet means the newest page has not been fetched; that sync also sets the cursor
+                olderPagesInFlight.remove(scope);
+                mainHandler.post(() -> listener.onSuccess(0, state.isReachedEnd()));
+                return;
+            }
+
+            FirebaseMetrics.track("orders.loadOlderOrders", db.collection(ORDERS_COLLECTION)
+                    .whereEqualTo(ownerField, ownerId)
+                    .orderBy(ORDER_TIME, Query.Direction.DESCENDING)
+                    .orderBy(FieldPath.documentId(), Query.Direction.DESCENDING)
+                    .startAfter(state.getOldestOrderTime(), state.getOldestOrderId())
+                    .limit(PAGE_SIZE)
+                    .get())
+                    .addOnSuccessListener(snapshots -> ioExecutor.execute(() -> {
+                        List<Order> page = toOrders(snapshots);
+                        storeOrders(page);
+                        OrderPageCursor cursor = state.toCursor();
+                        cursor.onOlderPage(page, PAGE_SIZE);
+                        // Leaves the newest cursor alone, which a sync may have moved meanwhile
+                        orderDao.setOldestCursor(scope, cursor.oldestOrderTime, cursor.oldestOrderId,
+                                cursor.reachedEnd);
+                        state.setCursor(cursor);
+                        olderPagesInFlight.remove(scope);
+                        mainHandler.post(() -> listener.onSuccess(page.size(), state.isReachedEnd()));
+                    }))
+                    .addOnFailureListener(e -> {
+                        olderPagesInFlight.remove(scope);
+                        Log.e(TAG, "Error loading older orders", e);
+                        mainHandler.post(() -> listener.onError("Failed to load orders: " + e.getMessage()));
+                    });
+        });
+    }
+
+    /**
+     * Re-reads cached orders that have not finished yet, the only ones whose status can change.
+     */
+    private void refreshOngoingOrders(String ownerField, String ownerId) {
+        ioExecutor.execute(() -> {
+            List<String> orderIds = VENDOR_ID.equals(ownerField)
+                    ? orderDao.getVendorOrderIdsByStatus(ownerId, OrderHistoryQuery.ONGOING_STATUSES)
+                    : orderDao.getCustomerOrderIdsByStatus(ownerId, OrderHistoryQuery.ONGOING_STATUSES);
+            for (List<String> chunk : OrderPageCursor.chunk(orderIds, MAX_IN_VALUES)) {
+                FirebaseMetrics.track("orders.refreshOngoingOrders", db.collection(ORDERS_COLLECTION)
+                        .whereIn(FieldPath.documentId(), chunk)
+                        .get())
+                        .addOnSuccessListener(snapshots -> ioExecutor.execute(() -> storeOrders(toOrders(snapshots))))
+                        .addOnFailureListener(e -> Log.w(TAG, "Error refreshing ongoing orders", e));
+            }
+        });
+    }
+
+    private OrderSyncStateEntity loadSyncState(String ownerField, String ownerId) {
+        String scope = OrderSyncStateEntity.scopeFor(ownerField, ownerId);
+        OrderSyncStateEntity state = orderDao.getSyncState(scope);
+        if (state == null) {
+            state = new OrderSyncStateEntity();
+            state.setScope(scope);
+        }
+        return state;
+    }
+
+    private void storeOrders(List<Order> orders) {
+        if (orders.isEmpty()) return;
+        List<OrderEntity> entities = new ArrayList<>(orders.size());
+        for (Order order : orders) {
+            entities.add(OrderEntity.fromOrder(order));
+        }
+        orderDao.insertOrders(entities);
+    }
+
+    private static List<Order> toOrders(QuerySnapshot snapshots) {
+        List<Order> orders = new ArrayList<>();
+        for (QueryDocumentSnapshot document : snapshots) {
+            Order order = SnapshotMappers.get(document, Order.class);
+            order.setOrderId(document.getId());
+            orders.add(order);
+        }
+        return orders;
+    }
+
     public void updateOrderStatus(String orderId, String newStatus, OnOrderOperationListener listener) {
         if (orderId == null || orderId.isEmpty()) {
             listener.onError("Order ID is required");
             return;
         }
 
-        db.collection("orders")
-                .document(orderId)
-                .update("status", newStatus, "lastUpdated", System.currentTimeMillis())
-                .addOnSuccessListener(aVoid -> {
-                    listener.onSuccess("Order status updated successfully");
-                })
-                .addOnFailureListener(e -> {
-                    listener.onError("Failed to update order status: " + e.getMessage());
-                });
+        // Applied to the cache now and flushed by OrderOutboxWorker when online
+        OrderOutboxRepository.getInstance(context)
+                .enqueueStatusChange(OrderOutbox.BACKEND_FIRESTORE, orderId, null, newStatus, null);
+        listener.onSuccess("Order status updated successfully");
     }
 
     public void cancelOrder(String orderId, String reason, OnOrderOperationListener listener) {
@@ -106,20 +363,9 @@ public class OrderRepository {
             return;
         }
 
-        db.collection("orders")
-                .document(orderId)
-                .update(
-                        "status", "cancelled",
-                        "cancellationReason", reason,
-                        "cancelledAt", System.currentTimeMillis(),
-                        "lastUpdated", System.currentTimeMillis()
-                )
-                .addOnSuccessListener(aVoid -> {
-                    listener.onSuccess("Order cancelled successfully");
-                })
-                .addOnFailureListener(e -> {
-                    listener.onError("Failed to cancel order: " + e.getMessage());
-                });
+        OrderOutboxRepository.getInstance(context)
+                .enqueueStatusChange(OrderOutbox.BACKEND_FIRESTORE, orderId, null, "cancelled", reason);
+        listener.onSuccess("Order cancelled successfully");
     }
 
     public void getOrderById(String orderId, OnOrderLoadListener listener) {
@@ -128,12 +374,12 @@ public class OrderRepository {
             return;
         }
 
-        db.collection("orders")
+        FirebaseMetrics.track("orders.getOrderById", db.collection("orders")
                 .document(orderId)
-                .get()
+                .get())
                 .addOnSuccessListener(documentSnapshot -> {
                     if (documentSnapshot.exists()) {
-                        Order order = documentSnapshot.toObject(Order.class);
+                        Order order = SnapshotMappers.get(documentSnapshot, Order.class);
                         if (order != null) {
                             order.setOrderId(documentSnapshot.getId());
                             listener.onSuccess(order);
@@ -2,7 +2,7 @@ package com.example.foodvan.repositories;
 
 import android.content.Context;
 import android.graphics.Bitmap;
-import android.graphics.Color;
+import android.graphics.BitmapFactory;
 import android.util.Base64;
 import android.util.Log;
 
@@ -12,16 +12,16 @@ import com.example.foodvan.models.BankAccountDetails;
 import com.example.foodvan.models.PaymentTransaction;
 import com.example.foodvan.models.PayoutSettings;
 import com.example.foodvan.models.UpiDetails;
+import com.example.foodvan.utils.AppExecutors;
+import com.example.foodvan.utils.FirebaseMetrics;
+import com.example.foodvan.utils.QrCodeCache;
 import com.example.foodvan.utils.SessionManager;
+import com.example.foodvan.utils.TaskScope;
 import com.google.firebase.firestore.DocumentSnapshot;
 import com.google.firebase.firestore.FirebaseFirestore;
 import com.google.firebase.firestore.Query;
-import com.google.zxing.BarcodeFormat;
 import com.google.zxing.WriterException;
-import com.google.zxing.common.BitMatrix;
-import com.google.zxing.qrcode.QRCodeWriter;
 
-import java.io.ByteArrayOutputStream;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -41,15 +41,21 @@ public class PaymentRepository {
     private static final String UPI_DETAILS_FIELD = "upiDetails";
     private static final String PAYOUT_SETTINGS_FIELD = "payoutSettings";
     private static final String PAYMENT_HISTORY_COLLECTION = "paymentHistory";
+    private static final int QR_CODE_SIZE = 512;
 
     private FirebaseFirestore firestore;
     private SessionManager sessionManager;
     private String vendorId;
+    private final QrCodeCache qrCodeCache;
+    // QR generation and simulated verifications; cancelled with the owning ViewModel
+    private final TaskScope scope;
 
     public PaymentRepository(Context context) {
         firestore = FirebaseFirestore.getInstance();
         sessionManager = new SessionManager(context);
         vendorId = sessionManager.getUserId();
+        qrCodeCache = QrCodeCache.getInstance(context);
+        scope = AppExecutors.getInstance().newScope();
     }
 
     // Callback interfaces
@@ -70,9 +76,9 @@ public class PaymentRepository {
             return;
         }
 
-        firestore.collection(VENDORS_COLLECTION)
+        FirebaseMetrics.track("payments.getBankAccountDetails", firestore.collection(VENDORS_COLLECTION)
                 .document(vendorId)
-                .get()
+                .get())
                 .addOnSuccessListener(documentSnapshot -> {
                     if (documentSnapshot.exists() && documentSnapshot.contains(BANK_DETAILS_FIELD)) {
                         try {
@@ -101,9 +107,9 @@ public class PaymentRepository {
         Map<String, Object> updates = new HashMap<>();
         updates.put(BANK_DETAILS_FIELD, details);
 
-        firestore.collection(VENDORS_COLLECTION)
+        FirebaseMetrics.track("payments.saveBankAccountDetails", firestore.collection(VENDORS_COLLECTION)
                 .document(vendorId)
-                .update(updates)
+                .update(updates))
                 .addOnSuccessListener(aVoid -> {
                     Log.d(TAG, "Bank details saved successfully");
                     callback.onSuccess();
@@ -111,9 +117,9 @@ public class PaymentRepository {
                 .addOnFailureListener(e -> {
                     Log.e(TAG, "Error updating bank details, trying to create document", e);
                     // If update fails, try to create the document
-                    firestore.collection(VENDORS_COLLECTION)
+                    FirebaseMetrics.track("payments.saveBankAccountDetails", firestore.collection(VENDORS_COLLECTION)
                             .document(vendorId)
-                            .set(updates)
+                            .set(updates))
                             .addOnSuccessListener(aVoid -> {
                                 Log.d(TAG, "Bank details saved successfully (new document)");
                                 callback.onSuccess();
@@ -165,8 +171,7 @@ public class PaymentRepository {
 
         // Simulate bank account verification process
         // In real implementation, this would call a bank verification API
-        android.os.Handler handler = new android.os.Handler();
-        handler.postDelayed(() -> {
+        scope.mainDelayed(() -> {
             // Simulate verification success (90% success rate for demo)
             boolean verificationSuccess = Math.random() > 0.1;
             
@@ -209,9 +214,9 @@ public class PaymentRepository {
             return;
         }
 
-        firestore.collection(VENDORS_COLLECTION)
+        FirebaseMetrics.track("payments.getUpiDetails", firestore.collection(VENDORS_COLLECTION)
                 .document(vendorId)
-                .get()
+                .get())
                 .addOnSuccessListener(documentSnapshot -> {
                     if (documentSnapshot.exists() && documentSnapshot.contains(UPI_DETAILS_FIELD)) {
                         try {
@@ -240,9 +245,9 @@ public class PaymentRepository {
         Map<String, Object> updates = new HashMap<>();
         updates.put(UPI_DETAILS_FIELD, details);
 
-        firestore.collection(VENDORS_COLLECTION)
+        FirebaseMetrics.track("payments.saveUpiDetails", firestore.collection(VENDORS_COLLECTION)
                 .document(vendorId)
-                .update(updates)
+                .update(updates))
                 .addOnSuccessListener(aVoid -> {
                     Log.d(TAG, "UPI details saved successfully");
                     callback.onSuccess();
@@ -250,9 +255,9 @@ public class PaymentRepository {
                 .addOnFailureListener(e -> {
                     Log.e(TAG, "Error updating UPI details, trying to create document", e);
                     // If update fails, try to create the document
-                    firestore.collection(VENDORS_COLLECTION)
+                    FirebaseMetrics.track("payments.saveUpiDetails", firestore.collection(VENDORS_COLLECTION)
                             .document(vendorId)
-                            .set(updates)
+                            .set(updates))
                             .addOnSuccessListener(aVoid -> {
                                 Log.d(TAG, "UPI details saved successfully (new document)");
                                 callback.onSuccess();
@@ -292,8 +297,7 @@ public class PaymentRepository {
                 upiDetails.setUpiId(upiId);
                 
                 // Simulate UPI verification process
-                android.os.Handler handler = new android.os.Handler();
-                handler.postDelayed(() -> {
+                scope.mainDelayed(() -> {
                     // Simulate verification success (85% success rate for demo)
                     boolean verificationSuccess = Math.random() > 0.15;
                     
@@ -337,68 +341,102 @@ public class PaymentRepository {
         return upiId != null && upiId.matches("^[a-zA-Z0-9.\\-_]{2,256}@[a-zA-Z]{2,64}$");
     }
 
+    public static String buildUpiPaymentUrl(String upiId) {
+        return "upi://pay?pa=" + upiId + "&pn=Food Van Vendor&cu=INR";
+    }
+
     public void generateUpiQrCode(String upiId, DataCallback<Bitmap> callback) {
-        try {
-            // Create UPI payment URL
-            String upiUrl = "upi://pay?pa=" + upiId + "&pn=Food Van Vendor&cu=INR";
-            
-            // Generate QR code
-            QRCodeWriter writer = new QRCodeWriter();
-            BitMatrix bitMatrix = writer.encode(upiUrl, BarcodeFormat.QR_CODE, 512, 512);
-            
-            int width = bitMatrix.getWidth();
-            int height = bitMatrix.getHeight();
-            Bitmap bitmap = Bitmap.createBitmap(width, height, Bitmap.Config.RGB_565);
-            
-            for (int x = 0; x < width; x++) {
-                for (int y = 0; y < height; y++) {
-                    bitmap.setPixel(x, y, bitMatrix.get(x, y) ? Color.BLACK : Color.WHITE);
-                }
-            }
-            
-            // Save QR code data to UPI details
-            String qrData = bitmapToBase64(bitmap);
-            getUpiDetails(new DataCallback<UpiDetails>() {
-                @Override
-                public void onSuccess(UpiDetails upiDetails) {
-                    if (upiDetails != null) {
-                        upiDetails.setQrCodeData(qrData);
-                        saveUpiDetails(upiDetails, new OperationCallback() {
-                            @Override
-                            public void onSuccess() {
-                                callback.onSuccess(bitmap);
-                            }
+        String paymentUrl = buildUpiPaymentUrl(upiId);
 
-                            @Override
-                            public void onError(String error) {
-                                callback.onSuccess(bitmap); // Still return bitmap even if save fails
-                            }
-                        });
-                    } else {
-                        callback.onSuccess(bitmap);
+        loadQrCode(upiId, paymentUrl, null, new DataCallback<Bitmap>() {
+            @Override
+            public void onSuccess(Bitmap bitmap) {
+                // Only the payment URL is stored remotely; the image is regenerated locally
+                getUpiDetails(new DataCallback<UpiDetails>() {
+                    @Override
+                    public void onSuccess(UpiDetails upiDetails) {
+                        if (upiDetails != null && (!paymentUrl.equals(upiDetails.getPaymentUrl())
+                                || upiDetails.getQrCodeData() != null)) {
+                            upiDetails.setPaymentUrl(paymentUrl);
+                            upiDetails.setQrCodeData(null);
+                            saveUpiDetails(upiDetails, new OperationCallback() {
+                                @Override
+                                public void onSuccess() {
+                                    callback.onSuccess(bitmap);
+                                }
+
+                                @Override
+                                public void onError(String error) {
+                                    callback.onSuccess(bitmap); // Still return bitmap even if save fails
+                                }
+                            });
+                        } else {
+                            callback.onSuccess(bitmap);
+                        }
                     }
-                }
 
-                @Override
-                public void onError(String error) {
-                    callback.onSuccess(bitmap); // Still return bitmap even if UPI details fetch fails
-                }
-            });
-            
-        } catch (WriterException e) {
-            Log.e(TAG, "Error generating QR code", e);
-            callback.onError("Failed to generate QR code: " + e.getMessage());
-        }
+                    @Override
+                    public void onError(String error) {
+                        callback.onSuccess(bitmap); // Still return bitmap even if UPI details fetch fails
+                    }
+                });
+            }
+
+            @Override
+            public void onError(String error) {
+                callback.onError(error);
+            }
+        });
     }
 
-    public void loadQrCodeFromData(String qrData, DataCallback<Bitmap> callback) {
-        try {
-            Bitmap bitmap = base64ToBitmap(qrData);
-            callback.onSuccess(bitmap);
-        } catch (Exception e) {
-            Log.e(TAG, "Error loading QR code from data", e);
-            callback.onError("Failed to load QR code");
+    /**
+     * @param legacyQrCodeData base64 PNG saved by older versions, used only without a UPI ID
+     */
+    public void loadQrCode(String upiId, String paymentUrl, String legacyQrCodeData,
+                           DataCallback<Bitmap> callback) {
+        if (upiId == null || upiId.trim().isEmpty()) {
+            if (legacyQrCodeData != null && !legacyQrCodeData.isEmpty()) {
+                loadLegacyQrCode(legacyQrCodeData, callback);
+            } else {
+                callback.onError("UPI ID is required to load QR code");
+            }
+            return;
         }
+        String url = paymentUrl != null ? paymentUrl : buildUpiPaymentUrl(upiId);
+
+        Bitmap cached = qrCodeCache.getFromMemory(upiId, url);
+        if (cached != null) {
+            callback.onSuccess(cached);
+            return;
+        }
+
+        scope.cpu(() -> {
+            try {
+                Bitmap bitmap = qrCodeCache.get(upiId, url, QR_CODE_SIZE);
+                scope.main(() -> callback.onSuccess(bitmap));
+            } catch (WriterException e) {
+                Log.e(TAG, "Error generating QR code", e);
+                scope.main(() -> callback.onError("Failed to generate QR code: " + e.getMessage()));
+            }
+        });
+    }
+
+    private void loadLegacyQrCode(String qrCodeData, DataCallback<Bitmap> callback) {
+        scope.cpu(() -> {
+            Bitmap bitmap = null;
+            try {
+                byte[] png = Base64.decode(qrCodeData, Base64.DEFAULT);
+                bitmap = BitmapFactory.decodeByteArray(png, 0, png.length);
+            } catch (IllegalArgumentException e) {
+                Log.e(TAG, "Error decoding saved QR code", e);
+            }
+            Bitmap decoded = bitmap;
+            if (decoded != null) {
+                scope.main(() -> callback.onSuccess(decoded));
+            } else {
+                scope.main(() -> callback.onError("Failed to load QR code"));
+            }
+        });
     }
 
     // Payment History Operations
@@ -408,11 +446,11 @@ public class PaymentRepository {
             return;
         }
 
-        firestore.collection(PAYMENT_HISTORY_COLLECTION)
+        FirebaseMetrics.track("payments.getPaymentHistory", firestore.collection(PAYMENT_HISTORY_COLLECTION)
                 .whereEqualTo("vendorId", vendorId)
                 .orderBy("timestamp", Query.Direction.DESCENDING)
                 .limit(50)
-                .get()
+                .get())
                 .addOnSuccessListener(queryDocumentSnapshots -> {
                     List<PaymentTransaction> transactions = new ArrayList<>();
                     for (DocumentSnapshot document : queryDocumentSnapshots.getDocuments()) {
@@ -440,9 +478,9 @@ public class PaymentRepository {
             return;
         }
 
-        firestore.collection(VENDORS_COLLECTION)
+        FirebaseMetrics.track("payments.getPayoutSettings", firestore.collection(VENDORS_COLLECTION)
                 .document(vendorId)
-                .get()
+                .get())
                 .addOnSuccessListener(documentSnapshot -> {
                     if (documentSnapshot.exists() && documentSnapshot.contains(PAYOUT_SETTINGS_FIELD)) {
                         try {
@@ -471,9 +509,9 @@ public class PaymentRepository {
         Map<String, Object> updates = new HashMap<>();
         updates.put(PAYOUT_SETTINGS_FIELD, settings);
 
-        firestore.collection(VENDORS_COLLECTION)
+        FirebaseMetrics.track("payments.savePayoutSettings", firestore.collection(VENDORS_COLLECTION)
                 .document(vendorId)
-                .update(updates)
+                .update(updates))
                 .addOnSuccessListener(aVoid -> {
                     Log.d(TAG, "Payout settings saved successfully");
                     callback.onSuccess();
@@ -481,9 +519,9 @@ public class PaymentRepository {
                 .addOnFailureListener(e -> {
                     Log.e(TAG, "Error updating payout settings, trying to create document", e);
                     // If update fails, try to create the document
-                    firestore.collection(VENDORS_COLLECTION)
+                    FirebaseMetrics.track("payments.savePayoutSettings", firestore.collection(VENDORS_COLLECTION)
                             .document(vendorId)
-                            .set(updates)
+                            .set(updates))
                             .addOnSuccessListener(aVoid -> {
                                 Log.d(TAG, "Payout settings saved successfully (new document)");
                                 callback.onSuccess();
@@ -495,16 +533,7 @@ public class PaymentRepository {
                 });
     }
 
-    // Utility methods
-    private String bitmapToBase64(Bitmap bitmap) {
-        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
-        bitmap.compress(Bitmap.CompressFormat.PNG, 100, byteArrayOutputStream);
-        byte[] byteArray = byteArrayOutputStream.toByteArray();
-        return Base64.encodeToString(byteArray, Base64.DEFAULT);
-    }
-
-    private Bitmap base64ToBitmap(String base64String) {
-        byte[] decodedBytes = Base64.decode(base64String, Base64.DEFAULT);
-        return android.graphics.BitmapFactory.decodeByteArray(decodedBytes, 0, decodedBytes.length);
+    public void cleanup() {
+        scope.cancel();
     }
 }
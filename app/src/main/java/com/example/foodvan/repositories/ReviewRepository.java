@@ -13,6 +13,9 @@ import com.example.foodvan.database.ReviewMetaEntity;
 import com.example.foodvan.models.Review;
 import com.example.foodvan.models.ReviewMeta;
 import com.example.foodvan.models.VendorReply;
+import com.example.foodvan.utils.AppExecutors;
+import com.example.foodvan.utils.FirebaseMetrics;
+import com.example.foodvan.utils.InstrumentedExecutor;
 import com.google.firebase.firestore.DocumentReference;
 import com.google.firebase.firestore.DocumentSnapshot;
 import com.google.firebase.firestore.FirebaseFirestore;
@@ -24,8 +27,6 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 /**
  * Repository for managing reviews data from Firestore and local Room database
@@ -40,7 +41,7 @@ public class ReviewRepository {
     private final FirebaseFirestore firestore;
     private final ReviewDao reviewDao;
     private final ReviewMetaDao reviewMetaDao;
-    private final ExecutorService executor;
+    private final InstrumentedExecutor executor;
     private final Context context;
 
     private final MutableLiveData<String> errorLiveData = new MutableLiveData<>();
@@ -51,7 +52,7 @@ public class ReviewRepository {
         this.firestore = FirebaseFirestore.getInstance();
         this.reviewDao = reviewDao;
         this.reviewMetaDao = reviewMetaDao;
-        this.executor = Executors.newFixedThreadPool(3);
+        this.executor = AppExecutors.getInstance().io();
     }
 
     // LiveData getters
@@ -96,12 +97,12 @@ public class ReviewRepository {
     public void syncReviewsFromFirestore(String vendorId) {
         isLoadingLiveData.setValue(true);
         
-        firestore.collection(VENDORS_COLLECTION)
+        FirebaseMetrics.track("reviews.syncReviewsFromFirestore", firestore.collection(VENDORS_COLLECTION)
                 .document(vendorId)
                 .collection(REVIEWS_COLLECTION)
                 .whereEqualTo("visible", true)
                 .orderBy("createdAt", Query.Direction.DESCENDING)
-                .get()
+                .get())
                 .addOnSuccessListener(queryDocumentSnapshots -> {
                     executor.execute(() -> {
                         try {
@@ -133,11 +134,11 @@ public class ReviewRepository {
 
     // Sync review metadata from Firestore
     public void syncReviewMetaFromFirestore(String vendorId) {
-        firestore.collection(VENDORS_COLLECTION)
+        FirebaseMetrics.track("reviews.syncReviewMetaFromFirestore", firestore.collection(VENDORS_COLLECTION)
                 .document(vendorId)
                 .collection(REVIEWS_META_COLLECTION)
                 .document("meta")
-                .get()
+                .get())
                 .addOnSuccessListener(documentSnapshot -> {
                     executor.execute(() -> {
                         try {
@@ -175,13 +176,13 @@ public class ReviewRepository {
         replyData.put("vendorReply", vendorReply);
         replyData.put("vendorReplyTimestamp", System.currentTimeMillis());
         
-        firestore.collection(VENDORS_COLLECTION)
+        FirebaseMetrics.track("reviews.addVendorReply", firestore.collection(VENDORS_COLLECTION)
                 .document(vendorId)
                 .collection(REVIEWS_COLLECTION)
                 .document(reviewId)
-                .update(replyData)
+                .update(replyData))
                 .addOnSuccessListener(aVoid -> {
-                    executor.execute(() -> {
+                    executor.execute(InstrumentedExecutor.Priority.BACKGROUND, () -> {
                         // Update local database
                         reviewDao.updateVendorReply(reviewId, replyText, 
                                 vendorReply.getCreatedAt(), 0, false);
@@ -205,13 +206,13 @@ public class ReviewRepository {
         updateData.put("vendorReply.editedAt", System.currentTimeMillis());
         updateData.put("vendorReply.isEdited", true);
         
-        firestore.collection(VENDORS_COLLECTION)
+        FirebaseMetrics.track("reviews.editVendorReply", firestore.collection(VENDORS_COLLECTION)
                 .document(vendorId)
                 .collection(REVIEWS_COLLECTION)
                 .document(reviewId)
-                .update(updateData)
+                .update(updateData))
                 .addOnSuccessListener(aVoid -> {
-                    executor.execute(() -> {
+                    executor.execute(InstrumentedExecutor.Priority.BACKGROUND, () -> {
                         // Update local database
                         reviewDao.updateVendorReply(reviewId, newReplyText, 
                                 0, System.currentTimeMillis(), true);
@@ -234,13 +235,13 @@ public class ReviewRepository {
         updateData.put("vendorReply", null);
         updateData.put("vendorReplyTimestamp", null);
         
-        firestore.collection(VENDORS_COLLECTION)
+        FirebaseMetrics.track("reviews.deleteVendorReply", firestore.collection(VENDORS_COLLECTION)
                 .document(vendorId)
                 .collection(REVIEWS_COLLECTION)
                 .document(reviewId)
-                .update(updateData)
+                .update(updateData))
                 .addOnSuccessListener(aVoid -> {
-                    executor.execute(() -> {
+                    executor.execute(InstrumentedExecutor.Priority.BACKGROUND, () -> {
                         // Update local database
                         reviewDao.deleteVendorReply(reviewId);
                         Log.d(TAG, "Deleted vendor reply for review " + reviewId);
@@ -263,13 +264,13 @@ public class ReviewRepository {
         flagData.put("flagReason", reason);
         flagData.put("flaggedAt", System.currentTimeMillis());
         
-        firestore.collection(VENDORS_COLLECTION)
+        FirebaseMetrics.track("reviews.flagReview", firestore.collection(VENDORS_COLLECTION)
                 .document(vendorId)
                 .collection(REVIEWS_COLLECTION)
                 .document(reviewId)
-                .update(flagData)
+                .update(flagData))
                 .addOnSuccessListener(aVoid -> {
-                    executor.execute(() -> {
+                    executor.execute(InstrumentedExecutor.Priority.BACKGROUND, () -> {
                         // Update local database
                         reviewDao.flagReview(reviewId, reason, System.currentTimeMillis());
                         Log.d(TAG, "Flagged review " + reviewId);
@@ -311,9 +312,9 @@ public class ReviewRepository {
                 .document();
         batch.set(auditRef, auditData);
         
-        batch.commit()
+        FirebaseMetrics.track("reviews.softDeleteReview", batch.commit())
                 .addOnSuccessListener(aVoid -> {
-                    executor.execute(() -> {
+                    executor.execute(InstrumentedExecutor.Priority.BACKGROUND, () -> {
                         // Update local database
                         reviewDao.softDeleteReview(reviewId);
                         Log.d(TAG, "Soft deleted review " + reviewId);
@@ -329,13 +330,13 @@ public class ReviewRepository {
 
     // Update review metadata
     public void updateReviewMeta(String vendorId, ReviewMeta reviewMeta) {
-        firestore.collection(VENDORS_COLLECTION)
+        FirebaseMetrics.track("reviews.updateReviewMeta", firestore.collection(VENDORS_COLLECTION)
                 .document(vendorId)
                 .collection(REVIEWS_META_COLLECTION)
                 .document("meta")
-                .set(reviewMeta)
+                .set(reviewMeta))
                 .addOnSuccessListener(aVoid -> {
-                    executor.execute(() -> {
+                    executor.execute(InstrumentedExecutor.Priority.BACKGROUND, () -> {
                         // Update local database
                         reviewMetaDao.insertReviewMeta(ReviewMetaEntity.fromReviewMeta(reviewMeta));
                         Log.d(TAG, "Updated review meta for vendor " + vendorId);
@@ -349,17 +350,17 @@ public class ReviewRepository {
 
     // Calculate and update review statistics
     public void recalculateReviewStats(String vendorId) {
-        executor.execute(() -> {
+        executor.execute(InstrumentedExecutor.Priority.BACKGROUND, () -> {
             try {
                 // Get all reviews for vendor from local database
                 // Note: This should be done with a synchronous call
                 // For now, we'll trigger a Firestore recalculation
                 
-                firestore.collection(VENDORS_COLLECTION)
+                FirebaseMetrics.track("reviews.recalculateReviewStats", firestore.collection(VENDORS_COLLECTION)
                         .document(vendorId)
                         .collection(REVIEWS_COLLECTION)
                         .whereEqualTo("visible", true)
-                        .get()
+                        .get())
                         .addOnSuccessListener(queryDocumentSnapshots -> {
                             ReviewMeta meta = new ReviewMeta(vendorId);
                             
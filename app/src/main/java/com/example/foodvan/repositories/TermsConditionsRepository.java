@@ -1,12 +1,13 @@
 package com.example.foodvan.repositories;
 
 import android.content.Context;
-import android.content.SharedPreferences;
 import android.util.Log;
 
 import androidx.annotation.NonNull;
 
 import com.example.foodvan.models.TermsConditions;
+import com.example.foodvan.utils.KeyValueStore;
+import com.example.foodvan.utils.KeyValueStores;
 import com.google.firebase.database.DataSnapshot;
 import com.google.firebase.database.DatabaseError;
 import com.google.firebase.database.DatabaseReference;
@@ -15,7 +16,7 @@ import com.google.firebase.database.ValueEventListener;
 
 /**
  * TermsConditionsRepository - Handles Terms & Conditions data persistence
- * Uses Firebase Realtime Database for dynamic content and SharedPreferences for caching
+ * Uses Firebase Realtime Database for dynamic content and a local KeyValueStore for caching
  */
 public class TermsConditionsRepository {
     private static final String TAG = "TermsConditionsRepo";
@@ -26,8 +27,8 @@ public class TermsConditionsRepository {
 
     private final Context context;
     private final DatabaseReference databaseRef;
-    private final SharedPreferences sharedPreferences;
-    private final SharedPreferences.Editor editor;
+    private final KeyValueStore preferences;
+    private final KeyValueStore.Editor editor;
 
     public interface TermsConditionsCallback {
         void onSuccess(TermsConditions termsConditions);
@@ -37,8 +38,8 @@ public class TermsConditionsRepository {
     public TermsConditionsRepository(Context context) {
         this.context = context;
         this.databaseRef = FirebaseDatabase.getInstance().getReference();
-        this.sharedPreferences = context.getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
-        this.editor = sharedPreferences.edit();
+        this.preferences = KeyValueStores.get(context, PREF_NAME);
+        this.editor = preferences.edit();
     }
 
     /**
@@ -94,7 +95,7 @@ public class TermsConditionsRepository {
     }
 
     /**
-     * Cache Terms & Conditions in SharedPreferences
+     * Cache Terms & Conditions in the local store
      */
     private void cacheTerms(TermsConditions terms) {
         try {
@@ -112,9 +113,9 @@ public class TermsConditionsRepository {
      */
     public TermsConditions getCachedTerms() {
         try {
-            String content = sharedPreferences.getString(KEY_CACHED_TERMS, null);
-            String version = sharedPreferences.getString(KEY_TERMS_VERSION, "1.0");
-            long lastFetched = sharedPreferences.getLong(KEY_LAST_FETCHED, 0);
+            String content = preferences.getString(KEY_CACHED_TERMS, null);
+            String version = preferences.getString(KEY_TERMS_VERSION, "1.0");
+            long lastFetched = preferences.getLong(KEY_LAST_FETCHED, 0);
 
             if (content != null) {
                 TermsConditions terms = new TermsConditions();
@@ -134,7 +135,7 @@ public class TermsConditionsRepository {
      * Check if cached data is still valid (less than 1 day old)
      */
     private boolean isCacheValid() {
-        long lastFetched = sharedPreferences.getLong(KEY_LAST_FETCHED, 0);
+        long lastFetched = preferences.getLong(KEY_LAST_FETCHED, 0);
         long currentTime = System.currentTimeMillis();
         // Cache valid for 24 hours
         return (currentTime - lastFetched) < (24 * 60 * 60 * 1000);
@@ -1,7 +1,6 @@
 package com.example.foodvan.utils;
 
 import android.content.Context;
-import android.content.SharedPreferences;
 import android.util.Log;
 import com.google.firebase.database.DatabaseReference;
 import com.google.firebase.database.FirebaseDatabase;
@@ -33,7 +32,7 @@ public class AboutDataManager {
     private static final long CACHE_VALIDITY_TIME = 24 * 60 * 60 * 1000;
     
     private Context context;
-    private SharedPreferences preferences;
+    private KeyValueStore preferences;
     private Gson gson;
     private DatabaseReference databaseRef;
     
@@ -48,7 +47,7 @@ public class AboutDataManager {
     
     public AboutDataManager(Context context) {
         this.context = context;
-        this.preferences = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+        this.preferences = KeyValueStores.get(context, PREFS_NAME);
         this.gson = new Gson();
         this.databaseRef = FirebaseDatabase.getInstance().getReference("about_food_van");
     }
@@ -0,0 +1,132 @@
+package com.example.foodvan.utils;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * AppExecutors - The app's only background threads. Repositories and ViewModels share a
+ * bounded I/O pool and a CPU pool instead of creating their own, serial lanes for work that
+ * must stay in order, and a main-thread dispatcher. Every pool reports its queue depth and
+ * wait and run times through stats().
+ */
+public final class AppExecutors {
+
+    private static final String TAG = "AppExecutors";
+
+    private static final int IO_THREADS = 4;
+    private static final int CPU_THREADS = Math.max(2, Runtime.getRuntime().availableProcessors() - 1);
+
+    private static AppExecutors instance;
+
+    private final ExecutorService workers;
+    private final InstrumentedExecutor io;
+    private final InstrumentedExecutor cpu;
+    private final MainThreadExecutor mainThread = new MainThreadExecutor();
+    private final Map<String, InstrumentedExecutor> serialLanes = new LinkedHashMap<>();
+
+    private AppExecutors() {
+        AtomicInteger threadCount = new AtomicInteger();
+        // Threads are only created while some pool has capacity left, so this stays bounded
+        workers = new ThreadPoolExecutor(0, Integer.MAX_VALUE, 30, TimeUnit.SECONDS, new SynchronousQueue<>(),
+                runnable -> new Thread(runnable, "app-worker-" + threadCount.incrementAndGet()));
+        io = newPool("io", IO_THREADS);
+        cpu = newPool("cpu", CPU_THREADS);
+    }
+
+    public static synchronized AppExecutors getInstance() {
+        if (instance == null) {
+            instance = new AppExecutors();
+        }
+        return instance;
+    }
+
+    /**
+     * Disk and network-bound work: Room, files, blocking Firebase calls.
+     */
+    public InstrumentedExecutor io() {
+        return io;
+    }
+
+    /**
+     * Parsing, image and QR generation, sorting and filtering.
+     */
+    public InstrumentedExecutor cpu() {
+        return cpu;
+    }
+
+    public TaskScope.MainThread mainThread() {
+        return mainThread;
+    }
+
+    /**
+     * The named lane that runs one task at a time in submission order, on the shared
+     * workers. Every caller asking for the same name shares the lane.
+     */
+    public synchronized InstrumentedExecutor serialExecutor(String name) {
+        InstrumentedExecutor lane = serialLanes.get(name);
+        if (lane == null) {
+            lane = newPool(name, 1);
+            serialLanes.put(name, lane);
+        }
+        return lane;
+    }
+
+    /**
+     * Scope for one owner's work; call cancel() when the owner is cleared.
+     */
+    public TaskScope newScope() {
+        return new TaskScope(io, cpu, mainThread);
+    }
+
+    public synchronized List<InstrumentedExecutor.Stats> stats() {
+        List<InstrumentedExecutor.Stats> stats = new ArrayList<>();
+        stats.add(io.stats());
+        stats.add(cpu.stats());
+        for (InstrumentedExecutor lane : serialLanes.values()) {
+            stats.add(lane.stats());
+        }
+        return stats;
+    }
+
+    public void logStats() {
+        for (InstrumentedExecutor.Stats stats : stats()) {
+            Log.d(TAG, stats.toString());
+        }
+    }
+
+    private InstrumentedExecutor newPool(String name, int threads) {
+        return new InstrumentedExecutor(name, threads, workers, System::nanoTime,
+                (pool, error) -> Log.e(TAG, "Task failed on " + pool, error));
+    }
+
+    private static final class MainThreadExecutor implements TaskScope.MainThread {
+
+        private final Handler handler = new Handler(Looper.getMainLooper());
+
+        @Override
+        public void execute(Runnable runnable) {
+            handler.post(runnable);
+        }
+
+        @Override
+        public void executeDelayed(Runnable runnable, long delayMillis) {
+            handler.postDelayed(runnable, delayMillis);
+        }
+
+        @Override
+        public void remove(Runnable runnable) {
+            handler.removeCallbacks(runnable);
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.example.foodvan.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * BulkWriteEngine - Splits a bulk operation into chunks that fit in one Firestore WriteBatch
+ * and commits them with a bounded number of batches in flight. A failed chunk is retried as a
+ * whole, so chunk writers must only write absolute values (and deterministic document IDs)
+ * to keep retries idempotent. Retries wait an exponentially growing, jittered delay so a
+ * struggling backend isn't hit again straight away.
+ */
+public class BulkWriteEngine<T> {
+
+    /** Firestore rejects a WriteBatch with more than 500 operations. */
+    public static final int MAX_WRITES_PER_BATCH = 500;
+    public static final int DEFAULT_MAX_IN_FLIGHT = 3;
+    public static final int DEFAULT_MAX_ATTEMPTS = 3;
+    static final long BASE_BACKOFF_MS = 500;
+    static final long MAX_BACKOFF_MS = 8_000;
+
+    public interface Scheduler {
+        void schedule(Runnable task, long delayMillis);
+    }
+
+    public interface ChunkWriter<T> {
+        /** Builds and commits one batch for the chunk, then reports through the callback. */
+        void write(int chunkIndex, List<T> chunk, ChunkCallback callback);
+    }
+
+    public interface ChunkCallback {
+        void onSuccess();
+        void onError(String error);
+    }
+
+    public interface Listener {
+        void onChunkCommitted(int completedChunks, int totalChunks, int itemsWritten);
+        void onComplete(int itemsWritten);
+        void onError(String error);
+    }
+
+    private final int chunkSize;
+    private final int maxInFlight;
+    private final int maxAttempts;
+    private final Scheduler scheduler;
+
+    /**
+     * @param writesPerItem  batch operations issued for every item
+     * @param reservedWrites operations each chunk adds on top of its items (e.g. an audit entry)
+     * @param scheduler      runs retries after their backoff delay
+     */
+    public BulkWriteEngine(int writesPerItem, int reservedWrites, Scheduler scheduler) {
+        this(writesPerItem, reservedWrites, DEFAULT_MAX_IN_FLIGHT, DEFAULT_MAX_ATTEMPTS, scheduler);
+    }
+
+    public BulkWriteEngine(int writesPerItem, int reservedWrites, int maxInFlight, int maxAttempts,
+                           Scheduler scheduler) {
+        int available = MAX_WRITES_PER_BATCH - reservedWrites;
+        if (writesPerItem < 1 || available < writesPerItem) {
+            throw new IllegalArgumentException("A single item does not fit in one batch");
+        }
+        this.chunkSize = available / writesPerItem;
+        this.maxInFlight = Math.max(1, maxInFlight);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.scheduler = scheduler;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * Delay before the given retry (2 for the first one): half of an exponentially growing
+     * step plus a random part of the other half, so chunks that failed together spread out.
+     */
+    static long backoffMillis(int attempt) {
+        long step = Math.min(MAX_BACKOFF_MS, BASE_BACKOFF_MS << Math.min(attempt - 2, 16));
+        return step / 2 + ThreadLocalRandom.current().nextLong(step / 2 + 1);
+    }
+
+    /**
+     * Starts the operation and returns immediately. Listener methods are called on whichever
+     * thread the chunk writer reports completion from.
+     */
+    public void run(List<T> items, ChunkWriter<T> writer, Listener listener) {
+        List<List<T>> chunks = new ArrayList<>();
+        for (int i = 0; i < items.size(); i += chunkSize) {
+            chunks.add(new ArrayList<>(items.subList(i, Math.min(items.size(), i + chunkSize))));
+        }
+        if (chunks.isEmpty()) {
+            listener.onComplete(0);
+            return;
+        }
+        new Operation(chunks, writer, listener).start();
+    }
+
+    private class Operation {
+        private final List<List<T>> chunks;
+        private final ChunkWriter<T> writer;
+        private final Listener listener;
+
+        private int nextChunk;
+        private int completedChunks;
+        private int itemsWritten;
+        private boolean failed;
+
+        Operation(List<List<T>> chunks, ChunkWriter<T> writer, Listener listener) {
+            this.chunks = chunks;
+            this.writer = writer;
+            this.listener = listener;
+        }
+
+        void start() {
+            int initial;
+            synchronized (this) {
+                initial = Math.min(maxInFlight, chunks.size());
+                nextChunk = initial;
+            }
+            for (int i = 0; i < initial; i++) {
+                submit(i, 1);
+            }
+        }
+
+        private void submit(int index, int attempt) {
+            writer.write(index, chunks.get(index), new ChunkCallback() {
+                @Override
+                public void onSuccess() {
+                    onChunkSuccess(index);
+                }
+
+                @Override
+                public void onError(String error) {
+                    onChunkError(index, attempt, error);
+                }
+            });
+        }
+
+        private void onChunkSuccess(int index) {
+            int completed;
+            int written;
+            int next = -1;
+            boolean done;
+            synchronized (this) {
+                if (failed) return;
+                completedChunks++;
+                itemsWritten += chunks.get(index).size();
+                completed = completedChunks;
+                written = itemsWritten;
+                done = completedChunks == chunks.size();
+                if (nextChunk < chunks.size()) {
+                    next = nextChunk++;
+                }
+            }
+
+            listener.onChunkCommitted(completed, chunks.size(), written);
+            if (done) {
+                listener.onComplete(written);
+            } else if (next >= 0) {
+                submit(next, 1);
+            }
+        }
+
+        private void onChunkError(int index, int attempt, String error) {
+            synchronized (this) {
+                if (failed) return;
+                if (attempt >= maxAttempts) {
+                    failed = true;
+                }
+            }
+
+            if (attempt < maxAttempts) {
+                scheduler.schedule(() -> submit(index, attempt + 1), backoffMillis(attempt + 1));
+            } else {
+                listener.onError(error != null ? error : "Bulk operation failed");
+            }
+        }
+    }
+}
@@ -1,7 +1,6 @@
 package com.example.foodvan.utils;
 
 import android.content.Context;
-import android.content.SharedPreferences;
 
 import com.example.foodvan.models.MenuItem;
 import com.example.foodvan.models.Order;
@@ -24,14 +23,14 @@ public class CartManager {
     private static final String KEY_VAN_NAME = "vanName";
     
     private static CartManager instance;
-    private SharedPreferences preferences;
+    private KeyValueStore preferences;
     private Gson gson;
     private Map<String, CartItem> cartItems;
     private String currentVanId;
     private String currentVanName;
 
     private CartManager(Context context) {
-        preferences = context.getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
+        preferences = KeyValueStores.get(context, PREF_NAME);
         gson = new Gson();
         loadCart();
     }
@@ -124,23 +123,19 @@ public class CartManager {
     }
 
     public double getSubtotal() {
-        double subtotal = 0.0;
-        for (CartItem item : cartItems.values()) {
-            subtotal += item.price * item.quantity;
-        }
-        return subtotal;
+        return CartTotals.subtotal(cartItems.values());
     }
 
     public double getTax() {
-        return getSubtotal() * 0.05; // 5% GST
+        return CartTotals.tax(getSubtotal());
     }
 
     public double getDeliveryFee() {
-        return getSubtotal() > 200 ? 0.0 : 30.0; // Free delivery above ₹200
+        return CartTotals.deliveryFee(getSubtotal());
     }
 
     public double getTotal() {
-        return getSubtotal() + getTax() + getDeliveryFee();
+        return CartTotals.total(cartItems.values());
     }
 
     public List<CartItem> getCartItems() {
@@ -166,14 +161,18 @@ public class CartManager {
         saveCart();
     }
 
-    public Order createOrder(String customerId, String customerName, String customerPhone, 
-                           String deliveryAddress, double deliveryLat, double deliveryLng) {
+    /**
+     * Builds the order for the current cart. The ID is a push ID generated on the device by the
+     * FirebaseManager that will save it, so saveOrder can place it in one write and safely retry it.
+     */
+    public Order createOrder(FirebaseManager firebaseManager, String customerId, String vendorId, String customerName,
+                           String customerPhone, String deliveryAddress, double deliveryLat, double deliveryLng) {
         if (isEmpty()) {
             return null;
         }
 
-        String orderId = "ORDER_" + System.currentTimeMillis();
-        Order order = new Order(orderId, customerId, "", currentVanId);
+        String orderId = firebaseManager.newOrderId();
+        Order order = new Order(orderId, customerId, vendorId, currentVanId);
         order.setCustomerName(customerName);
         order.setCustomerPhone(customerPhone);
         order.setVanName(currentVanName);
@@ -204,7 +203,7 @@ public class CartManager {
     }
 
     // Inner class for cart items
-    public static class CartItem {
+    public static class CartItem implements CartTotals.Line {
         public String itemId;
         public String name;
         public double price;
@@ -212,6 +211,16 @@ public class CartManager {
         public boolean isVegetarian;
         public int quantity;
 
+        @Override
+        public double getPrice() {
+            return price;
+        }
+
+        @Override
+        public int getQuantity() {
+            return quantity;
+        }
+
         public String getFormattedPrice() {
             return String.format("₹%.2f", price);
         }
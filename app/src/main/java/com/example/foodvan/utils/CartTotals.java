@@ -0,0 +1,46 @@
+package com.example.foodvan.utils;
+
+/**
+ * CartTotals - The cart's pricing rules: 5% GST and a flat delivery fee waived above ₹200.
+ * CartManager prices its items through here, and the total walks the items once rather than
+ * once each for the subtotal, tax and delivery fee.
+ */
+public final class CartTotals {
+
+    public static final double TAX_RATE = 0.05; // 5% GST
+    public static final double DELIVERY_FEE = 30.0;
+    public static final double FREE_DELIVERY_ABOVE = 200.0;
+
+    /**
+     * One cart line.
+     */
+    public interface Line {
+        double getPrice();
+
+        int getQuantity();
+    }
+
+    private CartTotals() {
+    }
+
+    public static double subtotal(Iterable<? extends Line> lines) {
+        double subtotal = 0.0;
+        for (Line line : lines) {
+            subtotal += line.getPrice() * line.getQuantity();
+        }
+        return subtotal;
+    }
+
+    public static double tax(double subtotal) {
+        return subtotal * TAX_RATE;
+    }
+
+    public static double deliveryFee(double subtotal) {
+        return subtotal > FREE_DELIVERY_ABOVE ? 0.0 : DELIVERY_FEE;
+    }
+
+    public static double total(Iterable<? extends Line> lines) {
+        double subtotal = subtotal(lines);
+        return subtotal + tax(subtotal) + deliveryFee(subtotal);
+    }
+}
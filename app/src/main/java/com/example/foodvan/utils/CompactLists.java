@@ -0,0 +1,282 @@
+package com.example.foodvan.utils;
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * CompactLists - Length-prefixed encoding for the list columns Room stores as text, replacing
+ * Gson JSON. A value starts with a format marker, then the element count, then the elements;
+ * a string is written as {@code <length>:<chars>} ({@code -:} for null) and a number as
+ * {@code <digits>;}. Reading is index arithmetic and substring, with no reflection or
+ * tokenizing, and a reader can skip a string without looking at its characters.
+ *
+ * The marker can't begin a JSON document, so {@link #isCompact} tells new rows from legacy JSON
+ * ones, and a later format only needs a new marker.
+ */
+public final class CompactLists {
+
+    public static final char FORMAT_V1 = '\u0001';
+
+    private CompactLists() {
+    }
+
+    public static boolean isCompact(String value) {
+        return !value.isEmpty() && value.charAt(0) == FORMAT_V1;
+    }
+
+    public static String encodeStrings(List<String> values) {
+        if (values == null) {
+            return null;
+        }
+        int capacity = 8;
+        for (int i = 0; i < values.size(); i++) {
+            String value = values.get(i);
+            capacity += 8 + (value == null ? 0 : value.length());
+        }
+        Writer writer = new Writer(capacity);
+        writer.writeInt(values.size());
+        for (int i = 0; i < values.size(); i++) {
+            writer.writeString(values.get(i));
+        }
+        return writer.toString();
+    }
+
+    /**
+     * A list view over an encoded value that decodes each element the first time it is read.
+     * The view is mutable: the first change copies it into an ArrayList.
+     */
+    public static List<String> decodeStrings(String encoded) {
+        if (encoded == null) {
+            return null;
+        }
+        return new LazyStringList(encoded);
+    }
+
+    /**
+     * Builds an encoded value. Write the element count first, then the elements.
+     */
+    public static final class Writer {
+
+        private final StringBuilder out;
+
+        public Writer(int capacity) {
+            out = new StringBuilder(capacity);
+            out.append(FORMAT_V1);
+        }
+
+        public Writer writeString(String value) {
+            if (value == null) {
+                out.append("-:");
+            } else {
+                out.append(value.length()).append(':').append(value);
+            }
+            return this;
+        }
+
+        public Writer writeInt(int value) {
+            out.append(value).append(';');
+            return this;
+        }
+
+        public Writer writeLong(long value) {
+            out.append(value).append(';');
+            return this;
+        }
+
+        public Writer writeDouble(double value) {
+            // Double.toString round-trips exactly
+            out.append(value).append(';');
+            return this;
+        }
+
+        @Override
+        public String toString() {
+            return out.toString();
+        }
+    }
+
+    /**
+     * Reads an encoded value front to back, in the order it was written.
+     */
+    public static final class Reader {
+
+        private final String in;
+        private int position;
+
+        public Reader(String encoded) {
+            if (!isCompact(encoded)) {
+                throw new IllegalArgumentException("Not a compact list value");
+            }
+            in = encoded;
+            position = 1;
+        }
+
+        public String readString() {
+            if (in.charAt(position) == '-') {
+                position += 2;
+                return null;
+            }
+            int length = readNumber(':');
+            String value = in.substring(position, position + length);
+            position += length;
+            return value;
+        }
+
+        public void skipString() {
+            if (in.charAt(position) == '-') {
+                position += 2;
+                return;
+            }
+            // Not "position += readNumber()": that would add to the position before the prefix
+            int length = readNumber(':');
+            position += length;
+        }
+
+        public int readInt() {
+            return readNumber(';');
+        }
+
+        public long readLong() {
+            int end = in.indexOf(';', position);
+            long value = Long.parseLong(in.substring(position, end));
+            position = end + 1;
+            return value;
+        }
+
+        public double readDouble() {
+            int end = in.indexOf(';', position);
+            double value = Double.parseDouble(in.substring(position, end));
+            position = end + 1;
+            return value;
+        }
+
+        int position() {
+            return position;
+        }
+
+        void seek(int position) {
+            this.position = position;
+        }
+
+        private int readNumber(char terminator) {
+            boolean negative = in.charAt(position) == '-';
+            if (negative) {
+                position++;
+            }
+            int value = 0;
+            char c;
+            while ((c = in.charAt(position++)) != terminator) {
+                value = value * 10 + (c - '0');
+            }
+            return negative ? -value : value;
+        }
+    }
+
+    private static final class LazyStringList extends AbstractList<String> implements RandomAccess, Serializable {
+
+        // Marks a slot that hasn't been decoded yet; compared by identity
+        private static final String PENDING = new String("");
+
+        private final String encoded;
+        private final int size;
+        private final int firstElement;
+        // Built on first read; final fields make it safe to share between threads
+        private volatile Decoded decoded;
+        private ArrayList<String> copy;
+
+        LazyStringList(String encoded) {
+            this.encoded = encoded;
+            Reader reader = new Reader(encoded);
+            size = reader.readInt();
+            firstElement = reader.position();
+        }
+
+        @Override
+        public String get(int index) {
+            if (copy != null) {
+                return copy.get(index);
+            }
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+            }
+            Decoded current = decoded;
+            if (current == null) {
+                current = new Decoded(encoded, firstElement, size);
+                decoded = current;
+            }
+            String element = current.values[index];
+            if (element == PENDING) {
+                // Racing readers decode the same value, so a lost write is harmless
+                Reader reader = new Reader(encoded);
+                reader.seek(current.offsets[index]);
+                element = reader.readString();
+                current.values[index] = element;
+            }
+            return element;
+        }
+
+        @Override
+        public int size() {
+            return copy != null ? copy.size() : size;
+        }
+
+        @Override
+        public String set(int index, String element) {
+            return materialize().set(index, element);
+        }
+
+        @Override
+        public void add(int index, String element) {
+            materialize().add(index, element);
+            modCount++;
+        }
+
+        @Override
+        public String remove(int index) {
+            String removed = materialize().remove(index);
+            modCount++;
+            return removed;
+        }
+
+        private ArrayList<String> materialize() {
+            if (copy == null) {
+                ArrayList<String> values = new ArrayList<>(size + 1);
+                for (int i = 0; i < size; i++) {
+                    values.add(get(i));
+                }
+                copy = values;
+                decoded = null;
+            }
+            return copy;
+        }
+
+        private static final class Decoded {
+            final int[] offsets;
+            final String[] values;
+
+            /**
+             * Finds where each element starts, reading only the length prefixes.
+             */
+            Decoded(String encoded, int firstElement, int size) {
+                offsets = new int[size];
+                Reader reader = new Reader(encoded);
+                reader.seek(firstElement);
+                for (int i = 0; i < size; i++) {
+                    offsets[i] = reader.position();
+                    reader.skipString();
+                }
+                values = new String[size];
+                Arrays.fill(values, PENDING);
+            }
+        }
+
+        // Serialized as a plain ArrayList, e.g. when a Review goes into an Intent
+        private Object writeReplace() {
+            return new ArrayList<>(this);
+        }
+    }
+}
@@ -11,18 +11,17 @@ import java.util.List;
 
 /**
  * Room TypeConverters for complex data types
- * Handles conversion of List<String> to/from JSON for database storage
+ * Handles conversion of List<String> to/from the CompactLists format for database storage,
+ * still reading the JSON written by earlier versions
  */
 public class Converters {
 
     private static final Gson gson = new Gson();
+    private static final Type STRING_LIST_TYPE = new TypeToken<List<String>>() {}.getType();
 
     @TypeConverter
     public static String fromStringList(List<String> value) {
-        if (value == null) {
-            return null;
-        }
-        return gson.toJson(value);
+        return CompactLists.encodeStrings(value);
     }
 
     @TypeConverter
@@ -30,7 +29,9 @@ public class Converters {
         if (value == null) {
             return new ArrayList<>();
         }
-        Type listType = new TypeToken<List<String>>() {}.getType();
-        return gson.fromJson(value, listType);
+        if (CompactLists.isCompact(value)) {
+            return CompactLists.decodeStrings(value);
+        }
+        return gson.fromJson(value, STRING_LIST_TYPE);
     }
 }
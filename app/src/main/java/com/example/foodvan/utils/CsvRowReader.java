@@ -0,0 +1,117 @@
+package com.example.foodvan.utils;
+
+import java.io.BufferedReader;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * CsvRowReader - Streaming RFC 4180 tokenizer. Reads one record at a time, so memory use
+ * does not depend on file size. Handles quoted fields, escaped quotes and embedded newlines.
+ */
+public class CsvRowReader implements MenuImporter.RowSource {
+
+    private final CountingInputStream input;
+    private final long totalBytes;
+
+    /**
+     * @param totalBytes size of the stream, used for progress; pass 0 if unknown
+     */
+    public CsvRowReader(InputStream input, long totalBytes) {
+        this.input = new CountingInputStream(input);
+        this.totalBytes = totalBytes;
+    }
+
+    @Override
+    public void read(MenuImporter.RowHandler handler) throws Exception {
+        try (Reader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            boolean fieldStarted = false;
+            int c = reader.read();
+            if (c == '\uFEFF') {
+                c = reader.read(); // Skip byte order mark written by Excel
+            }
+
+            while (c != -1) {
+                if (quoted) {
+                    if (c == '"') {
+                        int next = reader.read();
+                        if (next == '"') {
+                            field.append('"');
+                        } else {
+                            quoted = false;
+                            c = next;
+                            continue;
+                        }
+                    } else {
+                        field.append((char) c);
+                    }
+                } else if (c == '"' && field.length() == 0) {
+                    quoted = true;
+                    fieldStarted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                    fieldStarted = true;
+                } else if (c == '\n' || c == '\r') {
+                    if (fieldStarted || field.length() > 0 || !fields.isEmpty()) {
+                        fields.add(field.toString());
+                        handler.onRow(fields.toArray(new String[0]));
+                        fields.clear();
+                        field.setLength(0);
+                        fieldStarted = false;
+                    }
+                } else {
+                    field.append((char) c);
+                }
+                c = reader.read();
+            }
+
+            if (fieldStarted || field.length() > 0 || !fields.isEmpty()) {
+                fields.add(field.toString());
+                handler.onRow(fields.toArray(new String[0]));
+            }
+        }
+    }
+
+    @Override
+    public double getProgress() {
+        return totalBytes > 0 ? Math.min(1.0, (double) input.count / totalBytes) : 0;
+    }
+
+    static class CountingInputStream extends FilterInputStream {
+        volatile long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) count++;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) count += n;
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+    }
+}
@@ -15,9 +15,6 @@ import com.google.firebase.database.DatabaseError;
 import com.google.firebase.database.DatabaseReference;
 import com.google.firebase.database.FirebaseDatabase;
 import com.google.firebase.database.ValueEventListener;
-import com.google.firebase.storage.FirebaseStorage;
-import com.google.firebase.storage.StorageReference;
-import com.google.firebase.storage.UploadTask;
 import com.google.gson.Gson;
 
 import java.util.HashMap;
@@ -38,7 +35,7 @@ import java.util.Map;
  * /customers/{uid}/payments - for payment tokens/meta
  * /customers/{uid}/reviews - for user reviews
  * 
- * Image Storage: customers/{uid}/profile.jpg
+ * Image Storage: customers/{uid}/profile (+ profile_thumb), via ImageUploadPipeline
  */
 public class CustomerProfileManager {
     
@@ -56,7 +53,6 @@ public class CustomerProfileManager {
     private final Gson gson;
     private final FirebaseAuth firebaseAuth;
     private final DatabaseReference customersRef;
-    private final StorageReference storageRef;
     
     // Listeners
     public interface OnProfileLoadedListener {
@@ -92,7 +88,6 @@ public class CustomerProfileManager {
         this.gson = new Gson();
         this.firebaseAuth = FirebaseAuth.getInstance();
         this.customersRef = FirebaseDatabase.getInstance().getReference("customers");
-        this.storageRef = FirebaseStorage.getInstance().getReference("customers");
     }
     
     /**
@@ -284,7 +279,7 @@ public class CustomerProfileManager {
     
     /**
      * Upload profile image to Firebase Storage
-     * Path: customers/{uid}/profile.jpg
+     * Path: customers/{uid}/profile (full size) and customers/{uid}/profile_thumb
      */
     public void uploadProfileImage(Uri imageUri, OnImageUploadListener listener) {
         String userId = getCurrentUserId();
@@ -293,29 +288,19 @@ public class CustomerProfileManager {
             return;
         }
         
-        StorageReference imageRef = storageRef.child(userId).child("profile.jpg");
-        
-        UploadTask uploadTask = imageRef.putFile(imageUri);
-        
-        // Monitor progress
-        uploadTask.addOnProgressListener(snapshot -> {
-            double progress = (100.0 * snapshot.getBytesTransferred()) / snapshot.getTotalByteCount();
-            listener.onProgress((int) progress);
-        });
-        
-        // Get download URL on success
-        uploadTask.continueWithTask(task -> {
-            if (!task.isSuccessful() && task.getException() != null) {
-                throw task.getException();
+        ImageUploadPipeline.getInstance(context).upload(imageUri, "customers/" + userId + "/profile",
+                new ImageUploadPipeline.UploadCallback() {
+            @Override
+            public void onProgress(int progress) {
+                listener.onProgress(progress);
             }
-            return imageRef.getDownloadUrl();
-        }).addOnCompleteListener(task -> {
-            if (task.isSuccessful() && task.getResult() != null) {
-                String downloadUrl = task.getResult().toString();
-                
-                // Update profile with new image URL
+
+            @Override
+            public void onSuccess(String downloadUrl, String thumbnailUrl) {
+                // Update profile with new image URLs
                 Map<String, Object> updates = new HashMap<>();
                 updates.put("profileImageUrl", downloadUrl);
+                updates.put("profileThumbnailUrl", thumbnailUrl);
                 updateProfileFields(updates, new OnProfileSavedListener() {
                     @Override
                     public void onSuccess() {
@@ -328,14 +313,17 @@ public class CustomerProfileManager {
                         listener.onSuccess(downloadUrl);
                     }
                 });
-            } else {
+            }
+
+            @Override
+            public void onError(String error) {
                 listener.onError("Failed to upload image");
             }
         });
     }
     
     /**
-     * Load user stats from orders collection
+     * Load user stats from the rollup maintained at order placement
      */
     public void loadUserStats(OnStatsLoadedListener listener) {
         String userId = getCurrentUserId();
@@ -344,30 +332,18 @@ public class CustomerProfileManager {
             return;
         }
         
-        DatabaseReference ordersRef = FirebaseDatabase.getInstance().getReference("orders");
-        ordersRef.orderByChild("customerId").equalTo(userId)
+        FirebaseDatabase.getInstance().getReference(OrderSubmission.CUSTOMER_STATS_PATH).child(userId)
             .addListenerForSingleValueEvent(new ValueEventListener() {
                 @Override
                 public void onDataChange(@NonNull DataSnapshot snapshot) {
-                    int ordersCount = 0;
-                    double totalSpent = 0;
-                    long lastOrderAt = 0;
-                    
-                    for (DataSnapshot orderSnapshot : snapshot.getChildren()) {
-                        ordersCount++;
-                        
-                        Double amount = orderSnapshot.child("totalAmount").getValue(Double.class);
-                        if (amount != null) {
-                            totalSpent += amount;
-                        }
-                        
-                        Long timestamp = orderSnapshot.child("createdAt").getValue(Long.class);
-                        if (timestamp != null && timestamp > lastOrderAt) {
-                            lastOrderAt = timestamp;
-                        }
-                    }
+                    Long ordersCount = snapshot.child("totalOrders").getValue(Long.class);
+                    Double totalSpent = snapshot.child("totalSpent").getValue(Double.class);
+                    Long lastOrderAt = snapshot.child("lastOrderAt").getValue(Long.class);
                     
-                    listener.onStatsLoaded(ordersCount, totalSpent, lastOrderAt);
+                    listener.onStatsLoaded(
+                            ordersCount != null ? ordersCount.intValue() : 0,
+                            totalSpent != null ? totalSpent : 0,
+                            lastOrderAt != null ? lastOrderAt : 0);
                 }
                 
                 @Override
@@ -0,0 +1,173 @@
+package com.example.foodvan.utils;
+
+import android.content.Context;
+
+import com.example.foodvan.models.FoodVan;
+import com.example.foodvan.models.MenuItem;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DishSearch - The app's DishSearchIndex over nearby vans' menus. A screen offering dish
+ * search reports the vans around the customer, which only records where they are; nothing is
+ * indexed before the first screen asks for this. Menus reach the index through MenuCatalog:
+ * any a menu screen or the prefetcher loads are indexed as they arrive, and a search loads the
+ * missing ones of the closest vans in its radius before it runs, so nothing is downloaded for
+ * search until the customer searches. Each newer menu replaces the van's old one. Index
+ * updates run in order on their own serial executor and searches on the cpu executor.
+ *
+ * Call from the main thread; listeners are called on it.
+ */
+public class DishSearch {
+
+    // A van's menu is requested again after this; MenuCatalog makes that one version read
+    private static final long MENU_REFRESH_MS = TimeUnit.MINUTES.toMillis(10);
+    // Menus one search may load, well under MenuCatalog's memory cache so prefetched ones stay
+    private static final int MAX_MENU_LOADS_PER_SEARCH = 6;
+
+    public interface OnSearchListener {
+        void onSuccess(List<DishSearchIndex.Hit> hits);
+        void onError(String error);
+    }
+
+    private static DishSearch instance;
+
+    private final Context context;
+    private final FirebaseManager firebaseManager;
+    private final DishSearchIndex index = new DishSearchIndex();
+    private final Executor updates;
+    private final Map<String, FoodVan> vans = new HashMap<>();
+    private final Map<String, Long> requestedAt = new HashMap<>();
+
+    private DishSearch(Context context) {
+        this.context = context;
+        this.firebaseManager = new FirebaseManager();
+        this.updates = AppExecutors.getInstance().serialExecutor("dish_search");
+        MenuCatalog.getInstance(context).addObserver((source, vanId, items) -> {
+            if (source == MenuCatalog.Source.REALTIME_MENU) {
+                index(vanId, items);
+            }
+        });
+    }
+
+    public static synchronized DishSearch getInstance(Context context) {
+        if (instance == null) {
+            instance = new DishSearch(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    /**
+     * Records where the vans are now. Their menus are loaded by the first search that needs them.
+     */
+    public void updateVans(List<FoodVan> nearbyVans) {
+        for (FoodVan van : nearbyVans) {
+            String vanId = van != null ? van.getVanId() : null;
+            if (vanId == null) {
+                continue;
+            }
+            vans.put(vanId, van);
+            double latitude = van.getLatitude();
+            double longitude = van.getLongitude();
+            double rating = van.getRating();
+            updates.execute(() -> index.moveVan(vanId, latitude, longitude, rating));
+        }
+    }
+
+    public void search(String query, double latitude, double longitude, double radiusKm, int limit,
+                       OnSearchListener listener) {
+        List<String> missing = menusToLoad(latitude, longitude, radiusKm);
+        if (missing.isEmpty()) {
+            runSearch(query, latitude, longitude, radiusKm, limit, listener);
+            return;
+        }
+        int[] pending = {missing.size()};
+        Runnable loaded = () -> {
+            if (--pending[0] == 0) {
+                runSearch(query, latitude, longitude, radiusKm, limit, listener);
+            }
+        };
+        long now = System.currentTimeMillis();
+        MenuCatalog catalog = MenuCatalog.getInstance(context);
+        for (String vanId : missing) {
+            requestedAt.put(vanId, now);
+            catalog.get(MenuCatalog.Source.REALTIME_MENU, vanId, firebaseManager::fetchMenuItems,
+                    new MenuCatalog.OnCatalogListener() {
+                        private boolean handled;
+
+                        @Override
+                        public void onSuccess(List<MenuItem> items) {
+                            // A memory cache hit doesn't reach the observer; later refreshes do
+                            if (!handled) {
+                                handled = true;
+                                index(vanId, items);
+                                loaded.run();
+                            }
+                        }
+
+                        @Override
+                        public void onError(String error) {
+                            requestedAt.remove(vanId);
+                            loaded.run();
+                        }
+                    });
+        }
+    }
+
+    /**
+     * The closest vans in range whose menus aren't indexed and weren't asked for recently.
+     */
+    private List<String> menusToLoad(double latitude, double longitude, double radiusKm) {
+        long now = System.currentTimeMillis();
+        Map<String, Double> distances = new HashMap<>();
+        for (FoodVan van : vans.values()) {
+            String vanId = van.getVanId();
+            Long requested = requestedAt.get(vanId);
+            if (index.contains(vanId) || (requested != null && now - requested < MENU_REFRESH_MS)) {
+                continue;
+            }
+            double distanceKm = DishSearchIndex.distanceKm(latitude, longitude, van.getLatitude(), van.getLongitude());
+            if (distanceKm <= radiusKm) {
+                distances.put(vanId, distanceKm);
+            }
+        }
+        List<String> closest = new ArrayList<>(distances.keySet());
+        closest.sort(Comparator.comparingDouble(distances::get));
+        return closest.subList(0, Math.min(MAX_MENU_LOADS_PER_SEARCH, closest.size()));
+    }
+
+    private void runSearch(String query, double latitude, double longitude, double radiusKm, int limit,
+                           OnSearchListener listener) {
+        AppExecutors executors = AppExecutors.getInstance();
+        // Queued behind pending index updates, so menus just loaded are searched
+        updates.execute(() -> executors.cpu().execute(() -> {
+            try {
+                MetricsRegistry metrics = MetricsRegistry.getInstance();
+                long start = metrics.startTimer();
+                List<DishSearchIndex.Hit> hits = index.search(query, latitude, longitude, radiusKm, limit);
+                metrics.stopTimer("dish_search.query", start);
+                executors.mainThread().execute(() -> listener.onSuccess(hits));
+            } catch (RuntimeException e) {
+                executors.mainThread().execute(() -> listener.onError(e.getMessage()));
+            }
+        }));
+    }
+
+    private void index(String vanId, List<MenuItem> items) {
+        FoodVan van = vans.get(vanId);
+        if (van == null) {
+            // Position unknown until the searching screen lists the van
+            return;
+        }
+        double latitude = van.getLatitude();
+        double longitude = van.getLongitude();
+        double rating = van.getRating();
+        updates.execute(() -> index.putMenu(vanId, latitude, longitude, rating, items));
+    }
+}
@@ -0,0 +1,433 @@
+package com.example.foodvan.utils;
+
+import com.example.foodvan.models.MenuItem;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+
+/**
+ * DishSearchIndex - Finds dishes across vans near a point: "who near me sells paneer rolls".
+ * The map is cut into cells of CELL_DEGREES and every cell keeps its own inverted index over
+ * the names, categories and descriptions of the menus of the vans in it, so a search only reads
+ * the cells its radius touches. Every query word has to match the start of a word in the dish;
+ * hits are ranked by where the words matched, distance and rating, and the best k are kept in
+ * a heap.
+ *
+ * Menus are replaced one van at a time; a moved van's menu moves to its new cell.
+ */
+public class DishSearchIndex {
+
+    // About 5.5 km north to south, so a few kilometres of radius reads a handful of cells
+    static final double CELL_DEGREES = 0.05;
+    private static final double EARTH_RADIUS_KM = 6371.0;
+    private static final double KM_PER_DEGREE = 111.32;
+
+    private static final int NAME = 0;
+    private static final int CATEGORY = 1;
+    private static final int DESCRIPTION = 2;
+    private static final float[] FIELD_WEIGHTS = {3f, 2f, 1f};
+    // A query word that is only the start of the dish's word, e.g. "pan" for "paneer"
+    private static final float PREFIX_FACTOR = 0.6f;
+
+    private static final double TEXT_WEIGHT = 0.6;
+    private static final double DISTANCE_WEIGHT = 0.25;
+    private static final double RATING_WEIGHT = 0.15;
+
+    // A cell is rebuilt once it holds more removed dishes than live ones
+    private static final int MIN_DEAD_TO_COMPACT = 64;
+
+    public static final class Hit {
+        public final MenuItem item;
+        public final String vanId;
+        public final double distanceKm;
+        public final double score;
+
+        Hit(MenuItem item, String vanId, double distanceKm, double score) {
+            this.item = item;
+            this.vanId = vanId;
+            this.distanceKm = distanceKm;
+            this.score = score;
+        }
+    }
+
+    private final Map<String, Van> vans = new HashMap<>();
+    private final Map<Long, Cell> cells = new HashMap<>();
+    private int liveCount;
+
+    // Per-query scratch, grown to the largest cell read
+    private float[] termBest = new float[0];
+    private float[] textScore = new float[0];
+    private int[] termsMatched = new int[0];
+    private int[] touched = new int[0];
+    // Dishes the first word matched; every later candidate is among them
+    private int[] seen = new int[0];
+
+    /**
+     * Replaces the van's menu, or adds the van.
+     *
+     * @param rating the van's rating, used for dishes that have none of their own
+     */
+    public synchronized void putMenu(String vanId, double latitude, double longitude, double rating,
+                                     List<MenuItem> items) {
+        removeVan(vanId);
+        Van van = new Van(vanId, latitude, longitude, rating, items != null ? items : Collections.emptyList());
+        vans.put(vanId, van);
+        Cell cell = cells.computeIfAbsent(van.cellKey, key -> new Cell());
+        cell.add(van);
+        liveCount += van.docCount;
+    }
+
+    /**
+     * Updates where the van is and its rating, keeping its menu.
+     */
+    public synchronized void moveVan(String vanId, double latitude, double longitude, double rating) {
+        Van van = vans.get(vanId);
+        if (van == null) {
+            return;
+        }
+        if (cellKey(latitude, longitude) != van.cellKey) {
+            putMenu(vanId, latitude, longitude, rating, van.items);
+        } else {
+            van.latitude = latitude;
+            van.longitude = longitude;
+            van.rating = rating;
+        }
+    }
+
+    public synchronized void removeVan(String vanId) {
+        Van van = vans.remove(vanId);
+        if (van == null) {
+            return;
+        }
+        Cell cell = cells.get(van.cellKey);
+        cell.remove(van);
+        liveCount -= van.docCount;
+        if (cell.vans.isEmpty()) {
+            cells.remove(van.cellKey);
+        }
+    }
+
+    public synchronized boolean contains(String vanId) {
+        return vans.containsKey(vanId);
+    }
+
+    /**
+     * Dishes indexed, across all vans.
+     */
+    public synchronized int size() {
+        return liveCount;
+    }
+
+    /**
+     * The best k available dishes within radiusKm whose text matches every word of the query,
+     * best first.
+     */
+    public synchronized List<Hit> search(String query, double latitude, double longitude, double radiusKm, int k) {
+        String[] terms = tokenize(query);
+        if (terms.length == 0 || k <= 0 || radiusKm <= 0) {
+            return new ArrayList<>();
+        }
+        PriorityQueue<Hit> best = new PriorityQueue<>(k + 1, DishSearchIndex::compareWorstFirst);
+
+        double latSpan = radiusKm / KM_PER_DEGREE;
+        double lonSpan = radiusKm / (KM_PER_DEGREE * Math.max(0.01, Math.cos(Math.toRadians(latitude))));
+        int firstRow = cellIndex(latitude - latSpan);
+        int lastRow = cellIndex(latitude + latSpan);
+        int firstColumn = cellIndex(longitude - lonSpan);
+        int lastColumn = cellIndex(longitude + lonSpan);
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int column = firstColumn; column <= lastColumn; column++) {
+                Cell cell = cells.get(cellKey(row, column));
+                if (cell != null && nearestDistanceKm(row, column, latitude, longitude) <= radiusKm) {
+                    searchCell(cell, terms, latitude, longitude, radiusKm, k, best);
+                }
+            }
+        }
+
+        List<Hit> hits = new ArrayList<>(best);
+        hits.sort((a, b) -> compareWorstFirst(b, a));
+        return hits;
+    }
+
+    private void searchCell(Cell cell, String[] terms, double latitude, double longitude, double radiusKm,
+                            int k, PriorityQueue<Hit> best) {
+        ensureScratch(cell.size);
+        int seenCount = 0;
+        int candidates = 0;
+        for (int t = 0; t < terms.length; t++) {
+            String term = terms[t];
+            NavigableMap<String, IntList> matches =
+                    cell.postings.subMap(term, true, term + Character.MAX_VALUE, false);
+            if (matches.isEmpty()) {
+                resetScratch(seenCount);
+                return;
+            }
+            int touchedCount = 0;
+            for (Map.Entry<String, IntList> entry : matches.entrySet()) {
+                float exactness = entry.getKey().length() == term.length() ? 1f : PREFIX_FACTOR;
+                IntList postings = entry.getValue();
+                for (int p = 0; p < postings.size; p++) {
+                    int posting = postings.values[p];
+                    int doc = posting >>> 2;
+                    // Only dishes that matched every earlier word are still candidates
+                    if (termsMatched[doc] != t) {
+                        continue;
+                    }
+                    float weight = FIELD_WEIGHTS[posting & 3] * exactness;
+                    if (termBest[doc] == 0) {
+                        touched[touchedCount++] = doc;
+                    }
+                    if (weight > termBest[doc]) {
+                        termBest[doc] = weight;
+                    }
+                }
+            }
+            for (int i = 0; i < touchedCount; i++) {
+                int doc = touched[i];
+                termsMatched[doc]++;
+                textScore[doc] += termBest[doc];
+                termBest[doc] = 0;
+            }
+            if (t == 0) {
+                System.arraycopy(touched, 0, seen, 0, touchedCount);
+                seenCount = touchedCount;
+            }
+            candidates = touchedCount;
+            if (candidates == 0) {
+                resetScratch(seenCount);
+                return;
+            }
+        }
+
+        // touched holds the dishes that matched the last word, which matched all of them
+        double maxText = FIELD_WEIGHTS[NAME] * terms.length;
+        Van lastVan = null;
+        double lastDistance = 0;
+        for (int i = 0; i < candidates; i++) {
+            int doc = touched[i];
+            double text = textScore[doc] / maxText;
+            Van van = cell.docVans[doc];
+            MenuItem item = cell.items[doc];
+            if (van != lastVan) {
+                lastVan = van;
+                lastDistance = distanceKm(latitude, longitude, van.latitude, van.longitude);
+            }
+            if (!cell.dead.get(doc) && item.isAvailable() && lastDistance <= radiusKm) {
+                double rating = item.getTotalRatings() > 0 ? item.getRating() : van.rating;
+                double score = TEXT_WEIGHT * text
+                        + DISTANCE_WEIGHT * (1 - lastDistance / radiusKm)
+                        + RATING_WEIGHT * Math.max(0, Math.min(5, rating)) / 5;
+                if (best.size() < k || score > best.peek().score) {
+                    best.add(new Hit(item, van.id, lastDistance, score));
+                    if (best.size() > k) {
+                        best.poll();
+                    }
+                }
+            }
+        }
+        resetScratch(seenCount);
+    }
+
+    private void ensureScratch(int size) {
+        if (termBest.length < size) {
+            int capacity = Math.max(size, termBest.length * 2);
+            termBest = new float[capacity];
+            textScore = new float[capacity];
+            termsMatched = new int[capacity];
+            touched = new int[capacity];
+            seen = new int[capacity];
+        }
+    }
+
+    /**
+     * Clears what the cell's search left behind, which only the first word's matches can have.
+     */
+    private void resetScratch(int seenCount) {
+        for (int i = 0; i < seenCount; i++) {
+            int doc = seen[i];
+            textScore[doc] = 0;
+            termsMatched[doc] = 0;
+        }
+    }
+
+    /**
+     * Lower-case words of letters and digits.
+     */
+    static String[] tokenize(String text) {
+        if (text == null || text.isEmpty()) {
+            return new String[0];
+        }
+        List<String> tokens = new ArrayList<>();
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean wordChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                tokens.add(lower.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens.toArray(new String[0]);
+    }
+
+    private static int compareWorstFirst(Hit a, Hit b) {
+        int byScore = Double.compare(a.score, b.score);
+        if (byScore != 0) {
+            return byScore;
+        }
+        // Equal scores: the farther dish, then the later ID, counts as worse
+        int byDistance = Double.compare(b.distanceKm, a.distanceKm);
+        if (byDistance != 0) {
+            return byDistance;
+        }
+        String idA = a.item.getId() != null ? a.item.getId() : "";
+        String idB = b.item.getId() != null ? b.item.getId() : "";
+        return idB.compareTo(idA);
+    }
+
+    static double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    /**
+     * Distance from the point to the closest point of the cell.
+     */
+    private static double nearestDistanceKm(int row, int column, double latitude, double longitude) {
+        double lat = clamp(latitude, row * CELL_DEGREES, (row + 1) * CELL_DEGREES);
+        double lon = clamp(longitude, column * CELL_DEGREES, (column + 1) * CELL_DEGREES);
+        return distanceKm(latitude, longitude, lat, lon);
+    }
+
+    private static double clamp(double value, double min, double max) {
+        return Math.max(min, Math.min(max, value));
+    }
+
+    private static int cellIndex(double degrees) {
+        return (int) Math.floor(degrees / CELL_DEGREES);
+    }
+
+    private static long cellKey(double latitude, double longitude) {
+        return cellKey(cellIndex(latitude), cellIndex(longitude));
+    }
+
+    private static long cellKey(int row, int column) {
+        return ((long) row << 32) | (column & 0xffffffffL);
+    }
+
+    private static final class Van {
+        final String id;
+        final List<MenuItem> items;
+        final long cellKey;
+        double latitude;
+        double longitude;
+        double rating;
+        // The van's dishes are docs [firstDoc, firstDoc + docCount) of its cell
+        int firstDoc;
+        int docCount;
+
+        Van(String id, double latitude, double longitude, double rating, List<MenuItem> items) {
+            this.id = id;
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.rating = rating;
+            this.items = items;
+            this.cellKey = DishSearchIndex.cellKey(latitude, longitude);
+        }
+    }
+
+    private static final class Cell {
+        final List<Van> vans = new ArrayList<>();
+        // Word to postings of (doc << 2 | field)
+        final TreeMap<String, IntList> postings = new TreeMap<>();
+        MenuItem[] items = new MenuItem[16];
+        Van[] docVans = new Van[16];
+        final java.util.BitSet dead = new java.util.BitSet();
+        int size;
+        int deadCount;
+
+        void add(Van van) {
+            vans.add(van);
+            index(van);
+        }
+
+        void remove(Van van) {
+            vans.remove(van);
+            dead.set(van.firstDoc, van.firstDoc + van.docCount);
+            deadCount += van.docCount;
+            if (deadCount >= MIN_DEAD_TO_COMPACT && deadCount > size - deadCount) {
+                compact();
+            }
+        }
+
+        private void compact() {
+            postings.clear();
+            Arrays.fill(items, 0, size, null);
+            Arrays.fill(docVans, 0, size, null);
+            dead.clear();
+            size = 0;
+            deadCount = 0;
+            for (Van van : vans) {
+                index(van);
+            }
+        }
+
+        private void index(Van van) {
+            van.firstDoc = size;
+            van.docCount = 0;
+            for (MenuItem item : van.items) {
+                if (item == null) {
+                    continue;
+                }
+                int doc = size++;
+                if (doc == items.length) {
+                    items = Arrays.copyOf(items, doc * 2);
+                    docVans = Arrays.copyOf(docVans, doc * 2);
+                }
+                items[doc] = item;
+                docVans[doc] = van;
+                van.docCount++;
+                addField(doc, NAME, item.getName());
+                addField(doc, CATEGORY, item.getCategory());
+                addField(doc, DESCRIPTION, item.getDescription());
+            }
+        }
+
+        private void addField(int doc, int field, String text) {
+            for (String token : tokenize(text)) {
+                IntList list = postings.get(token);
+                if (list == null) {
+                    list = new IntList();
+                    postings.put(token, list);
+                }
+                list.add(doc << 2 | field);
+            }
+        }
+    }
+
+    private static final class IntList {
+        int[] values = new int[4];
+        int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.foodvan.utils;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * FavoriteIndex - In-memory set of a user's favorite item IDs, with the database key each
+ * favorite is stored under. New favorites are keyed by their itemId; favorites written
+ * before that keep their push key, which is why the key is tracked per item. Every lookup
+ * is answered locally, so checking a whole menu costs no network queries.
+ */
+public class FavoriteIndex {
+
+    // itemId -> database key under favorites/{userId}
+    private final Map<String, String> keysByItem = new HashMap<>();
+
+    public synchronized boolean contains(String itemId) {
+        return itemId != null && keysByItem.containsKey(itemId);
+    }
+
+    /**
+     * The subset of itemIds that are favorites.
+     */
+    public synchronized Set<String> filterFavorites(Collection<String> itemIds) {
+        Set<String> favorites = new HashSet<>();
+        for (String itemId : itemIds) {
+            if (itemId != null && keysByItem.containsKey(itemId)) {
+                favorites.add(itemId);
+            }
+        }
+        return favorites;
+    }
+
+    public synchronized String keyFor(String itemId) {
+        return keysByItem.get(itemId);
+    }
+
+    public synchronized void put(String itemId, String key) {
+        if (itemId != null && key != null) {
+            keysByItem.put(itemId, key);
+        }
+    }
+
+    public synchronized String removeItem(String itemId) {
+        return keysByItem.remove(itemId);
+    }
+
+    /**
+     * Removes whichever item is stored under the given database key.
+     *
+     * @return the removed itemId, or null if no item used that key
+     */
+    public synchronized String removeKey(String key) {
+        if (key.equals(keysByItem.get(key))) {
+            keysByItem.remove(key);
+            return key;
+        }
+        for (Map.Entry<String, String> entry : keysByItem.entrySet()) {
+            if (entry.getValue().equals(key)) {
+                keysByItem.remove(entry.getKey());
+                return entry.getKey();
+            }
+        }
+        return null;
+    }
+
+    public synchronized int size() {
+        return keysByItem.size();
+    }
+
+    public synchronized void clear() {
+        keysByItem.clear();
+    }
+
+    public synchronized Map<String, String> snapshot() {
+        return new HashMap<>(keysByItem);
+    }
+
+    public synchronized void restore(Map<String, String> keys) {
+        keysByItem.clear();
+        if (keys != null) {
+            for (Map.Entry<String, String> entry : keys.entrySet()) {
+                put(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+}
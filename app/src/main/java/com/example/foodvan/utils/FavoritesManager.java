@@ -4,28 +4,47 @@ import android.content.Context;
 import android.util.Log;
 
 import com.example.foodvan.models.FavoriteOrder;
+import com.google.firebase.database.ChildEventListener;
 import com.google.firebase.database.DataSnapshot;
 import com.google.firebase.database.DatabaseError;
 import com.google.firebase.database.DatabaseReference;
 import com.google.firebase.database.FirebaseDatabase;
 import com.google.firebase.database.ValueEventListener;
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
 
+import java.lang.reflect.Type;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * FavoritesManager - Utility class for managing user favorites
- * Provides methods to add, remove, and check favorite status
+ * Provides methods to add, remove, and check favorite status.
+ *
+ * The set of favorite item IDs is kept in memory (and in a KeyValueStore between
+ * launches), updated from child events on favorites/{userId}, so favorite checks are
+ * synchronous and never hit the network. Favorites are stored under their itemId.
  */
 public class FavoritesManager {
     
     private static final String TAG = "FavoritesManager";
     private static FavoritesManager instance;
+    static final String PREF_NAME = "FavoritesPrefs";
+    private static final String KEY_FAVORITE_KEYS = "favorite_keys_";
     
     private Context context;
     private SessionManager sessionManager;
     private DatabaseReference favoritesRef;
-    private List<String> favoriteItemIds;
+    private ChildEventListener favoritesListener;
+    private final FavoriteIndex favoriteIndex = new FavoriteIndex();
+    private final KeyValueStore preferences;
+    private final Gson gson = new Gson();
+    private String userId;
+    // Until the first full sync, child events are the initial load and are persisted once at its end
+    private boolean initialSyncDone;
     
     public interface FavoriteCallback {
         void onSuccess(String message);
@@ -44,14 +63,11 @@ public class FavoritesManager {
     private FavoritesManager(Context context) {
         this.context = context;
         this.sessionManager = new SessionManager(context);
-        this.favoriteItemIds = new ArrayList<>();
+        this.preferences = KeyValueStores.get(context, PREF_NAME);
         
         String userId = sessionManager.getUserId();
         if (userId != null) {
-            this.favoritesRef = FirebaseDatabase.getInstance()
-                    .getReference("favorites")
-                    .child(userId);
-            loadFavoriteIds();
+            attach(userId);
         }
     }
     
@@ -78,14 +94,15 @@ public class FavoritesManager {
             return;
         }
         
-        String favoriteId = favoritesRef.push().getKey();
-        if (favoriteId == null) {
+        if (itemId == null || itemId.isEmpty()) {
             if (callback != null) {
-                callback.onError("Failed to generate favorite ID");
+                callback.onError("Invalid item");
             }
             return;
         }
         
+        // Keyed by item, so the same item can never be added twice and removal is a direct delete
+        String favoriteId = itemId;
         FavoriteOrder favorite = new FavoriteOrder(
             favoriteId,
             sessionManager.getUserId(),
@@ -105,15 +122,18 @@ public class FavoritesManager {
             cuisine
         );
         
+        favoriteIndex.put(itemId, favoriteId);
+        saveFavoriteKeys();
         favoritesRef.child(favoriteId).setValue(favorite)
             .addOnSuccessListener(aVoid -> {
-                favoriteItemIds.add(itemId);
                 if (callback != null) {
                     callback.onSuccess("Added to favorites");
                 }
                 Log.d(TAG, "Added to favorites: " + itemName);
             })
             .addOnFailureListener(e -> {
+                favoriteIndex.removeItem(itemId);
+                saveFavoriteKeys();
                 if (callback != null) {
                     callback.onError("Failed to add to favorites: " + e.getMessage());
                 }
@@ -132,37 +152,29 @@ public class FavoritesManager {
             return;
         }
         
-        // Find and remove the favorite by itemId
-        favoritesRef.orderByChild("itemId").equalTo(itemId)
-            .addListenerForSingleValueEvent(new ValueEventListener() {
-                @Override
-                public void onDataChange(DataSnapshot snapshot) {
-                    for (DataSnapshot favoriteSnapshot : snapshot.getChildren()) {
-                        favoriteSnapshot.getRef().removeValue()
-                            .addOnSuccessListener(aVoid -> {
-                                favoriteItemIds.remove(itemId);
-                                if (callback != null) {
-                                    callback.onSuccess("Removed from favorites");
-                                }
-                                Log.d(TAG, "Removed from favorites: " + itemId);
-                            })
-                            .addOnFailureListener(e -> {
-                                if (callback != null) {
-                                    callback.onError("Failed to remove from favorites: " + e.getMessage());
-                                }
-                                Log.e(TAG, "Failed to remove from favorites", e);
-                            });
-                        break; // Remove only the first match
-                    }
+        String favoriteKey = favoriteIndex.removeItem(itemId);
+        if (favoriteKey == null) {
+            if (callback != null) {
+                callback.onSuccess("Removed from favorites");
+            }
+            return;
+        }
+        saveFavoriteKeys();
+        
+        favoritesRef.child(favoriteKey).removeValue()
+            .addOnSuccessListener(aVoid -> {
+                if (callback != null) {
+                    callback.onSuccess("Removed from favorites");
                 }
-                
-                @Override
-                public void onCancelled(DatabaseError error) {
-                    if (callback != null) {
-                        callback.onError("Failed to remove from favorites: " + error.getMessage());
-                    }
-                    Log.e(TAG, "Failed to remove from favorites", error.toException());
+                Log.d(TAG, "Removed from favorites: " + itemId);
+            })
+            .addOnFailureListener(e -> {
+                favoriteIndex.put(itemId, favoriteKey);
+                saveFavoriteKeys();
+                if (callback != null) {
+                    callback.onError("Failed to remove from favorites: " + e.getMessage());
                 }
+                Log.e(TAG, "Failed to remove from favorites", e);
             });
     }
     
@@ -192,47 +204,29 @@ public class FavoritesManager {
             });
     }
     
+    /**
+     * Check if item is in favorites. Answered from the local set.
+     */
+    public boolean isFavorite(String itemId) {
+        return favoriteIndex.contains(itemId);
+    }
+    
     /**
      * Check if item is in favorites
      */
     public void isFavorite(String itemId, FavoriteCheckCallback callback) {
-        if (favoritesRef == null) {
-            if (callback != null) {
-                callback.onResult(false);
-            }
-            return;
-        }
-        
-        // Check from cached list first
-        if (favoriteItemIds.contains(itemId)) {
-            if (callback != null) {
-                callback.onResult(true);
-            }
-            return;
+        if (callback != null) {
+            callback.onResult(isFavorite(itemId));
         }
-        
-        // Check from Firebase
-        favoritesRef.orderByChild("itemId").equalTo(itemId)
-            .addListenerForSingleValueEvent(new ValueEventListener() {
-                @Override
-                public void onDataChange(DataSnapshot snapshot) {
-                    boolean isFavorite = snapshot.exists();
-                    if (isFavorite && !favoriteItemIds.contains(itemId)) {
-                        favoriteItemIds.add(itemId);
-                    }
-                    if (callback != null) {
-                        callback.onResult(isFavorite);
-                    }
-                }
-                
-                @Override
-                public void onCancelled(DatabaseError error) {
-                    Log.e(TAG, "Failed to check favorite status", error.toException());
-                    if (callback != null) {
-                        callback.onResult(false);
-                    }
-                }
-            });
+    }
+    
+    /**
+     * Favorite status for a batch of items, e.g. everything an adapter is about to bind.
+     *
+     * @return the itemIds among the given ones that are favorites
+     */
+    public Set<String> areFavorites(Collection<String> itemIds) {
+        return favoriteIndex.filterFavorites(itemIds);
     }
     
     /**
@@ -246,17 +240,15 @@ public class FavoritesManager {
             return;
         }
         
-        favoritesRef.addValueEventListener(new ValueEventListener() {
+        FirebaseMetrics.readOnce("favorites.all", favoritesRef, new ValueEventListener() {
             @Override
             public void onDataChange(DataSnapshot snapshot) {
                 List<FavoriteOrder> favorites = new ArrayList<>();
-                favoriteItemIds.clear();
                 
                 for (DataSnapshot favoriteSnapshot : snapshot.getChildren()) {
                     FavoriteOrder favorite = favoriteSnapshot.getValue(FavoriteOrder.class);
                     if (favorite != null) {
                         favorites.add(favorite);
-                        favoriteItemIds.add(favorite.getItemId());
                     }
                 }
                 
@@ -284,41 +276,76 @@ public class FavoritesManager {
                               String type, String category, String cuisine,
                               boolean isAvailable, FavoriteCallback callback) {
         
-        isFavorite(itemId, isFavorite -> {
-            if (isFavorite) {
-                removeFromFavorites(itemId, callback);
-            } else {
-                addToFavorites(itemId, itemName, itemDescription, vendorId, vendorName,
-                              imageUrl, price, rating, reviewsCount, type, category,
-                              cuisine, isAvailable, callback);
-            }
-        });
+        if (isFavorite(itemId)) {
+            removeFromFavorites(itemId, callback);
+        } else {
+            addToFavorites(itemId, itemName, itemDescription, vendorId, vendorName,
+                          imageUrl, price, rating, reviewsCount, type, category,
+                          cuisine, isAvailable, callback);
+        }
     }
     
     /**
      * Get favorites count
      */
     public int getFavoritesCount() {
-        return favoriteItemIds.size();
+        return favoriteIndex.size();
     }
     
     /**
-     * Load favorite item IDs for quick checking
+     * Start tracking a user's favorites: restore the persisted set, then follow child events.
+     * Each event only reads the itemId, not the whole favorite.
      */
-    private void loadFavoriteIds() {
-        if (favoritesRef == null) return;
+    private void attach(String userId) {
+        this.userId = userId;
+        this.favoritesRef = FirebaseDatabase.getInstance()
+                .getReference("favorites")
+                .child(userId);
+        loadFavoriteKeys();
+        
+        favoritesListener = new ChildEventListener() {
+            @Override
+            public void onChildAdded(DataSnapshot snapshot, String previousChildName) {
+                trackFavorite(snapshot);
+            }
+            
+            @Override
+            public void onChildChanged(DataSnapshot snapshot, String previousChildName) {
+                trackFavorite(snapshot);
+            }
+            
+            @Override
+            public void onChildRemoved(DataSnapshot snapshot) {
+                if (favoriteIndex.removeKey(snapshot.getKey()) != null) {
+                    saveFavoriteKeys();
+                }
+            }
+            
+            @Override
+            public void onChildMoved(DataSnapshot snapshot, String previousChildName) {
+                // Order doesn't matter for a set
+            }
+            
+            @Override
+            public void onCancelled(DatabaseError error) {
+                Log.e(TAG, "Failed to load favorite IDs", error.toException());
+            }
+        };
+        favoritesListener = FirebaseMetrics.attach("favorites.ids", favoritesRef, favoritesListener);
         
-        favoritesRef.addValueEventListener(new ValueEventListener() {
+        // Child events never report favorites removed while offline, so reconcile once
+        FirebaseMetrics.readOnce("favorites.reconcile", favoritesRef, new ValueEventListener() {
             @Override
             public void onDataChange(DataSnapshot snapshot) {
-                favoriteItemIds.clear();
-                for (DataSnapshot favoriteSnapshot : snapshot.getChildren()) {
-                    FavoriteOrder favorite = favoriteSnapshot.getValue(FavoriteOrder.class);
-                    if (favorite != null && favorite.getItemId() != null) {
-                        favoriteItemIds.add(favorite.getItemId());
+                Map<String, String> current = favoriteIndex.snapshot();
+                for (Map.Entry<String, String> entry : current.entrySet()) {
+                    if (!snapshot.hasChild(entry.getValue())) {
+                        favoriteIndex.removeItem(entry.getKey());
                     }
                 }
-                Log.d(TAG, "Loaded " + favoriteItemIds.size() + " favorite item IDs");
+                initialSyncDone = true;
+                saveFavoriteKeys();
+                Log.d(TAG, "Loaded " + favoriteIndex.size() + " favorite item IDs");
             }
             
             @Override
@@ -328,26 +355,54 @@ public class FavoritesManager {
         });
     }
     
+    private void detach() {
+        if (favoritesRef != null && favoritesListener != null) {
+            FirebaseMetrics.detach("favorites.ids", favoritesRef, favoritesListener);
+        }
+        favoritesListener = null;
+        favoritesRef = null;
+        userId = null;
+        initialSyncDone = false;
+        favoriteIndex.clear();
+    }
+    
+    private void trackFavorite(DataSnapshot snapshot) {
+        String itemId = snapshot.child("itemId").getValue(String.class);
+        favoriteIndex.put(itemId != null ? itemId : snapshot.getKey(), snapshot.getKey());
+        if (initialSyncDone) {
+            saveFavoriteKeys();
+        }
+    }
+    
+    private void loadFavoriteKeys() {
+        String json = preferences.getString(KEY_FAVORITE_KEYS + userId, null);
+        if (json != null) {
+            Type type = new TypeToken<Map<String, String>>(){}.getType();
+            favoriteIndex.restore(gson.fromJson(json, type));
+        }
+    }
+    
+    private void saveFavoriteKeys() {
+        if (userId == null) return;
+        preferences.edit()
+                .putString(KEY_FAVORITE_KEYS + userId, gson.toJson(favoriteIndex.snapshot()))
+                .apply();
+    }
+    
     /**
      * Clear all favorites (for logout)
      */
     public void clearFavorites() {
-        favoriteItemIds.clear();
-        favoritesRef = null;
+        detach();
     }
     
     /**
      * Reinitialize for new user
      */
     public void reinitialize(String userId) {
-        favoriteItemIds.clear();
+        detach();
         if (userId != null) {
-            this.favoritesRef = FirebaseDatabase.getInstance()
-                    .getReference("favorites")
-                    .child(userId);
-            loadFavoriteIds();
-        } else {
-            this.favoritesRef = null;
+            attach(userId);
         }
     }
 }
@@ -1,7 +1,6 @@
 package com.example.foodvan.utils;
 
 import android.content.Context;
-import android.content.SharedPreferences;
 import android.location.Location;
 import android.util.Log;
 
@@ -20,8 +19,6 @@ import com.google.firebase.database.Query;
 import com.google.firebase.database.ValueEventListener;
 
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
 import java.util.List;
 
 /**
@@ -30,13 +27,16 @@ import java.util.List;
 public class FilterManager {
     
     private static final String TAG = "FilterManager";
-    private static final String PREFS_NAME = "filter_preferences";
+    static final String PREFS_NAME = "filter_preferences";
     private static final String KEY_FILTER_CRITERIA = "filter_criteria";
     
     private Context context;
-    private SharedPreferences preferences;
+    private KeyValueStore preferences;
     private FilterCriteria currentFilter;
     private Location userLocation;
+    private final VendorRanker ranker = new VendorRanker();
+    // The last apply's results, for handing out further pages
+    private VendorRanker.Ranking ranking;
     
     // Callback interfaces
     public interface FilterResultCallback {
@@ -51,7 +51,7 @@ public class FilterManager {
     
     public FilterManager(Context context) {
         this.context = context;
-        this.preferences = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+        this.preferences = KeyValueStores.get(context, PREFS_NAME);
         this.currentFilter = new FilterCriteria();
         loadSavedFilters();
     }
@@ -61,6 +61,7 @@ public class FilterManager {
      */
     public void setUserLocation(Location location) {
         this.userLocation = location;
+        ranker.setOrigin(location.getLatitude(), location.getLongitude());
         Log.d(TAG, "User location updated: " + location.getLatitude() + ", " + location.getLongitude());
     }
     
@@ -68,6 +69,13 @@ public class FilterManager {
      * Apply filters to vendor list
      */
     public void applyFilters(FilterCriteria criteria, FilterResultCallback callback) {
+        applyFilters(criteria, Integer.MAX_VALUE, callback);
+    }
+    
+    /**
+     * Apply filters and return only the first pageSize results; nextResults() ranks more.
+     */
+    public void applyFilters(FilterCriteria criteria, int pageSize, FilterResultCallback callback) {
         this.currentFilter = criteria.copy();
         saveFilters();
         
@@ -82,7 +90,7 @@ public class FilterManager {
                 // Parse all vendors from Firebase
                 for (DataSnapshot vendorSnapshot : dataSnapshot.getChildren()) {
                     try {
-                        User vendor = vendorSnapshot.getValue(User.class);
+                        User vendor = SnapshotMappers.get(vendorSnapshot, User.class);
                         if (vendor != null) {
                             allVendors.add(vendor);
                         }
@@ -94,11 +102,11 @@ public class FilterManager {
                 // Apply filters
                 List<User> filteredVendors = filterVendors(allVendors, criteria);
                 
-                // Sort results
-                sortVendors(filteredVendors, criteria.getSortBy(), criteria.getSortOrder());
+                // Rank results
+                ranking = ranker.rank(filteredVendors, criteria.getSortBy(), criteria.getSortOrder());
                 
                 // Return results
-                callback.onFilterResults(filteredVendors, allVendors.size());
+                callback.onFilterResults(ranking.next(pageSize), allVendors.size());
                 
                 Log.d(TAG, "Filter applied: " + filteredVendors.size() + " out of " + allVendors.size() + " vendors");
             }
@@ -157,12 +165,7 @@ public class FilterManager {
         
         // Distance filter
         if (userLocation != null && criteria.getMaxDistance() > 0) {
-            float distance = calculateDistance(
-                userLocation.getLatitude(), 
-                userLocation.getLongitude(),
-                vendor.getLatitude(), 
-                vendor.getLongitude()
-            );
+            float distance = ranker.distanceKm(vendor);
             
             if (distance > criteria.getMaxDistance()) {
                 return false;
@@ -192,72 +195,38 @@ public class FilterManager {
     }
     
     /**
-     * Sort vendors based on criteria
+     * Next count results of the last apply, in the same order
      */
-    private void sortVendors(List<User> vendors, SortBy sortBy, SortOrder sortOrder) {
-        Comparator<User> comparator = null;
-        
-        switch (sortBy) {
-            case DISTANCE:
-                if (userLocation != null) {
-                    comparator = (v1, v2) -> {
-                        float dist1 = calculateDistance(userLocation.getLatitude(), userLocation.getLongitude(), 
-                                                      v1.getLatitude(), v1.getLongitude());
-                        float dist2 = calculateDistance(userLocation.getLatitude(), userLocation.getLongitude(), 
-                                                      v2.getLatitude(), v2.getLongitude());
-                        return Float.compare(dist1, dist2);
-                    };
-                }
-                break;
-                
-            case RATING:
-                comparator = (v1, v2) -> Double.compare(v2.getRating(), v1.getRating()); // Higher rating first
-                break;
-                
-            case POPULARITY:
-                comparator = (v1, v2) -> Integer.compare(v2.getTotalOrders(), v1.getTotalOrders()); // More orders first
-                break;
-                
-            case NEWEST:
-                comparator = (v1, v2) -> Long.compare(v2.getCreatedAt(), v1.getCreatedAt()); // Newer first
-                break;
-                
-            case NAME:
-                comparator = (v1, v2) -> v1.getBusinessName().compareToIgnoreCase(v2.getBusinessName());
-                break;
-                
-            case PRICE:
-                // Would need average price calculation
-                comparator = (v1, v2) -> v1.getBusinessName().compareToIgnoreCase(v2.getBusinessName()); // Fallback to name
-                break;
-        }
-        
-        if (comparator != null) {
-            Collections.sort(vendors, comparator);
-            
-            // Reverse if descending order (except for rating and popularity which are already desc)
-            if (sortOrder == SortOrder.DESCENDING && 
-                sortBy != SortBy.RATING && 
-                sortBy != SortBy.POPULARITY && 
-                sortBy != SortBy.NEWEST) {
-                Collections.reverse(vendors);
-            }
-        }
+    public List<User> nextResults(int count) {
+        return ranking != null ? ranking.next(count) : new ArrayList<>();
     }
     
     /**
-     * Calculate distance between two points in kilometers
+     * Whether the last apply has results not handed out yet
      */
-    private float calculateDistance(double lat1, double lon1, double lat2, double lon2) {
-        Location loc1 = new Location("");
-        loc1.setLatitude(lat1);
-        loc1.setLongitude(lon1);
-        
-        Location loc2 = new Location("");
-        loc2.setLatitude(lat2);
-        loc2.setLongitude(lon2);
-        
-        return loc1.distanceTo(loc2) / 1000f; // Convert to kilometers
+    public boolean hasMoreResults() {
+        return ranking != null && ranking.hasNext();
+    }
+    
+    /**
+     * Every vendor that matched the last apply, unranked, including those not paged in yet
+     */
+    public List<User> getMatches() {
+        return ranking != null ? ranking.all() : new ArrayList<>();
+    }
+    
+    /**
+     * Number of vendors that matched the last apply
+     */
+    public int getMatchCount() {
+        return ranking != null ? ranking.size() : 0;
+    }
+    
+    /**
+     * Set the weights of the RECOMMENDED sort
+     */
+    public void setRankingWeights(VendorRanker.Weights weights) {
+        ranker.setWeights(weights);
     }
     
     /**
@@ -284,11 +253,11 @@ public class FilterManager {
     }
     
     /**
-     * Save filters to SharedPreferences
+     * Save filters to the local store
      */
     private void saveFilters() {
         // For simplicity, we'll save key filter values
-        SharedPreferences.Editor editor = preferences.edit();
+        KeyValueStore.Editor editor = preferences.edit();
         
         // Save cuisine types as comma-separated string
         StringBuilder cuisines = new StringBuilder();
@@ -312,7 +281,7 @@ public class FilterManager {
     }
     
     /**
-     * Load filters from SharedPreferences
+     * Load filters from the local store
      */
     private void loadSavedFilters() {
         try {
@@ -13,6 +13,32 @@ import java.util.List;
  */
 public class FilterUtils {
     
+    private static final Comparator<MenuItem> POPULARITY_ORDER = (a, b) -> {
+        // Sort by order count (higher first), then by rating
+        int orderCompare = Integer.compare(b.getOrderCount(), a.getOrderCount());
+        if (orderCompare != 0) return orderCompare;
+        return Double.compare(b.getRating(), a.getRating());
+    };
+    
+    private static final Comparator<MenuItem> PRICE_ASCENDING_ORDER = (a, b) -> Double.compare(a.getPrice(), b.getPrice());
+    
+    private static final Comparator<MenuItem> PRICE_DESCENDING_ORDER = (a, b) -> Double.compare(b.getPrice(), a.getPrice());
+    
+    private static final Comparator<MenuItem> NAME_ASCENDING_ORDER = (a, b) -> {
+        String nameA = a.getName() != null ? a.getName() : "";
+        String nameB = b.getName() != null ? b.getName() : "";
+        return nameA.compareToIgnoreCase(nameB);
+    };
+    
+    private static final Comparator<MenuItem> NAME_DESCENDING_ORDER = (a, b) -> NAME_ASCENDING_ORDER.compare(b, a);
+    
+    private static final Comparator<MenuItem> NEWEST_ORDER = (a, b) -> {
+        // Sort by creation date (newer first), then by last updated date
+        int createdCompare = Long.compare(b.getCreatedAt(), a.getCreatedAt());
+        if (createdCompare != 0) return createdCompare;
+        return Long.compare(b.getLastUpdated(), a.getLastUpdated());
+    };
+    
     /**
      * Apply the given filter to a list of menu items
      * @param items Original list of menu items
@@ -107,64 +133,33 @@ public class FilterUtils {
     /**
      * Apply sorting to the filtered list
      */
-    private static void applySorting(List<MenuItem> items, MenuFilter.SortOption sortBy) {
+    public static void applySorting(List<MenuItem> items, MenuFilter.SortOption sortBy) {
         if (items == null || items.isEmpty()) {
             return;
         }
         
-        Comparator<MenuItem> comparator;
-        
+        Collections.sort(items, comparator(sortBy));
+    }
+    
+    /**
+     * Item order for a sort option; names compare null-safe and case-insensitively
+     */
+    public static Comparator<MenuItem> comparator(MenuFilter.SortOption sortBy) {
         switch (sortBy) {
             case POPULARITY:
-                comparator = (a, b) -> {
-                    // Sort by order count (higher first), then by rating
-                    int orderCompare = Integer.compare(b.getOrderCount(), a.getOrderCount());
-                    if (orderCompare != 0) return orderCompare;
-                    return Double.compare(b.getRating(), a.getRating());
-                };
-                break;
-                
+                return POPULARITY_ORDER;
             case PRICE_LOW_TO_HIGH:
-                comparator = (a, b) -> Double.compare(a.getPrice(), b.getPrice());
-                break;
-                
+                return PRICE_ASCENDING_ORDER;
             case PRICE_HIGH_TO_LOW:
-                comparator = (a, b) -> Double.compare(b.getPrice(), a.getPrice());
-                break;
-                
+                return PRICE_DESCENDING_ORDER;
             case NAME_A_TO_Z:
-                comparator = (a, b) -> {
-                    String nameA = a.getName() != null ? a.getName() : "";
-                    String nameB = b.getName() != null ? b.getName() : "";
-                    return nameA.compareToIgnoreCase(nameB);
-                };
-                break;
-                
+                return NAME_ASCENDING_ORDER;
             case NAME_Z_TO_A:
-                comparator = (a, b) -> {
-                    String nameA = a.getName() != null ? a.getName() : "";
-                    String nameB = b.getName() != null ? b.getName() : "";
-                    return nameB.compareToIgnoreCase(nameA);
-                };
-                break;
-                
+                return NAME_DESCENDING_ORDER;
             case NEWEST:
             default:
-                comparator = (a, b) -> {
-                    // Sort by creation date (newer first), then by last updated date
-                    long createdA = a.getCreatedAt();
-                    long createdB = b.getCreatedAt();
-                    int createdCompare = Long.compare(createdB, createdA);
-                    if (createdCompare != 0) return createdCompare;
-                    
-                    long updatedA = a.getLastUpdated();
-                    long updatedB = b.getLastUpdated();
-                    return Long.compare(updatedB, updatedA);
-                };
-                break;
+                return NEWEST_ORDER;
         }
-        
-        Collections.sort(items, comparator);
     }
     
     /**
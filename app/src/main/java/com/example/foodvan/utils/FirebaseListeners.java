@@ -0,0 +1,43 @@
+package com.example.foodvan.utils;
+
+import com.google.firebase.database.Query;
+import com.google.firebase.database.ValueEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * FirebaseListeners - The realtime listeners one screen or ViewModel holds, attached through
+ * {@link FirebaseMetrics}. Listening again under the same name replaces the earlier listener
+ * instead of stacking another; call stopAll() when the owner is destroyed or cleared.
+ *
+ * Call from the main thread.
+ */
+public final class FirebaseListeners {
+
+    private final Map<String, Query> queries = new HashMap<>();
+    private final Map<String, ValueEventListener> listeners = new HashMap<>();
+
+    /**
+     * @param name metric owner name, e.g. "vendor_dashboard.earnings"
+     */
+    public void listen(String name, Query query, ValueEventListener listener) {
+        stop(name);
+        queries.put(name, query);
+        listeners.put(name, FirebaseMetrics.attach(name, query, listener));
+    }
+
+    public void stop(String name) {
+        Query query = queries.remove(name);
+        if (query != null) {
+            FirebaseMetrics.detach(name, query, listeners.remove(name));
+        }
+    }
+
+    public void stopAll() {
+        for (String name : new ArrayList<>(queries.keySet())) {
+            stop(name);
+        }
+    }
+}
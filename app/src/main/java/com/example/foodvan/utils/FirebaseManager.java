@@ -8,14 +8,19 @@ import com.example.foodvan.models.FoodVan;
 import com.example.foodvan.models.MenuItem;
 import com.example.foodvan.models.Order;
 import com.example.foodvan.models.User;
+import com.google.android.gms.tasks.Task;
 import com.google.firebase.database.DataSnapshot;
 import com.google.firebase.database.DatabaseError;
 import com.google.firebase.database.DatabaseReference;
 import com.google.firebase.database.FirebaseDatabase;
+import com.google.firebase.database.Query;
+import com.google.firebase.database.ServerValue;
 import com.google.firebase.database.ValueEventListener;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * FirebaseManager - Handles all Firebase Realtime Database operations
@@ -26,7 +31,7 @@ public class FirebaseManager {
     
     // Database paths
     private static final String USERS_PATH = "users";
-    private static final String FOOD_VANS_PATH = "food_vans";
+    static final String FOOD_VANS_PATH = "food_vans";
     private static final String MENU_ITEMS_PATH = "menu_items";
     private static final String ORDERS_PATH = "orders";
     
@@ -46,9 +51,9 @@ public class FirebaseManager {
     }
 
     public void saveUser(User user, OnUserSaveListener listener) {
-        databaseReference.child(USERS_PATH)
+        FirebaseMetrics.track("firebase.saveUser", databaseReference.child(USERS_PATH)
                 .child(user.getUserId())
-                .setValue(user)
+                .setValue(SnapshotMappers.toValue(user)))
                 .addOnCompleteListener(task -> {
                     if (task.isSuccessful()) {
                         listener.onSuccess();
@@ -60,28 +65,28 @@ public class FirebaseManager {
     }
 
     public void getUserById(String userId, OnUserFetchListener listener) {
-        databaseReference.child(USERS_PATH)
-                .child(userId)
-                .addListenerForSingleValueEvent(new ValueEventListener() {
-                    @Override
-                    public void onDataChange(@NonNull DataSnapshot snapshot) {
-                        if (snapshot.exists()) {
-                            User user = snapshot.getValue(User.class);
-                            if (user != null) {
-                                listener.onSuccess(user);
-                            } else {
-                                listener.onFailure("User data is null");
-                            }
-                        } else {
-                            listener.onFailure("User not found");
-                        }
-                    }
-
-                    @Override
-                    public void onCancelled(@NonNull DatabaseError error) {
-                        listener.onFailure(error.getMessage());
+        Query query = databaseReference.child(USERS_PATH)
+                .child(userId);
+        FirebaseMetrics.readOnce("firebase.getUserById", query, new ValueEventListener() {
+            @Override
+            public void onDataChange(@NonNull DataSnapshot snapshot) {
+                if (snapshot.exists()) {
+                    User user = SnapshotMappers.get(snapshot, User.class);
+                    if (user != null) {
+                        listener.onSuccess(user);
+                    } else {
+                        listener.onFailure("User data is null");
                     }
-                });
+                } else {
+                    listener.onFailure("User not found");
+                }
+            }
+
+            @Override
+            public void onCancelled(@NonNull DatabaseError error) {
+                listener.onFailure(error.getMessage());
+            }
+        });
     }
 
     // Food Van Management
@@ -101,9 +106,9 @@ public class FirebaseManager {
     }
 
     public void saveFoodVan(FoodVan foodVan, OnFoodVanSaveListener listener) {
-        databaseReference.child(FOOD_VANS_PATH)
+        FirebaseMetrics.track("firebase.saveFoodVan", databaseReference.child(FOOD_VANS_PATH)
                 .child(foodVan.getVanId())
-                .setValue(foodVan)
+                .setValue(SnapshotMappers.toValue(foodVan)))
                 .addOnCompleteListener(task -> {
                     if (task.isSuccessful()) {
                         listener.onSuccess();
@@ -115,61 +120,61 @@ public class FirebaseManager {
     }
 
     public void getFoodVanById(String vanId, OnFoodVanLoadListener listener) {
-        databaseReference.child(FOOD_VANS_PATH)
-                .child(vanId)
-                .addListenerForSingleValueEvent(new ValueEventListener() {
-                    @Override
-                    public void onDataChange(@NonNull DataSnapshot snapshot) {
-                        if (snapshot.exists()) {
-                            FoodVan foodVan = snapshot.getValue(FoodVan.class);
-                            if (foodVan != null) {
-                                listener.onSuccess(foodVan);
-                            } else {
-                                listener.onFailure("Food van data is null");
-                            }
-                        } else {
-                            listener.onFailure("Food van not found");
-                        }
-                    }
-
-                    @Override
-                    public void onCancelled(@NonNull DatabaseError error) {
-                        listener.onFailure(error.getMessage());
+        Query query = databaseReference.child(FOOD_VANS_PATH)
+                .child(vanId);
+        FirebaseMetrics.readOnce("firebase.getFoodVanById", query, new ValueEventListener() {
+            @Override
+            public void onDataChange(@NonNull DataSnapshot snapshot) {
+                if (snapshot.exists()) {
+                    FoodVan foodVan = SnapshotMappers.get(snapshot, FoodVan.class);
+                    if (foodVan != null) {
+                        listener.onSuccess(foodVan);
+                    } else {
+                        listener.onFailure("Food van data is null");
                     }
-                });
+                } else {
+                    listener.onFailure("Food van not found");
+                }
+            }
+
+            @Override
+            public void onCancelled(@NonNull DatabaseError error) {
+                listener.onFailure(error.getMessage());
+            }
+        });
     }
 
     public void getNearbyFoodVans(double latitude, double longitude, double radiusKm, 
                                  OnFoodVansLoadListener listener) {
-        databaseReference.child(FOOD_VANS_PATH)
-                .addListenerForSingleValueEvent(new ValueEventListener() {
-                    @Override
-                    public void onDataChange(@NonNull DataSnapshot snapshot) {
-                        List<FoodVan> nearbyVans = new ArrayList<>();
+        Query query = databaseReference.child(FOOD_VANS_PATH);
+        FirebaseMetrics.readOnce("firebase.getNearbyFoodVans", query, new ValueEventListener() {
+            @Override
+            public void onDataChange(@NonNull DataSnapshot snapshot) {
+                List<FoodVan> nearbyVans = new ArrayList<>();
+                
+                for (DataSnapshot vanSnapshot : snapshot.getChildren()) {
+                    FoodVan foodVan = SnapshotMappers.get(vanSnapshot, FoodVan.class);
+                    if (foodVan != null && foodVan.isOnline()) {
+                        double distance = calculateDistance(
+                            latitude, longitude,
+                            foodVan.getLatitude(), foodVan.getLongitude()
+                        );
                         
-                        for (DataSnapshot vanSnapshot : snapshot.getChildren()) {
-                            FoodVan foodVan = vanSnapshot.getValue(FoodVan.class);
-                            if (foodVan != null && foodVan.isOnline()) {
-                                double distance = calculateDistance(
-                                    latitude, longitude,
-                                    foodVan.getLatitude(), foodVan.getLongitude()
-                                );
-                                
-                                if (distance <= radiusKm) {
-                                    foodVan.setDistance(distance);
-                                    nearbyVans.add(foodVan);
-                                }
-                            }
+                        if (distance <= radiusKm) {
+                            foodVan.setDistance(distance);
+                            nearbyVans.add(foodVan);
                         }
-                        
-                        listener.onSuccess(nearbyVans);
-                    }
-
-                    @Override
-                    public void onCancelled(@NonNull DatabaseError error) {
-                        listener.onFailure(error.getMessage());
                     }
-                });
+                }
+                
+                listener.onSuccess(nearbyVans);
+            }
+
+            @Override
+            public void onCancelled(@NonNull DatabaseError error) {
+                listener.onFailure(error.getMessage());
+            }
+        });
     }
 
     // Menu Item Management
@@ -178,16 +183,13 @@ public class FirebaseManager {
         void onFailure(String error);
     }
 
-    public interface OnMenuItemsLoadListener {
-        void onSuccess(List<MenuItem> menuItems);
-        void onFailure(String error);
-    }
-
     public void saveMenuItem(MenuItem menuItem, OnMenuItemSaveListener listener) {
-        databaseReference.child(MENU_ITEMS_PATH)
-                .child(menuItem.getVanId())
-                .child(menuItem.getItemId())
-                .setValue(menuItem)
+        // The item and its van's catalog version change together
+        Map<String, Object> updates = new HashMap<>();
+        updates.put(MENU_ITEMS_PATH + "/" + menuItem.getVanId() + "/" + menuItem.getItemId(),
+                SnapshotMappers.toValue(menuItem));
+        updates.put(MenuCatalog.versionPath(menuItem.getVanId()), MenuCatalog.versionBump());
+        FirebaseMetrics.track("firebase.saveMenuItem", databaseReference.updateChildren(updates))
                 .addOnCompleteListener(task -> {
                     if (task.isSuccessful()) {
                         listener.onSuccess();
@@ -198,28 +200,22 @@ public class FirebaseManager {
                 });
     }
 
-    public void getMenuItems(String vanId, OnMenuItemsLoadListener listener) {
-        databaseReference.child(MENU_ITEMS_PATH)
+    /**
+     * A van's menu, parsed off the main thread. Read through MenuCatalog rather than directly.
+     */
+    public Task<List<MenuItem>> fetchMenuItems(String vanId) {
+        return FirebaseMetrics.track("firebase.getMenuItems", databaseReference.child(MENU_ITEMS_PATH)
                 .child(vanId)
-                .addListenerForSingleValueEvent(new ValueEventListener() {
-                    @Override
-                    public void onDataChange(@NonNull DataSnapshot snapshot) {
-                        List<MenuItem> menuItems = new ArrayList<>();
-                        
-                        for (DataSnapshot itemSnapshot : snapshot.getChildren()) {
-                            MenuItem menuItem = itemSnapshot.getValue(MenuItem.class);
-                            if (menuItem != null) {
-                                menuItems.add(menuItem);
-                            }
+                .get())
+                .continueWith(AppExecutors.getInstance().cpu(), task -> {
+                    List<MenuItem> menuItems = new ArrayList<>();
+                    for (DataSnapshot itemSnapshot : task.getResult().getChildren()) {
+                        MenuItem menuItem = SnapshotMappers.get(itemSnapshot, MenuItem.class);
+                        if (menuItem != null) {
+                            menuItems.add(menuItem);
                         }
-                        
-                        listener.onSuccess(menuItems);
-                    }
-
-                    @Override
-                    public void onCancelled(@NonNull DatabaseError error) {
-                        listener.onFailure(error.getMessage());
                     }
+                    return menuItems;
                 });
     }
 
@@ -234,70 +230,80 @@ public class FirebaseManager {
         void onFailure(String error);
     }
 
+    /**
+     * Push ID for a new order, generated on the device without a round trip.
+     */
+    public String newOrderId() {
+        return databaseReference.child(ORDERS_PATH).push().getKey();
+    }
+
     public void saveOrder(Order order, OnOrderSaveListener listener) {
-        databaseReference.child(ORDERS_PATH)
-                .child(order.getOrderId())
-                .setValue(order)
-                .addOnCompleteListener(task -> {
-                    if (task.isSuccessful()) {
-                        listener.onSuccess();
-                    } else {
-                        listener.onFailure(task.getException() != null ? 
-                            task.getException().getMessage() : "Unknown error");
-                    }
-                });
+        // Order, vendor and customer index entries and rollups land in one multi-path update
+        new OrderSubmission(new RealtimeOrderStore()).submit(order, new OrderSubmission.OnSubmitListener() {
+            @Override
+            public void onSuccess() {
+                listener.onSuccess();
+            }
+
+            @Override
+            public void onFailure(String error) {
+                listener.onFailure(error);
+            }
+        });
     }
 
+    /**
+     * The customer's live orders in one indexed query. Archived orders are reached through
+     * customer_orders and fetchIndexedOrder.
+     */
     public void getUserOrders(String userId, OnOrdersLoadListener listener) {
-        databaseReference.child(ORDERS_PATH)
+        Query query = databaseReference.child(ORDERS_PATH)
                 .orderByChild("customerId")
-                .equalTo(userId)
-                .addListenerForSingleValueEvent(new ValueEventListener() {
-                    @Override
-                    public void onDataChange(@NonNull DataSnapshot snapshot) {
-                        List<Order> orders = new ArrayList<>();
-                        
-                        for (DataSnapshot orderSnapshot : snapshot.getChildren()) {
-                            Order order = orderSnapshot.getValue(Order.class);
-                            if (order != null) {
-                                orders.add(order);
-                            }
-                        }
-                        
-                        listener.onSuccess(orders);
+                .equalTo(userId);
+        FirebaseMetrics.readOnce("firebase.getUserOrders", query, new ValueEventListener() {
+            @Override
+            public void onDataChange(@NonNull DataSnapshot snapshot) {
+                List<Order> orders = new ArrayList<>();
+                for (DataSnapshot orderSnapshot : snapshot.getChildren()) {
+                    Order order = SnapshotMappers.get(orderSnapshot, Order.class);
+                    if (order != null) {
+                        orders.add(order);
                     }
-
-                    @Override
-                    public void onCancelled(@NonNull DatabaseError error) {
-                        listener.onFailure(error.getMessage());
-                    }
-                });
+                }
+                listener.onSuccess(orders);
+            }
+
+            @Override
+            public void onCancelled(@NonNull DatabaseError error) {
+                listener.onFailure(error.getMessage());
+            }
+        });
     }
 
     public void getVendorOrders(String vendorId, OnOrdersLoadListener listener) {
-        databaseReference.child(ORDERS_PATH)
-                .orderByChild("vendorId")
-                .equalTo(vendorId)
-                .addListenerForSingleValueEvent(new ValueEventListener() {
-                    @Override
-                    public void onDataChange(@NonNull DataSnapshot snapshot) {
-                        List<Order> orders = new ArrayList<>();
-                        
-                        for (DataSnapshot orderSnapshot : snapshot.getChildren()) {
-                            Order order = orderSnapshot.getValue(Order.class);
-                            if (order != null) {
-                                orders.add(order);
-                            }
-                        }
-                        
-                        listener.onSuccess(orders);
-                    }
-
-                    @Override
-                    public void onCancelled(@NonNull DatabaseError error) {
-                        listener.onFailure(error.getMessage());
+        Query query = databaseReference.child(VendorOrderIndex.VENDOR_ORDERS_PATH)
+                .child(vendorId)
+                .orderByChild(VendorOrderIndex.ORDER_TIME);
+        FirebaseMetrics.readOnce("firebase.getVendorOrders", query, new ValueEventListener() {
+            @Override
+            public void onDataChange(@NonNull DataSnapshot snapshot) {
+                List<Order> orders = new ArrayList<>();
+                
+                for (DataSnapshot orderSnapshot : snapshot.getChildren()) {
+                    Order order = SnapshotMappers.get(orderSnapshot, Order.class);
+                    if (order != null) {
+                        orders.add(order);
                     }
-                });
+                }
+                
+                listener.onSuccess(orders);
+            }
+
+            @Override
+            public void onCancelled(@NonNull DatabaseError error) {
+                listener.onFailure(error.getMessage());
+            }
+        });
     }
 
     // Utility Methods
@@ -330,4 +336,56 @@ public class FirebaseManager {
                 .child("isOnline")
                 .setValue(isOnline);
     }
+
+    /**
+     * Merges plain writes and counter deltas into one root update, the deltas as server-side
+     * increments so concurrent writers never lose a count.
+     */
+    public static Map<String, Object> withIncrements(Map<String, Object> writes, Map<String, Number> increments) {
+        Map<String, Object> updates = new HashMap<>(writes);
+        for (Map.Entry<String, Number> increment : increments.entrySet()) {
+            Number delta = increment.getValue();
+            updates.put(increment.getKey(), delta instanceof Double || delta instanceof Float
+                    ? ServerValue.increment(delta.doubleValue())
+                    : ServerValue.increment(delta.longValue()));
+        }
+        return updates;
+    }
+
+    /**
+     * Reads the order behind a customer_orders entry, falling back to the archive once the
+     * order has left the live tree.
+     */
+    public Task<DataSnapshot> fetchIndexedOrder(DataSnapshot indexEntry) {
+        String orderId = indexEntry.getKey();
+        return FirebaseMetrics.track("firebase.fetchIndexedOrder", databaseReference.child(VendorOrderIndex.orderPath(orderId)).get())
+                .continueWithTask(read -> {
+                    Long orderTime = indexEntry.child(VendorOrderIndex.ORDER_TIME).getValue(Long.class);
+                    if (!read.isSuccessful() || read.getResult().exists() || orderTime == null) {
+                        return read;
+                    }
+                    String vendorId = indexEntry.child("vendorId").getValue(String.class);
+                    return databaseReference.child(OrderArchive.archivePath(vendorId, orderTime, orderId)).get();
+                });
+    }
+
+    /**
+     * Sends each OrderSubmission step as a single Realtime Database call.
+     */
+    private class RealtimeOrderStore implements OrderSubmission.Store {
+        @Override
+        public void update(Map<String, Object> writes, Map<String, Number> increments,
+                           OrderSubmission.WriteCallback callback) {
+            FirebaseMetrics.track("firebase.order.update", databaseReference.updateChildren(withIncrements(writes, increments)))
+                    .addOnSuccessListener(aVoid -> callback.onSuccess())
+                    .addOnFailureListener(e -> callback.onFailure(e.getMessage()));
+        }
+
+        @Override
+        public void exists(String path, OrderSubmission.ExistsCallback callback) {
+            FirebaseMetrics.track("firebase.order.exists", databaseReference.child(path).get())
+                    .addOnSuccessListener(snapshot -> callback.onResult(snapshot.exists()))
+                    .addOnFailureListener(e -> callback.onFailure(e.getMessage()));
+        }
+    }
 }
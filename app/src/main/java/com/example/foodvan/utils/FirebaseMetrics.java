@@ -0,0 +1,195 @@
+package com.example.foodvan.utils;
+
+import androidx.annotation.NonNull;
+
+import com.google.android.gms.tasks.Task;
+import com.google.firebase.database.ChildEventListener;
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.DatabaseError;
+import com.google.firebase.database.Query;
+import com.google.firebase.database.ValueEventListener;
+
+import java.util.concurrent.Executor;
+
+/**
+ * FirebaseMetrics - Records Firebase calls into {@link MetricsRegistry}. Wrap a Task with
+ * track() to time it to completion; attach realtime listeners through attach() and detach() so
+ * each owner's live listener count is a gauge and every snapshot's handling time is recorded.
+ *
+ * Metric names, for an operation or owner "x":
+ * x (latency), x.ok / x.error (counts), listeners.x (gauge), snapshot.x (handling latency),
+ * nodes.x (gauge, children in the last snapshot), listener_errors.x (count). Child listeners
+ * record snapshot.x per child event instead of nodes.x.
+ */
+public final class FirebaseMetrics {
+
+    // Completion callbacks only touch atomics, so run them on the completing thread
+    private static final Executor DIRECT = Runnable::run;
+
+    private FirebaseMetrics() {
+    }
+
+    /**
+     * Times the task from now until it completes. Returns the same task for chaining.
+     */
+    public static <T> Task<T> track(String name, Task<T> task) {
+        MetricsRegistry registry = MetricsRegistry.getInstance();
+        long start = registry.startTimer();
+        task.addOnCompleteListener(DIRECT, completed -> {
+            registry.stopTimer(name, start);
+            registry.increment(name + (completed.isSuccessful() ? ".ok" : ".error"));
+        });
+        return task;
+    }
+
+    /**
+     * Adds a realtime listener on behalf of owner, usually a screen.
+     *
+     * @return the listener actually registered; pass it to {@link #detach}
+     */
+    public static ValueEventListener attach(String owner, Query query, ValueEventListener listener) {
+        ValueEventListener tracked = new TrackedListener(owner, listener);
+        query.addValueEventListener(tracked);
+        MetricsRegistry.getInstance().adjustGauge("listeners." + owner, 1);
+        return tracked;
+    }
+
+    public static void detach(String owner, Query query, ValueEventListener tracked) {
+        if (tracked == null) {
+            return;
+        }
+        query.removeEventListener(tracked);
+        MetricsRegistry.getInstance().adjustGauge("listeners." + owner, -1);
+    }
+
+    /**
+     * Adds a realtime child listener on behalf of owner.
+     *
+     * @return the listener actually registered; pass it to {@link #detach}
+     */
+    public static ChildEventListener attach(String owner, Query query, ChildEventListener listener) {
+        ChildEventListener tracked = new TrackedChildListener(owner, listener);
+        query.addChildEventListener(tracked);
+        MetricsRegistry.getInstance().adjustGauge("listeners." + owner, 1);
+        return tracked;
+    }
+
+    public static void detach(String owner, Query query, ChildEventListener tracked) {
+        if (tracked == null) {
+            return;
+        }
+        query.removeEventListener(tracked);
+        MetricsRegistry.getInstance().adjustGauge("listeners." + owner, -1);
+    }
+
+    /**
+     * One-shot read, timed from the request to the end of the callback.
+     */
+    public static void readOnce(String name, Query query, ValueEventListener listener) {
+        MetricsRegistry registry = MetricsRegistry.getInstance();
+        long start = registry.startTimer();
+        query.addListenerForSingleValueEvent(new ValueEventListener() {
+            @Override
+            public void onDataChange(@NonNull DataSnapshot snapshot) {
+                try {
+                    listener.onDataChange(snapshot);
+                } finally {
+                    registry.stopTimer(name, start);
+                    registry.increment(name + ".ok");
+                }
+            }
+
+            @Override
+            public void onCancelled(@NonNull DatabaseError error) {
+                registry.increment(name + ".error");
+                listener.onCancelled(error);
+            }
+        });
+    }
+
+    private static final class TrackedListener implements ValueEventListener {
+
+        private final String owner;
+        private final ValueEventListener delegate;
+
+        TrackedListener(String owner, ValueEventListener delegate) {
+            this.owner = owner;
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void onDataChange(@NonNull DataSnapshot snapshot) {
+            MetricsRegistry registry = MetricsRegistry.getInstance();
+            registry.setGauge("nodes." + owner, snapshot.getChildrenCount());
+            long start = registry.startTimer();
+            try {
+                delegate.onDataChange(snapshot);
+            } finally {
+                registry.stopTimer("snapshot." + owner, start);
+            }
+        }
+
+        @Override
+        public void onCancelled(@NonNull DatabaseError error) {
+            MetricsRegistry.getInstance().increment("listener_errors." + owner);
+            delegate.onCancelled(error);
+        }
+    }
+
+    private static final class TrackedChildListener implements ChildEventListener {
+
+        private final String owner;
+        private final ChildEventListener delegate;
+
+        TrackedChildListener(String owner, ChildEventListener delegate) {
+            this.owner = owner;
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void onChildAdded(@NonNull DataSnapshot snapshot, String previousChildName) {
+            long start = MetricsRegistry.getInstance().startTimer();
+            try {
+                delegate.onChildAdded(snapshot, previousChildName);
+            } finally {
+                MetricsRegistry.getInstance().stopTimer("snapshot." + owner, start);
+            }
+        }
+
+        @Override
+        public void onChildChanged(@NonNull DataSnapshot snapshot, String previousChildName) {
+            long start = MetricsRegistry.getInstance().startTimer();
+            try {
+                delegate.onChildChanged(snapshot, previousChildName);
+            } finally {
+                MetricsRegistry.getInstance().stopTimer("snapshot." + owner, start);
+            }
+        }
+
+        @Override
+        public void onChildRemoved(@NonNull DataSnapshot snapshot) {
+            long start = MetricsRegistry.getInstance().startTimer();
+            try {
+                delegate.onChildRemoved(snapshot);
+            } finally {
+                MetricsRegistry.getInstance().stopTimer("snapshot." + owner, start);
+            }
+        }
+
+        @Override
+        public void onChildMoved(@NonNull DataSnapshot snapshot, String previousChildName) {
+            long start = MetricsRegistry.getInstance().startTimer();
+            try {
+                delegate.onChildMoved(snapshot, previousChildName);
+            } finally {
+                MetricsRegistry.getInstance().stopTimer("snapshot." + owner, start);
+            }
+        }
+
+        @Override
+        public void onCancelled(@NonNull DatabaseError error) {
+            MetricsRegistry.getInstance().increment("listener_errors." + owner);
+            delegate.onCancelled(error);
+        }
+    }
+}
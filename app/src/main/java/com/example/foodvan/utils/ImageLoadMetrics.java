@@ -0,0 +1,116 @@
+package com.example.foodvan.utils;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.bumptech.glide.load.DataSource;
+import com.bumptech.glide.load.engine.GlideException;
+import com.bumptech.glide.request.RequestListener;
+import com.bumptech.glide.request.target.Target;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ImageLoadMetrics - Cache hit ratio and load latency for images loaded through {@link ImageLoader}.
+ * Load time runs from request creation to the resource being ready, so it includes fetch and decode.
+ */
+public class ImageLoadMetrics {
+
+    private static final ImageLoadMetrics instance = new ImageLoadMetrics();
+
+    private final AtomicLong memoryHits = new AtomicLong();
+    private final AtomicLong diskHits = new AtomicLong();
+    private final AtomicLong networkLoads = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong totalLoadNanos = new AtomicLong();
+    private final AtomicLong totalDecodedLoadNanos = new AtomicLong();
+
+    public static ImageLoadMetrics getInstance() {
+        return instance;
+    }
+
+    public <R> RequestListener<R> newListener() {
+        long startNanos = System.nanoTime();
+        return new RequestListener<R>() {
+            @Override
+            public boolean onLoadFailed(@Nullable GlideException e, @Nullable Object model,
+                                        @NonNull Target<R> target, boolean isFirstResource) {
+                failures.incrementAndGet();
+                return false;
+            }
+
+            @Override
+            public boolean onResourceReady(@NonNull R resource, @NonNull Object model, Target<R> target,
+                                           @NonNull DataSource dataSource, boolean isFirstResource) {
+                record(dataSource, System.nanoTime() - startNanos);
+                return false;
+            }
+        };
+    }
+
+    void record(DataSource dataSource, long elapsedNanos) {
+        totalLoadNanos.addAndGet(elapsedNanos);
+        switch (dataSource) {
+            case MEMORY_CACHE:
+                memoryHits.incrementAndGet();
+                break;
+            case RESOURCE_DISK_CACHE:
+            case DATA_DISK_CACHE:
+            case LOCAL:
+                // LOCAL is a file or content URI on the device: decoded, but nothing was fetched
+                diskHits.incrementAndGet();
+                totalDecodedLoadNanos.addAndGet(elapsedNanos);
+                break;
+            default:
+                networkLoads.incrementAndGet();
+                totalDecodedLoadNanos.addAndGet(elapsedNanos);
+                break;
+        }
+    }
+
+    /** Share of successful loads served from the memory or disk cache or a local file. */
+    public double getCacheHitRatio() {
+        long hits = memoryHits.get() + diskHits.get();
+        long total = hits + networkLoads.get();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    public double getMemoryHitRatio() {
+        long total = memoryHits.get() + diskHits.get() + networkLoads.get();
+        return total == 0 ? 0 : (double) memoryHits.get() / total;
+    }
+
+    /** Average time for loads that had to decode (disk, local or network), in milliseconds. */
+    public double getAverageDecodeMillis() {
+        long decoded = diskHits.get() + networkLoads.get();
+        return decoded == 0 ? 0 : totalDecodedLoadNanos.get() / 1e6 / decoded;
+    }
+
+    public double getAverageLoadMillis() {
+        long total = memoryHits.get() + diskHits.get() + networkLoads.get();
+        return total == 0 ? 0 : totalLoadNanos.get() / 1e6 / total;
+    }
+
+    public long getFailures() {
+        return failures.get();
+    }
+
+    public void reset() {
+        memoryHits.set(0);
+        diskHits.set(0);
+        networkLoads.set(0);
+        failures.set(0);
+        totalLoadNanos.set(0);
+        totalDecodedLoadNanos.set(0);
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return String.format(Locale.US,
+                "images: memory=%d disk=%d network=%d failed=%d hitRatio=%.2f avgDecodeMs=%.1f",
+                memoryHits.get(), diskHits.get(), networkLoads.get(), failures.get(),
+                getCacheHitRatio(), getAverageDecodeMillis());
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.foodvan.utils;
+
+import android.content.Context;
+import android.graphics.drawable.Drawable;
+import android.widget.ImageView;
+
+import androidx.annotation.DrawableRes;
+
+import com.bumptech.glide.Glide;
+import com.bumptech.glide.RequestBuilder;
+import com.bumptech.glide.RequestManager;
+
+/**
+ * ImageLoader - Size-aware Glide requests for list rows. Every request is decoded at the
+ * view's size with the same options, so a preloaded image and the bound image share a cache key.
+ */
+public final class ImageLoader {
+
+    private ImageLoader() {
+    }
+
+    public static int dpToPx(Context context, int dp) {
+        return Math.round(dp * context.getResources().getDisplayMetrics().density);
+    }
+
+    /**
+     * Builds the request used both when binding a row and when preloading it.
+     */
+    public static RequestBuilder<Drawable> request(RequestManager glide, String url, int widthPx, int heightPx) {
+        return glide.load(url)
+                .override(widthPx, heightPx)
+                .centerCrop()
+                .listener(ImageLoadMetrics.getInstance().newListener());
+    }
+
+    /**
+     * Loads the smallest variant that covers the view, or shows the placeholder if there is no image.
+     */
+    public static void load(ImageView view, String fullUrl, String thumbnailUrl,
+                            int widthPx, int heightPx, @DrawableRes int placeholder) {
+        String url = ThumbnailUrlResolver.resolve(fullUrl, thumbnailUrl, widthPx, heightPx);
+        if (url == null || url.isEmpty()) {
+            Glide.with(view).clear(view);
+            view.setImageResource(placeholder);
+            return;
+        }
+        request(Glide.with(view), url, widthPx, heightPx)
+                .placeholder(placeholder)
+                .error(placeholder)
+                .into(view);
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.foodvan.utils;
+
+/**
+ * ImageTransform - Platform-independent part of the image upload pipeline. Decides how far to
+ * subsample while decoding, the final dimensions for each variant and runs the
+ * decode/resize/encode steps through an {@link Codec}, so it can be exercised on the JVM.
+ */
+public class ImageTransform {
+
+    public static class Spec {
+        public static final Spec FULL = new Spec(1280, 1280, 80);
+        public static final Spec THUMBNAIL = new Spec(320, 320, 70);
+
+        public final int maxWidth;
+        public final int maxHeight;
+        public final int quality;
+
+        public Spec(int maxWidth, int maxHeight, int quality) {
+            this.maxWidth = maxWidth;
+            this.maxHeight = maxHeight;
+            this.quality = quality;
+        }
+    }
+
+    /**
+     * Image operations supplied by the platform (BitmapFactory on Android, ImageIO in tests).
+     */
+    public interface Codec<I> {
+        /** Reads only the image header and returns {width, height}. */
+        int[] readBounds() throws Exception;
+
+        I decode(int inSampleSize) throws Exception;
+
+        int width(I image);
+
+        int height(I image);
+
+        I resize(I image, int width, int height);
+
+        byte[] encode(I image, int quality) throws Exception;
+
+        void recycle(I image);
+    }
+
+    public static class Result {
+        public final long originalBytes;
+        public final byte[][] variants;
+        public final int[][] dimensions;
+
+        Result(long originalBytes, byte[][] variants, int[][] dimensions) {
+            this.originalBytes = originalBytes;
+            this.variants = variants;
+            this.dimensions = dimensions;
+        }
+
+        public long encodedBytes(int variant) {
+            return variants[variant].length;
+        }
+
+        /** Fraction of the original size saved by the given variant, e.g. 0.9 for a 10x reduction. */
+        public double reduction(int variant) {
+            if (originalBytes <= 0) return 0;
+            return 1.0 - (double) variants[variant].length / originalBytes;
+        }
+    }
+
+    /**
+     * Largest power-of-two sample size that still leaves the decoded image at least as large
+     * as the requested bounds, matching BitmapFactory.Options.inSampleSize semantics.
+     */
+    public static int calculateInSampleSize(int width, int height, int reqWidth, int reqHeight) {
+        int inSampleSize = 1;
+        if (width <= 0 || height <= 0) return inSampleSize;
+
+        while ((width / (inSampleSize * 2)) >= reqWidth && (height / (inSampleSize * 2)) >= reqHeight) {
+            inSampleSize *= 2;
+        }
+        return inSampleSize;
+    }
+
+    /**
+     * Scales {width, height} down to fit inside the bounds, keeping the aspect ratio.
+     * Images that already fit are left alone; nothing is ever upscaled.
+     */
+    public static int[] targetSize(int width, int height, int maxWidth, int maxHeight) {
+        if (width <= maxWidth && height <= maxHeight) {
+            return new int[]{width, height};
+        }
+        double scale = Math.min((double) maxWidth / width, (double) maxHeight / height);
+        return new int[]{
+                Math.max(1, (int) Math.round(width * scale)),
+                Math.max(1, (int) Math.round(height * scale))
+        };
+    }
+
+    /**
+     * Decodes once at the resolution needed by the largest variant, then derives every variant
+     * from that decoded image. Specs should be ordered largest first.
+     */
+    public static <I> Result transform(Codec<I> codec, long originalBytes, Spec... specs) throws Exception {
+        int[] bounds = codec.readBounds();
+        Spec largest = specs[0];
+        int sampleSize = calculateInSampleSize(bounds[0], bounds[1], largest.maxWidth, largest.maxHeight);
+
+        I decoded = codec.decode(sampleSize);
+        byte[][] variants = new byte[specs.length][];
+        int[][] dimensions = new int[specs.length][];
+        try {
+            for (int i = 0; i < specs.length; i++) {
+                Spec spec = specs[i];
+                int[] size = targetSize(codec.width(decoded), codec.height(decoded), spec.maxWidth, spec.maxHeight);
+                I resized = decoded;
+                if (size[0] != codec.width(decoded) || size[1] != codec.height(decoded)) {
+                    resized = codec.resize(decoded, size[0], size[1]);
+                }
+                try {
+                    variants[i] = codec.encode(resized, spec.quality);
+                    dimensions[i] = size;
+                } finally {
+                    if (resized != decoded) codec.recycle(resized);
+                }
+            }
+        } finally {
+            codec.recycle(decoded);
+        }
+        return new Result(originalBytes, variants, dimensions);
+    }
+}
@@ -0,0 +1,380 @@
+package com.example.foodvan.utils;
+
+import android.content.ContentResolver;
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.content.res.AssetFileDescriptor;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.Matrix;
+import android.media.ExifInterface;
+import android.net.Uri;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import com.google.firebase.storage.FirebaseStorage;
+import com.google.firebase.storage.StorageMetadata;
+import com.google.firebase.storage.StorageReference;
+import com.google.firebase.storage.UploadTask;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.util.concurrent.Executor;
+
+/**
+ * ImageUploadPipeline - Shared upload path for menu and profile photos.
+ * Decodes with subsampling, downsizes and re-encodes a full-size and a thumbnail variant,
+ * then uploads both through resumable Storage sessions. The encoded files and session URIs
+ * are kept on disk until the upload finishes, so uploading the same image to the same storage
+ * path again after process death resumes the session instead of starting over. Pending files
+ * are tied to a hash of the source bytes, so a different photo for that path starts fresh.
+ */
+public class ImageUploadPipeline {
+
+    private static final String TAG = "ImageUploadPipeline";
+    private static final String PREFS_NAME = "image_upload_sessions";
+    private static final String PENDING_DIR = "pending_uploads";
+    private static final String THUMBNAIL_SUFFIX = "_thumb";
+    // Suffix of the key holding the hash of the image the pending files were made from
+    private static final String SOURCE_SUFFIX = "#source";
+
+    private static ImageUploadPipeline instance;
+
+    private final Context context;
+    private final SharedPreferences sessions;
+    private final FirebaseStorage storage;
+    private final Executor executor;
+    private final Handler mainHandler;
+
+    public interface UploadCallback {
+        void onProgress(int progress);
+        void onSuccess(String imageUrl, String thumbnailUrl);
+        void onError(String error);
+    }
+
+    private interface VariantCallback {
+        void onProgress(long bytesTransferred);
+        void onSuccess(String downloadUrl);
+        void onError(String error);
+    }
+
+    private ImageUploadPipeline(Context context) {
+        this.context = context;
+        this.sessions = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+        this.storage = FirebaseStorage.getInstance();
+        this.executor = AppExecutors.getInstance().serialExecutor("image_upload");
+        this.mainHandler = new Handler(Looper.getMainLooper());
+    }
+
+    public static synchronized ImageUploadPipeline getInstance(Context context) {
+        if (instance == null) {
+            instance = new ImageUploadPipeline(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    /**
+     * Uploads the image at {@code source} to {@code storagePath} plus the format extension, and a
+     * thumbnail next to it. Callbacks run on the main thread.
+     *
+     * @param storagePath Storage path without extension, stable for the same logical image
+     *                    (e.g. "menu_items/{vendorId}/{itemId}") so an interrupted upload can resume
+     */
+    public void upload(Uri source, String storagePath, UploadCallback callback) {
+        executor.execute(() -> {
+            File full = pendingFile(storagePath, "");
+            File thumbnail = pendingFile(storagePath, THUMBNAIL_SUFFIX);
+            try {
+                String sourceHash = hash(context.getContentResolver(), source);
+                boolean sameSource = sourceHash.equals(sessions.getString(storagePath + SOURCE_SUFFIX, null));
+                if (!sameSource || !full.exists() || !thumbnail.exists()) {
+                    // Fresh bytes cannot continue an old session, and a stale image must not go up
+                    full.delete();
+                    thumbnail.delete();
+                    sessions.edit()
+                            .remove(storagePath + extension())
+                            .remove(storagePath + THUMBNAIL_SUFFIX + extension())
+                            .remove(storagePath + SOURCE_SUFFIX)
+                            .commit();
+                    prepareVariants(source, full, thumbnail);
+                    sessions.edit().putString(storagePath + SOURCE_SUFFIX, sourceHash).commit();
+                }
+            } catch (Exception e) {
+                Log.e(TAG, "Error preparing image for upload", e);
+                full.delete();
+                thumbnail.delete();
+                mainHandler.post(() -> callback.onError("Failed to process image: " + e.getMessage()));
+                return;
+            }
+            mainHandler.post(() -> uploadVariants(storagePath, full, thumbnail, callback));
+        });
+    }
+
+    private void prepareVariants(Uri source, File full, File thumbnail) throws Exception {
+        ContentResolver resolver = context.getContentResolver();
+        long originalBytes = 0;
+        try (AssetFileDescriptor fd = resolver.openAssetFileDescriptor(source, "r")) {
+            if (fd != null) originalBytes = fd.getLength();
+        } catch (Exception e) {
+            // Size is only used for reporting
+        }
+
+        ImageTransform.Result result = ImageTransform.transform(new BitmapCodec(resolver, source), originalBytes,
+                ImageTransform.Spec.FULL, ImageTransform.Spec.THUMBNAIL);
+        Log.d(TAG, "Image " + originalBytes + " bytes -> full " + result.encodedBytes(0)
+                + " bytes, thumbnail " + result.encodedBytes(1) + " bytes");
+
+        File dir = full.getParentFile();
+        if (dir != null && !dir.exists() && !dir.mkdirs()) {
+            throw new IOException("Could not create upload directory");
+        }
+        writeFile(full, result.variants[0]);
+        writeFile(thumbnail, result.variants[1]);
+    }
+
+    private void uploadVariants(String storagePath, File full, File thumbnail, UploadCallback callback) {
+        long totalBytes = full.length() + thumbnail.length();
+        long[] transferred = new long[2];
+        String[] urls = new String[2];
+        boolean[] failed = new boolean[1];
+
+        File[] files = {full, thumbnail};
+        String[] suffixes = {"", THUMBNAIL_SUFFIX};
+        for (int i = 0; i < files.length; i++) {
+            int variant = i;
+            uploadVariant(storagePath + suffixes[i] + extension(), files[i], new VariantCallback() {
+                @Override
+                public void onProgress(long bytesTransferred) {
+                    transferred[variant] = bytesTransferred;
+                    if (totalBytes > 0) {
+                        callback.onProgress((int) (100 * (transferred[0] + transferred[1]) / totalBytes));
+                    }
+                }
+
+                @Override
+                public void onSuccess(String downloadUrl) {
+                    urls[variant] = downloadUrl;
+                    if (urls[0] != null && urls[1] != null && !failed[0]) {
+                        sessions.edit().remove(storagePath + SOURCE_SUFFIX).apply();
+                        callback.onSuccess(urls[0], urls[1]);
+                    }
+                }
+
+                @Override
+                public void onError(String error) {
+                    if (!failed[0]) {
+                        failed[0] = true;
+                        callback.onError(error);
+                    }
+                }
+            });
+        }
+    }
+
+    private void uploadVariant(String path, File file, VariantCallback callback) {
+        StorageReference ref = storage.getReference().child(path);
+        StorageMetadata metadata = new StorageMetadata.Builder()
+                .setContentType(Build.VERSION.SDK_INT >= Build.VERSION_CODES.R ? "image/webp" : "image/jpeg")
+                .setCacheControl("public, max-age=31536000")
+                .build();
+
+        String savedSession = sessions.getString(path, null);
+        UploadTask task = savedSession != null
+                ? ref.putFile(Uri.fromFile(file), metadata, Uri.parse(savedSession))
+                : ref.putFile(Uri.fromFile(file), metadata);
+
+        task.addOnProgressListener(snapshot -> {
+            Uri sessionUri = snapshot.getUploadSessionUri();
+            if (sessionUri != null && !sessionUri.toString().equals(sessions.getString(path, null))) {
+                sessions.edit().putString(path, sessionUri.toString()).apply();
+            }
+            callback.onProgress(snapshot.getBytesTransferred());
+        }).continueWithTask(t -> {
+            if (!t.isSuccessful() && t.getException() != null) {
+                throw t.getException();
+            }
+            return ref.getDownloadUrl();
+        }).addOnCompleteListener(t -> {
+            if (t.isSuccessful() && t.getResult() != null) {
+                sessions.edit().remove(path).apply();
+                if (!file.delete()) {
+                    Log.w(TAG, "Could not delete uploaded file " + file.getName());
+                }
+                callback.onSuccess(t.getResult().toString());
+            } else {
+                String message = t.getException() != null ? t.getException().getMessage() : "Upload failed";
+                Log.e(TAG, "Error uploading " + path + ": " + message);
+                // An expired or rejected session cannot be resumed, so start fresh next time
+                if (savedSession != null) {
+                    sessions.edit().remove(path).apply();
+                }
+                callback.onError(message);
+            }
+        });
+    }
+
+    private File pendingFile(String storagePath, String suffix) {
+        String name = storagePath.replace('/', '_') + suffix + extension();
+        return new File(new File(context.getFilesDir(), PENDING_DIR), name);
+    }
+
+    private static String extension() {
+        return Build.VERSION.SDK_INT >= Build.VERSION_CODES.R ? ".webp" : ".jpg";
+    }
+
+    private static String hash(ContentResolver resolver, Uri source) throws Exception {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        try (InputStream in = resolver.openInputStream(source)) {
+            if (in == null) {
+                throw new IOException("Could not open image");
+            }
+            byte[] buffer = new byte[64 * 1024];
+            for (int read = in.read(buffer); read >= 0; read = in.read(buffer)) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        StringBuilder hex = new StringBuilder();
+        for (byte b : digest.digest()) {
+            hex.append(String.format("%02x", b));
+        }
+        return hex.toString();
+    }
+
+    private static void writeFile(File file, byte[] data) throws IOException {
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            out.write(data);
+        }
+    }
+
+    /**
+     * Decodes through BitmapFactory straight from the content URI, so only the subsampled
+     * bitmap is ever held in memory. Camera photos are stored sideways with an EXIF
+     * orientation tag; the decoded bitmap is turned upright, since re-encoding drops the tag.
+     */
+    private static class BitmapCodec implements ImageTransform.Codec<Bitmap> {
+        private final ContentResolver resolver;
+        private final Uri source;
+
+        BitmapCodec(ContentResolver resolver, Uri source) {
+            this.resolver = resolver;
+            this.source = source;
+        }
+
+        @Override
+        public int[] readBounds() throws IOException {
+            BitmapFactory.Options options = new BitmapFactory.Options();
+            options.inJustDecodeBounds = true;
+            try (InputStream in = resolver.openInputStream(source)) {
+                BitmapFactory.decodeStream(in, null, options);
+            }
+            if (options.outWidth <= 0 || options.outHeight <= 0) {
+                throw new IOException("Unsupported image format");
+            }
+            return new int[]{options.outWidth, options.outHeight};
+        }
+
+        @Override
+        public Bitmap decode(int inSampleSize) throws IOException {
+            BitmapFactory.Options options = new BitmapFactory.Options();
+            options.inSampleSize = inSampleSize;
+            Bitmap bitmap;
+            try (InputStream in = resolver.openInputStream(source)) {
+                bitmap = BitmapFactory.decodeStream(in, null, options);
+                if (bitmap == null) {
+                    throw new IOException("Could not decode image");
+                }
+            }
+            Matrix matrix = orientationMatrix(readOrientation());
+            if (matrix == null) {
+                return bitmap;
+            }
+            Bitmap upright = Bitmap.createBitmap(bitmap, 0, 0, bitmap.getWidth(), bitmap.getHeight(), matrix, true);
+            if (upright != bitmap) {
+                bitmap.recycle();
+            }
+            return upright;
+        }
+
+        private int readOrientation() {
+            try (InputStream in = resolver.openInputStream(source)) {
+                if (in == null) {
+                    return ExifInterface.ORIENTATION_NORMAL;
+                }
+                return new ExifInterface(in).getAttributeInt(ExifInterface.TAG_ORIENTATION,
+                        ExifInterface.ORIENTATION_NORMAL);
+            } catch (IOException e) {
+                // No readable EXIF (e.g. PNG): keep the pixels as they are
+                return ExifInterface.ORIENTATION_NORMAL;
+            }
+        }
+
+        private static Matrix orientationMatrix(int orientation) {
+            Matrix matrix = new Matrix();
+            switch (orientation) {
+                case ExifInterface.ORIENTATION_FLIP_HORIZONTAL:
+                    matrix.setScale(-1, 1);
+                    return matrix;
+                case ExifInterface.ORIENTATION_ROTATE_180:
+                    matrix.setRotate(180);
+                    return matrix;
+                case ExifInterface.ORIENTATION_FLIP_VERTICAL:
+                    matrix.setRotate(180);
+                    matrix.postScale(-1, 1);
+                    return matrix;
+                case ExifInterface.ORIENTATION_TRANSPOSE:
+                    matrix.setRotate(90);
+                    matrix.postScale(-1, 1);
+                    return matrix;
+                case ExifInterface.ORIENTATION_ROTATE_90:
+                    matrix.setRotate(90);
+                    return matrix;
+                case ExifInterface.ORIENTATION_TRANSVERSE:
+                    matrix.setRotate(-90);
+                    matrix.postScale(-1, 1);
+                    return matrix;
+                case ExifInterface.ORIENTATION_ROTATE_270:
+                    matrix.setRotate(-90);
+                    return matrix;
+                default:
+                    return null;
+            }
+        }
+
+        @Override
+        public int width(Bitmap image) {
+            return image.getWidth();
+        }
+
+        @Override
+        public int height(Bitmap image) {
+            return image.getHeight();
+        }
+
+        @Override
+        public Bitmap resize(Bitmap image, int width, int height) {
+            return Bitmap.createScaledBitmap(image, width, height, true);
+        }
+
+        @Override
+        @SuppressWarnings("deprecation")
+        public byte[] encode(Bitmap image, int quality) {
+            Bitmap.CompressFormat format = Build.VERSION.SDK_INT >= Build.VERSION_CODES.R
+                    ? Bitmap.CompressFormat.WEBP_LOSSY
+                    : Bitmap.CompressFormat.JPEG;
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            image.compress(format, quality, out);
+            return out.toByteArray();
+        }
+
+        @Override
+        public void recycle(Bitmap image) {
+            image.recycle();
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package com.example.foodvan.utils;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.concurrent.Executor;
+import java.util.function.LongSupplier;
+
+/**
+ * InstrumentedExecutor - Bounded pool over a shared set of worker threads. At most
+ * maxConcurrency tasks run at once; the rest wait in two lanes, and user-visible work is
+ * always taken before background sync. Tracks queue depth and how long tasks wait and run,
+ * measured with the supplied clock so tests can drive it with a fake one. Queued tasks can be
+ * dropped by tag, which is how TaskScope cancels a screen's pending work.
+ */
+public class InstrumentedExecutor implements Executor {
+
+    public enum Priority { USER_VISIBLE, BACKGROUND }
+
+    public interface ErrorHandler {
+        void onError(String pool, Throwable error);
+    }
+
+    private static final class Job {
+        final Runnable runnable;
+        final Object tag;
+        final long enqueuedNanos;
+
+        Job(Runnable runnable, Object tag, long enqueuedNanos) {
+            this.runnable = runnable;
+            this.tag = tag;
+            this.enqueuedNanos = enqueuedNanos;
+        }
+    }
+
+    private final String name;
+    private final int maxConcurrency;
+    private final Executor workers;
+    private final LongSupplier clock;
+    private final ErrorHandler errorHandler;
+
+    private final ArrayDeque<Job> userVisible = new ArrayDeque<>();
+    private final ArrayDeque<Job> background = new ArrayDeque<>();
+
+    // Guarded by this
+    private int running;
+    private int maxQueueDepth;
+    private long submitted;
+    private long started;
+    private long completed;
+    private long failed;
+    private long cancelled;
+    private long totalWaitNanos;
+    private long maxWaitNanos;
+    private long totalRunNanos;
+    private long maxRunNanos;
+
+    /**
+     * @param workers threads the drain loops run on; only maxConcurrency are used at once
+     * @param clock   monotonic nanoseconds, e.g. System::nanoTime
+     */
+    public InstrumentedExecutor(String name, int maxConcurrency, Executor workers,
+                                LongSupplier clock, ErrorHandler errorHandler) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("maxConcurrency must be at least 1");
+        }
+        this.name = name;
+        this.maxConcurrency = maxConcurrency;
+        this.workers = workers;
+        this.clock = clock;
+        this.errorHandler = errorHandler;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public void execute(Runnable runnable) {
+        execute(Priority.USER_VISIBLE, null, runnable);
+    }
+
+    public void execute(Priority priority, Runnable runnable) {
+        execute(priority, null, runnable);
+    }
+
+    /**
+     * @param tag identifies the submitter for {@link #cancel(Object)}; may be null
+     */
+    public void execute(Priority priority, Object tag, Runnable runnable) {
+        boolean startDrain;
+        synchronized (this) {
+            Job job = new Job(runnable, tag, clock.getAsLong());
+            (priority == Priority.BACKGROUND ? background : userVisible).add(job);
+            submitted++;
+            maxQueueDepth = Math.max(maxQueueDepth, queueDepth());
+            startDrain = running < maxConcurrency;
+            if (startDrain) {
+                running++;
+            }
+        }
+        if (startDrain) {
+            workers.execute(this::drain);
+        }
+    }
+
+    /**
+     * Drops every queued task submitted with this tag. Tasks already running are not
+     * interrupted.
+     *
+     * @return how many tasks were dropped
+     */
+    public synchronized int cancel(Object tag) {
+        int dropped = removeTagged(userVisible, tag) + removeTagged(background, tag);
+        cancelled += dropped;
+        return dropped;
+    }
+
+    public synchronized Stats stats() {
+        return new Stats(name, maxConcurrency, running, queueDepth(), maxQueueDepth, submitted, started, completed,
+                failed, cancelled, totalWaitNanos, maxWaitNanos, totalRunNanos, maxRunNanos);
+    }
+
+    private void drain() {
+        while (true) {
+            Job job;
+            long startNanos;
+            synchronized (this) {
+                job = userVisible.poll();
+                if (job == null) {
+                    job = background.poll();
+                }
+                if (job == null) {
+                    running--;
+                    return;
+                }
+                started++;
+                startNanos = clock.getAsLong();
+                long wait = startNanos - job.enqueuedNanos;
+                totalWaitNanos += wait;
+                maxWaitNanos = Math.max(maxWaitNanos, wait);
+            }
+
+            Throwable error = null;
+            try {
+                job.runnable.run();
+            } catch (Throwable t) {
+                error = t;
+            }
+
+            synchronized (this) {
+                long run = clock.getAsLong() - startNanos;
+                totalRunNanos += run;
+                maxRunNanos = Math.max(maxRunNanos, run);
+                if (error == null) {
+                    completed++;
+                } else {
+                    failed++;
+                }
+            }
+            if (error != null && errorHandler != null) {
+                errorHandler.onError(name, error);
+            }
+        }
+    }
+
+    private int queueDepth() {
+        return userVisible.size() + background.size();
+    }
+
+    private static int removeTagged(ArrayDeque<Job> lane, Object tag) {
+        int removed = 0;
+        for (Iterator<Job> it = lane.iterator(); it.hasNext(); ) {
+            if (it.next().tag == tag) {
+                it.remove();
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Point-in-time counters for one pool.
+     */
+    public static final class Stats {
+        public final String name;
+        public final int maxConcurrency;
+        public final int running;
+        public final int queueDepth;
+        public final int maxQueueDepth;
+        public final long submitted;
+        public final long started;
+        public final long completed;
+        public final long failed;
+        public final long cancelled;
+        public final long totalWaitNanos;
+        public final long maxWaitNanos;
+        public final long totalRunNanos;
+        public final long maxRunNanos;
+
+        Stats(String name, int maxConcurrency, int running, int queueDepth, int maxQueueDepth,
+              long submitted, long started, long completed, long failed, long cancelled,
+              long totalWaitNanos, long maxWaitNanos, long totalRunNanos, long maxRunNanos) {
+            this.name = name;
+            this.maxConcurrency = maxConcurrency;
+            this.running = running;
+            this.queueDepth = queueDepth;
+            this.maxQueueDepth = maxQueueDepth;
+            this.submitted = submitted;
+            this.started = started;
+            this.completed = completed;
+            this.failed = failed;
+            this.cancelled = cancelled;
+            this.totalWaitNanos = totalWaitNanos;
+            this.maxWaitNanos = maxWaitNanos;
+            this.totalRunNanos = totalRunNanos;
+            this.maxRunNanos = maxRunNanos;
+        }
+
+        public long averageWaitNanos() {
+            return started == 0 ? 0 : totalWaitNanos / started;
+        }
+
+        public long averageRunNanos() {
+            long finished = completed + failed;
+            return finished == 0 ? 0 : totalRunNanos / finished;
+        }
+
+        @Override
+        public String toString() {
+            return name + "{running=" + running + "/" + maxConcurrency
+                    + ", queued=" + queueDepth + " (max " + maxQueueDepth + ")"
+                    + ", done=" + completed + ", failed=" + failed + ", cancelled=" + cancelled
+                    + ", avgWaitUs=" + averageWaitNanos() / 1000
+                    + ", avgRunUs=" + averageRunNanos() / 1000 + "}";
+        }
+    }
+}
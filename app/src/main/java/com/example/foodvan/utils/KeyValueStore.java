@@ -0,0 +1,52 @@
+package com.example.foodvan.utils;
+
+import java.util.Map;
+
+/**
+ * KeyValueStore - Small typed key-value store used by the managers that keep local state.
+ * Mirrors the SharedPreferences getters and editor so callers read the same way; values
+ * put in one editor are committed together by apply().
+ */
+public interface KeyValueStore {
+
+    String getString(String key, String defValue);
+
+    boolean getBoolean(String key, boolean defValue);
+
+    int getInt(String key, int defValue);
+
+    long getLong(String key, long defValue);
+
+    float getFloat(String key, float defValue);
+
+    boolean contains(String key);
+
+    Map<String, Object> getAll();
+
+    Editor edit();
+
+    interface Editor {
+
+        /**
+         * A null value removes the key, as with SharedPreferences.
+         */
+        Editor putString(String key, String value);
+
+        Editor putBoolean(String key, boolean value);
+
+        Editor putInt(String key, int value);
+
+        Editor putLong(String key, long value);
+
+        Editor putFloat(String key, float value);
+
+        Editor remove(String key);
+
+        /**
+         * Removes every key present before this editor's puts, which still apply.
+         */
+        Editor clear();
+
+        void apply();
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.foodvan.utils;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.Log;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * KeyValueStores - Opens one MappedKeyValueStore per name under files/kv/, shared by every
+ * manager instance in the process. The first time a name is opened, whatever the old
+ * SharedPreferences file of the same name held is copied in once and the XML file is deleted.
+ */
+public final class KeyValueStores {
+
+    private static final String TAG = "KeyValueStores";
+    private static final String DIRECTORY = "kv";
+
+    private static final Map<String, KeyValueStore> stores = new HashMap<>();
+
+    private KeyValueStores() {
+    }
+
+    public static synchronized KeyValueStore get(Context context, String name) {
+        KeyValueStore store = stores.get(name);
+        if (store == null) {
+            store = open(context.getApplicationContext(), name);
+            stores.put(name, store);
+        }
+        return store;
+    }
+
+    private static KeyValueStore open(Context context, String name) {
+        File file = new File(new File(context.getFilesDir(), DIRECTORY), name + ".kv");
+        try {
+            MappedKeyValueStore store = MappedKeyValueStore.open(file);
+            // The XML file only exists until its entries have been copied over
+            File legacyFile = new File(new File(context.getDataDir(), "shared_prefs"), name + ".xml");
+            if (legacyFile.exists()) {
+                migrateLegacyPreferences(context, name, store);
+            }
+            return store;
+        } catch (IOException e) {
+            Log.e(TAG, "Falling back to SharedPreferences for " + name, e);
+            return new PreferencesStore(context.getSharedPreferences(name, Context.MODE_PRIVATE));
+        }
+    }
+
+    private static void migrateLegacyPreferences(Context context, String name, MappedKeyValueStore store) {
+        SharedPreferences legacy = context.getSharedPreferences(name, Context.MODE_PRIVATE);
+        Map<String, ?> entries = legacy.getAll();
+        if (!entries.isEmpty()) {
+            store.importAll(entries);
+            store.flush();
+        }
+        context.deleteSharedPreferences(name);
+        Log.d(TAG, "Migrated " + entries.size() + " entries from " + name + ".xml");
+    }
+
+    /**
+     * KeyValueStore over SharedPreferences, used only when the mapped file cannot be opened.
+     */
+    private static final class PreferencesStore implements KeyValueStore {
+
+        private final SharedPreferences preferences;
+
+        PreferencesStore(SharedPreferences preferences) {
+            this.preferences = preferences;
+        }
+
+        @Override
+        public String getString(String key, String defValue) {
+            return preferences.getString(key, defValue);
+        }
+
+        @Override
+        public boolean getBoolean(String key, boolean defValue) {
+            return preferences.getBoolean(key, defValue);
+        }
+
+        @Override
+        public int getInt(String key, int defValue) {
+            return preferences.getInt(key, defValue);
+        }
+
+        @Override
+        public long getLong(String key, long defValue) {
+            return preferences.getLong(key, defValue);
+        }
+
+        @Override
+        public float getFloat(String key, float defValue) {
+            return preferences.getFloat(key, defValue);
+        }
+
+        @Override
+        public boolean contains(String key) {
+            return preferences.contains(key);
+        }
+
+        @Override
+        public Map<String, Object> getAll() {
+            Map<String, Object> all = new HashMap<>();
+            for (Map.Entry<String, ?> entry : preferences.getAll().entrySet()) {
+                if (!(entry.getValue() instanceof Set)) {
+                    all.put(entry.getKey(), entry.getValue());
+                }
+            }
+            return all;
+        }
+
+        @Override
+        public Editor edit() {
+            SharedPreferences.Editor editor = preferences.edit();
+            return new Editor() {
+                @Override
+                public Editor putString(String key, String value) {
+                    editor.putString(key, value);
+                    return this;
+                }
+
+                @Override
+                public Editor putBoolean(String key, boolean value) {
+                    editor.putBoolean(key, value);
+                    return this;
+                }
+
+                @Override
+                public Editor putInt(String key, int value) {
+                    editor.putInt(key, value);
+                    return this;
+                }
+
+                @Override
+                public Editor putLong(String key, long value) {
+                    editor.putLong(key, value);
+                    return this;
+                }
+
+                @Override
+                public Editor putFloat(String key, float value) {
+                    editor.putFloat(key, value);
+                    return this;
+                }
+
+                @Override
+                public Editor remove(String key) {
+                    editor.remove(key);
+                    return this;
+                }
+
+                @Override
+                public Editor clear() {
+                    editor.clear();
+                    return this;
+                }
+
+                @Override
+                public void apply() {
+                    editor.apply();
+                }
+            };
+        }
+    }
+}
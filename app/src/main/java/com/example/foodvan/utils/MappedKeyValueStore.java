@@ -0,0 +1,495 @@
+package com.example.foodvan.utils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
+
+/**
+ * MappedKeyValueStore - KeyValueStore kept as an append-only log in a memory-mapped file.
+ * Each apply() appends one record ([length][crc32][ops]) to the mapping instead of
+ * rewriting the whole file, and values are served from an in-memory map that readers
+ * access without locking. On open the log is replayed up to the first record whose CRC
+ * does not match, so a write torn by a crash is dropped. When the mapping fills up the
+ * live values are compacted into a fresh file that replaces the log atomically; the
+ * mapping doubles when the live values alone need more than half of it.
+ */
+public class MappedKeyValueStore implements KeyValueStore {
+
+    static final int MAGIC = 0x4B56534C;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 8;
+    static final int RECORD_HEADER_SIZE = 8;
+    static final int INITIAL_CAPACITY = 16 * 1024;
+
+    private static final byte OP_CLEAR = 0;
+    private static final byte OP_REMOVE = 1;
+    private static final byte OP_STRING = 2;
+    private static final byte OP_BOOLEAN = 3;
+    private static final byte OP_INT = 4;
+    private static final byte OP_LONG = 5;
+    private static final byte OP_FLOAT = 6;
+
+    private final File file;
+    private final Map<String, Object> values = new ConcurrentHashMap<>();
+
+    // Guarded by this
+    private RandomAccessFile raf;
+    private MappedByteBuffer buffer;
+    private int capacity;
+    private int writePosition;
+    private boolean needsCompaction;
+
+    private MappedKeyValueStore(File file) {
+        this.file = file;
+    }
+
+    /**
+     * Opens the log at this path, creating it if needed.
+     */
+    public static MappedKeyValueStore open(File file) throws IOException {
+        File parent = file.getParentFile();
+        if (parent != null && !parent.exists() && !parent.mkdirs()) {
+            throw new IOException("Cannot create " + parent);
+        }
+        MappedKeyValueStore store = new MappedKeyValueStore(file);
+        synchronized (store) {
+            store.load();
+        }
+        return store;
+    }
+
+    @Override
+    public String getString(String key, String defValue) {
+        Object value = values.get(key);
+        return value instanceof String ? (String) value : defValue;
+    }
+
+    @Override
+    public boolean getBoolean(String key, boolean defValue) {
+        Object value = values.get(key);
+        return value instanceof Boolean ? (Boolean) value : defValue;
+    }
+
+    @Override
+    public int getInt(String key, int defValue) {
+        Object value = values.get(key);
+        return value instanceof Integer ? (Integer) value : defValue;
+    }
+
+    @Override
+    public long getLong(String key, long defValue) {
+        Object value = values.get(key);
+        return value instanceof Long ? (Long) value : defValue;
+    }
+
+    @Override
+    public float getFloat(String key, float defValue) {
+        Object value = values.get(key);
+        return value instanceof Float ? (Float) value : defValue;
+    }
+
+    @Override
+    public boolean contains(String key) {
+        return values.containsKey(key);
+    }
+
+    @Override
+    public Map<String, Object> getAll() {
+        return new HashMap<>(values);
+    }
+
+    @Override
+    public Editor edit() {
+        return new MappedEditor();
+    }
+
+    /**
+     * Copies values read from another store (e.g. SharedPreferences.getAll()) in one record.
+     * Types the store does not hold, such as string sets, are skipped.
+     */
+    public void importAll(Map<String, ?> entries) {
+        Editor editor = edit();
+        for (Map.Entry<String, ?> entry : entries.entrySet()) {
+            Object value = entry.getValue();
+            if (value instanceof String) {
+                editor.putString(entry.getKey(), (String) value);
+            } else if (value instanceof Boolean) {
+                editor.putBoolean(entry.getKey(), (Boolean) value);
+            } else if (value instanceof Integer) {
+                editor.putInt(entry.getKey(), (Integer) value);
+            } else if (value instanceof Long) {
+                editor.putLong(entry.getKey(), (Long) value);
+            } else if (value instanceof Float) {
+                editor.putFloat(entry.getKey(), (Float) value);
+            }
+        }
+        editor.apply();
+    }
+
+    /**
+     * Bytes of log in use, header included.
+     */
+    public synchronized int logSize() {
+        return writePosition;
+    }
+
+    /**
+     * Rewrites the log as a single record holding the live values.
+     */
+    public synchronized void compact() throws IOException {
+        compact(capacity);
+    }
+
+    /**
+     * Forces the mapped log to disk, for callers about to delete the only other copy.
+     */
+    public synchronized void flush() {
+        if (buffer != null) {
+            buffer.force();
+        }
+    }
+
+    public synchronized void close() throws IOException {
+        if (raf != null) {
+            buffer.force();
+            raf.close();
+            raf = null;
+            buffer = null;
+        }
+    }
+
+    private synchronized void apply(boolean clear, List<Op> ops) {
+        if (clear) {
+            values.clear();
+        }
+        for (Op op : ops) {
+            if (op.value == null) {
+                values.remove(op.key);
+            } else {
+                values.put(op.key, op.value);
+            }
+        }
+
+        try {
+            if (needsCompaction) {
+                // An earlier append failed; the snapshot already includes this batch
+                compact(capacity);
+                return;
+            }
+            byte[] payload = encode(clear, ops);
+            if (!fits(payload.length)) {
+                compact(capacity);
+                return;
+            }
+            append(payload);
+        } catch (IOException e) {
+            // Values stay in memory and are persisted by the next successful compaction
+            needsCompaction = true;
+        }
+    }
+
+    private boolean fits(int payloadLength) {
+        // Leave room for the zero length that terminates the log
+        return writePosition + RECORD_HEADER_SIZE + payloadLength + 4 <= capacity;
+    }
+
+    private void append(byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload, 0, payload.length);
+
+        int position = writePosition;
+        buffer.position(position + RECORD_HEADER_SIZE);
+        buffer.put(payload);
+        buffer.putInt(position + RECORD_HEADER_SIZE + payload.length, 0);
+        buffer.putInt(position + 4, (int) crc.getValue());
+        // Length last, so a record is only reachable once its bytes are in place
+        buffer.putInt(position, payload.length);
+        writePosition = position + RECORD_HEADER_SIZE + payload.length;
+    }
+
+    private void load() throws IOException {
+        long length = file.exists() ? file.length() : 0;
+        if (length > Integer.MAX_VALUE) {
+            throw new IOException("Log too large: " + file);
+        }
+        map(Math.max(roundUp((int) length), INITIAL_CAPACITY));
+
+        if (length < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            writeHeader();
+            return;
+        }
+
+        int position = HEADER_SIZE;
+        while (position + RECORD_HEADER_SIZE <= capacity) {
+            int payloadLength = buffer.getInt(position);
+            if (payloadLength <= 0 || position + RECORD_HEADER_SIZE + payloadLength > capacity) {
+                break;
+            }
+            byte[] payload = new byte[payloadLength];
+            buffer.position(position + RECORD_HEADER_SIZE);
+            buffer.get(payload);
+            CRC32 crc = new CRC32();
+            crc.update(payload, 0, payloadLength);
+            if ((int) crc.getValue() != buffer.getInt(position + 4) || !replay(payload)) {
+                break;
+            }
+            position += RECORD_HEADER_SIZE + payloadLength;
+        }
+        writePosition = position;
+    }
+
+    private void compact(int minCapacity) throws IOException {
+        List<Op> live = new ArrayList<>(values.size());
+        for (Map.Entry<String, Object> entry : values.entrySet()) {
+            live.add(new Op(entry.getKey(), entry.getValue()));
+        }
+        byte[] payload = encode(false, live);
+
+        int needed = HEADER_SIZE + RECORD_HEADER_SIZE + payload.length + 4;
+        int newCapacity = Math.max(minCapacity, INITIAL_CAPACITY);
+        while (needed > newCapacity / 2) {
+            newCapacity *= 2;
+        }
+
+        File temp = new File(file.getPath() + ".tmp");
+        try (RandomAccessFile out = new RandomAccessFile(temp, "rw")) {
+            CRC32 crc = new CRC32();
+            crc.update(payload, 0, payload.length);
+            ByteBuffer snapshot = ByteBuffer.allocate(HEADER_SIZE + RECORD_HEADER_SIZE + payload.length);
+            snapshot.putInt(MAGIC).putInt(VERSION)
+                    .putInt(payload.length).putInt((int) crc.getValue()).put(payload);
+            snapshot.flip();
+            out.setLength(0);
+            FileChannel channel = out.getChannel();
+            while (snapshot.hasRemaining()) {
+                channel.write(snapshot);
+            }
+            channel.force(true);
+        }
+
+        if (raf != null) {
+            raf.close();
+        }
+        if (!temp.renameTo(file)) {
+            throw new IOException("Cannot replace " + file);
+        }
+        map(newCapacity);
+        writePosition = HEADER_SIZE + RECORD_HEADER_SIZE + payload.length;
+        buffer.putInt(writePosition, 0);
+        needsCompaction = false;
+    }
+
+    private void map(int newCapacity) throws IOException {
+        raf = new RandomAccessFile(file, "rw");
+        capacity = newCapacity;
+        buffer = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+    }
+
+    private void writeHeader() {
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, VERSION);
+        buffer.putInt(HEADER_SIZE, 0);
+        writePosition = HEADER_SIZE;
+    }
+
+    private boolean replay(byte[] payload) {
+        ByteBuffer in = ByteBuffer.wrap(payload);
+        try {
+            int count = in.getInt();
+            Map<String, Object> changes = new HashMap<>();
+            boolean clear = false;
+            for (int i = 0; i < count; i++) {
+                byte type = in.get();
+                if (type == OP_CLEAR) {
+                    clear = true;
+                    changes.clear();
+                    continue;
+                }
+                String key = readString(in);
+                switch (type) {
+                    case OP_REMOVE:
+                        changes.put(key, REMOVED);
+                        break;
+                    case OP_STRING:
+                        changes.put(key, readString(in));
+                        break;
+                    case OP_BOOLEAN:
+                        changes.put(key, in.get() != 0);
+                        break;
+                    case OP_INT:
+                        changes.put(key, in.getInt());
+                        break;
+                    case OP_LONG:
+                        changes.put(key, in.getLong());
+                        break;
+                    case OP_FLOAT:
+                        changes.put(key, in.getFloat());
+                        break;
+                    default:
+                        return false;
+                }
+            }
+            if (clear) {
+                values.clear();
+            }
+            for (Map.Entry<String, Object> change : changes.entrySet()) {
+                if (change.getValue() == REMOVED) {
+                    values.remove(change.getKey());
+                } else {
+                    values.put(change.getKey(), change.getValue());
+                }
+            }
+            return true;
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    private static byte[] encode(boolean clear, List<Op> ops) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + ops.size() * 32);
+        DataOutputStream out = new DataOutputStream(bytes);
+        try {
+            out.writeInt(ops.size() + (clear ? 1 : 0));
+            if (clear) {
+                out.writeByte(OP_CLEAR);
+            }
+            for (Op op : ops) {
+                Object value = op.value;
+                if (value == null) {
+                    out.writeByte(OP_REMOVE);
+                    writeString(out, op.key);
+                } else if (value instanceof String) {
+                    out.writeByte(OP_STRING);
+                    writeString(out, op.key);
+                    writeString(out, (String) value);
+                } else if (value instanceof Boolean) {
+                    out.writeByte(OP_BOOLEAN);
+                    writeString(out, op.key);
+                    out.writeByte((Boolean) value ? 1 : 0);
+                } else if (value instanceof Integer) {
+                    out.writeByte(OP_INT);
+                    writeString(out, op.key);
+                    out.writeInt((Integer) value);
+                } else if (value instanceof Long) {
+                    out.writeByte(OP_LONG);
+                    writeString(out, op.key);
+                    out.writeLong((Long) value);
+                } else {
+                    out.writeByte(OP_FLOAT);
+                    writeString(out, op.key);
+                    out.writeFloat((Float) value);
+                }
+            }
+        } catch (IOException e) {
+            // ByteArrayOutputStream does not throw
+            throw new IllegalStateException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(utf8.length);
+        out.write(utf8);
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        String value = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+        in.position(in.position() + length);
+        return value;
+    }
+
+    private static int roundUp(int size) {
+        return (size + 4095) & ~4095;
+    }
+
+    private static final Object REMOVED = new Object();
+
+    private static final class Op {
+        final String key;
+        // Null removes the key
+        final Object value;
+
+        Op(String key, Object value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+
+    private final class MappedEditor implements Editor {
+
+        private final Map<String, Op> ops = new HashMap<>();
+        private boolean clear;
+
+        @Override
+        public Editor putString(String key, String value) {
+            return put(key, value);
+        }
+
+        @Override
+        public Editor putBoolean(String key, boolean value) {
+            return put(key, value);
+        }
+
+        @Override
+        public Editor putInt(String key, int value) {
+            return put(key, value);
+        }
+
+        @Override
+        public Editor putLong(String key, long value) {
+            return put(key, value);
+        }
+
+        @Override
+        public Editor putFloat(String key, float value) {
+            return put(key, value);
+        }
+
+        @Override
+        public Editor remove(String key) {
+            return put(key, null);
+        }
+
+        @Override
+        public synchronized Editor clear() {
+            clear = true;
+            return this;
+        }
+
+        @Override
+        public void apply() {
+            boolean clearBatch;
+            List<Op> batch;
+            synchronized (this) {
+                clearBatch = clear;
+                batch = new ArrayList<>(ops.values());
+                clear = false;
+                ops.clear();
+            }
+            if (clearBatch || !batch.isEmpty()) {
+                MappedKeyValueStore.this.apply(clearBatch, batch);
+            }
+        }
+
+        private synchronized Editor put(String key, Object value) {
+            if (key != null) {
+                ops.put(key, new Op(key, value));
+            }
+            return this;
+        }
+    }
+}
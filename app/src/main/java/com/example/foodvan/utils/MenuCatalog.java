@@ -0,0 +1,318 @@
+package com.example.foodvan.utils;
+
+import android.content.Context;
+import android.util.Log;
+import android.util.LruCache;
+
+import com.example.foodvan.models.MenuItem;
+import com.google.android.gms.tasks.Task;
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.DatabaseReference;
+import com.google.firebase.database.FirebaseDatabase;
+import com.google.firebase.database.ServerValue;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MenuCatalog - One cache for every place a vendor's menu is read from. Each vendor has a
+ * version number at menu_versions/{vendorId} that every menu write increments. A request
+ * answers from memory or disk straight away, then reads that one number and refetches the
+ * menu only when it changed. Catalogs are kept per source, since the menu stores hold
+ * different items, and written to disk with MenuCatalogCodec.
+ *
+ * Call from the main thread; listeners are called on it. Each listener gets its own copies
+ * of the items, so a screen can change them without touching the cache or other screens.
+ */
+public class MenuCatalog {
+
+    private static final String TAG = "MenuCatalog";
+    public static final String VERSIONS_PATH = "menu_versions";
+    private static final String CACHE_DIR = "menu_catalogs";
+    private static final int MEMORY_CACHE_ENTRIES = 16;
+    // Refetched at least this often, in case a write landed without its version bump
+    private static final long MAX_AGE_MS = TimeUnit.HOURS.toMillis(24);
+    // Stored when the version couldn't be read, so the next request refetches
+    private static final long UNKNOWN_VERSION = -1;
+
+    public enum Source {
+        // Realtime Database menu_items/{vanId}, read by the customer menu
+        REALTIME_MENU,
+        // Firestore vendors/{vendorId}/menu, read by vendor menu management
+        VENDOR_MENU,
+        // Firestore menuItems for the vendor, read by the manage menu screen
+        MENU_ITEMS
+    }
+
+    /**
+     * Reads a source's menu from Firebase; the catalog decides when.
+     */
+    public interface Fetcher {
+        Task<List<MenuItem>> fetch(String vendorId);
+    }
+
+    /**
+     * onSuccess runs once with a cached menu and again if a newer one is fetched. onError only
+     * runs when there was no menu to show at all.
+     */
+    public interface OnCatalogListener {
+        void onSuccess(List<MenuItem> items);
+        void onError(String error);
+    }
+
+    /**
+     * Told about every menu loaded from disk or Firebase, e.g. to index it.
+     */
+    public interface Observer {
+        void onMenuLoaded(Source source, String vendorId, List<MenuItem> items);
+    }
+
+    private static MenuCatalog instance;
+
+    private final File cacheDir;
+    private final DatabaseReference versions;
+    private final LruCache<String, MenuCatalogCodec.Catalog> memoryCache;
+    private final Map<String, Request> requests = new HashMap<>();
+    private final List<Observer> observers = new ArrayList<>();
+
+    private MenuCatalog(Context context) {
+        this.cacheDir = new File(context.getFilesDir(), CACHE_DIR);
+        this.versions = FirebaseDatabase.getInstance().getReference(VERSIONS_PATH);
+        this.memoryCache = new LruCache<>(MEMORY_CACHE_ENTRIES);
+    }
+
+    public static synchronized MenuCatalog getInstance(Context context) {
+        if (instance == null) {
+            instance = new MenuCatalog(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    public void addObserver(Observer observer) {
+        observers.add(observer);
+    }
+
+    public static String versionPath(String vendorId) {
+        return VERSIONS_PATH + "/" + vendorId;
+    }
+
+    /**
+     * Value for versionPath in a Realtime Database update that changes the vendor's menu, so
+     * the bump lands atomically with the write.
+     */
+    public static Object versionBump() {
+        return ServerValue.increment(1);
+    }
+
+    public void get(Source source, String vendorId, Fetcher fetcher, OnCatalogListener listener) {
+        String key = key(source, vendorId);
+        MenuCatalogCodec.Catalog cached = memoryCache.get(key);
+        if (cached != null) {
+            listener.onSuccess(copyOf(cached.items));
+        }
+
+        Request request = requests.get(key);
+        if (request != null) {
+            // Already revalidating; this listener gets the result too
+            request.listeners.add(listener);
+            return;
+        }
+        request = new Request(listener, cached != null);
+        requests.put(key, request);
+
+        if (cached != null) {
+            revalidate(source, key, vendorId, fetcher, cached);
+            return;
+        }
+        AppExecutors executors = AppExecutors.getInstance();
+        executors.io().execute(() -> {
+            MenuCatalogCodec.Catalog stored = readFromDisk(key);
+            executors.mainThread().execute(() -> {
+                if (stored != null) {
+                    memoryCache.put(key, stored);
+                    notifyObservers(source, vendorId, stored.items);
+                    deliver(key, stored.items);
+                }
+                revalidate(source, key, vendorId, fetcher, stored);
+            });
+        });
+    }
+
+    /**
+     * Whether get() would answer straight from memory, e.g. after a prefetch.
+     */
+    public boolean isCached(Source source, String vendorId) {
+        return memoryCache.get(key(source, vendorId)) != null;
+    }
+
+    /**
+     * Drops the vendor's cached menus and bumps its version, after a write the version
+     * couldn't be part of, such as a Firestore batch.
+     */
+    public void invalidate(String vendorId) {
+        List<String> keys = new ArrayList<>();
+        for (Source source : Source.values()) {
+            String key = key(source, vendorId);
+            memoryCache.remove(key);
+            keys.add(key);
+        }
+        AppExecutors.getInstance().io().execute(() -> {
+            for (String key : keys) {
+                new File(cacheDir, key).delete();
+            }
+        });
+        FirebaseMetrics.track("menu_catalog.bump", versions.child(vendorId).setValue(versionBump()))
+                .addOnFailureListener(e -> Log.w(TAG, "Menu version bump failed for " + vendorId, e));
+    }
+
+    private void revalidate(Source source, String key, String vendorId, Fetcher fetcher,
+                            MenuCatalogCodec.Catalog current) {
+        FirebaseMetrics.track("menu_catalog.version", versions.child(vendorId).get())
+                .addOnCompleteListener(task -> {
+                    if (!task.isSuccessful()) {
+                        if (current != null) {
+                            // Offline: keep showing what we have
+                            finish(key, null, null);
+                        } else {
+                            fetch(source, key, vendorId, fetcher, UNKNOWN_VERSION);
+                        }
+                        return;
+                    }
+                    long version = versionOf(task.getResult());
+                    boolean expired = current != null && System.currentTimeMillis() - current.fetchedAt > MAX_AGE_MS;
+                    if (current != null && current.version == version && !expired) {
+                        finish(key, null, null);
+                    } else {
+                        fetch(source, key, vendorId, fetcher, version);
+                    }
+                });
+    }
+
+    private void fetch(Source source, String key, String vendorId, Fetcher fetcher, long version) {
+        fetcher.fetch(vendorId).addOnCompleteListener(task -> {
+            if (!task.isSuccessful()) {
+                finish(key, null, task.getException() != null ? task.getException().getMessage() : "Unknown error");
+                return;
+            }
+            MenuCatalogCodec.Catalog catalog = new MenuCatalogCodec.Catalog(version, System.currentTimeMillis(),
+                    task.getResult());
+            memoryCache.put(key, catalog);
+            notifyObservers(source, vendorId, catalog.items);
+            AppExecutors.getInstance().io().execute(InstrumentedExecutor.Priority.BACKGROUND,
+                    () -> writeToDisk(key, catalog));
+            finish(key, catalog.items, null);
+        });
+    }
+
+    private void notifyObservers(Source source, String vendorId, List<MenuItem> items) {
+        for (Observer observer : observers) {
+            observer.onMenuLoaded(source, vendorId, items);
+        }
+    }
+
+    private void deliver(String key, List<MenuItem> items) {
+        Request request = requests.get(key);
+        if (request != null) {
+            request.delivered = true;
+            for (OnCatalogListener listener : new ArrayList<>(request.listeners)) {
+                listener.onSuccess(copyOf(items));
+            }
+        }
+    }
+
+    private void finish(String key, List<MenuItem> items, String error) {
+        Request request = requests.remove(key);
+        if (request == null) {
+            return;
+        }
+        for (OnCatalogListener listener : request.listeners) {
+            if (items != null) {
+                listener.onSuccess(copyOf(items));
+            } else if (error != null && !request.delivered) {
+                listener.onError(error);
+            }
+        }
+        if (error != null && request.delivered) {
+            Log.w(TAG, "Refresh failed for " + key + ", keeping cached menu: " + error);
+        }
+    }
+
+    private static List<MenuItem> copyOf(List<MenuItem> items) {
+        List<MenuItem> copies = new ArrayList<>(items.size());
+        for (MenuItem item : items) {
+            copies.add(new MenuItem(item));
+        }
+        return copies;
+    }
+
+    private static long versionOf(DataSnapshot snapshot) {
+        Object value = snapshot.getValue();
+        return value instanceof Number ? ((Number) value).longValue() : 0;
+    }
+
+    private static String key(Source source, String vendorId) {
+        return source.name().toLowerCase() + "_" + vendorId;
+    }
+
+    private MenuCatalogCodec.Catalog readFromDisk(String key) {
+        File file = new File(cacheDir, key);
+        if (!file.exists()) {
+            return null;
+        }
+        try (InputStream in = new FileInputStream(file)) {
+            byte[] bytes = new byte[(int) file.length()];
+            int read = 0;
+            while (read < bytes.length) {
+                int count = in.read(bytes, read, bytes.length - read);
+                if (count < 0) {
+                    break;
+                }
+                read += count;
+            }
+            return MenuCatalogCodec.decode(new String(bytes, 0, read, StandardCharsets.UTF_8));
+        } catch (IOException | IllegalArgumentException e) {
+            Log.w(TAG, "Discarding unreadable catalog " + key, e);
+            file.delete();
+            return null;
+        }
+    }
+
+    private void writeToDisk(String key, MenuCatalogCodec.Catalog catalog) {
+        if (!cacheDir.exists() && !cacheDir.mkdirs()) {
+            return;
+        }
+        // Written aside and renamed, so a reader never sees half a file
+        File temp = new File(cacheDir, key + ".tmp");
+        try (OutputStream out = new FileOutputStream(temp)) {
+            out.write(MenuCatalogCodec.encode(catalog).getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            Log.w(TAG, "Failed to write catalog " + key, e);
+            temp.delete();
+            return;
+        }
+        if (!temp.renameTo(new File(cacheDir, key))) {
+            temp.delete();
+        }
+    }
+
+    private static final class Request {
+        final List<OnCatalogListener> listeners = new ArrayList<>();
+        // Whether the listeners already have a menu, from memory or disk
+        boolean delivered;
+
+        Request(OnCatalogListener listener, boolean delivered) {
+            listeners.add(listener);
+            this.delivered = delivered;
+        }
+    }
+}
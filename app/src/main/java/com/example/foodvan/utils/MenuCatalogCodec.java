@@ -0,0 +1,133 @@
+package com.example.foodvan.utils;
+
+import com.example.foodvan.models.MenuItem;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * MenuCatalogCodec - On-disk form of a cached menu: the catalog's version stamp and fetch time,
+ * then every persisted MenuItem field, in the CompactLists format. Cart quantity and the
+ * local image URI are screen state and aren't stored.
+ */
+public final class MenuCatalogCodec {
+
+    // Bump when the field list changes; files in another layout are treated as a miss
+    static final int LAYOUT = 1;
+
+    private static final int VEGETARIAN = 1;
+    private static final int VEGAN = 1 << 1;
+    private static final int GLUTEN_FREE = 1 << 2;
+    private static final int SPICY = 1 << 3;
+    private static final int AVAILABLE = 1 << 4;
+    private static final int BEST_SELLER = 1 << 5;
+    private static final int NEW = 1 << 6;
+
+    private MenuCatalogCodec() {
+    }
+
+    public static final class Catalog {
+        public final long version;
+        public final long fetchedAt;
+        // Shared between everyone reading the catalog, so it can't be changed
+        public final List<MenuItem> items;
+
+        public Catalog(long version, long fetchedAt, List<MenuItem> items) {
+            this.version = version;
+            this.fetchedAt = fetchedAt;
+            this.items = Collections.unmodifiableList(new ArrayList<>(items));
+        }
+    }
+
+    public static String encode(Catalog catalog) {
+        CompactLists.Writer writer = new CompactLists.Writer(64 + catalog.items.size() * 256);
+        writer.writeInt(LAYOUT)
+                .writeLong(catalog.version)
+                .writeLong(catalog.fetchedAt)
+                .writeInt(catalog.items.size());
+        for (MenuItem item : catalog.items) {
+            writer.writeString(item.getItemId())
+                    .writeString(item.getVanId())
+                    .writeString(item.getVendorId())
+                    .writeString(item.getName())
+                    .writeString(item.getDescription())
+                    .writeString(item.getImageUrl())
+                    .writeString(item.getThumbnailUrl())
+                    .writeString(item.getCategory())
+                    .writeString(item.getIngredients())
+                    .writeDouble(item.getPrice())
+                    .writeDouble(item.getRating())
+                    .writeDouble(item.getDiscount())
+                    .writeInt(item.getTotalRatings())
+                    .writeInt(item.getPreparationTime())
+                    .writeInt(item.getCalories())
+                    .writeInt(item.getOrderCount())
+                    .writeInt(flags(item))
+                    .writeLong(item.getCreatedAt())
+                    .writeLong(item.getLastUpdated());
+        }
+        return writer.toString();
+    }
+
+    /**
+     * Reads an encoded catalog, throwing IllegalArgumentException for anything this version
+     * didn't write.
+     */
+    public static Catalog decode(String encoded) {
+        try {
+            CompactLists.Reader reader = new CompactLists.Reader(encoded);
+            int layout = reader.readInt();
+            if (layout != LAYOUT) {
+                throw new IllegalArgumentException("Unknown catalog layout " + layout);
+            }
+            long version = reader.readLong();
+            long fetchedAt = reader.readLong();
+            int count = reader.readInt();
+            List<MenuItem> items = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                MenuItem item = new MenuItem();
+                item.setItemId(reader.readString());
+                item.setVanId(reader.readString());
+                item.setVendorId(reader.readString());
+                item.setName(reader.readString());
+                item.setDescription(reader.readString());
+                item.setImageUrl(reader.readString());
+                item.setThumbnailUrl(reader.readString());
+                item.setCategory(reader.readString());
+                item.setIngredients(reader.readString());
+                item.setPrice(reader.readDouble());
+                item.setRating(reader.readDouble());
+                item.setDiscount(reader.readDouble());
+                item.setTotalRatings(reader.readInt());
+                item.setPreparationTime(reader.readInt());
+                item.setCalories(reader.readInt());
+                item.setOrderCount(reader.readInt());
+                int flags = reader.readInt();
+                item.setVegetarian((flags & VEGETARIAN) != 0);
+                item.setVegan((flags & VEGAN) != 0);
+                item.setGlutenFree((flags & GLUTEN_FREE) != 0);
+                item.setSpicy((flags & SPICY) != 0);
+                item.setAvailable((flags & AVAILABLE) != 0);
+                item.setBestSeller((flags & BEST_SELLER) != 0);
+                item.setNew((flags & NEW) != 0);
+                item.setCreatedAt(reader.readLong());
+                item.setLastUpdated(reader.readLong());
+                items.add(item);
+            }
+            return new Catalog(version, fetchedAt, items);
+        } catch (IndexOutOfBoundsException | NumberFormatException e) {
+            throw new IllegalArgumentException("Truncated or corrupt catalog", e);
+        }
+    }
+
+    private static int flags(MenuItem item) {
+        return (item.isVegetarian() ? VEGETARIAN : 0)
+                | (item.isVegan() ? VEGAN : 0)
+                | (item.isGlutenFree() ? GLUTEN_FREE : 0)
+                | (item.isSpicy() ? SPICY : 0)
+                | (item.isAvailable() ? AVAILABLE : 0)
+                | (item.isBestSeller() ? BEST_SELLER : 0)
+                | (item.isNew() ? NEW : 0);
+    }
+}
@@ -0,0 +1,351 @@
+package com.example.foodvan.utils;
+
+import com.example.foodvan.models.MenuFilter;
+import com.example.foodvan.models.MenuItem;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * MenuFacetEngine - Filter results and the filter sheet's facets (category counts, availability
+ * counts, price bounds, tag counts) computed together in one pass over a column copy of the
+ * menu. Facets are disjunctive: each one counts the items that pass every active filter except
+ * its own, so a category chip shows how many items selecting it would add.
+ *
+ * Every item keeps a bit per filter it fails. When the filter changes only the criteria that
+ * actually changed are re-tested, and a search that extends the previous query only re-tests
+ * items that still matched it.
+ */
+public final class MenuFacetEngine {
+
+    // Same names and order as FilterUtils.getAvailableTags
+    public static final List<String> TAGS = Collections.unmodifiableList(Arrays.asList(
+            "Best Seller", "Gluten Free", "New", "Spicy", "Vegan", "Vegetarian"));
+
+    private static final int AVAILABLE = 1;
+    private static final int VEGETARIAN = 1 << 1;
+    private static final int ON_OFFER = 1 << 2;
+    private static final int[] TAG_FLAGS = {1 << 3, 1 << 4, 1 << 5, 1 << 6, 1 << 7, VEGETARIAN};
+
+    // Filters an item can fail, one bit each
+    private static final int SEARCH = 1;
+    private static final int CATEGORY = 1 << 1;
+    private static final int AVAILABILITY = 1 << 2;
+    private static final int PRICE = 1 << 3;
+    private static final int DIET = 1 << 4;
+    private static final int OFFERS = 1 << 5;
+
+    private final List<MenuItem> items;
+    private final int size;
+    private final double[] prices;
+    private final int[] categories;
+    private final String[] categoryNames;
+    private final int[] flags;
+    private final float catalogMinPrice;
+    private final float catalogMaxPrice;
+    // Lower-cased "name\0description\0category", built on the first search
+    private String[] searchText;
+
+    private final byte[] failures;
+    private MenuFilter applied;
+    private String appliedQuery = "";
+
+    public MenuFacetEngine(List<MenuItem> items) {
+        this.items = items != null ? items : new ArrayList<>();
+        size = this.items.size();
+        prices = new double[size];
+        categories = new int[size];
+        flags = new int[size];
+        failures = new byte[size];
+
+        TreeSet<String> names = new TreeSet<>();
+        double min = Double.MAX_VALUE;
+        double max = -Double.MAX_VALUE;
+        for (int i = 0; i < size; i++) {
+            MenuItem item = this.items.get(i);
+            prices[i] = item.getPrice();
+            min = Math.min(min, prices[i]);
+            max = Math.max(max, prices[i]);
+            if (item.getCategory() != null) {
+                names.add(item.getCategory());
+            }
+            flags[i] = (item.isAvailable() ? AVAILABLE : 0)
+                    | (item.isVegetarian() ? VEGETARIAN : 0)
+                    | (item.getDiscount() > 0 ? ON_OFFER : 0)
+                    | (item.isBestSeller() ? TAG_FLAGS[0] : 0)
+                    | (item.isGlutenFree() ? TAG_FLAGS[1] : 0)
+                    | (item.isNew() ? TAG_FLAGS[2] : 0)
+                    | (item.isSpicy() ? TAG_FLAGS[3] : 0)
+                    | (item.isVegan() ? TAG_FLAGS[4] : 0);
+        }
+        categoryNames = names.toArray(new String[0]);
+        Map<String, Integer> ordinals = new HashMap<>();
+        for (int c = 0; c < categoryNames.length; c++) {
+            ordinals.put(categoryNames[c], c);
+        }
+        for (int i = 0; i < size; i++) {
+            String category = this.items.get(i).getCategory();
+            categories[i] = category != null ? ordinals.get(category) : -1;
+        }
+        catalogMinPrice = size == 0 ? Float.NaN : (float) min;
+        catalogMaxPrice = size == 0 ? Float.NaN : (float) max;
+    }
+
+    public List<MenuItem> getItems() {
+        return items;
+    }
+
+    /**
+     * Applies the filter and returns the matching items, in menu order, with the facets.
+     */
+    public synchronized Result update(MenuFilter filter) {
+        String query = filter.getSearchQuery().toLowerCase().trim();
+        int changed = changedCriteria(filter, query);
+        boolean narrowing = (changed & SEARCH) != 0 && !appliedQuery.isEmpty() && query.contains(appliedQuery);
+        if ((changed & SEARCH) != 0 && !query.isEmpty() && searchText == null) {
+            buildSearchText();
+        }
+
+        boolean[] selected = selectedCategories(filter);
+        boolean showAvailable = filter.isShowAvailable();
+        boolean showOutOfStock = filter.isShowOutOfStock();
+        float minPrice = filter.getMinPrice();
+        float maxPrice = filter.getMaxPrice();
+        boolean vegetarianOnly = filter.isVegetarianOnly();
+        boolean nonVegetarianOnly = filter.isNonVegetarianOnly();
+        boolean offersOnly = filter.isSpecialOffersOnly();
+
+        List<MenuItem> matches = new ArrayList<>();
+        BitSet matchPositions = new BitSet(size);
+        int[] categoryCounts = new int[categoryNames.length];
+        int[] tagCounts = new int[TAG_FLAGS.length];
+        int available = 0;
+        int outOfStock = 0;
+        double min = Double.MAX_VALUE;
+        double max = -Double.MAX_VALUE;
+
+        for (int i = 0; i < size; i++) {
+            int failed = failures[i];
+            int itemFlags = flags[i];
+            if (changed != 0) {
+                if ((changed & SEARCH) != 0 && !(narrowing && (failed & SEARCH) != 0)) {
+                    failed = set(failed, SEARCH, !query.isEmpty() && !searchText[i].contains(query));
+                }
+                if ((changed & CATEGORY) != 0) {
+                    failed = set(failed, CATEGORY, selected != null && (categories[i] < 0 || !selected[categories[i]]));
+                }
+                if ((changed & AVAILABILITY) != 0) {
+                    failed = set(failed, AVAILABILITY, (itemFlags & AVAILABLE) != 0 ? !showAvailable : !showOutOfStock);
+                }
+                if ((changed & PRICE) != 0) {
+                    failed = set(failed, PRICE, prices[i] < minPrice || prices[i] > maxPrice);
+                }
+                if ((changed & DIET) != 0) {
+                    boolean vegetarian = (itemFlags & VEGETARIAN) != 0;
+                    failed = set(failed, DIET, (vegetarianOnly && !vegetarian) || (nonVegetarianOnly && vegetarian));
+                }
+                if ((changed & OFFERS) != 0) {
+                    failed = set(failed, OFFERS, offersOnly && (itemFlags & ON_OFFER) == 0);
+                }
+                failures[i] = (byte) failed;
+            }
+
+            if (failed == 0) {
+                matches.add(items.get(i));
+                matchPositions.set(i);
+                for (int t = 0; t < TAG_FLAGS.length; t++) {
+                    if ((itemFlags & TAG_FLAGS[t]) != 0) {
+                        tagCounts[t]++;
+                    }
+                }
+            } else if ((failed & (failed - 1)) != 0) {
+                // Fails two or more filters, so no single facet change would bring it in
+                continue;
+            }
+            if ((failed & ~CATEGORY) == 0 && categories[i] >= 0) {
+                categoryCounts[categories[i]]++;
+            }
+            if ((failed & ~AVAILABILITY) == 0) {
+                if ((itemFlags & AVAILABLE) != 0) {
+                    available++;
+                } else {
+                    outOfStock++;
+                }
+            }
+            if ((failed & ~PRICE) == 0) {
+                min = Math.min(min, prices[i]);
+                max = Math.max(max, prices[i]);
+            }
+        }
+
+        applied = new MenuFilter(filter);
+        appliedQuery = query;
+        return new Result(matches, matchPositions, categoryNames, categoryCounts, tagCounts, available, outOfStock,
+                min <= max ? (float) min : Float.NaN, min <= max ? (float) max : Float.NaN,
+                catalogMinPrice, catalogMaxPrice);
+    }
+
+    private int changedCriteria(MenuFilter filter, String query) {
+        if (applied == null) {
+            return SEARCH | CATEGORY | AVAILABILITY | PRICE | DIET | OFFERS;
+        }
+        int changed = 0;
+        if (!query.equals(appliedQuery)) {
+            changed |= SEARCH;
+        }
+        if (filter.isAllCategoriesSelected() != applied.isAllCategoriesSelected()
+                || !filter.getSelectedCategories().equals(applied.getSelectedCategories())) {
+            changed |= CATEGORY;
+        }
+        if (filter.isShowAvailable() != applied.isShowAvailable() || filter.isShowOutOfStock() != applied.isShowOutOfStock()) {
+            changed |= AVAILABILITY;
+        }
+        if (filter.getMinPrice() != applied.getMinPrice() || filter.getMaxPrice() != applied.getMaxPrice()) {
+            changed |= PRICE;
+        }
+        if (filter.isVegetarianOnly() != applied.isVegetarianOnly() || filter.isNonVegetarianOnly() != applied.isNonVegetarianOnly()) {
+            changed |= DIET;
+        }
+        if (filter.isSpecialOffersOnly() != applied.isSpecialOffersOnly()) {
+            changed |= OFFERS;
+        }
+        return changed;
+    }
+
+    /**
+     * Selected flags by category ordinal, or null when the category filter is off.
+     */
+    private boolean[] selectedCategories(MenuFilter filter) {
+        if (filter.isAllCategoriesSelected() || filter.getSelectedCategories().isEmpty()) {
+            return null;
+        }
+        boolean[] selected = new boolean[categoryNames.length];
+        for (String category : filter.getSelectedCategories()) {
+            int ordinal = category != null ? Arrays.binarySearch(categoryNames, category) : -1;
+            if (ordinal >= 0) {
+                selected[ordinal] = true;
+            }
+        }
+        return selected;
+    }
+
+    private void buildSearchText() {
+        String[] text = new String[size];
+        for (int i = 0; i < size; i++) {
+            MenuItem item = items.get(i);
+            text[i] = (item.getName() != null ? item.getName().toLowerCase() : "") + '\0'
+                    + (item.getDescription() != null ? item.getDescription().toLowerCase() : "") + '\0'
+                    + (item.getCategory() != null ? item.getCategory().toLowerCase() : "");
+        }
+        searchText = text;
+    }
+
+    private static int set(int failed, int criterion, boolean fails) {
+        return fails ? failed | criterion : failed & ~criterion;
+    }
+
+    /**
+     * Matching items plus facets. Facet counts leave out the facet's own filter; tag counts
+     * are over the matching items, since tags aren't a filter yet.
+     */
+    public static final class Result {
+
+        private final List<MenuItem> items;
+        private final BitSet matchPositions;
+        private final String[] categories;
+        private final int[] categoryCounts;
+        private final int[] tagCounts;
+        private final int availableCount;
+        private final int outOfStockCount;
+        private final float minPrice;
+        private final float maxPrice;
+        private final float catalogMinPrice;
+        private final float catalogMaxPrice;
+
+        Result(List<MenuItem> items, BitSet matchPositions, String[] categories, int[] categoryCounts, int[] tagCounts,
+               int availableCount, int outOfStockCount, float minPrice, float maxPrice,
+               float catalogMinPrice, float catalogMaxPrice) {
+            this.items = items;
+            this.matchPositions = matchPositions;
+            this.categories = categories;
+            this.categoryCounts = categoryCounts;
+            this.tagCounts = tagCounts;
+            this.availableCount = availableCount;
+            this.outOfStockCount = outOfStockCount;
+            this.minPrice = minPrice;
+            this.maxPrice = maxPrice;
+            this.catalogMinPrice = catalogMinPrice;
+            this.catalogMaxPrice = catalogMaxPrice;
+        }
+
+        public List<MenuItem> getItems() {
+            return items;
+        }
+
+        /**
+         * Menu positions of the matching items, for MenuSortIndex.select.
+         */
+        public BitSet getMatchPositions() {
+            return matchPositions;
+        }
+
+        /**
+         * Every non-empty category on the menu, sorted, whatever its count.
+         */
+        public List<String> getCategories() {
+            List<String> names = new ArrayList<>(categories.length);
+            for (String category : categories) {
+                if (!category.isEmpty()) {
+                    names.add(category);
+                }
+            }
+            return names;
+        }
+
+        public int getCategoryCount(String category) {
+            int ordinal = category != null ? Arrays.binarySearch(categories, category) : -1;
+            return ordinal >= 0 ? categoryCounts[ordinal] : 0;
+        }
+
+        public int getTagCount(String tag) {
+            int index = TAGS.indexOf(tag);
+            return index >= 0 ? tagCounts[index] : 0;
+        }
+
+        public int getAvailableCount() {
+            return availableCount;
+        }
+
+        public int getOutOfStockCount() {
+            return outOfStockCount;
+        }
+
+        /**
+         * Cheapest and dearest price among items passing the other filters; NaN when none do.
+         */
+        public float getMinPrice() {
+            return minPrice;
+        }
+
+        public float getMaxPrice() {
+            return maxPrice;
+        }
+
+        /**
+         * Whole-menu price bounds with the same padding as FilterUtils.getPriceRange, for the
+         * slider's ends.
+         */
+        public float[] getCatalogPriceRange() {
+            if (Float.isNaN(catalogMinPrice)) {
+                return new float[]{0f, 1000f};
+            }
+            return new float[]{Math.max(0, catalogMinPrice - 10), catalogMaxPrice + 10};
+        }
+    }
+}
@@ -0,0 +1,262 @@
+package com.example.foodvan.utils;
+
+import com.example.foodvan.models.MenuItem;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * MenuImporter - Streams menu rows from a CSV or XLSX source, validates them in parallel
+ * and hands them to a {@link BatchWriter} in chunks that fit in a single Firestore WriteBatch.
+ * Only a bounded number of chunks is ever held in memory, regardless of file size.
+ */
+public class MenuImporter {
+
+    /** Firestore rejects a WriteBatch with more than 500 operations. */
+    public static final int MAX_WRITES_PER_BATCH = 500;
+    public static final int DEFAULT_MAX_IN_FLIGHT = 3;
+
+    static final String COLUMN_NAME = "name";
+    static final String COLUMN_DESCRIPTION = "description";
+    static final String COLUMN_PRICE = "price";
+    static final String COLUMN_CATEGORY = "category";
+    static final String COLUMN_AVAILABLE = "available";
+    static final String COLUMN_IMAGE_URL = "imageurl";
+    private static final String DEFAULT_CATEGORY = "Other";
+
+    /** Pushes rows to the handler one at a time; the first row is the header. */
+    public interface RowSource {
+        void read(RowHandler handler) throws Exception;
+
+        /** Fraction of the source consumed so far, between 0 and 1. */
+        double getProgress();
+    }
+
+    public interface RowHandler {
+        void onRow(String[] cells) throws Exception;
+    }
+
+    public interface BatchWriter {
+        void commit(List<MenuItem> items, CommitCallback callback);
+    }
+
+    public interface CommitCallback {
+        void onSuccess();
+        void onError(String error);
+    }
+
+    public interface ProgressListener {
+        void onProgress(int progress, String status);
+    }
+
+    public static class Result {
+        public final int imported;
+        public final int skipped;
+
+        Result(int imported, int skipped) {
+            this.imported = imported;
+            this.skipped = skipped;
+        }
+    }
+
+    private final String vendorId;
+    private final Executor validationExecutor;
+    private final BatchWriter writer;
+    private final int batchSize;
+    private final int maxInFlight;
+
+    private final Semaphore inFlight;
+    private final AtomicInteger imported = new AtomicInteger();
+    private final AtomicInteger skipped = new AtomicInteger();
+    private final AtomicReference<String> failure = new AtomicReference<>();
+
+    private Map<String, Integer> columns;
+    private List<String[]> pending;
+    private ProgressListener listener;
+    private RowSource source;
+
+    public MenuImporter(String vendorId, Executor validationExecutor, BatchWriter writer) {
+        this(vendorId, validationExecutor, writer, MAX_WRITES_PER_BATCH - 1, DEFAULT_MAX_IN_FLIGHT);
+    }
+
+    /**
+     * @param batchSize   items per WriteBatch, leaving room for any extra write the writer adds
+     * @param maxInFlight number of chunks being validated or committed at the same time
+     */
+    public MenuImporter(String vendorId, Executor validationExecutor, BatchWriter writer,
+                        int batchSize, int maxInFlight) {
+        if (batchSize < 1 || batchSize > MAX_WRITES_PER_BATCH) {
+            throw new IllegalArgumentException("batchSize must be between 1 and " + MAX_WRITES_PER_BATCH);
+        }
+        this.vendorId = vendorId;
+        this.validationExecutor = validationExecutor;
+        this.writer = writer;
+        this.batchSize = batchSize;
+        this.maxInFlight = Math.max(1, maxInFlight);
+        this.inFlight = new Semaphore(this.maxInFlight);
+    }
+
+    /**
+     * Runs the import on the calling thread and blocks until every chunk has been committed.
+     * On failure it still waits for the chunks already handed to the writer to settle, so no
+     * write lands after it returns.
+     */
+    public Result run(RowSource source, ProgressListener listener) throws Exception {
+        this.source = source;
+        this.listener = listener;
+        this.columns = null;
+        this.pending = new ArrayList<>(batchSize);
+
+        try {
+            source.read(this::onRow);
+            if (!pending.isEmpty() && failure.get() == null) {
+                dispatch(pending);
+            }
+            pending = null;
+        } finally {
+            // Wait for the remaining commits to drain, whether or not the read finished
+            inFlight.acquireUninterruptibly(maxInFlight);
+            inFlight.release(maxInFlight);
+        }
+
+        if (failure.get() != null) {
+            throw new IllegalStateException(failure.get());
+        }
+        if (columns == null) {
+            throw new IllegalArgumentException("File is empty");
+        }
+        return new Result(imported.get(), skipped.get());
+    }
+
+    private void onRow(String[] cells) throws Exception {
+        if (failure.get() != null) {
+            throw new IllegalStateException(failure.get());
+        }
+        if (columns == null) {
+            columns = parseHeader(cells);
+            return;
+        }
+        pending.add(cells);
+        if (pending.size() == batchSize) {
+            dispatch(pending);
+            pending = new ArrayList<>(batchSize);
+        }
+    }
+
+    private void dispatch(List<String[]> rows) throws InterruptedException {
+        // Backpressure: stop reading until a slot frees up
+        inFlight.acquire();
+        if (failure.get() != null) {
+            inFlight.release();
+            throw new IllegalStateException(failure.get());
+        }
+        CompletableFuture.supplyAsync(() -> validate(rows), validationExecutor)
+                .whenComplete((items, error) -> {
+                    if (error != null) {
+                        fail(error.getMessage());
+                    } else if (items.isEmpty()) {
+                        inFlight.release();
+                    } else {
+                        writer.commit(items, new CommitCallback() {
+                            @Override
+                            public void onSuccess() {
+                                int done = imported.addAndGet(items.size());
+                                inFlight.release();
+                                reportProgress(done);
+                            }
+
+                            @Override
+                            public void onError(String error) {
+                                fail(error);
+                            }
+                        });
+                    }
+                });
+    }
+
+    private void fail(String error) {
+        failure.compareAndSet(null, error != null ? error : "Import failed");
+        inFlight.release();
+    }
+
+    private void reportProgress(int done) {
+        if (listener == null) return;
+        int percent = (int) Math.min(99, Math.round(source.getProgress() * 100));
+        listener.onProgress(percent, "Imported " + done + " items...");
+    }
+
+    private List<MenuItem> validate(List<String[]> rows) {
+        List<MenuItem> items = new ArrayList<>(rows.size());
+        long now = System.currentTimeMillis();
+        for (String[] row : rows) {
+            MenuItem item = toMenuItem(row, now);
+            if (item != null) {
+                items.add(item);
+            } else {
+                skipped.incrementAndGet();
+            }
+        }
+        return items;
+    }
+
+    MenuItem toMenuItem(String[] row, long timestamp) {
+        String name = cell(row, COLUMN_NAME);
+        if (name == null || name.isEmpty()) {
+            return null;
+        }
+
+        double price;
+        try {
+            price = Double.parseDouble(cell(row, COLUMN_PRICE));
+        } catch (NullPointerException | NumberFormatException e) {
+            return null;
+        }
+        if (price < 0 || Double.isNaN(price) || Double.isInfinite(price)) {
+            return null;
+        }
+
+        MenuItem item = new MenuItem();
+        item.setName(name);
+        item.setDescription(cell(row, COLUMN_DESCRIPTION));
+        item.setPrice(price);
+        String category = cell(row, COLUMN_CATEGORY);
+        item.setCategory(category == null || category.isEmpty() ? DEFAULT_CATEGORY : category);
+        String available = cell(row, COLUMN_AVAILABLE);
+        item.setAvailable(available == null || available.isEmpty() || Boolean.parseBoolean(available)
+                || "yes".equalsIgnoreCase(available) || "1".equals(available));
+        item.setImageUrl(cell(row, COLUMN_IMAGE_URL));
+        item.setVendorId(vendorId);
+        item.setCreatedAt(timestamp);
+        item.setLastUpdated(timestamp);
+        return item;
+    }
+
+    private String cell(String[] row, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= row.length || row[index] == null) {
+            return null;
+        }
+        return row[index].trim();
+    }
+
+    private static Map<String, Integer> parseHeader(String[] header) {
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.length; i++) {
+            if (header[i] == null) continue;
+            String key = header[i].trim().toLowerCase(Locale.ROOT).replace(" ", "").replace("_", "");
+            columns.putIfAbsent(key, i);
+        }
+        if (!columns.containsKey(COLUMN_NAME) || !columns.containsKey(COLUMN_PRICE)) {
+            throw new IllegalArgumentException("Header must contain Name and Price columns");
+        }
+        return columns;
+    }
+}
@@ -0,0 +1,197 @@
+package com.example.foodvan.utils;
+
+import com.example.foodvan.models.MenuItem;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * MenuSortIndex - One cached permutation of the menu per sort order, so changing the sort is a
+ * walk over an int[] instead of a sort, and filtering is picking the matching positions out of
+ * that walk. Each permutation is built the first time its order is asked for; ties keep menu
+ * order, the same as a stable sort.
+ *
+ * When the menu is replaced, items are matched up by id. Items whose sort keys didn't change
+ * keep their place, and only new or changed ones are sorted and merged in.
+ */
+public final class MenuSortIndex<K> {
+
+    // Past this share of changed items a full sort is cheaper than merging
+    private static final int FULL_SORT_DIVISOR = 4;
+
+    private final Function<K, Comparator<MenuItem>> orders;
+    private final Map<K, int[]> permutations = new HashMap<>();
+    private List<MenuItem> items = new ArrayList<>();
+
+    public MenuSortIndex(Function<K, Comparator<MenuItem>> orders) {
+        this.orders = orders;
+    }
+
+    public synchronized List<MenuItem> getItems() {
+        return items;
+    }
+
+    public synchronized void setItems(List<MenuItem> newItems) {
+        newItems = newItems != null ? newItems : new ArrayList<>();
+        if (newItems == items) {
+            return;
+        }
+        List<MenuItem> oldItems = items;
+        items = newItems;
+        if (permutations.isEmpty()) {
+            return;
+        }
+
+        Map<String, Integer> newPositions = new HashMap<>();
+        for (int i = 0; i < newItems.size(); i++) {
+            String id = newItems.get(i).getId();
+            if (id != null) {
+                newPositions.putIfAbsent(id, i);
+            }
+        }
+        int[] oldToNew = new int[oldItems.size()];
+        for (int i = 0; i < oldToNew.length; i++) {
+            String id = oldItems.get(i).getId();
+            Integer position = id != null ? newPositions.get(id) : null;
+            oldToNew[i] = position != null ? position : -1;
+        }
+
+        for (Map.Entry<K, int[]> entry : permutations.entrySet()) {
+            Comparator<MenuItem> order = orders.apply(entry.getKey());
+            int[] updated = merge(entry.getValue(), oldItems, oldToNew, order);
+            entry.setValue(updated != null ? updated : sortedPositions(order));
+        }
+    }
+
+    /**
+     * Menu positions in the given order. The array is shared; don't modify it.
+     */
+    public synchronized int[] permutation(K key) {
+        int[] permutation = permutations.get(key);
+        if (permutation == null) {
+            permutation = sortedPositions(orders.apply(key));
+            permutations.put(key, permutation);
+        }
+        return permutation;
+    }
+
+    /**
+     * The items whose menu positions are set in matches, in the given order; null matches
+     * means every item.
+     */
+    public synchronized List<MenuItem> select(K key, BitSet matches) {
+        int[] permutation = permutation(key);
+        List<MenuItem> selected = new ArrayList<>(matches != null ? matches.cardinality() : permutation.length);
+        for (int position : permutation) {
+            if (matches == null || matches.get(position)) {
+                selected.add(items.get(position));
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * Carries a permutation over to the new items, or returns null when a full sort is needed.
+     */
+    private int[] merge(int[] permutation, List<MenuItem> oldItems, int[] oldToNew, Comparator<MenuItem> order) {
+        int size = items.size();
+        boolean[] placed = new boolean[size];
+        int[] kept = new int[size];
+        int keptCount = 0;
+        for (int oldPosition : permutation) {
+            int position = oldToNew[oldPosition];
+            if (position < 0 || placed[position]
+                    || order.compare(oldItems.get(oldPosition), items.get(position)) != 0) {
+                continue;
+            }
+            if (keptCount > 0) {
+                int previous = kept[keptCount - 1];
+                // A tie that changed menu order would break the stable-sort contract
+                if (previous > position && order.compare(items.get(previous), items.get(position)) == 0) {
+                    return null;
+                }
+            }
+            placed[position] = true;
+            kept[keptCount++] = position;
+        }
+
+        int changedCount = size - keptCount;
+        if (changedCount > size / FULL_SORT_DIVISOR) {
+            return null;
+        }
+        int[] changed = new int[changedCount];
+        for (int i = 0, c = 0; i < size; i++) {
+            if (!placed[i]) {
+                changed[c++] = i;
+            }
+        }
+        sort(changed, order);
+
+        int[] merged = new int[size];
+        int k = 0;
+        int c = 0;
+        int m = 0;
+        while (k < keptCount && c < changedCount) {
+            merged[m++] = compare(order, kept[k], changed[c]) <= 0 ? kept[k++] : changed[c++];
+        }
+        while (k < keptCount) {
+            merged[m++] = kept[k++];
+        }
+        while (c < changedCount) {
+            merged[m++] = changed[c++];
+        }
+        return merged;
+    }
+
+    private int[] sortedPositions(Comparator<MenuItem> order) {
+        int[] positions = new int[items.size()];
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = i;
+        }
+        sort(positions, order);
+        return positions;
+    }
+
+    /**
+     * Merge sort of menu positions; ties fall back to position, so the result is unique.
+     */
+    private void sort(int[] positions, Comparator<MenuItem> order) {
+        if (positions.length < 2) {
+            return;
+        }
+        int[] buffer = new int[positions.length];
+        int[] from = positions;
+        int[] to = buffer;
+        for (int width = 1; width < positions.length; width *= 2) {
+            for (int low = 0; low < positions.length; low += 2 * width) {
+                int middle = Math.min(low + width, positions.length);
+                int high = Math.min(low + 2 * width, positions.length);
+                int left = low;
+                int right = middle;
+                for (int out = low; out < high; out++) {
+                    if (left < middle && (right >= high || compare(order, from[left], from[right]) <= 0)) {
+                        to[out] = from[left++];
+                    } else {
+                        to[out] = from[right++];
+                    }
+                }
+            }
+            int[] swap = from;
+            from = to;
+            to = swap;
+        }
+        if (from != positions) {
+            System.arraycopy(from, 0, positions, 0, positions.length);
+        }
+    }
+
+    private int compare(Comparator<MenuItem> order, int a, int b) {
+        int result = order.compare(items.get(a), items.get(b));
+        return result != 0 ? result : Integer.compare(a, b);
+    }
+}
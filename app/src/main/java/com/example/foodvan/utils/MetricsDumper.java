@@ -0,0 +1,98 @@
+package com.example.foodvan.utils;
+
+import android.content.Context;
+import android.util.Log;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * MetricsDumper - Writes the MetricsRegistry snapshot, plus executor stats, to
+ * files/metrics/metrics.json once a minute while the process runs, so the numbers from a test
+ * session can be pulled with adb after the fact. Writes go through a temp file and a rename,
+ * so a reader never sees half a file.
+ */
+public class MetricsDumper {
+
+    private static final String TAG = "MetricsDumper";
+    private static final String DIR = "metrics";
+    private static final String FILE_NAME = "metrics.json";
+    static final long INTERVAL_MS = 60_000;
+
+    private static MetricsDumper instance;
+
+    private final File file;
+    private final Runnable tick = this::schedule;
+    private boolean started;
+
+    private MetricsDumper(Context context) {
+        this.file = new File(new File(context.getFilesDir(), DIR), FILE_NAME);
+    }
+
+    public static synchronized MetricsDumper getInstance(Context context) {
+        if (instance == null) {
+            instance = new MetricsDumper(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    public synchronized void start() {
+        if (started) {
+            return;
+        }
+        started = true;
+        AppExecutors.getInstance().mainThread().executeDelayed(tick, INTERVAL_MS);
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * Writes a dump now, on the calling thread.
+     */
+    public void dump() {
+        publishExecutorStats();
+        String json = MetricsRegistry.getInstance().toJson(System.currentTimeMillis());
+        File dir = file.getParentFile();
+        if (dir != null && !dir.exists() && !dir.mkdirs()) {
+            Log.w(TAG, "Could not create " + dir);
+            return;
+        }
+        File tmp = new File(file.getPath() + ".tmp");
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(tmp), StandardCharsets.UTF_8)) {
+            writer.write(json);
+        } catch (IOException e) {
+            Log.w(TAG, "Metrics dump failed", e);
+            return;
+        }
+        if (!tmp.renameTo(file)) {
+            Log.w(TAG, "Could not replace " + file);
+        }
+    }
+
+    private void schedule() {
+        AppExecutors executors = AppExecutors.getInstance();
+        executors.io().execute(InstrumentedExecutor.Priority.BACKGROUND, this::dump);
+        executors.mainThread().executeDelayed(tick, INTERVAL_MS);
+    }
+
+    /**
+     * Copies executor queue depth and wait times into gauges so they appear in the dump.
+     */
+    static void publishExecutorStats() {
+        MetricsRegistry registry = MetricsRegistry.getInstance();
+        for (InstrumentedExecutor.Stats stats : AppExecutors.getInstance().stats()) {
+            String prefix = "executor." + stats.name + ".";
+            registry.setGauge(prefix + "running", stats.running);
+            registry.setGauge(prefix + "queued", stats.queueDepth);
+            registry.setGauge(prefix + "max_queued", stats.maxQueueDepth);
+            registry.setGauge(prefix + "avg_wait_us", stats.averageWaitNanos() / 1000);
+            registry.setGauge(prefix + "avg_run_us", stats.averageRunNanos() / 1000);
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.example.foodvan.utils;
+
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * MetricsRegistry - In-process counters, gauges and latency histograms for the app's hot
+ * paths: repository calls, realtime listeners and snapshot handling. Metrics are created on
+ * first use by name, and recording never blocks, so call sites just time and record. Nothing
+ * leaves the device; the debug screen and MetricsDumper read it through snapshot() and toJson().
+ */
+public class MetricsRegistry {
+
+    private static final MetricsRegistry instance = new MetricsRegistry(System::nanoTime);
+
+    private final LongSupplier clock;
+    private final ConcurrentHashMap<String, LongAdder> counters = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, AtomicLong> gauges = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+
+    /**
+     * @param clock monotonic nanoseconds, e.g. System::nanoTime
+     */
+    public MetricsRegistry(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    public static MetricsRegistry getInstance() {
+        return instance;
+    }
+
+    /**
+     * Start of a timed section, to pass to {@link #stopTimer(String, long)}.
+     */
+    public long startTimer() {
+        return clock.getAsLong();
+    }
+
+    /**
+     * Records the time since startNanos in the named histogram.
+     */
+    public void stopTimer(String name, long startNanos) {
+        histogram(name).record(clock.getAsLong() - startNanos);
+    }
+
+    public void increment(String name) {
+        counter(name).increment();
+    }
+
+    public void add(String name, long delta) {
+        counter(name).add(delta);
+    }
+
+    public void setGauge(String name, long value) {
+        gauge(name).set(value);
+    }
+
+    /**
+     * Moves a gauge up or down, e.g. listeners attached minus detached.
+     */
+    public void adjustGauge(String name, long delta) {
+        gauge(name).addAndGet(delta);
+    }
+
+    public LatencyHistogram histogram(String name) {
+        // get() first: computeIfAbsent may lock the bin even when the key exists
+        LatencyHistogram histogram = histograms.get(name);
+        return histogram != null ? histogram : histograms.computeIfAbsent(name, key -> new LatencyHistogram());
+    }
+
+    public long getCounter(String name) {
+        LongAdder counter = counters.get(name);
+        return counter == null ? 0 : counter.sum();
+    }
+
+    public long getGauge(String name) {
+        AtomicLong gauge = gauges.get(name);
+        return gauge == null ? 0 : gauge.get();
+    }
+
+    public Snapshot snapshot() {
+        Map<String, Long> counterValues = new TreeMap<>();
+        for (Map.Entry<String, LongAdder> entry : counters.entrySet()) {
+            counterValues.put(entry.getKey(), entry.getValue().sum());
+        }
+        Map<String, Long> gaugeValues = new TreeMap<>();
+        for (Map.Entry<String, AtomicLong> entry : gauges.entrySet()) {
+            gaugeValues.put(entry.getKey(), entry.getValue().get());
+        }
+        Map<String, HistogramSummary> histogramValues = new TreeMap<>();
+        for (Map.Entry<String, LatencyHistogram> entry : histograms.entrySet()) {
+            histogramValues.put(entry.getKey(), new HistogramSummary(entry.getValue()));
+        }
+        return new Snapshot(counterValues, gaugeValues, histogramValues);
+    }
+
+    /**
+     * The current snapshot as JSON, latencies in microseconds.
+     */
+    public String toJson(long wallClockMillis) {
+        Snapshot snapshot = snapshot();
+        JsonObject root = new JsonObject();
+        root.addProperty("timestamp", wallClockMillis);
+
+        JsonObject counterJson = new JsonObject();
+        for (Map.Entry<String, Long> entry : snapshot.counters.entrySet()) {
+            counterJson.addProperty(entry.getKey(), entry.getValue());
+        }
+        root.add("counters", counterJson);
+
+        JsonObject gaugeJson = new JsonObject();
+        for (Map.Entry<String, Long> entry : snapshot.gauges.entrySet()) {
+            gaugeJson.addProperty(entry.getKey(), entry.getValue());
+        }
+        root.add("gauges", gaugeJson);
+
+        JsonObject histogramJson = new JsonObject();
+        for (Map.Entry<String, HistogramSummary> entry : snapshot.histograms.entrySet()) {
+            HistogramSummary summary = entry.getValue();
+            JsonObject h = new JsonObject();
+            h.addProperty("count", summary.count);
+            h.addProperty("meanUs", summary.meanNanos / 1000.0);
+            h.addProperty("p50Us", summary.p50Nanos / 1000.0);
+            h.addProperty("p90Us", summary.p90Nanos / 1000.0);
+            h.addProperty("p99Us", summary.p99Nanos / 1000.0);
+            h.addProperty("maxUs", summary.maxNanos / 1000.0);
+            histogramJson.add(entry.getKey(), h);
+        }
+        root.add("histograms", histogramJson);
+
+        return new GsonBuilder().setPrettyPrinting().create().toJson(root);
+    }
+
+    public void reset() {
+        counters.clear();
+        histograms.clear();
+        // Gauges track live state such as attached listeners, so they survive a reset
+    }
+
+    private LongAdder counter(String name) {
+        LongAdder counter = counters.get(name);
+        return counter != null ? counter : counters.computeIfAbsent(name, key -> new LongAdder());
+    }
+
+    private AtomicLong gauge(String name) {
+        AtomicLong gauge = gauges.get(name);
+        return gauge != null ? gauge : gauges.computeIfAbsent(name, key -> new AtomicLong());
+    }
+
+    /**
+     * Point-in-time copy of every metric, sorted by name.
+     */
+    public static final class Snapshot {
+        public final Map<String, Long> counters;
+        public final Map<String, Long> gauges;
+        public final Map<String, HistogramSummary> histograms;
+
+        Snapshot(Map<String, Long> counters, Map<String, Long> gauges, Map<String, HistogramSummary> histograms) {
+            this.counters = counters;
+            this.gauges = gauges;
+            this.histograms = histograms;
+        }
+    }
+
+    public static final class HistogramSummary {
+        public final long count;
+        public final double meanNanos;
+        public final long p50Nanos;
+        public final long p90Nanos;
+        public final long p99Nanos;
+        public final long maxNanos;
+
+        HistogramSummary(LatencyHistogram histogram) {
+            count = histogram.getCount();
+            meanNanos = histogram.getMean();
+            p50Nanos = histogram.getPercentile(50);
+            p90Nanos = histogram.getPercentile(90);
+            p99Nanos = histogram.getPercentile(99);
+            maxNanos = histogram.getMax();
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package com.example.foodvan.utils;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * NotificationStore - Layout of a vendor's notifications. Items live under
+ * notifications/{vendorId}/{notificationId} with createdAt and expiresAt, and the number of
+ * unread items is kept in notification_meta/{vendorId}/unread_count, so the badge never needs
+ * the list. Every change that flips an item's read state adjusts the counter in the same
+ * multi-path update; marking everything read or clearing the inbox is one write however many
+ * notifications there are. The rules reject re-creating an item or setting a read flag it
+ * already has, so a repeated update fails as a whole instead of counting twice.
+ */
+public final class NotificationStore {
+
+    public static final String NOTIFICATIONS_PATH = "notifications";
+    public static final String META_PATH = "notification_meta";
+    public static final String UNREAD_COUNT = "unread_count";
+    // Set once the counter has been seeded from the items written before it existed
+    public static final String COUNTER_SEEDED = "counter_seeded";
+    public static final String CREATED_AT = "createdAt";
+    public static final String EXPIRES_AT = "expiresAt";
+    public static final String READ = "read";
+    public static final int PAGE_SIZE = 20;
+    public static final int DEFAULT_TTL_DAYS = 30;
+
+    // Expired notifications removed per purge write
+    public static final int PURGE_BATCH_SIZE = 200;
+
+    private NotificationStore() {
+    }
+
+    /**
+     * Item writes plus counter increments, applied together at the database root.
+     */
+    public static final class Update {
+        public final Map<String, Object> writes = new HashMap<>();
+        public final Map<String, Number> increments = new HashMap<>();
+
+        public boolean isEmpty() {
+            return writes.isEmpty() && increments.isEmpty();
+        }
+    }
+
+    public static long ttlMillis(int days) {
+        return TimeUnit.DAYS.toMillis(days);
+    }
+
+    public static String itemPath(String vendorId, String notificationId) {
+        return NOTIFICATIONS_PATH + "/" + vendorId + "/" + notificationId;
+    }
+
+    public static String unreadCountPath(String vendorId) {
+        return META_PATH + "/" + vendorId + "/" + UNREAD_COUNT;
+    }
+
+    public static String counterSeededPath(String vendorId) {
+        return META_PATH + "/" + vendorId + "/" + COUNTER_SEEDED;
+    }
+
+    /**
+     * Notification ID for an event, so every device that reports it writes the same item.
+     */
+    public static String eventId(String type, String sourceId) {
+        return type + "_" + sourceId;
+    }
+
+    /**
+     * Adds an unread notification and counts it.
+     *
+     * @param fields title, message, type and any other display fields
+     */
+    public static Update create(String vendorId, String notificationId, Map<String, Object> fields,
+                                long now, long ttlMillis) {
+        Map<String, Object> item = new HashMap<>(fields);
+        item.put(CREATED_AT, now);
+        item.put(EXPIRES_AT, now + ttlMillis);
+        item.put(READ, false);
+
+        Update update = new Update();
+        update.writes.put(itemPath(vendorId, notificationId), item);
+        update.increments.put(unreadCountPath(vendorId), 1L);
+        return update;
+    }
+
+    /**
+     * Marks the given unread notifications read, e.g. every unread ID returned by the
+     * read == false query for mark-all-read.
+     */
+    public static Update markRead(String vendorId, Collection<String> unreadIds) {
+        Update update = new Update();
+        for (String notificationId : unreadIds) {
+            update.writes.put(itemPath(vendorId, notificationId) + "/" + READ, true);
+        }
+        if (!unreadIds.isEmpty()) {
+            update.increments.put(unreadCountPath(vendorId), -(long) unreadIds.size());
+        }
+        return update;
+    }
+
+    /**
+     * Deletes notifications; the counter drops by those that were still unread.
+     *
+     * @param notifications notification ID to its read flag
+     */
+    public static Update delete(String vendorId, Map<String, Boolean> notifications) {
+        Update update = new Update();
+        long unread = 0;
+        for (Map.Entry<String, Boolean> entry : notifications.entrySet()) {
+            update.writes.put(itemPath(vendorId, entry.getKey()), null);
+            if (!Boolean.TRUE.equals(entry.getValue())) {
+                unread++;
+            }
+        }
+        if (unread > 0) {
+            update.increments.put(unreadCountPath(vendorId), -unread);
+        }
+        return update;
+    }
+
+    /**
+     * Sets the counter to the unread items counted once, for inboxes that held items before
+     * the counter was kept.
+     */
+    public static Update seed(String vendorId, long unreadCount) {
+        Update update = new Update();
+        update.writes.put(unreadCountPath(vendorId), unreadCount);
+        update.writes.put(counterSeededPath(vendorId), true);
+        return update;
+    }
+
+    /**
+     * Fills in createdAt, expiresAt and read on items written before those fields existed, so
+     * they page, expire and count like new ones. An item without a read flag is unread and
+     * is counted as it gets one.
+     *
+     * @param items notification ID to the raw item map
+     */
+    public static Update fillMissingFields(String vendorId, Map<String, Map<String, Object>> items,
+                                           long now, long ttlMillis) {
+        Update update = new Update();
+        long unread = 0;
+        for (Map.Entry<String, Map<String, Object>> entry : items.entrySet()) {
+            Map<String, Object> item = entry.getValue();
+            String path = itemPath(vendorId, entry.getKey());
+            long createdAt = createdAt(item);
+            if (createdAt == 0) {
+                createdAt = now;
+            }
+            if (asLong(item.get(CREATED_AT)) == null) {
+                update.writes.put(path + "/" + CREATED_AT, createdAt);
+            }
+            if (asLong(item.get(EXPIRES_AT)) == null) {
+                update.writes.put(path + "/" + EXPIRES_AT, createdAt + ttlMillis);
+            }
+            if (!(item.get(READ) instanceof Boolean)) {
+                update.writes.put(path + "/" + READ, false);
+                unread++;
+            }
+        }
+        if (unread > 0) {
+            update.increments.put(unreadCountPath(vendorId), unread);
+        }
+        return update;
+    }
+
+    /**
+     * Empties the inbox and resets the counter in one write.
+     */
+    public static Update clear(String vendorId) {
+        Update update = new Update();
+        update.writes.put(NOTIFICATIONS_PATH + "/" + vendorId, null);
+        update.writes.put(unreadCountPath(vendorId), 0);
+        return update;
+    }
+
+    public static boolean isExpired(Map<String, Object> item, long now) {
+        Long expiresAt = asLong(item.get(EXPIRES_AT));
+        return expiresAt != null && expiresAt <= now;
+    }
+
+    /**
+     * Deletes the expired notifications among those scanned by expiresAt.
+     *
+     * @param scanned notification ID to the raw item map
+     */
+    public static Update purgeExpired(String vendorId, Map<String, Map<String, Object>> scanned, long now) {
+        Map<String, Boolean> expired = new HashMap<>();
+        for (Map.Entry<String, Map<String, Object>> entry : scanned.entrySet()) {
+            if (isExpired(entry.getValue(), now)) {
+                expired.put(entry.getKey(), Boolean.TRUE.equals(entry.getValue().get(READ)));
+            }
+        }
+        return delete(vendorId, expired);
+    }
+
+    /**
+     * Sort time of an item; notifications written before createdAt existed fall back to a
+     * numeric timestamp.
+     */
+    public static long createdAt(Map<String, Object> item) {
+        Long createdAt = asLong(item.get(CREATED_AT));
+        if (createdAt == null) {
+            createdAt = asLong(item.get("timestamp"));
+        }
+        return createdAt != null ? createdAt : 0;
+    }
+
+    /**
+     * Counter value for display; concurrent read flips from two devices can push the stored
+     * count below zero.
+     */
+    public static int displayCount(Long storedCount) {
+        return storedCount != null && storedCount > 0 ? (int) Math.min(storedCount, Integer.MAX_VALUE) : 0;
+    }
+
+    private static Long asLong(Object value) {
+        return value instanceof Number ? ((Number) value).longValue() : null;
+    }
+}
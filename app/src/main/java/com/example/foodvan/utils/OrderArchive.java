@@ -0,0 +1,157 @@
+package com.example.foodvan.utils;
+
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * OrderArchive - Cold tier for finished orders. Delivered, completed, cancelled and rejected
+ * orders that have not changed for longer than the horizon move from orders/ and
+ * vendor_orders/ to order_archive/{vendorId}/{yyyy-MM}/{orderId}, and their counts and
+ * revenue are added to vendor_stats/{vendorId}/archived/{yyyy-MM}. Each batch is one
+ * multi-path update, so an order is never in both tiers or in neither, and an order that
+ * has been moved is no longer found by the next scan.
+ */
+public final class OrderArchive {
+
+    public static final String ARCHIVE_PATH = "order_archive";
+    public static final String ARCHIVED_STATS = "archived";
+    public static final int DEFAULT_HORIZON_DAYS = 30;
+
+    // Orders without a vendor are archived under this key
+    static final String NO_VENDOR = "_none";
+
+    private static final Set<String> FINISHED_STATUSES = new HashSet<>(Arrays.asList(
+            "DELIVERED", "COMPLETED", "CANCELLED", "REJECTED"));
+
+    private OrderArchive() {
+    }
+
+    /**
+     * Everything one archive batch writes: the moves plus the summary increments.
+     */
+    public static final class Batch {
+        public final Map<String, Object> writes = new HashMap<>();
+        public final Map<String, Number> increments = new HashMap<>();
+        public final List<String> archivedOrderIds = new ArrayList<>();
+
+        public boolean isEmpty() {
+            return archivedOrderIds.isEmpty();
+        }
+    }
+
+    public static long horizonMillis(int days) {
+        return TimeUnit.DAYS.toMillis(days);
+    }
+
+    /**
+     * Month partition ("yyyy-MM", UTC) an order with this orderTime is archived under.
+     */
+    public static String partition(long orderTime) {
+        SimpleDateFormat format = new SimpleDateFormat("yyyy-MM", Locale.US);
+        format.setTimeZone(TimeZone.getTimeZone("UTC"));
+        return format.format(new Date(orderTime));
+    }
+
+    public static String archivePath(String vendorId, long orderTime, String orderId) {
+        return ARCHIVE_PATH + "/" + vendorKey(vendorId) + "/" + partition(orderTime) + "/" + orderId;
+    }
+
+    public static boolean isFinished(String status) {
+        return status != null && FINISHED_STATUSES.contains(status.toUpperCase(Locale.US));
+    }
+
+    /**
+     * Whether the archive can hold orders shown under this status filter.
+     */
+    public static boolean coversFilter(String statusFilter) {
+        return VendorOrderIndex.STATUS_ALL.equals(statusFilter) || isFinished(statusFilter);
+    }
+
+    /**
+     * Finished and untouched since before now - horizon. Orders written before lastUpdated
+     * existed fall back to their orderTime.
+     */
+    public static boolean isArchivable(Map<String, Object> order, long now, long horizonMillis) {
+        if (order == null || !isFinished(asString(order.get("status")))) {
+            return false;
+        }
+        Long lastChange = asLong(order.get("lastUpdated"));
+        if (lastChange == null) {
+            lastChange = asLong(order.get(VendorOrderIndex.ORDER_TIME));
+        }
+        return lastChange != null && lastChange < now - horizonMillis;
+    }
+
+    /**
+     * Builds the move for every archivable order among those scanned from a vendor's index.
+     *
+     * @param orders order ID to the raw order map, as read from vendor_orders/{vendorId}
+     */
+    public static Batch plan(String vendorId, Map<String, Map<String, Object>> orders, long now, long horizonMillis) {
+        Batch batch = new Batch();
+        for (Map.Entry<String, Map<String, Object>> entry : orders.entrySet()) {
+            Map<String, Object> order = entry.getValue();
+            if (!isArchivable(order, now, horizonMillis)) continue;
+
+            String orderId = entry.getKey();
+            Long time = asLong(order.get(VendorOrderIndex.ORDER_TIME));
+            long orderTime = time != null ? time : 0;
+
+            batch.writes.put(archivePath(vendorId, orderTime, orderId), order);
+            batch.writes.put(VendorOrderIndex.orderPath(orderId), null);
+            if (vendorId != null && !vendorId.isEmpty()) {
+                batch.writes.put(VendorOrderIndex.vendorOrderPath(vendorId, orderId), null);
+            }
+
+            String summary = OrderSubmission.VENDOR_STATS_PATH + "/" + vendorKey(vendorId) + "/"
+                    + ARCHIVED_STATS + "/" + partition(orderTime);
+            String status = asString(order.get("status")).toUpperCase(Locale.US);
+            boolean cancelled = "CANCELLED".equals(status) || "REJECTED".equals(status);
+            increment(batch.increments, summary + "/orders", 1L);
+            increment(batch.increments, summary + (cancelled ? "/cancelled" : "/completed"), 1L);
+            Double amount = asDouble(order.get("totalAmount"));
+            if (!cancelled && amount != null) {
+                increment(batch.increments, summary + "/revenue", amount);
+            }
+            batch.archivedOrderIds.add(orderId);
+        }
+        return batch;
+    }
+
+    private static void increment(Map<String, Number> increments, String path, Number delta) {
+        Number current = increments.get(path);
+        if (current == null) {
+            increments.put(path, delta);
+        } else if (delta instanceof Double || current instanceof Double) {
+            increments.put(path, current.doubleValue() + delta.doubleValue());
+        } else {
+            increments.put(path, current.longValue() + delta.longValue());
+        }
+    }
+
+    private static String vendorKey(String vendorId) {
+        return vendorId != null && !vendorId.isEmpty() ? vendorId : NO_VENDOR;
+    }
+
+    private static String asString(Object value) {
+        return value instanceof String ? (String) value : null;
+    }
+
+    private static Long asLong(Object value) {
+        return value instanceof Number ? ((Number) value).longValue() : null;
+    }
+
+    private static Double asDouble(Object value) {
+        return value instanceof Number ? ((Number) value).doubleValue() : null;
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.foodvan.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * OrderHistoryQuery - Turns the order history filter chips and search box into the
+ * arguments of the indexed local queries in OrderDao.
+ */
+public final class OrderHistoryQuery {
+
+    public static final String FILTER_ALL = "ALL";
+    public static final String FILTER_DELIVERED = "DELIVERED";
+    public static final String FILTER_ONGOING = "ONGOING";
+    public static final String FILTER_CANCELLED = "CANCELLED";
+
+    public static final List<String> ONGOING_STATUSES = Collections.unmodifiableList(
+            Arrays.asList("PLACED", "CONFIRMED", "ACCEPTED", "PREPARING", "READY"));
+
+    private static final List<String> DELIVERED_STATUSES = Collections.unmodifiableList(
+            Arrays.asList("DELIVERED", "COMPLETED"));
+    private static final List<String> CANCELLED_STATUSES = Collections.unmodifiableList(
+            Arrays.asList("CANCELLED", "REJECTED"));
+
+    private OrderHistoryQuery() {
+    }
+
+    /**
+     * Cached statuses (always upper case) matched by a filter, or null for no status filter.
+     */
+    public static List<String> statusesFor(String filter) {
+        if (filter == null) return null;
+        switch (filter) {
+            case FILTER_DELIVERED:
+                return DELIVERED_STATUSES;
+            case FILTER_ONGOING:
+                return ONGOING_STATUSES;
+            case FILTER_CANCELLED:
+                return CANCELLED_STATUSES;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Builds an FTS MATCH expression where every typed word must prefix-match some column,
+     * e.g. "Dosa  12" becomes "dosa* 12*". Returns null when there is nothing to search for.
+     * Punctuation is dropped so user input can never form FTS operators.
+     */
+    public static String toFtsMatch(String search) {
+        if (search == null) return null;
+        List<String> terms = new ArrayList<>();
+        StringBuilder term = new StringBuilder();
+        String lower = search.toLowerCase(Locale.ROOT);
+        for (int i = 0; i <= lower.length(); i++) {
+            char c = i < lower.length() ? lower.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                term.append(c);
+            } else if (term.length() > 0) {
+                terms.add(term + "*");
+                term.setLength(0);
+            }
+        }
+        return terms.isEmpty() ? null : String.join(" ", terms);
+    }
+}
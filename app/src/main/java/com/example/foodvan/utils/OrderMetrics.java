@@ -0,0 +1,93 @@
+package com.example.foodvan.utils;
+
+/**
+ * OrderMetrics - Accumulates the analytics screen's order counts and revenue in one pass over
+ * a vendor's orders. VendorAnalyticsViewModel feeds it from the order snapshot; the windows are
+ * passed in as epoch millis so the same rules run in tests and benchmarks.
+ */
+public class OrderMetrics {
+
+    private final long todayStart;
+    private final long weekStart;
+    private final long monthStart;
+
+    private int todayOrders;
+    private int weekOrders;
+    private int monthOrders;
+    private int completed;
+    private int pending;
+    private int cancelled;
+    private double totalRevenue;
+
+    public OrderMetrics(long todayStart, long weekStart, long monthStart) {
+        this.todayStart = todayStart;
+        this.weekStart = weekStart;
+        this.monthStart = monthStart;
+    }
+
+    /**
+     * Counts one order. Orders without a timestamp are ignored.
+     */
+    public void add(String status, Double amount, Long timestamp) {
+        if (timestamp == null || timestamp <= 0) {
+            return;
+        }
+        if (timestamp >= todayStart) todayOrders++;
+        if (timestamp >= weekStart) weekOrders++;
+        if (timestamp >= monthStart) monthOrders++;
+
+        if (amount != null) {
+            totalRevenue += amount;
+        }
+
+        if ("completed".equalsIgnoreCase(status)) {
+            completed++;
+        } else if ("pending".equalsIgnoreCase(status)) {
+            pending++;
+        } else if ("cancelled".equalsIgnoreCase(status)) {
+            cancelled++;
+        }
+    }
+
+    public int getTodayOrders() {
+        return todayOrders;
+    }
+
+    public int getWeekOrders() {
+        return weekOrders;
+    }
+
+    public int getMonthOrders() {
+        return monthOrders;
+    }
+
+    public int getCompleted() {
+        return completed;
+    }
+
+    public int getPending() {
+        return pending;
+    }
+
+    public int getCancelled() {
+        return cancelled;
+    }
+
+    public double getTotalRevenue() {
+        return totalRevenue;
+    }
+
+    /**
+     * Revenue per order over the week, or 0 when there were none.
+     */
+    public double getAverageOrderValue() {
+        return weekOrders > 0 ? totalRevenue / weekOrders : 0;
+    }
+
+    /**
+     * Completed orders as a whole-number percentage of the week's orders.
+     */
+    public int getCompletionRate() {
+        return weekOrders > 0 ? (completed * 100) / weekOrders : 0;
+    }
+}
@@ -0,0 +1,234 @@
+package com.example.foodvan.utils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * OrderOutbox - Platform-independent rules for flushing queued order status changes.
+ * Pending mutations for the same order collapse into one write, and each write is merged
+ * with the server copy last-writer-wins: the status only moves if the queued change is newer
+ * than the server's lastUpdated, and confirmedTime/readyTime/deliveredTime each keep the
+ * latest value. Replaying a flush is therefore harmless.
+ */
+public final class OrderOutbox {
+
+    public static final String BACKEND_REALTIME = "realtime";
+    public static final String BACKEND_FIRESTORE = "firestore";
+
+    // Orders per flush batch; well under the Firestore transaction limit
+    public static final int MAX_ORDERS_PER_FLUSH = 100;
+
+    public static final String FIELD_STATUS = "status";
+    public static final String FIELD_LAST_UPDATED = "lastUpdated";
+    public static final String FIELD_CANCELLATION_REASON = "cancellationReason";
+
+    private OrderOutbox() {
+    }
+
+    /**
+     * One queued status change, stamped with the device clock when the vendor made it.
+     */
+    public static final class Mutation {
+        public final long id;
+        public final String backend;
+        public final String orderId;
+        public final String vendorId;
+        public final String status;
+        public final long clientTime;
+        public final String reason;
+
+        public Mutation(long id, String backend, String orderId, String vendorId,
+                        String status, long clientTime, String reason) {
+            this.id = id;
+            this.backend = backend;
+            this.orderId = orderId;
+            this.vendorId = vendorId;
+            this.status = status;
+            this.clientTime = clientTime;
+            this.reason = reason;
+        }
+    }
+
+    /**
+     * Everything queued for one order, reduced to its latest status plus every transition timestamp.
+     */
+    public static final class PendingWrite {
+        public final String backend;
+        public final String orderId;
+        public final List<Long> mutationIds = new ArrayList<>();
+        public final Map<String, Long> timestamps = new HashMap<>();
+        public String vendorId;
+        public String status;
+        public long statusTime = Long.MIN_VALUE;
+        public String reason;
+
+        PendingWrite(String backend, String orderId) {
+            this.backend = backend;
+            this.orderId = orderId;
+        }
+    }
+
+    /**
+     * Field that records when an order reached the given status, or null if none does.
+     */
+    public static String timestampField(String status) {
+        if (status == null) return null;
+        switch (status.toUpperCase(Locale.US)) {
+            case "CONFIRMED":
+            case "ACCEPTED":
+                return "confirmedTime";
+            case "READY":
+                return "readyTime";
+            case "DELIVERED":
+            case "COMPLETED":
+                return "deliveredTime";
+            case "CANCELLED":
+                return "cancelledAt";
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Collapses mutations (in queue order) into one write per backend and order.
+     */
+    public static List<PendingWrite> coalesce(List<Mutation> mutations) {
+        Map<String, PendingWrite> writes = new LinkedHashMap<>();
+        for (Mutation mutation : mutations) {
+            String key = mutation.backend + "/" + mutation.orderId;
+            PendingWrite write = writes.get(key);
+            if (write == null) {
+                write = new PendingWrite(mutation.backend, mutation.orderId);
+                writes.put(key, write);
+            }
+            write.mutationIds.add(mutation.id);
+            if (mutation.vendorId != null) {
+                write.vendorId = mutation.vendorId;
+            }
+            // Queue order breaks ties, so a later tap wins within the same millisecond
+            if (mutation.clientTime >= write.statusTime) {
+                write.status = mutation.status;
+                write.statusTime = mutation.clientTime;
+                write.reason = mutation.reason;
+            }
+            String field = timestampField(mutation.status);
+            if (field != null) {
+                Long current = write.timestamps.get(field);
+                if (current == null || mutation.clientTime > current) {
+                    write.timestamps.put(field, mutation.clientTime);
+                }
+            }
+        }
+        return new ArrayList<>(writes.values());
+    }
+
+    /**
+     * Splits writes into flush batches that each target a single backend.
+     */
+    public static List<List<PendingWrite>> batches(List<PendingWrite> writes) {
+        Map<String, List<List<PendingWrite>>> byBackend = new LinkedHashMap<>();
+        for (PendingWrite write : writes) {
+            List<List<PendingWrite>> backendBatches = byBackend.get(write.backend);
+            if (backendBatches == null) {
+                backendBatches = new ArrayList<>();
+                byBackend.put(write.backend, backendBatches);
+            }
+            List<PendingWrite> last = backendBatches.isEmpty() ? null : backendBatches.get(backendBatches.size() - 1);
+            if (last == null || last.size() >= MAX_ORDERS_PER_FLUSH) {
+                last = new ArrayList<>();
+                backendBatches.add(last);
+            }
+            last.add(write);
+        }
+        List<List<PendingWrite>> batches = new ArrayList<>();
+        for (List<List<PendingWrite>> backendBatches : byBackend.values()) {
+            batches.addAll(backendBatches);
+        }
+        return batches;
+    }
+
+    /**
+     * Fields to write for this order given the server's current copy. Empty when the server
+     * already has everything (or the order no longer exists, since a partial order must not
+     * be recreated).
+     *
+     * @param server the order as stored on the server, or null if it does not exist
+     */
+    public static Map<String, Object> resolve(PendingWrite write, Map<String, Object> server) {
+        Map<String, Object> fields = new HashMap<>();
+        if (server == null) {
+            return fields;
+        }
+
+        if (write.status != null && write.statusTime > serverStatusTime(server)) {
+            fields.put(FIELD_STATUS, write.status);
+            fields.put(FIELD_LAST_UPDATED, write.statusTime);
+            if (write.reason != null) {
+                fields.put(FIELD_CANCELLATION_REASON, write.reason);
+            }
+        }
+        for (Map.Entry<String, Long> timestamp : write.timestamps.entrySet()) {
+            Long serverValue = asLong(server.get(timestamp.getKey()));
+            if (serverValue == null || timestamp.getValue() > serverValue) {
+                fields.put(timestamp.getKey(), timestamp.getValue());
+            }
+        }
+        return fields;
+    }
+
+    /**
+     * The fields this write is responsible for, as the server now holds them. Written to the
+     * order's other copy after the write commits on one, so a replay that finds nothing left
+     * to change still brings that copy in line.
+     *
+     * @param committed the copy the write committed to
+     */
+    public static Map<String, Object> mirroredFields(PendingWrite write, Map<String, Object> committed) {
+        Map<String, Object> fields = new HashMap<>();
+        if (committed == null) {
+            return fields;
+        }
+        List<String> keys = new ArrayList<>(write.timestamps.keySet());
+        if (write.status != null) {
+            keys.add(FIELD_STATUS);
+            keys.add(VendorOrderIndex.STATUS_KEY);
+            keys.add(FIELD_LAST_UPDATED);
+            if (write.reason != null) {
+                keys.add(FIELD_CANCELLATION_REASON);
+            }
+        }
+        for (String key : keys) {
+            if (committed.containsKey(key)) {
+                fields.put(key, committed.get(key));
+            }
+        }
+        return fields;
+    }
+
+    /**
+     * When the server's status was last set: lastUpdated if present, otherwise the latest
+     * transition timestamp (orders written before lastUpdated existed).
+     */
+    static long serverStatusTime(Map<String, Object> server) {
+        Long lastUpdated = asLong(server.get(FIELD_LAST_UPDATED));
+        if (lastUpdated != null) {
+            return lastUpdated;
+        }
+        long latest = Long.MIN_VALUE;
+        for (String field : new String[]{"orderTime", "confirmedTime", "readyTime", "deliveredTime", "cancelledAt"}) {
+            Long value = asLong(server.get(field));
+            if (value != null && value > latest) {
+                latest = value;
+            }
+        }
+        return latest;
+    }
+
+    private static Long asLong(Object value) {
+        return value instanceof Number ? ((Number) value).longValue() : null;
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.foodvan.utils;
+
+import com.example.foodvan.models.Order;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * OrderPageCursor - Where the remote order history paging of one history stands. Orders are
+ * ordered by (orderTime, orderId); the newest cursor is where the next "new orders" fetch
+ * starts after, the oldest is where the next older page starts after.
+ */
+public final class OrderPageCursor {
+
+    public long newestOrderTime;
+    public String newestOrderId;
+    public long oldestOrderTime;
+    public String oldestOrderId;
+    public boolean reachedEnd;
+
+    public boolean isEmpty() {
+        return newestOrderId == null;
+    }
+
+    /**
+     * Records a page of new orders. Before the first page the fetch reads the newest orders,
+     * newest first, and that page sets both cursors; afterwards it reads forward from the
+     * newest cursor, oldest first.
+     *
+     * @return whether a full page came back, so newer orders may still be waiting
+     */
+    public boolean onNewerPage(List<Order> page, int pageSize) {
+        boolean firstSync = isEmpty();
+        if (!page.isEmpty()) {
+            Order newest = firstSync ? page.get(0) : page.get(page.size() - 1);
+            newestOrderTime = newest.getOrderTime();
+            newestOrderId = newest.getOrderId();
+            if (firstSync) {
+                Order oldest = page.get(page.size() - 1);
+                oldestOrderTime = oldest.getOrderTime();
+                oldestOrderId = oldest.getOrderId();
+                reachedEnd = page.size() < pageSize;
+            }
+        }
+        return !firstSync && page.size() == pageSize;
+    }
+
+    /**
+     * Records a page of older orders, newest first.
+     */
+    public void onOlderPage(List<Order> page, int pageSize) {
+        if (!page.isEmpty()) {
+            Order oldest = page.get(page.size() - 1);
+            oldestOrderTime = oldest.getOrderTime();
+            oldestOrderId = oldest.getOrderId();
+        }
+        reachedEnd = page.size() < pageSize;
+    }
+
+    /**
+     * Splits ids into groups no larger than a whereIn query accepts.
+     */
+    public static <T> List<List<T>> chunk(List<T> values, int maxPerChunk) {
+        List<List<T>> chunks = new ArrayList<>();
+        for (int i = 0; i < values.size(); i += maxPerChunk) {
+            chunks.add(new ArrayList<>(values.subList(i, Math.min(values.size(), i + maxPerChunk))));
+        }
+        return chunks;
+    }
+}
@@ -0,0 +1,219 @@
+package com.example.foodvan.utils;
+
+import com.example.foodvan.models.Order;
+
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TimeZone;
+
+/**
+ * OrderSubmission - Places an order with one multi-path write: the order, its vendor index
+ * entry, its customer index entry and the vendor/customer rollup increments land together
+ * or not at all. The order ID is a push ID generated on the device, and the customer index
+ * entry can only be created once, so a retried placement either lands in full or is
+ * rejected as a duplicate — never counted twice.
+ */
+public final class OrderSubmission {
+
+    public static final String CUSTOMER_ORDERS_PATH = "customer_orders";
+    public static final String VENDOR_STATS_PATH = "vendor_stats";
+    public static final String CUSTOMER_STATS_PATH = "customer_stats";
+    public static final String LAST_ORDER_ID = "lastOrderId";
+    public static final int MAX_ATTEMPTS = 3;
+
+    /**
+     * Backing database. Implementations send each call as a single round trip.
+     */
+    public interface Store {
+        void update(Map<String, Object> writes, Map<String, Number> increments, WriteCallback callback);
+        void exists(String path, ExistsCallback callback);
+    }
+
+    public interface WriteCallback {
+        void onSuccess();
+        void onFailure(String error);
+    }
+
+    public interface ExistsCallback {
+        void onResult(boolean exists);
+        void onFailure(String error);
+    }
+
+    public interface OnSubmitListener {
+        void onSuccess();
+        void onFailure(String error);
+    }
+
+    /**
+     * Everything one placement writes: plain values plus server-side increments.
+     */
+    public static final class Plan {
+        public final Map<String, Object> writes = new HashMap<>();
+        public final Map<String, Number> increments = new HashMap<>();
+    }
+
+    private final Store store;
+
+    public OrderSubmission(Store store) {
+        this.store = store;
+    }
+
+    public static String customerOrderPath(String customerId, String orderId) {
+        return CUSTOMER_ORDERS_PATH + "/" + customerId + "/" + orderId;
+    }
+
+    /**
+     * Day bucket ("yyyy-MM-dd", UTC) used by the daily rollups, so the customer placing an
+     * order and the vendor reading the rollup agree whatever their time zones.
+     */
+    public static String dayKey(long time) {
+        SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd", Locale.US);
+        format.setTimeZone(TimeZone.getTimeZone("UTC"));
+        return format.format(new Date(time));
+    }
+
+    public static Plan plan(Order order, String day) {
+        Plan plan = new Plan();
+        plan.writes.putAll(VendorOrderIndex.newOrderUpdates(order));
+
+        plan.writes.put(customerOrderPath(order.getCustomerId(), order.getOrderId()),
+                summary(order.getOrderTime(), order.getVendorId(), order.getVanName(), order.getTotalAmount()));
+
+        String customerStats = CUSTOMER_STATS_PATH + "/" + order.getCustomerId();
+        plan.increments.put(customerStats + "/totalOrders", 1);
+        plan.increments.put(customerStats + "/totalSpent", order.getTotalAmount());
+        plan.writes.put(customerStats + "/lastOrderAt", order.getOrderTime());
+
+        if (order.getVendorId() != null && !order.getVendorId().isEmpty()) {
+            String vendorStats = VENDOR_STATS_PATH + "/" + order.getVendorId();
+            // The rules only accept these increments next to a new order, matching its total
+            plan.writes.put(vendorStats + "/" + LAST_ORDER_ID, order.getOrderId());
+            plan.increments.put(vendorStats + "/totalOrders", 1);
+            plan.increments.put(vendorStats + "/totalRevenue", order.getTotalAmount());
+            plan.increments.put(vendorStats + "/daily/" + day + "/orders", 1);
+            plan.increments.put(vendorStats + "/daily/" + day + "/revenue", order.getTotalAmount());
+        }
+        return plan;
+    }
+
+    // Only fields that never change after placement, so the entry cannot go stale
+    private static Map<String, Object> summary(long orderTime, Object vendorId, Object vanName, double totalAmount) {
+        Map<String, Object> summary = new HashMap<>();
+        summary.put(VendorOrderIndex.ORDER_TIME, orderTime);
+        summary.put("vendorId", vendorId);
+        summary.put("vanName", vanName);
+        summary.put("totalAmount", totalAmount);
+        return summary;
+    }
+
+    /**
+     * Plans that add a customer's orders placed before customer_orders existed to the index,
+     * at most maxPerPlan each, with their counts and totals added to customer_stats in the
+     * same write. Entries are write-once, so a replayed plan is rejected and never counted twice.
+     *
+     * @param orders      the customer's orders/{orderId} values by order ID
+     * @param indexed     order IDs already under customer_orders/{customerId}
+     * @param lastOrderAt customer_stats lastOrderAt as read, 0 if missing
+     */
+    public static List<Plan> backfillPlans(String customerId, Map<String, Map<String, Object>> orders,
+                                           Set<String> indexed, long lastOrderAt, int maxPerPlan) {
+        List<Plan> plans = new ArrayList<>();
+        String customerStats = CUSTOMER_STATS_PATH + "/" + customerId;
+        Plan plan = null;
+        int count = 0;
+        double spent = 0;
+        long latest = lastOrderAt;
+        for (Map.Entry<String, Map<String, Object>> entry : orders.entrySet()) {
+            if (indexed.contains(entry.getKey())) {
+                continue;
+            }
+            Map<String, Object> order = entry.getValue();
+            long orderTime = asNumber(order.get(VendorOrderIndex.ORDER_TIME)).longValue();
+            double totalAmount = asNumber(order.get("totalAmount")).doubleValue();
+            if (plan == null) {
+                plan = new Plan();
+            }
+            plan.writes.put(customerOrderPath(customerId, entry.getKey()),
+                    summary(orderTime, order.get("vendorId"), order.get("vanName"), totalAmount));
+            count++;
+            spent += totalAmount;
+            latest = Math.max(latest, orderTime);
+            if (count == maxPerPlan) {
+                plans.add(closeBackfillPlan(plan, customerStats, count, spent, latest, lastOrderAt));
+                plan = null;
+                count = 0;
+                spent = 0;
+            }
+        }
+        if (plan != null) {
+            plans.add(closeBackfillPlan(plan, customerStats, count, spent, latest, lastOrderAt));
+        }
+        return plans;
+    }
+
+    private static Plan closeBackfillPlan(Plan plan, String customerStats, int count, double spent,
+                                          long latest, long lastOrderAt) {
+        plan.increments.put(customerStats + "/totalOrders", count);
+        plan.increments.put(customerStats + "/totalSpent", spent);
+        if (latest > lastOrderAt) {
+            plan.writes.put(customerStats + "/lastOrderAt", latest);
+        }
+        return plan;
+    }
+
+    private static Number asNumber(Object value) {
+        return value instanceof Number ? (Number) value : 0;
+    }
+
+    public void submit(Order order, OnSubmitListener listener) {
+        submit(order, dayKey(order.getOrderTime()), listener);
+    }
+
+    public void submit(Order order, String day, OnSubmitListener listener) {
+        attempt(order, plan(order, day), 1, listener);
+    }
+
+    private void attempt(Order order, Plan plan, int attempt, OnSubmitListener listener) {
+        store.update(plan.writes, plan.increments, new WriteCallback() {
+            @Override
+            public void onSuccess() {
+                listener.onSuccess();
+            }
+
+            @Override
+            public void onFailure(String error) {
+                // A write can fail after it was applied (lost acknowledgement), so check
+                // whether an earlier attempt already placed the order before trying again
+                store.exists(customerOrderPath(order.getCustomerId(), order.getOrderId()), new ExistsCallback() {
+                    @Override
+                    public void onResult(boolean exists) {
+                        if (exists) {
+                            listener.onSuccess();
+                        } else {
+                            retryOrFail(error);
+                        }
+                    }
+
+                    @Override
+                    public void onFailure(String checkError) {
+                        retryOrFail(error);
+                    }
+                });
+            }
+
+            private void retryOrFail(String error) {
+                if (attempt < MAX_ATTEMPTS) {
+                    attempt(order, plan, attempt + 1, listener);
+                } else {
+                    listener.onFailure(error);
+                }
+            }
+        });
+    }
+}
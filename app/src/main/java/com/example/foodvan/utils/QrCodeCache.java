@@ -0,0 +1,158 @@
+package com.example.foodvan.utils;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.Color;
+import android.util.Log;
+import android.util.LruCache;
+
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.EncodeHintType;
+import com.google.zxing.WriterException;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.qrcode.QRCodeWriter;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * QrCodeCache - Renders UPI payment QR codes and keeps them in a memory and disk cache
+ * keyed by UPI ID, so Firestore only needs to store the payment URL. A vendor has one UPI ID
+ * at a time, so the disk keeps only the latest code; writing a new one deletes the rest.
+ */
+public class QrCodeCache {
+
+    private static final String TAG = "QrCodeCache";
+    private static final String CACHE_DIR = "qr_codes";
+    private static final int MEMORY_CACHE_ENTRIES = 8;
+    private static final int QUIET_ZONE_MODULES = 2;
+
+    private static QrCodeCache instance;
+
+    private final File cacheDir;
+    private final LruCache<String, Bitmap> memoryCache;
+
+    private QrCodeCache(Context context) {
+        this.cacheDir = new File(context.getCacheDir(), CACHE_DIR);
+        this.memoryCache = new LruCache<>(MEMORY_CACHE_ENTRIES);
+    }
+
+    public static synchronized QrCodeCache getInstance(Context context) {
+        if (instance == null) {
+            instance = new QrCodeCache(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    /**
+     * Returns the QR code from memory only, or null. Safe to call on the main thread.
+     */
+    public Bitmap getFromMemory(String upiId, String paymentUrl) {
+        return memoryCache.get(cacheKey(upiId, paymentUrl));
+    }
+
+    /**
+     * Returns the QR code for the given payment URL, checking memory, then disk, then
+     * rendering it. Performs disk I/O, so call it off the main thread.
+     */
+    public Bitmap get(String upiId, String paymentUrl, int size) throws WriterException {
+        String key = cacheKey(upiId, paymentUrl);
+        Bitmap bitmap = memoryCache.get(key);
+        if (bitmap != null) {
+            return bitmap;
+        }
+
+        File file = new File(cacheDir, key + ".png");
+        if (file.exists()) {
+            bitmap = BitmapFactory.decodeFile(file.getAbsolutePath());
+        }
+
+        if (bitmap == null) {
+            bitmap = render(paymentUrl, size);
+            writeToDisk(file, bitmap);
+            deleteAllExcept(file);
+        }
+
+        memoryCache.put(key, bitmap);
+        return bitmap;
+    }
+
+    /**
+     * Encodes at module resolution (one pixel per module), fills the pixels from a single
+     * int[] buffer and scales up by a whole factor without filtering so modules stay sharp.
+     */
+    static Bitmap render(String contents, int size) throws WriterException {
+        Map<EncodeHintType, Object> hints = new EnumMap<>(EncodeHintType.class);
+        hints.put(EncodeHintType.MARGIN, QUIET_ZONE_MODULES);
+        BitMatrix matrix = new QRCodeWriter().encode(contents, BarcodeFormat.QR_CODE, 0, 0, hints);
+
+        int width = matrix.getWidth();
+        int height = matrix.getHeight();
+        int[] pixels = new int[width * height];
+        for (int y = 0; y < height; y++) {
+            int offset = y * width;
+            for (int x = 0; x < width; x++) {
+                pixels[offset + x] = matrix.get(x, y) ? Color.BLACK : Color.WHITE;
+            }
+        }
+
+        Bitmap modules = Bitmap.createBitmap(width, height, Bitmap.Config.RGB_565);
+        modules.setPixels(pixels, 0, width, 0, 0, width, height);
+
+        int scale = Math.max(1, size / width);
+        if (scale == 1) {
+            return modules;
+        }
+        Bitmap scaled = Bitmap.createScaledBitmap(modules, width * scale, height * scale, false);
+        modules.recycle();
+        return scaled;
+    }
+
+    private void writeToDisk(File file, Bitmap bitmap) {
+        if (!cacheDir.exists() && !cacheDir.mkdirs()) {
+            Log.w(TAG, "Could not create QR cache directory");
+            return;
+        }
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            bitmap.compress(Bitmap.CompressFormat.PNG, 100, out);
+        } catch (IOException e) {
+            Log.w(TAG, "Error writing QR code to disk cache", e);
+        }
+    }
+
+    private void deleteAllExcept(File keep) {
+        File[] files = cacheDir.listFiles();
+        if (files == null) {
+            return;
+        }
+        for (File file : files) {
+            if (!file.equals(keep) && !file.delete()) {
+                Log.w(TAG, "Could not delete cached QR code " + file.getName());
+            }
+        }
+    }
+
+    /**
+     * The payment URL is part of the key so a change to the URL format never serves a stale image.
+     */
+    private static String cacheKey(String upiId, String paymentUrl) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            byte[] hash = digest.digest((upiId + "|" + paymentUrl).getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(hash.length * 2);
+            for (byte b : hash) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            return Integer.toHexString((upiId + "|" + paymentUrl).hashCode());
+        }
+    }
+}
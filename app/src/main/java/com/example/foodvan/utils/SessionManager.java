@@ -1,12 +1,11 @@
 package com.example.foodvan.utils;
 
 import android.content.Context;
-import android.content.SharedPreferences;
 
 import com.example.foodvan.models.User;
 
 /**
- * SessionManager - Handles user session management using SharedPreferences
+ * SessionManager - Handles user session management using a local KeyValueStore
  */
 public class SessionManager {
     private static final String PREF_NAME = "FoodVanSession";
@@ -21,13 +20,13 @@ public class SessionManager {
     private static final String KEY_COUNTRY_CODE = "countryCode";
     private static final String KEY_PHONE_LAST_UPDATED = "phoneLastUpdated";
     
-    private SharedPreferences pref;
-    private SharedPreferences.Editor editor;
+    private KeyValueStore pref;
+    private KeyValueStore.Editor editor;
     private Context context;
 
     public SessionManager(Context context) {
         this.context = context;
-        pref = context.getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
+        pref = KeyValueStores.get(context, PREF_NAME);
         editor = pref.edit();
     }
 
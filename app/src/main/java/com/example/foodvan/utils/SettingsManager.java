@@ -1,7 +1,6 @@
 package com.example.foodvan.utils;
 
 import android.content.Context;
-import android.content.SharedPreferences;
 import android.util.Log;
 
 import com.example.foodvan.models.CustomerSettings;
@@ -14,7 +13,7 @@ import java.util.Map;
 
 /**
  * SettingsManager - Handles customer settings persistence
- * Uses local SharedPreferences for fast access and Firebase for cloud sync
+ * Uses a local KeyValueStore for fast access and Firebase for cloud sync
  */
 public class SettingsManager {
     private static final String PREF_NAME = "CustomerSettings";
@@ -37,8 +36,8 @@ public class SettingsManager {
     private static final String KEY_ORDER_SUGGESTIONS = "order_suggestions";
     private static final String KEY_LAST_UPDATED = "last_updated";
     
-    private SharedPreferences pref;
-    private SharedPreferences.Editor editor;
+    private KeyValueStore pref;
+    private KeyValueStore.Editor editor;
     private Context context;
     private FirebaseAuth firebaseAuth;
     private DatabaseReference firebaseDb;
@@ -46,7 +45,7 @@ public class SettingsManager {
 
     public SettingsManager(Context context) {
         this.context = context;
-        this.pref = context.getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
+        this.pref = KeyValueStores.get(context, PREF_NAME);
         this.editor = pref.edit();
         this.firebaseAuth = FirebaseAuth.getInstance();
         this.firebaseDb = FirebaseDatabase.getInstance().getReference();
@@ -117,7 +116,7 @@ public class SettingsManager {
     public void saveSettings(CustomerSettings settings) {
         if (settings == null) return;
         
-        // Save to local SharedPreferences
+        // Save to the local store
         editor.putBoolean(KEY_NOTIFICATIONS_ENABLED, settings.isNotificationsEnabled());
         editor.putBoolean(KEY_ORDER_UPDATES, settings.isOrderUpdatesEnabled());
         editor.putBoolean(KEY_PROMOTIONS, settings.isPromotionsEnabled());
@@ -0,0 +1,28 @@
+package com.example.foodvan.utils;
+
+import java.util.Map;
+
+/**
+ * SnapshotMapper - Converts a model to and from the map form Firebase stores it in. The
+ * implementations are generated by SnapshotMapperProcessor for {@code @SnapshotModel} classes;
+ * look them up through {@link SnapshotMappers}.
+ */
+public interface SnapshotMapper<T> {
+
+    Class<T> type();
+
+    T fromMap(Map<String, Object> map);
+
+    Map<String, Object> toMap(T value);
+
+    /**
+     * Converts a raw snapshot value, which must be a map or null.
+     */
+    default T fromValue(Object value) {
+        return value == null ? null : fromMap(SnapshotValues.asMap(value));
+    }
+
+    default Object toValue(T value) {
+        return value == null ? null : toMap(value);
+    }
+}
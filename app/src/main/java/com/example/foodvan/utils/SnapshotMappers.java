@@ -0,0 +1,86 @@
+package com.example.foodvan.utils;
+
+import android.util.Log;
+
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.firestore.DocumentSnapshot;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * SnapshotMappers - Drop-in replacement for {@code DataSnapshot.getValue(X.class)} and
+ * {@code DocumentSnapshot.toObject(X.class)}. Classes marked {@code @SnapshotModel} go through
+ * their generated mapper, which avoids the reflective bean mapping that dominates the cost of
+ * a large orders snapshot. Any other class, or a value the generated mapper can't convert (a
+ * Firestore Timestamp in a Date field, say), falls back to Firebase's own mapping.
+ */
+public final class SnapshotMappers {
+
+    private static final String TAG = "SnapshotMappers";
+    private static final Map<Class<?>, SnapshotMapper<?>> MAPPERS = new HashMap<>();
+    private static final Set<Class<?>> loggedFallbacks = ConcurrentHashMap.newKeySet();
+
+    static {
+        GeneratedSnapshotMappers.registerAll(MAPPERS);
+    }
+
+    private SnapshotMappers() {
+    }
+
+    /**
+     * The generated mapper for type, or null if it isn't a {@code @SnapshotModel}.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> SnapshotMapper<T> mapperFor(Class<T> type) {
+        return (SnapshotMapper<T>) MAPPERS.get(type);
+    }
+
+    public static <T> T get(DataSnapshot snapshot, Class<T> type) {
+        SnapshotMapper<T> mapper = mapperFor(type);
+        if (mapper != null) {
+            try {
+                return mapper.fromValue(snapshot.getValue());
+            } catch (IllegalArgumentException e) {
+                fellBack(type, e);
+            }
+        }
+        return snapshot.getValue(type);
+    }
+
+    public static <T> T get(DocumentSnapshot document, Class<T> type) {
+        SnapshotMapper<T> mapper = mapperFor(type);
+        if (mapper != null) {
+            try {
+                Map<String, Object> data = document.getData();
+                return data == null ? null : mapper.fromMap(data);
+            } catch (IllegalArgumentException e) {
+                fellBack(type, e);
+            }
+        }
+        return document.toObject(type);
+    }
+
+    /**
+     * What to pass to setValue() or set() for a model: its map if it has a generated mapper,
+     * otherwise the object itself for Firebase to serialize.
+     */
+    @SuppressWarnings("unchecked")
+    public static Object toValue(Object model) {
+        if (model == null) {
+            return null;
+        }
+        SnapshotMapper<Object> mapper = (SnapshotMapper<Object>) MAPPERS.get(model.getClass());
+        return mapper != null ? mapper.toValue(model) : model;
+    }
+
+    private static void fellBack(Class<?> type, IllegalArgumentException e) {
+        MetricsRegistry.getInstance().increment("mapper.fallback." + type.getSimpleName());
+        // Once per type; a whole snapshot of the same shape would otherwise flood the log
+        if (loggedFallbacks.add(type)) {
+            Log.w(TAG, "Generated mapper for " + type.getSimpleName() + " failed, using reflection", e);
+        }
+    }
+}
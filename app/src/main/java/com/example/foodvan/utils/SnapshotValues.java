@@ -0,0 +1,161 @@
+package com.example.foodvan.utils;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * SnapshotValues - Conversions used by the generated snapshot mappers. Snapshot values arrive
+ * as String, Boolean, Long, Double, List or Map; these apply the same widening and range rules
+ * as Firebase's reflective mapper and throw IllegalArgumentException where it would throw.
+ */
+public final class SnapshotValues {
+
+    private SnapshotValues() {
+    }
+
+    public static String asString(Object value) {
+        if (value == null || value instanceof String) {
+            return (String) value;
+        }
+        throw mismatch("String", value);
+    }
+
+    public static boolean asBoolean(Object value) {
+        if (value instanceof Boolean) {
+            return (Boolean) value;
+        }
+        throw mismatch("boolean", value);
+    }
+
+    public static int asInt(Object value) {
+        if (value instanceof Integer) {
+            return (Integer) value;
+        }
+        if (value instanceof Long || value instanceof Double) {
+            double number = ((Number) value).doubleValue();
+            if (number >= Integer.MIN_VALUE && number <= Integer.MAX_VALUE) {
+                return ((Number) value).intValue();
+            }
+            throw new IllegalArgumentException("Numeric value out of 32-bit integer range: " + value);
+        }
+        throw mismatch("int", value);
+    }
+
+    public static long asLong(Object value) {
+        if (value instanceof Integer || value instanceof Long) {
+            return ((Number) value).longValue();
+        }
+        if (value instanceof Double) {
+            double number = (Double) value;
+            if (number >= Long.MIN_VALUE && number <= Long.MAX_VALUE) {
+                return (long) number;
+            }
+            throw new IllegalArgumentException("Numeric value out of 64-bit long range: " + value);
+        }
+        throw mismatch("long", value);
+    }
+
+    public static double asDouble(Object value) {
+        if (value instanceof Number) {
+            return ((Number) value).doubleValue();
+        }
+        throw mismatch("double", value);
+    }
+
+    public static float asFloat(Object value) {
+        return (float) asDouble(value);
+    }
+
+    public static Date asDate(Object value) {
+        if (value == null || value instanceof Date) {
+            return (Date) value;
+        }
+        if (value instanceof Long || value instanceof Integer) {
+            return new Date(((Number) value).longValue());
+        }
+        // e.g. a Firestore Timestamp; SnapshotMappers falls back to reflection for those
+        throw mismatch("Date", value);
+    }
+
+    public static <E extends Enum<E>> E asEnum(Object value, Class<E> type) {
+        if (value == null) {
+            return null;
+        }
+        String name = asString(value);
+        try {
+            return Enum.valueOf(type, name);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Could not find enum value of " + type.getName() + " for " + name);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public static Map<String, Object> asMap(Object value) {
+        if (value == null || value instanceof Map) {
+            return (Map<String, Object>) value;
+        }
+        throw mismatch("Map", value);
+    }
+
+    public static <T> List<T> asList(Object value, Function<Object, T> element) {
+        if (value == null) {
+            return null;
+        }
+        if (!(value instanceof List)) {
+            throw mismatch("List", value);
+        }
+        List<?> raw = (List<?>) value;
+        List<T> list = new ArrayList<>(raw.size());
+        for (int i = 0; i < raw.size(); i++) {
+            list.add(element.apply(raw.get(i)));
+        }
+        return list;
+    }
+
+    public static <T> Map<String, T> asStringMap(Object value, Function<Object, T> element) {
+        Map<String, Object> raw = asMap(value);
+        if (raw == null) {
+            return null;
+        }
+        Map<String, T> map = new HashMap<>(raw.size() * 4 / 3 + 1);
+        for (Map.Entry<String, Object> entry : raw.entrySet()) {
+            map.put(entry.getKey(), element.apply(entry.getValue()));
+        }
+        return map;
+    }
+
+    public static String enumName(Enum<?> value) {
+        return value == null ? null : value.name();
+    }
+
+    public static <T> List<Object> toList(List<T> values, Function<T, Object> element) {
+        if (values == null) {
+            return null;
+        }
+        List<Object> list = new ArrayList<>(values.size());
+        for (int i = 0; i < values.size(); i++) {
+            list.add(element.apply(values.get(i)));
+        }
+        return list;
+    }
+
+    public static <T> Map<String, Object> toStringMap(Map<String, T> values, Function<T, Object> element) {
+        if (values == null) {
+            return null;
+        }
+        Map<String, Object> map = new HashMap<>(values.size() * 4 / 3 + 1);
+        for (Map.Entry<String, T> entry : values.entrySet()) {
+            map.put(entry.getKey(), element.apply(entry.getValue()));
+        }
+        return map;
+    }
+
+    private static IllegalArgumentException mismatch(String expected, Object value) {
+        String actual = value == null ? "null" : value.getClass().getName();
+        return new IllegalArgumentException("Failed to convert a value of type " + actual + " to " + expected);
+    }
+}
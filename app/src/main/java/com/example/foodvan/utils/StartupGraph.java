@@ -0,0 +1,301 @@
+package com.example.foodvan.utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * StartupGraph - Cold-start work as a graph of named tasks. A task is submitted to the
+ * executor as soon as every task it depends on has finished, so independent work runs in
+ * parallel. Tasks marked critical gate the first screen: the listener hears about the
+ * critical path as soon as those tasks (and what they depend on) are done, while the rest
+ * keeps running. A task that fails or is skipped skips its dependents, so startup never
+ * waits on work that cannot run. Every task is timed for the startup trace report.
+ */
+public class StartupGraph {
+
+    public enum Status { PENDING, RUNNING, DONE, FAILED, SKIPPED }
+
+    public interface Task {
+        void run() throws Exception;
+    }
+
+    public interface Listener {
+        /**
+         * Every critical task has finished, successfully or not.
+         */
+        void onCriticalPathComplete(Report report);
+
+        void onComplete(Report report);
+    }
+
+    private static final class Node {
+        final String name;
+        final Task task;
+        final boolean critical;
+        final List<String> dependencies;
+        final List<Node> dependents = new ArrayList<>();
+        int remainingDependencies;
+        Status status = Status.PENDING;
+        String thread;
+        long startNanos;
+        long endNanos;
+        Throwable error;
+
+        Node(String name, Task task, boolean critical, List<String> dependencies) {
+            this.name = name;
+            this.task = task;
+            this.critical = critical;
+            this.dependencies = dependencies;
+        }
+    }
+
+    private final Map<String, Node> nodes = new LinkedHashMap<>();
+    private Executor executor;
+    private Listener listener;
+    private long startNanos;
+    private int unfinished;
+    private int unfinishedCritical;
+    private boolean started;
+
+    public StartupGraph add(String name, Task task, String... dependsOn) {
+        return add(name, false, task, dependsOn);
+    }
+
+    public StartupGraph addCritical(String name, Task task, String... dependsOn) {
+        return add(name, true, task, dependsOn);
+    }
+
+    private synchronized StartupGraph add(String name, boolean critical, Task task, String... dependsOn) {
+        if (started) {
+            throw new IllegalStateException("Graph already started");
+        }
+        if (nodes.containsKey(name)) {
+            throw new IllegalArgumentException("Duplicate startup task: " + name);
+        }
+        List<String> dependencies = new ArrayList<>();
+        Collections.addAll(dependencies, dependsOn);
+        nodes.put(name, new Node(name, task, critical, dependencies));
+        return this;
+    }
+
+    /**
+     * Validates the graph and submits every task with no dependencies.
+     *
+     * @throws IllegalArgumentException if a dependency is unknown or the graph has a cycle
+     */
+    public void start(Executor executor, Listener listener) {
+        List<Node> ready = new ArrayList<>();
+        synchronized (this) {
+            if (started) {
+                throw new IllegalStateException("Graph already started");
+            }
+            link();
+            this.executor = executor;
+            this.listener = listener;
+            started = true;
+            startNanos = System.nanoTime();
+            unfinished = nodes.size();
+            for (Node node : nodes.values()) {
+                if (node.critical) {
+                    unfinishedCritical++;
+                }
+                if (node.remainingDependencies == 0) {
+                    ready.add(node);
+                }
+            }
+        }
+        if (unfinishedCritical == 0) {
+            listener.onCriticalPathComplete(report());
+        }
+        if (nodes.isEmpty()) {
+            listener.onComplete(report());
+        }
+        for (Node node : ready) {
+            submit(node);
+        }
+    }
+
+    public synchronized Status statusOf(String name) {
+        Node node = nodes.get(name);
+        return node != null ? node.status : null;
+    }
+
+    /**
+     * Timings of every task so far, in the order they were added.
+     */
+    public synchronized Report report() {
+        List<TaskTiming> timings = new ArrayList<>(nodes.size());
+        long end = startNanos;
+        for (Node node : nodes.values()) {
+            long start = node.startNanos != 0 ? node.startNanos - startNanos : -1;
+            long duration = node.endNanos != 0 ? node.endNanos - node.startNanos : -1;
+            timings.add(new TaskTiming(node.name, node.critical, node.status, node.thread,
+                    start, duration, node.error));
+            end = Math.max(end, node.endNanos);
+        }
+        return new Report(timings, end - startNanos);
+    }
+
+    private void link() {
+        for (Node node : nodes.values()) {
+            for (String dependency : node.dependencies) {
+                Node parent = nodes.get(dependency);
+                if (parent == null) {
+                    throw new IllegalArgumentException(node.name + " depends on unknown task " + dependency);
+                }
+                parent.dependents.add(node);
+            }
+            node.remainingDependencies = node.dependencies.size();
+        }
+
+        // Kahn's algorithm over a copy of the counts; anything left over is on a cycle
+        Map<Node, Integer> remaining = new HashMap<>();
+        List<Node> queue = new ArrayList<>();
+        for (Node node : nodes.values()) {
+            remaining.put(node, node.remainingDependencies);
+            if (node.remainingDependencies == 0) {
+                queue.add(node);
+            }
+        }
+        int visited = 0;
+        while (!queue.isEmpty()) {
+            Node node = queue.remove(queue.size() - 1);
+            visited++;
+            for (Node dependent : node.dependents) {
+                if (remaining.merge(dependent, -1, Integer::sum) == 0) {
+                    queue.add(dependent);
+                }
+            }
+        }
+        if (visited != nodes.size()) {
+            throw new IllegalArgumentException("Startup tasks have a dependency cycle");
+        }
+    }
+
+    private void submit(Node node) {
+        executor.execute(() -> run(node));
+    }
+
+    private void run(Node node) {
+        synchronized (this) {
+            node.status = Status.RUNNING;
+            node.thread = Thread.currentThread().getName();
+            node.startNanos = System.nanoTime();
+        }
+        Throwable error = null;
+        try {
+            node.task.run();
+        } catch (Throwable t) {
+            error = t;
+        }
+        finish(node, error == null ? Status.DONE : Status.FAILED, error);
+    }
+
+    private void finish(Node node, Status status, Throwable error) {
+        List<Node> ready = new ArrayList<>();
+        List<Node> skipped = new ArrayList<>();
+        boolean criticalPathComplete;
+        boolean complete;
+        synchronized (this) {
+            node.status = status;
+            node.error = error;
+            node.endNanos = System.nanoTime();
+            if (node.startNanos == 0) {
+                node.startNanos = node.endNanos;
+            }
+            for (Node dependent : node.dependents) {
+                if (status != Status.DONE) {
+                    if (dependent.status == Status.PENDING) {
+                        // Mark now so a second failed parent does not skip it twice
+                        dependent.status = Status.SKIPPED;
+                        skipped.add(dependent);
+                    }
+                } else if (--dependent.remainingDependencies == 0 && dependent.status == Status.PENDING) {
+                    ready.add(dependent);
+                }
+            }
+            unfinished--;
+            criticalPathComplete = node.critical && --unfinishedCritical == 0;
+            complete = unfinished == 0;
+        }
+
+        if (criticalPathComplete) {
+            listener.onCriticalPathComplete(report());
+        }
+        for (Node dependent : skipped) {
+            finish(dependent, Status.SKIPPED, null);
+        }
+        for (Node dependent : ready) {
+            submit(dependent);
+        }
+        if (complete) {
+            listener.onComplete(report());
+        }
+    }
+
+    public static final class TaskTiming {
+        public final String name;
+        public final boolean critical;
+        public final Status status;
+        public final String thread;
+        // Nanoseconds from graph start, or -1 if the task never started
+        public final long startOffsetNanos;
+        public final long durationNanos;
+        public final Throwable error;
+
+        TaskTiming(String name, boolean critical, Status status, String thread,
+                   long startOffsetNanos, long durationNanos, Throwable error) {
+            this.name = name;
+            this.critical = critical;
+            this.status = status;
+            this.thread = thread;
+            this.startOffsetNanos = startOffsetNanos;
+            this.durationNanos = durationNanos;
+            this.error = error;
+        }
+    }
+
+    public static final class Report {
+        public final List<TaskTiming> timings;
+        public final long elapsedNanos;
+
+        Report(List<TaskTiming> timings, long elapsedNanos) {
+            this.timings = Collections.unmodifiableList(timings);
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public TaskTiming timing(String name) {
+            for (TaskTiming timing : timings) {
+                if (timing.name.equals(name)) {
+                    return timing;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * One line per task: start offset, duration, status and thread.
+         */
+        public String format() {
+            StringBuilder out = new StringBuilder(String.format(Locale.US, "startup %.1f ms%n", millis(elapsedNanos)));
+            for (TaskTiming timing : timings) {
+                out.append(String.format(Locale.US, "  %-16s %s +%7.1f ms %7.1f ms  %-7s %s%n",
+                        timing.name, timing.critical ? "*" : " ",
+                        millis(timing.startOffsetNanos), millis(timing.durationNanos),
+                        timing.status, timing.thread != null ? timing.thread : ""));
+            }
+            return out.toString();
+        }
+
+        private static double millis(long nanos) {
+            return nanos < 0 ? 0 : nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+        }
+    }
+}
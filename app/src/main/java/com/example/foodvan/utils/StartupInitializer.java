@@ -0,0 +1,192 @@
+package com.example.foodvan.utils;
+
+import android.content.Context;
+import android.content.pm.ApplicationInfo;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import com.example.foodvan.models.User;
+import com.google.firebase.FirebaseApp;
+import com.google.firebase.auth.FirebaseAuth;
+import com.google.firebase.auth.FirebaseUser;
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.DatabaseError;
+import com.google.firebase.database.DatabaseReference;
+import com.google.firebase.database.FirebaseDatabase;
+import com.google.firebase.database.Query;
+import com.google.firebase.database.ValueEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * StartupInitializer - Runs cold-start work as a StartupGraph on background threads while the
+ * splash animates. Firebase, the session store, the cart and the saved filters load in
+ * parallel; the session check is the critical path and decides the first screen. Once the
+ * role is known, the first screen's data is fetched and held in the database cache briefly,
+ * so the dashboard or the nearby vans list opens from cache.
+ */
+public class StartupInitializer {
+
+    private static final String TAG = "StartupInitializer";
+
+    // How long prefetch listeners keep the first screen's data cached
+    private static final long PREFETCH_HOLD_MS = 30_000;
+
+    public enum Destination { LOGIN, VENDOR_DASHBOARD, CUSTOMER_HOME }
+
+    public interface OnReadyListener {
+        void onReady(Destination destination);
+    }
+
+    private static StartupInitializer instance;
+
+    private final Context context;
+    private final Handler mainHandler;
+    private final List<OnReadyListener> readyListeners = new ArrayList<>();
+
+    private boolean started;
+    private boolean ready;
+    private volatile Destination destination = Destination.LOGIN;
+    private volatile String userId;
+    private StartupGraph.Report report;
+
+    private StartupInitializer(Context context) {
+        this.context = context;
+        this.mainHandler = new Handler(Looper.getMainLooper());
+    }
+
+    public static synchronized StartupInitializer getInstance(Context context) {
+        if (instance == null) {
+            instance = new StartupInitializer(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    /**
+     * Starts the startup graph once per process.
+     */
+    public synchronized void start() {
+        if (started) {
+            return;
+        }
+        started = true;
+        // The periodic metrics dump is a debugging aid; release builds never write it
+        if ((context.getApplicationInfo().flags & ApplicationInfo.FLAG_DEBUGGABLE) != 0) {
+            MetricsDumper.getInstance(context).start();
+        }
+
+        StartupGraph graph = new StartupGraph()
+                .add("firebase", () -> {
+                    FirebaseApp.initializeApp(context);
+                    FirebaseAuth.getInstance();
+                    FirebaseDatabase.getInstance();
+                })
+                .add("session_store", () -> new SessionManager(context))
+                .addCritical("session", this::resolveSession, "firebase", "session_store")
+                .add("cart", () -> CartManager.getInstance(context))
+                .add("filters", () -> KeyValueStores.get(context, FilterManager.PREFS_NAME))
+                .add("favorites", () -> KeyValueStores.get(context, FavoritesManager.PREF_NAME))
+                .add("prefetch", this::prefetchFirstScreen, "session");
+
+        graph.start(AppExecutors.getInstance().io(), new StartupGraph.Listener() {
+            @Override
+            public void onCriticalPathComplete(StartupGraph.Report criticalReport) {
+                mainHandler.post(() -> dispatchReady());
+            }
+
+            @Override
+            public void onComplete(StartupGraph.Report fullReport) {
+                synchronized (StartupInitializer.this) {
+                    report = fullReport;
+                }
+                Log.i(TAG, fullReport.format());
+            }
+        });
+    }
+
+    /**
+     * Calls back on the main thread once the first screen is known, right away if it
+     * already is.
+     */
+    public void whenReady(@NonNull OnReadyListener listener) {
+        synchronized (this) {
+            if (!ready) {
+                readyListeners.add(listener);
+                return;
+            }
+        }
+        mainHandler.post(() -> listener.onReady(destination));
+    }
+
+    public synchronized void removeListener(OnReadyListener listener) {
+        readyListeners.remove(listener);
+    }
+
+    /**
+     * Timings of the last startup, or null while it is still running.
+     */
+    public synchronized StartupGraph.Report getReport() {
+        return report;
+    }
+
+    private void dispatchReady() {
+        List<OnReadyListener> listeners;
+        synchronized (this) {
+            ready = true;
+            listeners = new ArrayList<>(readyListeners);
+            readyListeners.clear();
+        }
+        for (OnReadyListener listener : listeners) {
+            listener.onReady(destination);
+        }
+    }
+
+    private void resolveSession() {
+        FirebaseUser firebaseUser = FirebaseAuth.getInstance().getCurrentUser();
+        SessionManager sessionManager = new SessionManager(context);
+        if (firebaseUser == null || !sessionManager.isLoggedIn()) {
+            destination = Destination.LOGIN;
+            return;
+        }
+        User user = sessionManager.getUserDetails();
+        userId = firebaseUser.getUid();
+        destination = "vendor".equals(user.getRole()) ? Destination.VENDOR_DASHBOARD : Destination.CUSTOMER_HOME;
+    }
+
+    private void prefetchFirstScreen() {
+        DatabaseReference root = FirebaseDatabase.getInstance().getReference();
+        switch (destination) {
+            case VENDOR_DASHBOARD:
+                hold(root.child("vendors").child(userId));
+                hold(root.child(VendorOrderIndex.VENDOR_ORDERS_PATH).child(userId));
+                break;
+            case CUSTOMER_HOME:
+                hold(root.child(FirebaseManager.FOOD_VANS_PATH));
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Listens to the query for a while so the screen's own listener is answered from cache.
+     */
+    private void hold(Query query) {
+        ValueEventListener listener = new ValueEventListener() {
+            @Override
+            public void onDataChange(@NonNull DataSnapshot snapshot) {
+            }
+
+            @Override
+            public void onCancelled(@NonNull DatabaseError error) {
+                Log.w(TAG, "Prefetch failed: " + error.getMessage());
+            }
+        };
+        ValueEventListener tracked = FirebaseMetrics.attach("startup.prefetch", query, listener);
+        mainHandler.postDelayed(() -> FirebaseMetrics.detach("startup.prefetch", query, tracked), PREFETCH_HOLD_MS);
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.foodvan.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * TaskScope - Work started on behalf of one owner, usually a ViewModel, that can be cancelled
+ * as a unit. cancel() drops the scope's queued background tasks and any main-thread callbacks
+ * not yet delivered, so nothing posts back to a screen after it is gone. Tasks already running
+ * finish, and can check isCancelled() to stop early.
+ */
+public class TaskScope {
+
+    /**
+     * Posts to the UI thread; AppExecutors backs it with a main-looper Handler.
+     */
+    public interface MainThread extends Executor {
+        void executeDelayed(Runnable runnable, long delayMillis);
+
+        void remove(Runnable runnable);
+    }
+
+    private final InstrumentedExecutor io;
+    private final InstrumentedExecutor cpu;
+    private final MainThread mainThread;
+
+    // Guarded by this
+    private final List<Runnable> pendingMain = new ArrayList<>();
+    private volatile boolean cancelled;
+
+    public TaskScope(InstrumentedExecutor io, InstrumentedExecutor cpu, MainThread mainThread) {
+        this.io = io;
+        this.cpu = cpu;
+        this.mainThread = mainThread;
+    }
+
+    public void io(Runnable runnable) {
+        io(InstrumentedExecutor.Priority.USER_VISIBLE, runnable);
+    }
+
+    public void io(InstrumentedExecutor.Priority priority, Runnable runnable) {
+        if (!cancelled) {
+            io.execute(priority, this, guard(runnable));
+        }
+    }
+
+    public void cpu(Runnable runnable) {
+        if (!cancelled) {
+            cpu.execute(InstrumentedExecutor.Priority.USER_VISIBLE, this, guard(runnable));
+        }
+    }
+
+    public void main(Runnable runnable) {
+        mainDelayed(runnable, 0);
+    }
+
+    public void mainDelayed(Runnable runnable, long delayMillis) {
+        if (cancelled) {
+            return;
+        }
+        Runnable[] self = new Runnable[1];
+        self[0] = () -> {
+            synchronized (this) {
+                if (!pendingMain.remove(self[0])) {
+                    return;
+                }
+            }
+            if (!cancelled) {
+                runnable.run();
+            }
+        };
+        synchronized (this) {
+            pendingMain.add(self[0]);
+        }
+        if (delayMillis > 0) {
+            mainThread.executeDelayed(self[0], delayMillis);
+        } else {
+            mainThread.execute(self[0]);
+        }
+    }
+
+    /**
+     * This scope's I/O lane as a plain Executor, for APIs such as Task listeners.
+     */
+    public Executor ioExecutor() {
+        return this::io;
+    }
+
+    public Executor mainExecutor() {
+        return this::main;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    public void cancel() {
+        List<Runnable> undelivered;
+        synchronized (this) {
+            if (cancelled) {
+                return;
+            }
+            cancelled = true;
+            undelivered = new ArrayList<>(pendingMain);
+            pendingMain.clear();
+        }
+        io.cancel(this);
+        cpu.cancel(this);
+        for (Runnable runnable : undelivered) {
+            mainThread.remove(runnable);
+        }
+    }
+
+    private Runnable guard(Runnable runnable) {
+        return () -> {
+            if (!cancelled) {
+                runnable.run();
+            }
+        };
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.foodvan.utils;
+
+/**
+ * ThumbnailUrlResolver - Picks the smallest uploaded image variant that still covers the view,
+ * so list rows download the thumbnail instead of the full-size photo.
+ */
+public final class ThumbnailUrlResolver {
+
+    private ThumbnailUrlResolver() {
+    }
+
+    /**
+     * @param fullUrl      full-size image URL
+     * @param thumbnailUrl thumbnail URL, may be null for images uploaded before thumbnails existed
+     * @param targetWidth  view width in pixels
+     * @param targetHeight view height in pixels
+     */
+    public static String resolve(String fullUrl, String thumbnailUrl, int targetWidth, int targetHeight) {
+        if (thumbnailUrl == null || thumbnailUrl.isEmpty()) {
+            return fullUrl;
+        }
+        if (fullUrl == null || fullUrl.isEmpty()) {
+            return thumbnailUrl;
+        }
+        ImageTransform.Spec thumbnail = ImageTransform.Spec.THUMBNAIL;
+        boolean fits = targetWidth <= thumbnail.maxWidth && targetHeight <= thumbnail.maxHeight;
+        return fits ? thumbnailUrl : fullUrl;
+    }
+}
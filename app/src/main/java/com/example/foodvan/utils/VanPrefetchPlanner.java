@@ -0,0 +1,136 @@
+package com.example.foodvan.utils;
+
+import com.example.foodvan.models.FoodVan;
+import com.example.foodvan.models.MenuItem;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * VanPrefetchPlanner - Decides which nearby vans to warm before the customer taps one, and how
+ * much of each fits in a byte budget. Vans are ranked by distance, rating and how often this
+ * customer has opened them. Each van costs an estimated menu download plus the thumbnails of
+ * its first screen of items, and planning stops once the budget is spent.
+ */
+public class VanPrefetchPlanner {
+
+    // Estimated transfer sizes; the real ones aren't known until the download is done
+    static final long MENU_BYTES = 16 * 1024;
+    static final long THUMBNAIL_BYTES = 20 * 1024;
+
+    // Distance carries most of the weight; a well rated van or a regular's favourite can
+    // still outrank one slightly closer
+    private static final double DISTANCE_WEIGHT = 0.5;
+    private static final double RATING_WEIGHT = 0.2;
+    private static final double HISTORY_WEIGHT = 0.3;
+    // Visits past this count no longer raise the score
+    private static final int MAX_COUNTED_VISITS = 20;
+
+    private final int maxVans;
+    private final int firstScreenItems;
+    private long remainingBytes;
+
+    /**
+     * @param maxVans          how many vans to warm at most
+     * @param firstScreenItems menu rows visible before scrolling, whose thumbnails are fetched
+     * @param budgetBytes      estimated bytes all prefetching may download
+     */
+    public VanPrefetchPlanner(int maxVans, int firstScreenItems, long budgetBytes) {
+        this.maxVans = maxVans;
+        this.firstScreenItems = firstScreenItems;
+        this.remainingBytes = budgetBytes;
+    }
+
+    /**
+     * Higher is likelier to be opened; between 0 and 1.
+     */
+    public static double score(FoodVan van, int visits) {
+        double distance = 1.0 / (1.0 + Math.max(0, van.getDistance()));
+        double rating = Math.max(0, Math.min(5, van.getRating())) / 5.0;
+        double history = Math.log1p(Math.min(Math.max(0, visits), MAX_COUNTED_VISITS))
+                / Math.log1p(MAX_COUNTED_VISITS);
+        return DISTANCE_WEIGHT * distance + RATING_WEIGHT * rating + HISTORY_WEIGHT * history;
+    }
+
+    /**
+     * The maxVans likeliest vans, best first; ties keep list order.
+     *
+     * @param visits menu opens per van ID; missing vans count as never opened
+     */
+    public List<FoodVan> rank(List<FoodVan> vans, Map<String, Integer> visits) {
+        if (vans == null || maxVans <= 0) {
+            return Collections.emptyList();
+        }
+        double[] scores = new double[vans.size()];
+        // Worst kept candidate at the head, so each van is compared against it once
+        PriorityQueue<Integer> best = new PriorityQueue<>(maxVans + 1, (a, b) -> {
+            int byScore = Double.compare(scores[a], scores[b]);
+            return byScore != 0 ? byScore : Integer.compare(b, a);
+        });
+        for (int i = 0; i < vans.size(); i++) {
+            FoodVan van = vans.get(i);
+            if (van == null || van.getVanId() == null) {
+                continue;
+            }
+            Integer count = visits != null ? visits.get(van.getVanId()) : null;
+            scores[i] = score(van, count != null ? count : 0);
+            best.add(i);
+            if (best.size() > maxVans) {
+                best.poll();
+            }
+        }
+        List<FoodVan> ranked = new ArrayList<>(best.size());
+        while (!best.isEmpty()) {
+            ranked.add(vans.get(best.poll()));
+        }
+        Collections.reverse(ranked);
+        return ranked;
+    }
+
+    /**
+     * Takes a menu's share of the budget; false means the van shouldn't be fetched.
+     */
+    public synchronized boolean reserveMenu() {
+        return reserve(MENU_BYTES);
+    }
+
+    /**
+     * Image URLs for the first screen of the menu, as the menu rows will request them at
+     * sizePx, for as many as the remaining budget covers.
+     */
+    public synchronized List<String> reserveThumbnails(List<MenuItem> menu, int sizePx) {
+        Set<String> urls = new LinkedHashSet<>();
+        if (menu == null) {
+            return new ArrayList<>(urls);
+        }
+        for (int i = 0; i < menu.size() && i < firstScreenItems; i++) {
+            MenuItem item = menu.get(i);
+            String url = ThumbnailUrlResolver.resolve(item.getImageUrl(), item.getThumbnailUrl(), sizePx, sizePx);
+            if (url == null || url.isEmpty() || urls.contains(url)) {
+                continue;
+            }
+            if (!reserve(THUMBNAIL_BYTES)) {
+                break;
+            }
+            urls.add(url);
+        }
+        return new ArrayList<>(urls);
+    }
+
+    public synchronized long getRemainingBytes() {
+        return remainingBytes;
+    }
+
+    private boolean reserve(long bytes) {
+        if (bytes > remainingBytes) {
+            return false;
+        }
+        remainingBytes -= bytes;
+        return true;
+    }
+}
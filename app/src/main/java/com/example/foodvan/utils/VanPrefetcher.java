@@ -0,0 +1,183 @@
+package com.example.foodvan.utils;
+
+import android.content.Context;
+import android.graphics.drawable.Drawable;
+import android.net.ConnectivityManager;
+import android.os.BatteryManager;
+import android.os.Looper;
+import android.os.MessageQueue;
+import android.os.PowerManager;
+import android.util.Log;
+
+import com.bumptech.glide.RequestManager;
+import com.bumptech.glide.request.target.Target;
+import com.example.foodvan.models.FoodVan;
+import com.example.foodvan.models.MenuItem;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * VanPrefetcher - Warms the menus and first-screen thumbnails of the vans the customer is
+ * likeliest to open next, once the home screen's main thread goes idle. VanPrefetchPlanner
+ * picks the vans and keeps the download within budget. Nothing is fetched on a metered network
+ * or low battery, and a pass is cancelled as soon as the customer scrolls or leaves.
+ *
+ * Call from the main thread.
+ */
+public class VanPrefetcher {
+
+    private static final String TAG = "VanPrefetcher";
+    private static final String VISITS_STORE = "van_visits";
+    private static final int MAX_VANS = 3;
+    private static final int FIRST_SCREEN_ITEMS = 6;
+    // Shared by every pass while the home screen is open
+    private static final long BUDGET_BYTES = 512 * 1024;
+    private static final int LOW_BATTERY_PERCENT = 20;
+
+    private final Context context;
+    private final RequestManager glide;
+    private final FirebaseManager firebaseManager;
+    private final int thumbnailSizePx;
+    private final VanPrefetchPlanner planner;
+    // Vans already warmed, so a later pass moves on to others
+    private final Set<String> warmed = new HashSet<>();
+    private final List<Target<Drawable>> pendingImages = new ArrayList<>();
+    private MessageQueue.IdleHandler idleHandler;
+    // Bumped by cancel(); callbacks from an older pass are ignored
+    private int generation;
+
+    /**
+     * @param thumbnailSizePx the size menu rows load images at, so prefetched ones are cache hits
+     */
+    public VanPrefetcher(Context context, RequestManager glide, FirebaseManager firebaseManager, int thumbnailSizePx) {
+        this.context = context.getApplicationContext();
+        this.glide = glide;
+        this.firebaseManager = firebaseManager;
+        this.thumbnailSizePx = thumbnailSizePx;
+        this.planner = new VanPrefetchPlanner(MAX_VANS, FIRST_SCREEN_ITEMS, BUDGET_BYTES);
+    }
+
+    /**
+     * Counts a menu open, which raises the van's rank in later prefetches.
+     */
+    public static void recordVisit(Context context, String vanId) {
+        if (vanId == null) {
+            return;
+        }
+        KeyValueStore store = KeyValueStores.get(context, VISITS_STORE);
+        store.edit().putInt(vanId, store.getInt(vanId, 0) + 1).apply();
+    }
+
+    /**
+     * Replaces any pending pass with one over these vans, run when the main thread is next idle.
+     */
+    public void schedule(List<FoodVan> vans) {
+        cancel();
+        List<FoodVan> candidates = new ArrayList<>(vans);
+        int scheduled = generation;
+        idleHandler = () -> {
+            idleHandler = null;
+            if (scheduled == generation) {
+                run(candidates, scheduled);
+            }
+            return false;
+        };
+        Looper.myQueue().addIdleHandler(idleHandler);
+    }
+
+    /**
+     * Stops the pending pass. Menus already requested still land in the catalog, but their
+     * thumbnails are not fetched, and image downloads in progress are dropped.
+     */
+    public void cancel() {
+        generation++;
+        if (idleHandler != null) {
+            Looper.myQueue().removeIdleHandler(idleHandler);
+            idleHandler = null;
+        }
+        for (Target<Drawable> target : pendingImages) {
+            glide.clear(target);
+        }
+        pendingImages.clear();
+    }
+
+    private void run(List<FoodVan> vans, int pass) {
+        MetricsRegistry metrics = MetricsRegistry.getInstance();
+        if (!shouldPrefetch()) {
+            metrics.increment("prefetch.skipped");
+            return;
+        }
+        List<FoodVan> candidates = new ArrayList<>();
+        for (FoodVan van : vans) {
+            if (van != null && !warmed.contains(van.getVanId())) {
+                candidates.add(van);
+            }
+        }
+
+        MenuCatalog catalog = MenuCatalog.getInstance(context);
+        for (FoodVan van : planner.rank(candidates, visitCounts())) {
+            if (!planner.reserveMenu()) {
+                metrics.increment("prefetch.over_budget");
+                break;
+            }
+            warmed.add(van.getVanId());
+            metrics.increment("prefetch.menus");
+            catalog.get(MenuCatalog.Source.REALTIME_MENU, van.getVanId(), firebaseManager::fetchMenuItems,
+                    new MenuCatalog.OnCatalogListener() {
+                        private boolean handled;
+
+                        @Override
+                        public void onSuccess(List<MenuItem> items) {
+                            // A refreshed menu after the cached one doesn't need its images again
+                            if (!handled && pass == generation) {
+                                handled = true;
+                                prefetchThumbnails(items);
+                            }
+                        }
+
+                        @Override
+                        public void onError(String error) {
+                            Log.d(TAG, "Menu prefetch failed for " + van.getVanId() + ": " + error);
+                        }
+                    });
+        }
+    }
+
+    private void prefetchThumbnails(List<MenuItem> items) {
+        for (String url : planner.reserveThumbnails(items, thumbnailSizePx)) {
+            pendingImages.add(ImageLoader.request(glide, url, thumbnailSizePx, thumbnailSizePx)
+                    .preload(thumbnailSizePx, thumbnailSizePx));
+            MetricsRegistry.getInstance().increment("prefetch.thumbnails");
+        }
+    }
+
+    private boolean shouldPrefetch() {
+        ConnectivityManager connectivity = context.getSystemService(ConnectivityManager.class);
+        if (connectivity == null || connectivity.getActiveNetwork() == null
+                || connectivity.isActiveNetworkMetered()) {
+            return false;
+        }
+        PowerManager power = context.getSystemService(PowerManager.class);
+        if (power != null && power.isPowerSaveMode()) {
+            return false;
+        }
+        BatteryManager battery = context.getSystemService(BatteryManager.class);
+        return battery == null || battery.isCharging()
+                || battery.getIntProperty(BatteryManager.BATTERY_PROPERTY_CAPACITY) >= LOW_BATTERY_PERCENT;
+    }
+
+    private Map<String, Integer> visitCounts() {
+        Map<String, Integer> counts = new HashMap<>();
+        for (Map.Entry<String, Object> entry : KeyValueStores.get(context, VISITS_STORE).getAll().entrySet()) {
+            if (entry.getValue() instanceof Integer) {
+                counts.put(entry.getKey(), (Integer) entry.getValue());
+            }
+        }
+        return counts;
+    }
+}
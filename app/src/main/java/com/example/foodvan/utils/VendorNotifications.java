@@ -0,0 +1,53 @@
+package com.example.foodvan.utils;
+
+import android.util.Log;
+
+import com.example.foodvan.models.Notification;
+import com.example.foodvan.models.Order;
+import com.google.firebase.database.DatabaseReference;
+import com.google.firebase.database.FirebaseDatabase;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * VendorNotifications - The one place vendor notifications are written. Items always go
+ * through NotificationStore.create, so each carries its timestamps and is counted in the
+ * unread badge. Runs on the vendor's device, the only client the rules let write the inbox.
+ */
+public final class VendorNotifications {
+
+    private static final String TAG = "VendorNotifications";
+
+    private VendorNotifications() {
+    }
+
+    /**
+     * Adds a notification unless one with this ID exists, e.g. from another of the vendor's
+     * devices; the rules reject a second create, so it is never counted twice.
+     */
+    public static void publish(String vendorId, String notificationId, Map<String, Object> fields) {
+        DatabaseReference root = FirebaseDatabase.getInstance().getReference();
+        FirebaseMetrics.track("notifications.exists", root.child(NotificationStore.itemPath(vendorId, notificationId)).get())
+                .addOnSuccessListener(snapshot -> {
+                    if (snapshot.exists()) return;
+                    NotificationStore.Update update = NotificationStore.create(vendorId, notificationId, fields,
+                            System.currentTimeMillis(), NotificationStore.ttlMillis(NotificationStore.DEFAULT_TTL_DAYS));
+                    FirebaseMetrics.track("notifications.create",
+                            root.updateChildren(FirebaseManager.withIncrements(update.writes, update.increments)))
+                            .addOnFailureListener(e -> Log.w(TAG, "Notification not created: " + e.getMessage()));
+                })
+                .addOnFailureListener(e -> Log.w(TAG, "Notification check failed: " + e.getMessage()));
+    }
+
+    public static void newOrder(String vendorId, Order order) {
+        Map<String, Object> fields = new HashMap<>();
+        fields.put("title", "New Order Received");
+        fields.put("message", String.format(Locale.US, "Order #%s has been placed%s.", order.getOrderId(),
+                order.getCustomerName() != null ? " by " + order.getCustomerName() : ""));
+        fields.put("type", Notification.TYPE_ORDER);
+        fields.put("orderId", order.getOrderId());
+        publish(vendorId, NotificationStore.eventId(Notification.TYPE_ORDER, order.getOrderId()), fields);
+    }
+}
@@ -0,0 +1,192 @@
+package com.example.foodvan.utils;
+
+import com.example.foodvan.models.Order;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * VendorOrderIndex - Fan-out copy of each order under vendor_orders/{vendorId}/{orderId}, so a
+ * vendor only ever downloads its own orders. Every entry carries a composite statusKey
+ * ("{STATUS}_{zero-padded orderTime}") so one status can be queried newest-first with a single
+ * orderByChild range. All writes are multi-path updates applied at the database root, keeping
+ * orders/{orderId} and the index entry in step.
+ */
+public final class VendorOrderIndex {
+
+    public static final String ORDERS_PATH = "orders";
+    public static final String VENDOR_ORDERS_PATH = "vendor_orders";
+    public static final String ORDER_TIME = "orderTime";
+    public static final String STATUS_KEY = "statusKey";
+    public static final String STATUS_ALL = "All";
+    public static final int PAGE_SIZE = 20;
+
+    private static final String RANGE_END = "\uf8ff";
+
+    private VendorOrderIndex() {
+    }
+
+    public static String statusKey(String status, long orderTime) {
+        return Order.statusKey(status, orderTime);
+    }
+
+    public static String orderPath(String orderId) {
+        return ORDERS_PATH + "/" + orderId;
+    }
+
+    public static String vendorOrderPath(String vendorId, String orderId) {
+        return VENDOR_ORDERS_PATH + "/" + vendorId + "/" + orderId;
+    }
+
+    /**
+     * Root-level update that writes a new order and its index entry together.
+     */
+    public static Map<String, Object> newOrderUpdates(Order order) {
+        Map<String, Object> updates = new HashMap<>();
+        updates.put(orderPath(order.getOrderId()), order);
+        if (hasVendor(order.getVendorId())) {
+            updates.put(vendorOrderPath(order.getVendorId(), order.getOrderId()), order);
+        }
+        return updates;
+    }
+
+    /**
+     * Root-level update that sets the given fields on the order and on its index entry.
+     */
+    public static Map<String, Object> fieldUpdates(String vendorId, String orderId, Map<String, Object> fields) {
+        Map<String, Object> updates = new HashMap<>();
+        for (Map.Entry<String, Object> field : fields.entrySet()) {
+            updates.put(orderPath(orderId) + "/" + field.getKey(), field.getValue());
+            if (hasVendor(vendorId)) {
+                updates.put(vendorOrderPath(vendorId, orderId) + "/" + field.getKey(), field.getValue());
+            }
+        }
+        return updates;
+    }
+
+    /**
+     * Status change with the usual lastUpdated and per-status timestamps.
+     */
+    public static Map<String, Object> statusUpdates(Order order, String newStatus, long now) {
+        Map<String, Object> fields = new HashMap<>();
+        fields.put("lastUpdated", now);
+        switch (newStatus) {
+            case "CONFIRMED":
+                fields.put("confirmedTime", now);
+                break;
+            case "READY":
+                fields.put("readyTime", now);
+                break;
+            case "DELIVERED":
+                fields.put("deliveredTime", now);
+                break;
+        }
+        return statusUpdates(order, newStatus, fields);
+    }
+
+    /**
+     * Status change with caller-supplied extra fields. The composite key moves with the status.
+     */
+    public static Map<String, Object> statusUpdates(Order order, String newStatus, Map<String, Object> extraFields) {
+        Map<String, Object> fields = new HashMap<>(extraFields);
+        fields.put("status", newStatus);
+        fields.put(STATUS_KEY, statusKey(newStatus, order.getOrderTime()));
+        return fieldUpdates(order.getVendorId(), order.getOrderId(), fields);
+    }
+
+    /**
+     * Root-level updates that add the vendor's orders missing from the index, at most
+     * maxPerUpdate entries each, for orders placed before the index existed.
+     *
+     * @param orders  the vendor's orders/{orderId} values by order ID
+     * @param indexed order IDs already under vendor_orders/{vendorId}
+     */
+    public static List<Map<String, Object>> backfillUpdates(String vendorId, Map<String, Map<String, Object>> orders,
+                                                            Set<String> indexed, int maxPerUpdate) {
+        List<Map<String, Object>> updates = new ArrayList<>();
+        Map<String, Object> current = new HashMap<>();
+        for (Map.Entry<String, Map<String, Object>> order : orders.entrySet()) {
+            if (indexed.contains(order.getKey())) {
+                continue;
+            }
+            Map<String, Object> entry = new HashMap<>(order.getValue());
+            Object status = entry.get("status");
+            Object orderTime = entry.get(ORDER_TIME);
+            entry.put(STATUS_KEY, statusKey(status != null ? status.toString() : null,
+                    orderTime instanceof Number ? ((Number) orderTime).longValue() : 0));
+            current.put(vendorOrderPath(vendorId, order.getKey()), entry);
+            if (current.size() == maxPerUpdate) {
+                updates.add(current);
+                current = new HashMap<>();
+            }
+        }
+        if (!current.isEmpty()) {
+            updates.add(current);
+        }
+        return updates;
+    }
+
+    private static boolean hasVendor(String vendorId) {
+        return vendorId != null && !vendorId.isEmpty();
+    }
+
+    /**
+     * One page of a vendor's orders, newest last (as returned by limitToLast). endAt and
+     * endAtKey are inclusive, so pages after the first ask for one extra row and drop the cursor.
+     */
+    public static final class PageQuery {
+        public final String orderBy;
+        public final String startAt;
+        public final Object endAt;
+        public final String endAtKey;
+        public final int limit;
+
+        PageQuery(String orderBy, String startAt, Object endAt, String endAtKey, int limit) {
+            this.orderBy = orderBy;
+            this.startAt = startAt;
+            this.endAt = endAt;
+            this.endAtKey = endAtKey;
+            this.limit = limit;
+        }
+
+        public boolean isFirstPage() {
+            return endAtKey == null;
+        }
+    }
+
+    public static PageQuery firstPage(String status, int pageSize) {
+        if (STATUS_ALL.equals(status)) {
+            return new PageQuery(ORDER_TIME, null, null, null, pageSize);
+        }
+        return new PageQuery(STATUS_KEY, status + "_", status + "_" + RANGE_END, null, pageSize);
+    }
+
+    /**
+     * @param oldest the oldest order already shown
+     */
+    public static PageQuery nextPage(String status, Order oldest, int pageSize) {
+        if (STATUS_ALL.equals(status)) {
+            return new PageQuery(ORDER_TIME, null, (double) oldest.getOrderTime(), oldest.getOrderId(), pageSize + 1);
+        }
+        return new PageQuery(STATUS_KEY, status + "_", statusKey(status, oldest.getOrderTime()),
+                oldest.getOrderId(), pageSize + 1);
+    }
+
+    /**
+     * Turns a page in query order into display order (newest first), dropping the cursor row.
+     */
+    public static List<Order> newestFirst(PageQuery query, List<Order> ascending) {
+        List<Order> page = new ArrayList<>(ascending.size());
+        for (Order order : ascending) {
+            if (query.endAtKey == null || !query.endAtKey.equals(order.getOrderId())) {
+                page.add(order);
+            }
+        }
+        Collections.reverse(page);
+        return page;
+    }
+}
@@ -0,0 +1,390 @@
+package com.example.foodvan.utils;
+
+import com.example.foodvan.models.SortBy;
+import com.example.foodvan.models.SortOrder;
+import com.example.foodvan.models.User;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * VendorRanker - Orders the home screen's van list a page at a time. Each vendor's features
+ * (distance, rating, orders, age) are kept between applies and rebuilt only when the vendor's
+ * fields or the user's position change. The cache holds the most recently used vendors up to a
+ * cap, so a narrower filter doesn't throw away the rest. A Ranking selects each page with a
+ * bounded heap, so the first screenful of n vans costs O(n log k) instead of a full sort. The
+ * orders match VendorSorter; RECOMMENDED blends the features with tunable weights.
+ *
+ * Not thread-safe; FilterManager calls it from the main thread.
+ */
+public class VendorRanker {
+
+    // Orders past this count all score the same, so a few huge vans don't flatten the rest
+    private static final int ORDER_CAP = 1_000;
+    // A van this many days old scores half the freshness of a new one
+    private static final double FRESHNESS_HALF_LIFE_DAYS = 30;
+    private static final double MS_PER_DAY = TimeUnit.DAYS.toMillis(1);
+    // Well above a city's vans; vendors gone offline or out of range age out past it
+    private static final int MAX_CACHED_VENDORS = 2_000;
+
+    /**
+     * How much each feature counts toward the RECOMMENDED score. Every feature is scaled to
+     * 0..1 first, so the weights compare directly.
+     */
+    public static final class Weights {
+        public static final Weights DEFAULT = new Weights(0.4, 0.3, 0.2, 0.1);
+
+        public final double distance;
+        public final double rating;
+        public final double orders;
+        public final double freshness;
+
+        public Weights(double distance, double rating, double orders, double freshness) {
+            this.distance = distance;
+            this.rating = rating;
+            this.orders = orders;
+            this.freshness = freshness;
+        }
+    }
+
+    private final Map<String, Features> features;
+    private Weights weights = Weights.DEFAULT;
+    private boolean hasOrigin;
+    private double originLatitude;
+    private double originLongitude;
+    // Bumped when the origin moves; a cached distance from an older epoch is recomputed
+    private int originEpoch;
+
+    public VendorRanker() {
+        this(MAX_CACHED_VENDORS);
+    }
+
+    VendorRanker(int maxCachedVendors) {
+        // Access order, so the vendor evicted is the one least recently ranked or filtered
+        features = new LinkedHashMap<String, Features>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Features> eldest) {
+                return size() > maxCachedVendors;
+            }
+        };
+    }
+
+    public void setWeights(Weights weights) {
+        this.weights = weights;
+    }
+
+    public void setOrigin(double latitude, double longitude) {
+        if (hasOrigin && latitude == originLatitude && longitude == originLongitude) {
+            return;
+        }
+        hasOrigin = true;
+        originLatitude = latitude;
+        originLongitude = longitude;
+        originEpoch++;
+    }
+
+    public void clearOrigin() {
+        if (hasOrigin) {
+            hasOrigin = false;
+            originEpoch++;
+        }
+    }
+
+    /**
+     * Drops a vendor's cached features, e.g. after its profile was edited on this device.
+     * Changes read from Firebase are noticed without this.
+     */
+    public void invalidate(String vendorId) {
+        features.remove(vendorId);
+    }
+
+    public void clear() {
+        features.clear();
+    }
+
+    /**
+     * Distance from the origin to the vendor's van in kilometers, or -1 without an origin.
+     * Cached, so filtering by distance before ranking costs nothing extra.
+     */
+    public float distanceKm(User vendor) {
+        return hasOrigin ? distance(featuresOf(vendor)) : -1;
+    }
+
+    private float distance(Features f) {
+        if (f.distanceEpoch != originEpoch) {
+            f.distanceKm = (float) DishSearchIndex.distanceKm(originLatitude, originLongitude,
+                    f.latitude, f.longitude);
+            f.distanceEpoch = originEpoch;
+        }
+        return f.distanceKm;
+    }
+
+    public Ranking rank(List<User> vendors, SortBy sortBy, SortOrder sortOrder) {
+        return rank(vendors, sortBy, sortOrder, System.currentTimeMillis());
+    }
+
+    public Ranking rank(List<User> vendors, SortBy sortBy, SortOrder sortOrder, long now) {
+        int n = vendors.size();
+        boolean descending = sortOrder == SortOrder.DESCENDING;
+        double[] keys = null;
+        String[] names = null;
+        boolean reversed = false;
+
+        switch (sortBy) {
+            case NAME:
+            case PRICE:
+                // Price needs menu data the vendor list doesn't carry; falls back to name
+                names = new String[n];
+                for (int i = 0; i < n; i++) {
+                    names[i] = featuresOf(vendors.get(i)).name;
+                }
+                reversed = descending;
+                break;
+
+            case DISTANCE:
+                keys = new double[n];
+                if (hasOrigin) {
+                    for (int i = 0; i < n; i++) {
+                        keys[i] = distanceKm(vendors.get(i));
+                    }
+                    reversed = descending;
+                }
+                // Without an origin every key is 0 and the list keeps its order
+                break;
+
+            default:
+                // Best first whatever the order, as VendorSorter does for these
+                keys = new double[n];
+                for (int i = 0; i < n; i++) {
+                    keys[i] = -key(featuresOf(vendors.get(i)), sortBy, now);
+                }
+                break;
+        }
+        return new Ranking(vendors, keys, names, reversed);
+    }
+
+    int cachedVendorCount() {
+        return features.size();
+    }
+
+    /**
+     * Composite RECOMMENDED score of a vendor, higher first.
+     */
+    public double score(User vendor, long now) {
+        return score(featuresOf(vendor), now);
+    }
+
+    private double score(Features f, long now) {
+        double distance = hasOrigin ? 1.0 / (1.0 + distance(f)) : 0;
+        double freshness = 0;
+        if (f.createdAt > 0) {
+            double ageDays = Math.max(0, now - f.createdAt) / MS_PER_DAY;
+            freshness = 1.0 / (1.0 + ageDays / FRESHNESS_HALF_LIFE_DAYS);
+        }
+        return weights.distance * distance
+                + weights.rating * f.ratingScore
+                + weights.orders * f.ordersScore
+                + weights.freshness * freshness;
+    }
+
+    private double key(Features f, SortBy sortBy, long now) {
+        switch (sortBy) {
+            case RATING:
+                return f.rating;
+            case POPULARITY:
+                return f.totalOrders;
+            case NEWEST:
+                return f.createdAt;
+            default:
+                return score(f, now);
+        }
+    }
+
+    private Features featuresOf(User vendor) {
+        String id = vendor.getUserId();
+        Features f = id != null ? features.get(id) : null;
+        if (f == null || !f.describes(vendor)) {
+            f = new Features(vendor);
+            if (id != null) {
+                features.put(id, f);
+            }
+        }
+        return f;
+    }
+
+    /**
+     * The ranked vendors, handed out in pages. Each next() scans the list once with a heap of
+     * the page size, keeping the best vendors that rank after the last one handed out.
+     */
+    public static final class Ranking {
+        private final List<User> vendors;
+        // Either keys (smaller first) or names (case-insensitive) order the vendors
+        private final double[] keys;
+        private final String[] names;
+        // Whole order reversed, ties included, as Collections.reverse after a sort would
+        private final boolean reversed;
+        private int returned;
+        private int last = -1;
+
+        Ranking(List<User> vendors, double[] keys, String[] names, boolean reversed) {
+            this.vendors = vendors;
+            this.keys = keys;
+            this.names = names;
+            this.reversed = reversed;
+        }
+
+        public int size() {
+            return vendors.size();
+        }
+
+        /**
+         * Every ranked vendor, in the order they were given rather than ranked, e.g. for a map.
+         */
+        public List<User> all() {
+            return Collections.unmodifiableList(vendors);
+        }
+
+        public boolean hasNext() {
+            return returned < vendors.size();
+        }
+
+        public List<User> next(int count) {
+            int k = Math.min(count, vendors.size() - returned);
+            if (k <= 0) {
+                return Collections.emptyList();
+            }
+            if (k == vendors.size() - returned) {
+                return rest();
+            }
+            // Max-heap on rank: the root is the worst vendor kept so far
+            int[] heap = new int[k];
+            int heapSize = 0;
+            for (int i = 0; i < vendors.size(); i++) {
+                if (last >= 0 && !precedes(last, i)) {
+                    continue;
+                }
+                if (heapSize < k) {
+                    heap[heapSize] = i;
+                    siftUp(heap, heapSize++);
+                } else if (precedes(i, heap[0])) {
+                    heap[0] = i;
+                    siftDown(heap, heapSize);
+                }
+            }
+
+            User[] page = new User[heapSize];
+            for (int end = heapSize - 1; end >= 0; end--) {
+                page[end] = vendors.get(heap[0]);
+                if (end == heapSize - 1) {
+                    last = heap[0];
+                }
+                heap[0] = heap[end];
+                siftDown(heap, end);
+            }
+            returned += heapSize;
+            List<User> result = new ArrayList<>(heapSize);
+            Collections.addAll(result, page);
+            return result;
+        }
+
+        // Everything left in one sort, cheaper than a heap as large as the list
+        private List<User> rest() {
+            Integer[] order = new Integer[vendors.size() - returned];
+            int size = 0;
+            for (int i = 0; i < vendors.size(); i++) {
+                if (last < 0 || precedes(last, i)) {
+                    order[size++] = i;
+                }
+            }
+            Arrays.sort(order, (a, b) -> a.equals(b) ? 0 : precedes(a, b) ? -1 : 1);
+            List<User> result = new ArrayList<>(size);
+            for (Integer i : order) {
+                result.add(vendors.get(i));
+            }
+            returned = vendors.size();
+            last = order[size - 1];
+            return result;
+        }
+
+        private boolean precedes(int a, int b) {
+            int c = names != null ? names[a].compareToIgnoreCase(names[b]) : Double.compare(keys[a], keys[b]);
+            if (c == 0) {
+                c = Integer.compare(a, b);
+            }
+            return reversed ? c > 0 : c < 0;
+        }
+
+        private void siftUp(int[] heap, int i) {
+            int item = heap[i];
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (!precedes(heap[parent], item)) {
+                    break;
+                }
+                heap[i] = heap[parent];
+                i = parent;
+            }
+            heap[i] = item;
+        }
+
+        private void siftDown(int[] heap, int size) {
+            if (size == 0) {
+                return;
+            }
+            int item = heap[0];
+            int i = 0;
+            int half = size >>> 1;
+            while (i < half) {
+                int child = 2 * i + 1;
+                if (child + 1 < size && precedes(heap[child], heap[child + 1])) {
+                    child++;
+                }
+                if (!precedes(item, heap[child])) {
+                    break;
+                }
+                heap[i] = heap[child];
+                i = child;
+            }
+            heap[i] = item;
+        }
+    }
+
+    private static final class Features {
+        final double latitude;
+        final double longitude;
+        final double rating;
+        final int totalOrders;
+        final long createdAt;
+        final String name;
+        final double ratingScore;
+        final double ordersScore;
+        float distanceKm;
+        int distanceEpoch = -1;
+
+        Features(User vendor) {
+            latitude = vendor.getLatitude();
+            longitude = vendor.getLongitude();
+            rating = vendor.getRating();
+            totalOrders = vendor.getTotalOrders();
+            createdAt = vendor.getCreatedAt();
+            name = vendor.getBusinessName() != null ? vendor.getBusinessName() : "";
+            ratingScore = Math.min(1, Math.max(0, rating / 5));
+            ordersScore = Math.log1p(Math.min(Math.max(0, totalOrders), ORDER_CAP)) / Math.log1p(ORDER_CAP);
+        }
+
+        boolean describes(User vendor) {
+            return latitude == vendor.getLatitude()
+                    && longitude == vendor.getLongitude()
+                    && rating == vendor.getRating()
+                    && totalOrders == vendor.getTotalOrders()
+                    && createdAt == vendor.getCreatedAt()
+                    && Objects.equals(name, vendor.getBusinessName() != null ? vendor.getBusinessName() : "");
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.foodvan.utils;
+
+import com.example.foodvan.models.SortBy;
+import com.example.foodvan.models.SortOrder;
+import com.example.foodvan.models.User;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * VendorSorter - Orders the home screen's van list with one full sort. Free of Android types so
+ * the sort can be benchmarked on a plain JVM; the distance to each van comes from the caller.
+ * FilterManager now pages through a VendorRanker instead, which must give the same order.
+ */
+public final class VendorSorter {
+
+    public interface DistanceFunction {
+        /**
+         * Distance from the user to the vendor's van, in kilometers.
+         */
+        float distanceKm(User vendor);
+    }
+
+    private VendorSorter() {
+    }
+
+    /**
+     * Sorts vendors in place.
+     *
+     * @param distance null when the user's location is unknown; DISTANCE then leaves the order
+     *                 unchanged
+     */
+    public static void sort(List<User> vendors, SortBy sortBy, SortOrder sortOrder, DistanceFunction distance) {
+        Comparator<User> comparator = null;
+
+        switch (sortBy) {
+            case DISTANCE:
+                if (distance != null) {
+                    comparator = (v1, v2) -> Float.compare(distance.distanceKm(v1), distance.distanceKm(v2));
+                }
+                break;
+
+            case RATING:
+                comparator = (v1, v2) -> Double.compare(v2.getRating(), v1.getRating()); // Higher rating first
+                break;
+
+            case POPULARITY:
+                comparator = (v1, v2) -> Integer.compare(v2.getTotalOrders(), v1.getTotalOrders()); // More orders first
+                break;
+
+            case NEWEST:
+                comparator = (v1, v2) -> Long.compare(v2.getCreatedAt(), v1.getCreatedAt()); // Newer first
+                break;
+
+            case NAME:
+                comparator = (v1, v2) -> v1.getBusinessName().compareToIgnoreCase(v2.getBusinessName());
+                break;
+
+            case PRICE:
+                // Would need average price calculation
+                comparator = (v1, v2) -> v1.getBusinessName().compareToIgnoreCase(v2.getBusinessName()); // Fallback to name
+                break;
+        }
+
+        if (comparator != null) {
+            Collections.sort(vendors, comparator);
+
+            // Reverse if descending order (except for rating and popularity which are already desc)
+            if (sortOrder == SortOrder.DESCENDING &&
+                sortBy != SortBy.RATING &&
+                sortBy != SortBy.POPULARITY &&
+                sortBy != SortBy.NEWEST) {
+                Collections.reverse(vendors);
+            }
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.foodvan.utils;
+
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+
+import java.io.File;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * XlsxRowReader - Reads the first worksheet of an .xlsx file through POI's SAX event API,
+ * so rows are emitted as they are parsed instead of building the whole workbook in memory.
+ */
+public class XlsxRowReader implements MenuImporter.RowSource {
+
+    private final File file;
+    private volatile long totalBytes;
+    private CsvRowReader.CountingInputStream sheetStream;
+
+    public XlsxRowReader(File file) {
+        this.file = file;
+    }
+
+    @Override
+    public void read(MenuImporter.RowHandler handler) throws Exception {
+        try (OPCPackage pkg = OPCPackage.open(file, PackageAccess.READ)) {
+            XSSFReader reader = new XSSFReader(pkg);
+            ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg);
+            StylesTable styles = reader.getStylesTable();
+
+            XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) reader.getSheetsData();
+            if (!sheets.hasNext()) {
+                throw new IllegalArgumentException("Workbook has no sheets");
+            }
+
+            try (InputStream sheet = sheets.next()) {
+                totalBytes = uncompressedSize(sheets.getSheetPart().getPartName().getName());
+                sheetStream = new CsvRowReader.CountingInputStream(sheet);
+
+                XMLReader parser = XMLHelper.newXMLReader();
+                parser.setContentHandler(new XSSFSheetXMLHandler(styles, null, strings,
+                        new RowCollector(handler), new DataFormatter(), false));
+                parser.parse(new InputSource(sheetStream));
+            } catch (SAXException e) {
+                // Handler exceptions are wrapped by the parser; surface the original cause
+                if (e.getException() != null) throw e.getException();
+                throw e;
+            }
+        }
+    }
+
+    @Override
+    public double getProgress() {
+        CsvRowReader.CountingInputStream stream = sheetStream;
+        if (stream == null || totalBytes <= 0) return 0;
+        return Math.min(1.0, (double) stream.count / totalBytes);
+    }
+
+    private long uncompressedSize(String partName) {
+        String entryName = partName.startsWith("/") ? partName.substring(1) : partName;
+        try (ZipFile zip = new ZipFile(file)) {
+            ZipEntry entry = zip.getEntry(entryName);
+            return entry != null ? entry.getSize() : 0;
+        } catch (Exception e) {
+            return 0;
+        }
+    }
+
+    private static class RowCollector implements XSSFSheetXMLHandler.SheetContentsHandler {
+        private final MenuImporter.RowHandler handler;
+        private final List<String> cells = new ArrayList<>();
+
+        RowCollector(MenuImporter.RowHandler handler) {
+            this.handler = handler;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            cells.clear();
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            if (cells.isEmpty()) return;
+            try {
+                handler.onRow(cells.toArray(new String[0]));
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IllegalStateException(e.getMessage(), e);
+            }
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            int column = cellReference != null
+                    ? new CellReference(cellReference).getCol()
+                    : cells.size();
+            // Missing cells are skipped by the SAX handler, so pad the gap
+            while (cells.size() < column) {
+                cells.add(null);
+            }
+            cells.add(formattedValue);
+        }
+
+        @Override
+        public void headerFooter(String text, boolean isHeader, String tagName) {
+            // Not used for menu import
+        }
+    }
+}
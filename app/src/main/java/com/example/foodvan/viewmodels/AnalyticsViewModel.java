@@ -4,6 +4,8 @@ import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
 import androidx.lifecycle.ViewModel;
 
+import com.example.foodvan.utils.FirebaseListeners;
+import com.example.foodvan.utils.VendorOrderIndex;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.database.DataSnapshot;
 import com.google.firebase.database.DatabaseError;
@@ -24,6 +26,7 @@ public class AnalyticsViewModel extends ViewModel {
     private FirebaseAuth firebaseAuth;
     private DatabaseReference vendorRef, ordersRef, earningsRef;
     private String vendorId;
+    private final FirebaseListeners liveListeners = new FirebaseListeners();
 
     // LiveData for analytics metrics
     private MutableLiveData<Double> todayEarnings = new MutableLiveData<>();
@@ -53,7 +56,7 @@ public class AnalyticsViewModel extends ViewModel {
             vendorId = firebaseAuth.getCurrentUser().getUid();
             FirebaseDatabase database = FirebaseDatabase.getInstance();
             vendorRef = database.getReference("vendors").child(vendorId);
-            ordersRef = database.getReference("orders");
+            ordersRef = database.getReference(VendorOrderIndex.VENDOR_ORDERS_PATH).child(vendorId);
             earningsRef = database.getReference("earnings").child(vendorId);
         }
     }
@@ -82,7 +85,7 @@ public class AnalyticsViewModel extends ViewModel {
 
         // Load today's earnings
         String todayDate = new SimpleDateFormat("yyyy-MM-dd", Locale.getDefault()).format(new Date());
-        earningsRef.child(todayDate).addValueEventListener(new ValueEventListener() {
+        liveListeners.listen("analytics.earnings", earningsRef.child(todayDate), new ValueEventListener() {
             @Override
             public void onDataChange(DataSnapshot snapshot) {
                 if (snapshot.exists()) {
@@ -100,8 +103,7 @@ public class AnalyticsViewModel extends ViewModel {
         });
 
         // Load orders data
-        ordersRef.orderByChild("vendorId").equalTo(vendorId)
-                .addValueEventListener(new ValueEventListener() {
+        liveListeners.listen("analytics.orders", ordersRef, new ValueEventListener() {
             @Override
             public void onDataChange(DataSnapshot snapshot) {
                 int total = 0, completed = 0, pending = 0, cancelled = 0;
@@ -152,6 +154,6 @@ public class AnalyticsViewModel extends ViewModel {
     @Override
     protected void onCleared() {
         super.onCleared();
-        // Clean up listeners if needed
+        liveListeners.stopAll();
     }
 }
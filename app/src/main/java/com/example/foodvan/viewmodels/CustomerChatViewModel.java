@@ -4,6 +4,8 @@ import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
 import androidx.lifecycle.ViewModel;
 import com.example.foodvan.models.ChatMessage;
+import com.example.foodvan.utils.AppExecutors;
+import com.example.foodvan.utils.TaskScope;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -15,6 +17,7 @@ public class CustomerChatViewModel extends ViewModel {
     private List<ChatMessage> messagesList;
     private String customerId;
     private String vendorId;
+    private final TaskScope scope = AppExecutors.getInstance().newScope();
     
     public CustomerChatViewModel() {
         messagesLiveData = new MutableLiveData<>();
@@ -128,7 +131,7 @@ public class CustomerChatViewModel extends ViewModel {
     
     private void simulateVendorResponse(String customerMessage) {
         // Simulate vendor response after 2 seconds
-        new android.os.Handler().postDelayed(() -> {
+        scope.mainDelayed(() -> {
             String response = generateVendorResponse(customerMessage);
             ChatMessage vendorMessage = new ChatMessage(
                 response,
@@ -177,6 +180,6 @@ public class CustomerChatViewModel extends ViewModel {
     @Override
     protected void onCleared() {
         super.onCleared();
-        // Clean up resources if needed
+        scope.cancel();
     }
 }
@@ -10,12 +10,14 @@ import androidx.lifecycle.Transformations;
 import com.example.foodvan.models.MenuFilter;
 import com.example.foodvan.models.MenuItem;
 import com.example.foodvan.repositories.MenuFilterRepository;
+import com.example.foodvan.utils.AppExecutors;
 import com.example.foodvan.utils.FilterUtils;
+import com.example.foodvan.utils.MenuFacetEngine;
+import com.example.foodvan.utils.MenuSortIndex;
+import com.example.foodvan.utils.TaskScope;
 
 import java.util.List;
 import java.util.ArrayList;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 /**
  * ViewModel for Menu Filter functionality
@@ -24,7 +26,7 @@ import java.util.concurrent.Executors;
 public class MenuFilterViewModel extends AndroidViewModel {
     
     private final MenuFilterRepository repository;
-    private final ExecutorService executor;
+    private final TaskScope scope;
     
     // Filter state
     private final MutableLiveData<MenuFilter> currentFilter = new MutableLiveData<>(new MenuFilter());
@@ -37,13 +39,18 @@ public class MenuFilterViewModel extends AndroidViewModel {
     private final MutableLiveData<Integer> filteredItemCount = new MutableLiveData<>(0);
     private final MutableLiveData<List<MenuItem>> previewItems = new MutableLiveData<>(new ArrayList<>());
     
+    // Counts and bounds for the filter sheet, from the same pass as the results
+    private final MutableLiveData<MenuFacetEngine.Result> facets = new MutableLiveData<>();
+    private MenuFacetEngine facetEngine;
+    private final MenuSortIndex<MenuFilter.SortOption> sortIndex = new MenuSortIndex<>(FilterUtils::comparator);
+    
     // Filter presets
     private final MutableLiveData<List<MenuFilter>> savedPresets = new MutableLiveData<>(new ArrayList<>());
     
     public MenuFilterViewModel(@NonNull Application application) {
         super(application);
         this.repository = new MenuFilterRepository(application);
-        this.executor = Executors.newFixedThreadPool(2);
+        this.scope = AppExecutors.getInstance().newScope();
         
         // Initialize with default filter
         currentFilter.setValue(new MenuFilter());
@@ -128,7 +135,7 @@ public class MenuFilterViewModel extends AndroidViewModel {
         applyCurrentFilter();
         
         // Clear saved last used filter
-        executor.execute(() -> repository.clearLastUsedFilter());
+        scope.io(() -> repository.clearLastUsedFilter());
     }
     
     /**
@@ -141,16 +148,23 @@ public class MenuFilterViewModel extends AndroidViewModel {
         if (items == null || items.isEmpty()) {
             filteredMenuItems.setValue(new ArrayList<>());
             updatePreview(new ArrayList<>());
+            facets.setValue(null);
             return;
         }
         
-        executor.execute(() -> {
+        scope.cpu(() -> {
             try {
-                // Apply filters
-                List<MenuItem> filtered = FilterUtils.applyFilter(items, filter);
+                // Filter and facet in one pass, then pick the matches out of the sorted order
+                MenuFacetEngine.Result result;
+                List<MenuItem> filtered;
+                synchronized (sortIndex) {
+                    result = facetEngineFor(items).update(filter);
+                    filtered = sortIndex.select(filter.getSortBy(), result.getMatchPositions());
+                }
                 
                 // Update UI on main thread
                 filteredMenuItems.postValue(filtered);
+                facets.postValue(result);
                 updatePreview(filtered);
                 
                 // Save last used filter
@@ -177,7 +191,7 @@ public class MenuFilterViewModel extends AndroidViewModel {
         
         isLoading.setValue(true);
         
-        executor.execute(() -> {
+        scope.io(() -> {
             try {
                 repository.saveFilterPreset(filter, new MenuFilterRepository.SavePresetCallback() {
                     @Override
@@ -208,7 +222,7 @@ public class MenuFilterViewModel extends AndroidViewModel {
         
         isLoading.setValue(true);
         
-        executor.execute(() -> {
+        scope.io(() -> {
             try {
                 repository.loadFilterPreset(presetId, new MenuFilterRepository.LoadPresetCallback() {
                     @Override
@@ -237,7 +251,7 @@ public class MenuFilterViewModel extends AndroidViewModel {
     public void deleteFilterPreset(String presetId) {
         if (presetId == null || presetId.isEmpty()) return;
         
-        executor.execute(() -> {
+        scope.io(() -> {
             try {
                 repository.deleteFilterPreset(presetId, new MenuFilterRepository.DeletePresetCallback() {
                     @Override
@@ -263,6 +277,19 @@ public class MenuFilterViewModel extends AndroidViewModel {
         return filter != null ? new MenuFilter(filter) : new MenuFilter();
     }
     
+    /**
+     * The engine keeps per-item state between updates, so it is reused until the items change.
+     * The sort index is moved to the same items, keeping what it can of its orders. Called
+     * holding the sortIndex lock, so results and positions always come from the same items.
+     */
+    private MenuFacetEngine facetEngineFor(List<MenuItem> items) {
+        if (facetEngine == null || facetEngine.getItems() != items) {
+            facetEngine = new MenuFacetEngine(items);
+            sortIndex.setItems(items);
+        }
+        return facetEngine;
+    }
+    
     private void updatePreview(List<MenuItem> filtered) {
         filteredItemCount.postValue(filtered.size());
         
@@ -276,7 +303,7 @@ public class MenuFilterViewModel extends AndroidViewModel {
     }
     
     private void loadLastUsedFilter() {
-        executor.execute(() -> {
+        scope.io(() -> {
             try {
                 MenuFilter lastFilter = repository.getLastUsedFilter();
                 if (lastFilter != null) {
@@ -289,7 +316,7 @@ public class MenuFilterViewModel extends AndroidViewModel {
     }
     
     private void loadSavedPresets() {
-        executor.execute(() -> {
+        scope.io(() -> {
             try {
                 repository.loadAllFilterPresets(new MenuFilterRepository.LoadPresetsCallback() {
                     @Override
@@ -335,6 +362,10 @@ public class MenuFilterViewModel extends AndroidViewModel {
         return previewItems;
     }
     
+    public LiveData<MenuFacetEngine.Result> getFacets() {
+        return facets;
+    }
+    
     public LiveData<List<MenuFilter>> getSavedPresets() {
         return savedPresets;
     }
@@ -386,8 +417,6 @@ public class MenuFilterViewModel extends AndroidViewModel {
     @Override
     protected void onCleared() {
         super.onCleared();
-        if (executor != null && !executor.isShutdown()) {
-            executor.shutdown();
-        }
+        scope.cancel();
     }
 }
@@ -9,11 +9,15 @@ import androidx.lifecycle.Transformations;
 
 import com.example.foodvan.models.MenuItem;
 import com.example.foodvan.repositories.MenuRepository;
+import com.example.foodvan.utils.MenuSortIndex;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -33,6 +37,11 @@ public class MenuManagementViewModel extends AndroidViewModel {
     private final MutableLiveData<Float> maxPrice = new MutableLiveData<>(1000f);
     private final MutableLiveData<SortOption> sortOption = new MutableLiveData<>(SortOption.NEWEST);
     
+    // Cached sort orders, and the menu positions passing the filters for matchedItems
+    private final MenuSortIndex<SortOption> sortIndex = new MenuSortIndex<>(MenuManagementViewModel::comparator);
+    private BitSet matches;
+    private List<MenuItem> matchedItems;
+    
     // Bulk action state
     private final MutableLiveData<Boolean> isBulkMode = new MutableLiveData<>(false);
     private final MutableLiveData<Set<String>> selectedItems = new MutableLiveData<>();
@@ -51,6 +60,8 @@ public class MenuManagementViewModel extends AndroidViewModel {
         NEWEST, POPULARITY, PRICE_LOW_HIGH, PRICE_HIGH_LOW, NAME_A_Z, NAME_Z_A
     }
 
+    private static final Comparator<String> NAME_ORDER = Comparator.nullsFirst(Comparator.naturalOrder());
+
     public MenuManagementViewModel(@NonNull Application application) {
         super(application);
         this.menuRepository = new MenuRepository(application);
@@ -68,60 +79,65 @@ public class MenuManagementViewModel extends AndroidViewModel {
     }
     
     private void updateFilteredItems() {
+        updateFilteredItems(true);
+    }
+    
+    private void updateFilteredItems(boolean filtersChanged) {
         List<MenuItem> items = allMenuItems.getValue();
-        String query = searchQuery.getValue();
-        String category = selectedCategory.getValue();
-        String availability = availabilityFilter.getValue();
-        Float min = minPrice.getValue();
-        Float max = maxPrice.getValue();
-        SortOption sort = sortOption.getValue();
+        if (items == null) {
+            filteredMenuItems.setValue(new ArrayList<>());
+            return;
+        }
         
-        List<MenuItem> filtered = applyFiltersAndSort(items, query, category, availability, min, max, sort);
-        filteredMenuItems.setValue(filtered);
+        sortIndex.setItems(items);
+        if (filtersChanged || matchedItems != items) {
+            matches = matchPositions(items, searchQuery.getValue(), selectedCategory.getValue(),
+                    availabilityFilter.getValue(), minPrice.getValue(), maxPrice.getValue());
+            matchedItems = items;
+        }
+        
+        // A sort change only walks the cached order for the new option
+        filteredMenuItems.setValue(sortIndex.select(sortOption.getValue(), matches));
     }
 
-    private List<MenuItem> applyFiltersAndSort(List<MenuItem> items, String query, 
-                                             String category, String availability, 
-                                             Float min, Float max, SortOption sort) {
-        if (items == null) return new ArrayList<>();
-        
-        List<MenuItem> filtered = items.stream()
-            .filter(item -> matchesSearchQuery(item, query))
-            .filter(item -> matchesCategory(item, category))
-            .filter(item -> matchesAvailability(item, availability))
-            .filter(item -> matchesPriceRange(item, min, max))
-            .collect(Collectors.toList());
-        
-        // Apply sorting
+    private BitSet matchPositions(List<MenuItem> items, String query,
+                                  String category, String availability,
+                                  Float min, Float max) {
+        BitSet positions = new BitSet(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            MenuItem item = items.get(i);
+            if (matchesSearchQuery(item, query)
+                    && matchesCategory(item, category)
+                    && matchesAvailability(item, availability)
+                    && matchesPriceRange(item, min, max)) {
+                positions.set(i);
+            }
+        }
+        return positions;
+    }
+
+    private static Comparator<MenuItem> comparator(SortOption sort) {
         switch (sort) {
             case POPULARITY:
-                filtered.sort((a, b) -> Integer.compare(b.getOrderCount(), a.getOrderCount()));
-                break;
+                return (a, b) -> Integer.compare(b.getOrderCount(), a.getOrderCount());
             case PRICE_LOW_HIGH:
-                filtered.sort(Comparator.comparing(MenuItem::getPrice));
-                break;
+                return (a, b) -> Double.compare(a.getPrice(), b.getPrice());
             case PRICE_HIGH_LOW:
-                filtered.sort((a, b) -> Double.compare(b.getPrice(), a.getPrice()));
-                break;
+                return (a, b) -> Double.compare(b.getPrice(), a.getPrice());
             case NAME_A_Z:
-                filtered.sort(Comparator.comparing(MenuItem::getName));
-                break;
+                return (a, b) -> NAME_ORDER.compare(a.getName(), b.getName());
             case NAME_Z_A:
-                filtered.sort((a, b) -> b.getName().compareTo(a.getName()));
-                break;
+                return (a, b) -> NAME_ORDER.compare(b.getName(), a.getName());
             case NEWEST:
             default:
-                filtered.sort((a, b) -> Long.compare(b.getCreatedAt(), a.getCreatedAt()));
-                break;
+                return (a, b) -> Long.compare(b.getCreatedAt(), a.getCreatedAt());
         }
-        
-        return filtered;
     }
 
     private boolean matchesSearchQuery(MenuItem item, String query) {
         if (query == null || query.trim().isEmpty()) return true;
         String lowerQuery = query.toLowerCase();
-        return item.getName().toLowerCase().contains(lowerQuery) ||
+        return (item.getName() != null && item.getName().toLowerCase().contains(lowerQuery)) ||
                (item.getDescription() != null && item.getDescription().toLowerCase().contains(lowerQuery));
     }
 
@@ -149,6 +165,7 @@ public class MenuManagementViewModel extends AndroidViewModel {
             @Override
             public void onSuccess(List<MenuItem> result) {
                 allMenuItems.setValue(result);
+                updateFilteredItems(false);
                 isLoading.setValue(false);
             }
 
@@ -183,7 +200,7 @@ public class MenuManagementViewModel extends AndroidViewModel {
 
     public void updateSortOption(SortOption option) {
         sortOption.setValue(option);
-        updateFilteredItems();
+        updateFilteredItems(false);
     }
 
     public void clearFilters() {
@@ -224,7 +241,7 @@ public class MenuManagementViewModel extends AndroidViewModel {
         Set<String> items = selectedItems.getValue();
         if (items != null && !items.isEmpty()) {
             isLoading.setValue(true);
-            menuRepository.bulkUpdateCategory(vendorId, items, newCategory, new MenuRepository.MenuCallback<Void>() {
+            menuRepository.bulkUpdateCategory(vendorId, items, newCategory, new MenuRepository.BulkCallback() {
                 @Override
                 public void onSuccess(Void result) {
                     loadMenuItems(vendorId); // Refresh data
@@ -244,7 +261,7 @@ public class MenuManagementViewModel extends AndroidViewModel {
         Set<String> items = selectedItems.getValue();
         if (items != null && !items.isEmpty()) {
             isLoading.setValue(true);
-            menuRepository.bulkUpdatePrices(vendorId, items, type, value, new MenuRepository.MenuCallback<Void>() {
+            menuRepository.bulkUpdatePrices(vendorId, getCachedPrices(items), type, value, new MenuRepository.BulkCallback() {
                 @Override
                 public void onSuccess(Void result) {
                     loadMenuItems(vendorId); // Refresh data
@@ -264,7 +281,7 @@ public class MenuManagementViewModel extends AndroidViewModel {
         Set<String> items = selectedItems.getValue();
         if (items != null && !items.isEmpty()) {
             isLoading.setValue(true);
-            menuRepository.bulkDelete(vendorId, items, new MenuRepository.MenuCallback<Void>() {
+            menuRepository.bulkDelete(vendorId, items, new MenuRepository.BulkCallback() {
                 @Override
                 public void onSuccess(Void result) {
                     loadMenuItems(vendorId); // Refresh data
@@ -280,6 +297,20 @@ public class MenuManagementViewModel extends AndroidViewModel {
         }
     }
 
+    // Current prices from the loaded menu, so bulk price updates need no extra read
+    private Map<String, Double> getCachedPrices(Set<String> itemIds) {
+        Map<String, Double> prices = new HashMap<>();
+        List<MenuItem> items = allMenuItems.getValue();
+        if (items != null) {
+            for (MenuItem item : items) {
+                if (itemIds.contains(item.getId())) {
+                    prices.put(item.getId(), item.getPrice());
+                }
+            }
+        }
+        return prices;
+    }
+
     // Import/Export
     public void importMenuItems(String vendorId, String filePath, String format) {
         importProgress.setValue(0);
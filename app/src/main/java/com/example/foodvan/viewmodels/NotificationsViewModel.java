@@ -5,6 +5,9 @@ import androidx.lifecycle.MutableLiveData;
 import androidx.lifecycle.ViewModel;
 
 import com.example.foodvan.models.Notification;
+import com.example.foodvan.utils.FirebaseManager;
+import com.example.foodvan.utils.FirebaseMetrics;
+import com.example.foodvan.utils.NotificationStore;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.database.DataSnapshot;
 import com.google.firebase.database.DatabaseError;
@@ -16,19 +19,36 @@ import com.google.firebase.database.ValueEventListener;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * ViewModel for managing notifications data
- * Handles Firebase integration and provides LiveData for UI updates
+ * Handles Firebase integration and provides LiveData for UI updates.
+ * Only the newest page is listened to; older pages are fetched on demand and the unread
+ * badge is read from the maintained counter (see NotificationStore).
  */
 public class NotificationsViewModel extends ViewModel {
 
     // Firebase components
     private FirebaseAuth firebaseAuth;
+    private DatabaseReference rootRef;
     private DatabaseReference notificationsRef;
+    private DatabaseReference unreadCountRef;
     private String vendorId;
+    private Query latestPageQuery;
     private ValueEventListener notificationsListener;
+    private ValueEventListener unreadCountListener;
+
+    // Newest page (live) and the older pages fetched so far
+    private List<Notification> latestPage = new ArrayList<>();
+    private List<Notification> olderPages = new ArrayList<>();
+    private boolean isLoadingMore = false;
+    private boolean hasMoreNotifications = true;
+    private boolean expiredPurged = false;
+    private boolean counterChecked = false;
 
     // LiveData for UI
     private MutableLiveData<List<Notification>> notifications = new MutableLiveData<>();
@@ -49,7 +69,9 @@ public class NotificationsViewModel extends ViewModel {
         if (firebaseAuth.getCurrentUser() != null) {
             vendorId = firebaseAuth.getCurrentUser().getUid();
             FirebaseDatabase database = FirebaseDatabase.getInstance();
-            notificationsRef = database.getReference("notifications").child(vendorId);
+            rootRef = database.getReference();
+            notificationsRef = rootRef.child(NotificationStore.NOTIFICATIONS_PATH).child(vendorId);
+            unreadCountRef = rootRef.child(NotificationStore.unreadCountPath(vendorId));
         }
     }
 
@@ -70,7 +92,7 @@ public class NotificationsViewModel extends ViewModel {
     }
 
     /**
-     * Load real-time notifications from Firebase
+     * Listen to the newest page of notifications and to the unread counter
      */
     public void loadRealTimeNotifications() {
         if (vendorId == null) {
@@ -79,36 +101,21 @@ public class NotificationsViewModel extends ViewModel {
         }
 
         isLoading.setValue(true);
+        removeListeners();
+        olderPages = new ArrayList<>();
+        hasMoreNotifications = true;
+
+        latestPageQuery = notificationsRef.orderByChild(NotificationStore.CREATED_AT)
+                .limitToLast(NotificationStore.PAGE_SIZE);
 
-        // Query notifications ordered by timestamp (most recent first)
-        Query query = notificationsRef.orderByChild("timestamp").limitToLast(50);
-        
         notificationsListener = new ValueEventListener() {
             @Override
             public void onDataChange(DataSnapshot snapshot) {
-                List<Notification> notificationList = new ArrayList<>();
-                
-                for (DataSnapshot notificationSnapshot : snapshot.getChildren()) {
-                    try {
-                        Notification notification = notificationSnapshot.getValue(Notification.class);
-                        if (notification != null) {
-                            notification.setId(notificationSnapshot.getKey());
-                            notificationList.add(notification);
-                        }
-                    } catch (Exception e) {
-                        // Handle parsing errors gracefully
-                        e.printStackTrace();
-                    }
+                latestPage = parsePage(snapshot, null);
+                if (olderPages.isEmpty()) {
+                    hasMoreNotifications = snapshot.getChildrenCount() >= NotificationStore.PAGE_SIZE;
                 }
-                
-                // Sort by timestamp (most recent first)
-                Collections.sort(notificationList, (n1, n2) -> {
-                    if (n1.getTimestamp() == null || n2.getTimestamp() == null) return 0;
-                    return n2.getTimestamp().compareTo(n1.getTimestamp());
-                });
-                
-                notifications.setValue(notificationList);
-                updateUnreadCount(notificationList);
+                publishNotifications();
                 isLoading.setValue(false);
             }
 
@@ -119,7 +126,74 @@ public class NotificationsViewModel extends ViewModel {
             }
         };
 
-        query.addValueEventListener(notificationsListener);
+        unreadCountListener = new ValueEventListener() {
+            @Override
+            public void onDataChange(DataSnapshot snapshot) {
+                unreadCount.setValue(NotificationStore.displayCount(snapshot.getValue(Long.class)));
+            }
+
+            @Override
+            public void onCancelled(DatabaseError error) {
+                // Keep the last known count
+            }
+        };
+
+        notificationsListener = FirebaseMetrics.attach("notifications", latestPageQuery, notificationsListener);
+        unreadCountListener = FirebaseMetrics.attach("notifications.unread", unreadCountRef, unreadCountListener);
+
+        if (!expiredPurged) {
+            expiredPurged = true;
+            purgeExpiredNotifications(System.currentTimeMillis());
+        }
+        if (!counterChecked) {
+            counterChecked = true;
+            seedUnreadCountOnce();
+        }
+    }
+
+    /**
+     * Inboxes that held notifications before the counter was kept get it set once from a
+     * count of their unread items; later changes adjust it in place.
+     */
+    private void seedUnreadCountOnce() {
+        rootRef.child(NotificationStore.counterSeededPath(vendorId)).get()
+                .addOnSuccessListener(seeded -> {
+                    if (Boolean.TRUE.equals(seeded.getValue(Boolean.class))) return;
+                    notificationsRef.orderByChild(NotificationStore.READ).equalTo(false).get()
+                            .addOnSuccessListener(unread -> {
+                                NotificationStore.Update update =
+                                        NotificationStore.seed(vendorId, unread.getChildrenCount());
+                                rootRef.updateChildren(update.writes);
+                            });
+                });
+    }
+
+    /**
+     * Fetch the page of notifications older than the oldest one shown
+     */
+    public void loadMoreNotifications() {
+        if (vendorId == null || isLoadingMore || !hasMoreNotifications) return;
+
+        Notification oldest = oldestShown();
+        if (oldest == null || oldest.getTimestamp() == null) return;
+
+        isLoadingMore = true;
+        String cursorKey = oldest.getId();
+        notificationsRef.orderByChild(NotificationStore.CREATED_AT)
+                .endAt((double) oldest.getTimestamp().getTime(), cursorKey)
+                .limitToLast(NotificationStore.PAGE_SIZE + 1)
+                .get()
+                .addOnSuccessListener(snapshot -> {
+                    List<Notification> page = parsePage(snapshot, cursorKey);
+                    hasMoreNotifications = page.size() >= NotificationStore.PAGE_SIZE;
+                    olderPages.addAll(page);
+                    publishNotifications();
+                    isLoadingMore = false;
+                })
+                .addOnFailureListener(e -> {
+                    errorMessage.setValue("Failed to load notifications: " + e.getMessage());
+                    isLoadingMore = false;
+                });
     }
 
     /**
@@ -134,47 +208,50 @@ public class NotificationsViewModel extends ViewModel {
     }
 
     /**
-     * Mark notification as read
+     * Mark notification as read. The flag and the counter change in one multi-path update,
+     * and the rules reject it whole if another device already marked the notification, so
+     * the counter drops once.
      */
     public void markAsRead(String notificationId) {
         if (vendorId == null || notificationId == null) return;
-
-        notificationsRef.child(notificationId).child("read").setValue(true)
-                .addOnSuccessListener(aVoid -> {
-                    // Update local data
-                    List<Notification> currentNotifications = notifications.getValue();
-                    if (currentNotifications != null) {
-                        for (Notification notification : currentNotifications) {
-                            if (notificationId.equals(notification.getId())) {
-                                notification.setRead(true);
-                                break;
-                            }
-                        }
-                        notifications.setValue(currentNotifications);
-                        updateUnreadCount(currentNotifications);
-                    }
-                })
-                .addOnFailureListener(e -> {
-                    errorMessage.setValue("Failed to mark as read: " + e.getMessage());
+        Notification notification = findShown(notificationId);
+        if (notification != null && notification.isRead()) return;
+
+        NotificationStore.Update update = NotificationStore.markRead(vendorId, Collections.singletonList(notificationId));
+        rootRef.updateChildren(FirebaseManager.withIncrements(update.writes, update.increments))
+                .addOnCompleteListener(task -> {
+                    // A rejected update means it was read elsewhere; either way it is read now
+                    setReadLocally(notificationId);
+                    publishNotifications();
                 });
     }
 
     /**
-     * Mark all notifications as read
+     * Mark all notifications as read with one multi-path write
      */
     public void markAllAsRead() {
-        List<Notification> currentNotifications = notifications.getValue();
-        if (currentNotifications == null || vendorId == null) return;
-
-        for (Notification notification : currentNotifications) {
-            if (!notification.isRead()) {
-                notificationsRef.child(notification.getId()).child("read").setValue(true);
-                notification.setRead(true);
-            }
-        }
+        if (vendorId == null) return;
 
-        notifications.setValue(currentNotifications);
-        updateUnreadCount(currentNotifications);
+        notificationsRef.orderByChild(NotificationStore.READ).equalTo(false).get()
+                .addOnSuccessListener(snapshot -> {
+                    List<String> unreadIds = new ArrayList<>();
+                    for (DataSnapshot child : snapshot.getChildren()) {
+                        unreadIds.add(child.getKey());
+                    }
+                    NotificationStore.Update update = NotificationStore.markRead(vendorId, unreadIds);
+                    if (update.isEmpty()) return;
+
+                    rootRef.updateChildren(FirebaseManager.withIncrements(update.writes, update.increments))
+                            .addOnSuccessListener(aVoid -> {
+                                for (String notificationId : unreadIds) {
+                                    setReadLocally(notificationId);
+                                }
+                                publishNotifications();
+                            })
+                            .addOnFailureListener(e ->
+                                    errorMessage.setValue("Failed to mark as read: " + e.getMessage()));
+                })
+                .addOnFailureListener(e -> errorMessage.setValue("Failed to mark as read: " + e.getMessage()));
     }
 
     /**
@@ -183,15 +260,17 @@ public class NotificationsViewModel extends ViewModel {
     public void deleteNotification(String notificationId) {
         if (vendorId == null || notificationId == null) return;
 
-        notificationsRef.child(notificationId).removeValue()
+        Notification notification = findShown(notificationId);
+        Map<String, Boolean> deleted = new HashMap<>();
+        deleted.put(notificationId, notification != null && notification.isRead());
+        NotificationStore.Update update = NotificationStore.delete(vendorId, deleted);
+
+        rootRef.updateChildren(FirebaseManager.withIncrements(update.writes, update.increments))
                 .addOnSuccessListener(aVoid -> {
                     // Update local data
-                    List<Notification> currentNotifications = notifications.getValue();
-                    if (currentNotifications != null) {
-                        currentNotifications.removeIf(n -> notificationId.equals(n.getId()));
-                        notifications.setValue(currentNotifications);
-                        updateUnreadCount(currentNotifications);
-                    }
+                    latestPage.removeIf(n -> notificationId.equals(n.getId()));
+                    olderPages.removeIf(n -> notificationId.equals(n.getId()));
+                    publishNotifications();
                 })
                 .addOnFailureListener(e -> {
                     errorMessage.setValue("Failed to delete notification: " + e.getMessage());
@@ -199,13 +278,17 @@ public class NotificationsViewModel extends ViewModel {
     }
 
     /**
-     * Clear all notifications
+     * Clear all notifications and reset the unread counter in one write
      */
     public void clearAllNotifications() {
         if (vendorId == null) return;
 
-        notificationsRef.removeValue()
+        NotificationStore.Update update = NotificationStore.clear(vendorId);
+        rootRef.updateChildren(update.writes)
                 .addOnSuccessListener(aVoid -> {
+                    latestPage = new ArrayList<>();
+                    olderPages = new ArrayList<>();
+                    hasMoreNotifications = false;
                     notifications.setValue(new ArrayList<>());
                     unreadCount.setValue(0);
                 })
@@ -215,7 +298,123 @@ public class NotificationsViewModel extends ViewModel {
     }
 
     /**
-     * Update unread count
+     * Delete notifications past their expiresAt, one batch per write, and keep the counter in
+     * step. Items without expiresAt sort before every number and are never scanned.
+     */
+    private void purgeExpiredNotifications(long now) {
+        notificationsRef.orderByChild(NotificationStore.EXPIRES_AT)
+                .startAt(0d)
+                .endAt((double) now)
+                .limitToFirst(NotificationStore.PURGE_BATCH_SIZE)
+                .get()
+                .addOnSuccessListener(snapshot -> {
+                    Map<String, Map<String, Object>> scanned = new LinkedHashMap<>();
+                    for (DataSnapshot child : snapshot.getChildren()) {
+                        Object value = child.getValue();
+                        if (value instanceof Map) {
+                            scanned.put(child.getKey(), asItemMap(value));
+                        }
+                    }
+                    NotificationStore.Update update = NotificationStore.purgeExpired(vendorId, scanned, now);
+                    if (update.isEmpty()) return;
+
+                    rootRef.updateChildren(FirebaseManager.withIncrements(update.writes, update.increments))
+                            .addOnSuccessListener(aVoid -> {
+                                if (snapshot.getChildrenCount() >= NotificationStore.PURGE_BATCH_SIZE) {
+                                    purgeExpiredNotifications(now);
+                                }
+                            });
+                });
+    }
+
+    /**
+     * Parse a page in query order into display order (newest first), skipping the cursor row
+     * and anything already expired
+     */
+    private List<Notification> parsePage(DataSnapshot snapshot, String cursorKey) {
+        long now = System.currentTimeMillis();
+        List<Notification> page = new ArrayList<>();
+        Map<String, Map<String, Object>> items = new LinkedHashMap<>();
+        for (DataSnapshot notificationSnapshot : snapshot.getChildren()) {
+            String key = notificationSnapshot.getKey();
+            Object value = notificationSnapshot.getValue();
+            if (key.equals(cursorKey) || !(value instanceof Map)) continue;
+
+            Map<String, Object> item = asItemMap(value);
+            items.put(key, item);
+            if (NotificationStore.isExpired(item, now)) continue;
+            page.add(toNotification(key, item));
+        }
+        fillMissingFields(items, now);
+        Collections.reverse(page);
+        return page;
+    }
+
+    /**
+     * Gives notifications written before createdAt/expiresAt/read existed those fields, so
+     * they sort, page and expire in place; the live listener then delivers them corrected.
+     */
+    private void fillMissingFields(Map<String, Map<String, Object>> items, long now) {
+        NotificationStore.Update update = NotificationStore.fillMissingFields(vendorId, items, now,
+                NotificationStore.ttlMillis(NotificationStore.DEFAULT_TTL_DAYS));
+        if (!update.isEmpty()) {
+            rootRef.updateChildren(FirebaseManager.withIncrements(update.writes, update.increments));
+        }
+    }
+
+    private static Notification toNotification(String id, Map<String, Object> item) {
+        String type = asString(item.get("type"));
+        Notification notification = new Notification(id, asString(item.get("title")), asString(item.get("message")),
+                type != null ? type : Notification.TYPE_SYSTEM, new Date(NotificationStore.createdAt(item)));
+        notification.setRead(Boolean.TRUE.equals(item.get(NotificationStore.READ)));
+        notification.setOrderId(asString(item.get("orderId")));
+        notification.setImageUrl(asString(item.get("imageUrl")));
+        notification.setActionUrl(asString(item.get("actionUrl")));
+        return notification;
+    }
+
+    private void publishNotifications() {
+        List<Notification> shown = new ArrayList<>(latestPage.size() + olderPages.size());
+        shown.addAll(latestPage);
+        for (Notification notification : olderPages) {
+            // A notification can slide from the live page into an older one as new ones arrive
+            if (findIn(latestPage, notification.getId()) == null) {
+                shown.add(notification);
+            }
+        }
+        notifications.setValue(shown);
+    }
+
+    private Notification oldestShown() {
+        if (!olderPages.isEmpty()) {
+            return olderPages.get(olderPages.size() - 1);
+        }
+        return latestPage.isEmpty() ? null : latestPage.get(latestPage.size() - 1);
+    }
+
+    private Notification findShown(String notificationId) {
+        Notification notification = findIn(latestPage, notificationId);
+        return notification != null ? notification : findIn(olderPages, notificationId);
+    }
+
+    private static Notification findIn(List<Notification> list, String notificationId) {
+        for (Notification notification : list) {
+            if (notificationId.equals(notification.getId())) {
+                return notification;
+            }
+        }
+        return null;
+    }
+
+    private void setReadLocally(String notificationId) {
+        Notification notification = findShown(notificationId);
+        if (notification != null) {
+            notification.setRead(true);
+        }
+    }
+
+    /**
+     * Unread count for the offline sample list; signed-in vendors use the stored counter
      */
     private void updateUnreadCount(List<Notification> notificationList) {
         int count = 0;
@@ -229,6 +428,15 @@ public class NotificationsViewModel extends ViewModel {
         unreadCount.setValue(count);
     }
 
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> asItemMap(Object value) {
+        return (Map<String, Object>) value;
+    }
+
+    private static String asString(Object value) {
+        return value instanceof String ? (String) value : null;
+    }
+
     /**
      * Generate sample notifications for demonstration
      */
@@ -305,8 +513,17 @@ public class NotificationsViewModel extends ViewModel {
     protected void onCleared() {
         super.onCleared();
         // Clean up Firebase listeners
-        if (notificationsListener != null && notificationsRef != null) {
-            notificationsRef.removeEventListener(notificationsListener);
+        removeListeners();
+    }
+
+    private void removeListeners() {
+        if (notificationsListener != null && latestPageQuery != null) {
+            FirebaseMetrics.detach("notifications", latestPageQuery, notificationsListener);
+            notificationsListener = null;
+        }
+        if (unreadCountListener != null && unreadCountRef != null) {
+            FirebaseMetrics.detach("notifications.unread", unreadCountRef, unreadCountListener);
+            unreadCountListener = null;
         }
     }
 }
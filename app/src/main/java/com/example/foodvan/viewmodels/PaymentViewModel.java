@@ -189,8 +189,8 @@ public class PaymentViewModel extends AndroidViewModel {
         });
     }
 
-    public void loadQrCodeFromData(String qrData) {
-        paymentRepository.loadQrCodeFromData(qrData, new PaymentRepository.DataCallback<Bitmap>() {
+    public void loadQrCode(String upiId, String paymentUrl, String legacyQrCodeData) {
+        paymentRepository.loadQrCode(upiId, paymentUrl, legacyQrCodeData, new PaymentRepository.DataCallback<Bitmap>() {
             @Override
             public void onSuccess(Bitmap data) {
                 qrCodeBitmap.setValue(data);
@@ -291,6 +291,6 @@ public class PaymentViewModel extends AndroidViewModel {
     @Override
     protected void onCleared() {
         super.onCleared();
-        // Clean up resources if needed
+        paymentRepository.cleanup();
     }
 }
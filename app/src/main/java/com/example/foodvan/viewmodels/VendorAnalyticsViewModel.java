@@ -4,6 +4,12 @@ import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
 import androidx.lifecycle.ViewModel;
 
+import com.example.foodvan.models.OrderMapper;
+import com.example.foodvan.utils.FirebaseListeners;
+import com.example.foodvan.utils.OrderArchive;
+import com.example.foodvan.utils.OrderMetrics;
+import com.example.foodvan.utils.OrderSubmission;
+import com.example.foodvan.utils.VendorOrderIndex;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.database.DataSnapshot;
 import com.google.firebase.database.DatabaseError;
@@ -26,6 +32,11 @@ public class VendorAnalyticsViewModel extends ViewModel {
     private FirebaseAuth firebaseAuth;
     private DatabaseReference vendorRef, ordersRef, earningsRef;
     private String vendorId;
+    private final FirebaseListeners liveListeners = new FirebaseListeners();
+
+    // Lifetime counts of orders already moved to the archive, from its summaries
+    private int archivedCompleted = 0, archivedCancelled = 0;
+    private DataSnapshot lastOrdersSnapshot;
 
     // LiveData for analytics metrics
     private MutableLiveData<Double> todayEarnings = new MutableLiveData<>();
@@ -61,7 +72,7 @@ public class VendorAnalyticsViewModel extends ViewModel {
             vendorId = firebaseAuth.getCurrentUser().getUid();
             FirebaseDatabase database = FirebaseDatabase.getInstance();
             vendorRef = database.getReference("vendors").child(vendorId);
-            ordersRef = database.getReference("orders");
+            ordersRef = database.getReference(VendorOrderIndex.VENDOR_ORDERS_PATH).child(vendorId);
             earningsRef = database.getReference("earnings").child(vendorId);
         }
     }
@@ -108,7 +119,7 @@ public class VendorAnalyticsViewModel extends ViewModel {
 
         // Load today's earnings
         String todayDate = new SimpleDateFormat("yyyy-MM-dd", Locale.getDefault()).format(new Date());
-        earningsRef.child(todayDate).addValueEventListener(new ValueEventListener() {
+        liveListeners.listen("vendor_analytics.earnings", earningsRef.child(todayDate), new ValueEventListener() {
             @Override
             public void onDataChange(DataSnapshot snapshot) {
                 if (snapshot.exists()) {
@@ -129,16 +140,48 @@ public class VendorAnalyticsViewModel extends ViewModel {
 
         // Load orders data
         loadOrdersData();
+        loadArchivedSummary();
+    }
+
+    /**
+     * Live orders only cover active and recently finished orders; older ones are counted
+     * from the archive summaries left behind by OrderArchiveWorker.
+     */
+    private void loadArchivedSummary() {
+        liveListeners.listen("vendor_analytics.archived", FirebaseDatabase.getInstance()
+                .getReference(OrderSubmission.VENDOR_STATS_PATH).child(vendorId).child(OrderArchive.ARCHIVED_STATS),
+                new ValueEventListener() {
+            @Override
+            public void onDataChange(DataSnapshot snapshot) {
+                int completed = 0, cancelled = 0;
+                for (DataSnapshot month : snapshot.getChildren()) {
+                    Long monthCompleted = month.child("completed").getValue(Long.class);
+                    Long monthCancelled = month.child("cancelled").getValue(Long.class);
+                    completed += monthCompleted != null ? monthCompleted.intValue() : 0;
+                    cancelled += monthCancelled != null ? monthCancelled.intValue() : 0;
+                }
+                archivedCompleted = completed;
+                archivedCancelled = cancelled;
+                if (lastOrdersSnapshot != null) {
+                    calculateOrderMetrics(lastOrdersSnapshot);
+                }
+            }
+
+            @Override
+            public void onCancelled(DatabaseError error) {
+                errorMessage.setValue("Failed to load archived orders: " + error.getMessage());
+            }
+        });
     }
 
     /**
      * Load orders data and calculate metrics
      */
     private void loadOrdersData() {
-        ordersRef.orderByChild("vendorId").equalTo(vendorId)
-                .addValueEventListener(new ValueEventListener() {
+        liveListeners.listen("vendor_analytics.orders", ordersRef, new ValueEventListener() {
             @Override
             public void onDataChange(DataSnapshot snapshot) {
+                lastOrdersSnapshot = snapshot;
                 calculateOrderMetrics(snapshot);
             }
 
@@ -153,60 +196,39 @@ public class VendorAnalyticsViewModel extends ViewModel {
      * Calculate order metrics from Firebase data
      */
     private void calculateOrderMetrics(DataSnapshot snapshot) {
-        int todayOrderCount = 0, weekOrderCount = 0, monthOrderCount = 0;
-        int completed = 0, pending = 0, cancelled = 0;
-        double totalRevenue = 0;
-        
         Calendar cal = Calendar.getInstance();
-        long todayStart = getStartOfDay(cal.getTime()).getTime();
-        long weekStart = getStartOfWeek(cal.getTime()).getTime();
-        long monthStart = getStartOfMonth(cal.getTime()).getTime();
+        OrderMetrics metrics = new OrderMetrics(
+                getStartOfDay(cal.getTime()).getTime(),
+                getStartOfWeek(cal.getTime()).getTime(),
+                getStartOfMonth(cal.getTime()).getTime());
         
         for (DataSnapshot orderSnapshot : snapshot.getChildren()) {
             try {
                 // Parse order data (adjust based on your Order model)
-                String status = orderSnapshot.child("status").getValue(String.class);
-                Double amount = orderSnapshot.child("totalAmount").getValue(Double.class);
-                Long timestamp = orderSnapshot.child("timestamp").getValue(Long.class);
-                
-                if (timestamp != null && timestamp > 0) {
-                    if (timestamp >= todayStart) todayOrderCount++;
-                    if (timestamp >= weekStart) weekOrderCount++;
-                    if (timestamp >= monthStart) monthOrderCount++;
-                    
-                    if (amount != null) {
-                        totalRevenue += amount;
-                    }
-                    
-                    // Count order statuses
-                    if ("completed".equalsIgnoreCase(status)) {
-                        completed++;
-                    } else if ("pending".equalsIgnoreCase(status)) {
-                        pending++;
-                    } else if ("cancelled".equalsIgnoreCase(status)) {
-                        cancelled++;
-                    }
-                }
+                metrics.add(orderSnapshot.child(OrderMapper.STATUS).getValue(String.class),
+                        orderSnapshot.child(OrderMapper.TOTAL_AMOUNT).getValue(Double.class),
+                        orderSnapshot.child(OrderMapper.TIMESTAMP).getValue(Long.class));
             } catch (Exception e) {
                 // Handle parsing errors gracefully
             }
         }
         
         // Update LiveData
+        int weekOrderCount = metrics.getWeekOrders();
         totalOrders.setValue(weekOrderCount);
-        completedOrders.setValue(completed);
-        pendingOrders.setValue(pending);
-        cancelledOrders.setValue(cancelled);
+        completedOrders.setValue(metrics.getCompleted() + archivedCompleted);
+        pendingOrders.setValue(metrics.getPending());
+        cancelledOrders.setValue(metrics.getCancelled() + archivedCancelled);
         
         // Calculate metrics
         if (weekOrderCount > 0) {
-            avgOrderValue.setValue(totalRevenue / weekOrderCount);
-            completionRate.setValue((completed * 100) / weekOrderCount);
+            avgOrderValue.setValue(metrics.getAverageOrderValue());
+            completionRate.setValue(metrics.getCompletionRate());
         }
         
         // Update week earnings based on calculated revenue
-        if (totalRevenue > 0) {
-            weekEarnings.setValue(totalRevenue);
+        if (metrics.getTotalRevenue() > 0) {
+            weekEarnings.setValue(metrics.getTotalRevenue());
         }
     }
 
@@ -273,6 +295,6 @@ public class VendorAnalyticsViewModel extends ViewModel {
     @Override
     protected void onCleared() {
         super.onCleared();
-        // Clean up Firebase listeners if needed
+        liveListeners.stopAll();
     }
 }
@@ -0,0 +1,138 @@
+package com.example.foodvan.workers;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.work.Constraints;
+import androidx.work.Data;
+import androidx.work.ExistingPeriodicWorkPolicy;
+import androidx.work.NetworkType;
+import androidx.work.PeriodicWorkRequest;
+import androidx.work.WorkManager;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+
+import com.example.foodvan.utils.FirebaseManager;
+import com.example.foodvan.utils.OrderArchive;
+import com.example.foodvan.utils.VendorOrderIndex;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.auth.FirebaseAuth;
+import com.google.firebase.auth.FirebaseUser;
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.DatabaseReference;
+import com.google.firebase.database.FirebaseDatabase;
+import com.google.firebase.database.Query;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * OrderArchiveWorker - Daily job that moves a vendor's finished orders older than the
+ * horizon into the archive tier (see OrderArchive), so live order listeners only carry
+ * active orders. Each vendor has its own job, which does nothing while another account is
+ * signed in.
+ */
+public class OrderArchiveWorker extends Worker {
+
+    private static final String TAG = "OrderArchiveWorker";
+    public static final String WORK_NAME = "order_archive";
+    public static final String KEY_HORIZON_DAYS = "horizon_days";
+    public static final String KEY_VENDOR_ID = "vendor_id";
+
+    // Orders scanned per query; each scanned page is archived with one multi-path update
+    private static final int SCAN_PAGE_SIZE = 200;
+
+    public OrderArchiveWorker(@NonNull Context context, @NonNull WorkerParameters workerParams) {
+        super(context, workerParams);
+    }
+
+    public static void schedule(Context context, String vendorId, int horizonDays) {
+        Constraints constraints = new Constraints.Builder()
+                .setRequiredNetworkType(NetworkType.UNMETERED)
+                .setRequiresBatteryNotLow(true)
+                .build();
+
+        PeriodicWorkRequest request = new PeriodicWorkRequest.Builder(OrderArchiveWorker.class, 1, TimeUnit.DAYS)
+                .setConstraints(constraints)
+                .setInputData(new Data.Builder()
+                        .putString(KEY_VENDOR_ID, vendorId)
+                        .putInt(KEY_HORIZON_DAYS, horizonDays)
+                        .build())
+                .addTag(WORK_NAME)
+                .build();
+
+        WorkManager workManager = WorkManager.getInstance(context);
+        // The job used to be shared by whichever vendor was signed in
+        workManager.cancelUniqueWork(WORK_NAME);
+        workManager.enqueueUniquePeriodicWork(WORK_NAME + "_" + vendorId, ExistingPeriodicWorkPolicy.KEEP, request);
+    }
+
+    @NonNull
+    @Override
+    public Result doWork() {
+        String vendorId = getInputData().getString(KEY_VENDOR_ID);
+        // Scheduled for one vendor; under another account its orders are not ours to move
+        if (vendorId == null || !isSignedIn(vendorId)) {
+            return Result.success();
+        }
+        int horizonDays = getInputData().getInt(KEY_HORIZON_DAYS, OrderArchive.DEFAULT_HORIZON_DAYS);
+        long now = System.currentTimeMillis();
+        long horizon = OrderArchive.horizonMillis(horizonDays);
+
+        DatabaseReference root = FirebaseDatabase.getInstance().getReference();
+        DatabaseReference vendorOrders = root.child(VendorOrderIndex.VENDOR_ORDERS_PATH).child(vendorId);
+
+        try {
+            int archived = 0;
+            Double cursorTime = null;
+            String cursorKey = null;
+            while (!isStopped() && isSignedIn(vendorId)) {
+                // Only orders placed before the cutoff can have been idle that long
+                Query query = vendorOrders.orderByChild(VendorOrderIndex.ORDER_TIME)
+                        .endAt((double) (now - horizon));
+                if (cursorKey != null) {
+                    query = query.startAt(cursorTime, cursorKey);
+                }
+                DataSnapshot page = Tasks.await(query.limitToFirst(SCAN_PAGE_SIZE).get());
+
+                Map<String, Map<String, Object>> scanned = new LinkedHashMap<>();
+                for (DataSnapshot child : page.getChildren()) {
+                    Object value = child.getValue();
+                    if (value instanceof Map && !child.getKey().equals(cursorKey)) {
+                        scanned.put(child.getKey(), asOrderMap(value));
+                    }
+                    cursorKey = child.getKey();
+                    Double orderTime = child.child(VendorOrderIndex.ORDER_TIME).getValue(Double.class);
+                    cursorTime = orderTime != null ? orderTime : 0d;
+                }
+
+                OrderArchive.Batch batch = OrderArchive.plan(vendorId, scanned, now, horizon);
+                if (!batch.isEmpty()) {
+                    Tasks.await(root.updateChildren(FirebaseManager.withIncrements(batch.writes, batch.increments)));
+                    archived += batch.archivedOrderIds.size();
+                }
+                if (page.getChildrenCount() < SCAN_PAGE_SIZE) {
+                    break;
+                }
+            }
+            Log.d(TAG, "Archived orders: " + archived);
+            return Result.success();
+
+        } catch (Exception e) {
+            Log.e(TAG, "Order archival failed, will retry", e);
+            return Result.retry();
+        }
+    }
+
+    private static boolean isSignedIn(String vendorId) {
+        FirebaseUser user = FirebaseAuth.getInstance().getCurrentUser();
+        return user != null && vendorId.equals(user.getUid());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> asOrderMap(Object value) {
+        return (Map<String, Object>) value;
+    }
+}
@@ -0,0 +1,179 @@
+package com.example.foodvan.workers;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.work.Constraints;
+import androidx.work.Data;
+import androidx.work.ExistingWorkPolicy;
+import androidx.work.NetworkType;
+import androidx.work.OneTimeWorkRequest;
+import androidx.work.WorkManager;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+
+import com.example.foodvan.utils.FirebaseManager;
+import com.example.foodvan.utils.KeyValueStore;
+import com.example.foodvan.utils.KeyValueStores;
+import com.example.foodvan.utils.OrderSubmission;
+import com.example.foodvan.utils.VendorOrderIndex;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.auth.FirebaseAuth;
+import com.google.firebase.auth.FirebaseUser;
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.DatabaseReference;
+import com.google.firebase.database.FirebaseDatabase;
+import com.google.firebase.database.Query;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * OrderIndexBackfillWorker - One-time job that adds orders placed before the order indexes
+ * existed: a vendor's into vendor_orders, so the orders screen shows them, and a customer's
+ * into customer_orders with their totals added to customer_stats. Runs once per user per
+ * device; a finished run is recorded in the "order_backfill" store.
+ */
+public class OrderIndexBackfillWorker extends Worker {
+
+    private static final String TAG = "OrderIndexBackfill";
+    public static final String WORK_NAME = "order_index_backfill";
+    public static final String KEY_USER_ID = "user_id";
+    public static final String KEY_ROLE = "role";
+    public static final String ROLE_VENDOR = "vendor";
+    public static final String ROLE_CUSTOMER = "customer";
+
+    private static final String STORE_NAME = "order_backfill";
+    // Bump to run the backfill again after the index shape changes
+    private static final int VERSION = 1;
+
+    // Orders read per query, and index entries written per multi-path update
+    private static final int SCAN_PAGE_SIZE = 200;
+    private static final int MAX_WRITES_PER_UPDATE = 500;
+
+    public OrderIndexBackfillWorker(@NonNull Context context, @NonNull WorkerParameters workerParams) {
+        super(context, workerParams);
+    }
+
+    public static void schedule(Context context, String role, String userId) {
+        if (userId == null || isDone(context, role, userId)) {
+            return;
+        }
+        Constraints constraints = new Constraints.Builder()
+                .setRequiredNetworkType(NetworkType.CONNECTED)
+                .build();
+
+        OneTimeWorkRequest request = new OneTimeWorkRequest.Builder(OrderIndexBackfillWorker.class)
+                .setConstraints(constraints)
+                .setInputData(new Data.Builder()
+                        .putString(KEY_ROLE, role)
+                        .putString(KEY_USER_ID, userId)
+                        .build())
+                .addTag(WORK_NAME)
+                .build();
+
+        WorkManager.getInstance(context)
+                .enqueueUniqueWork(WORK_NAME + "_" + role + "_" + userId, ExistingWorkPolicy.KEEP, request);
+    }
+
+    private static boolean isDone(Context context, String role, String userId) {
+        return store(context).getBoolean(doneKey(role, userId), false);
+    }
+
+    private static String doneKey(String role, String userId) {
+        return role + "_" + userId + "_v" + VERSION;
+    }
+
+    private static KeyValueStore store(Context context) {
+        return KeyValueStores.get(context, STORE_NAME);
+    }
+
+    @NonNull
+    @Override
+    public Result doWork() {
+        String role = getInputData().getString(KEY_ROLE);
+        String userId = getInputData().getString(KEY_USER_ID);
+        FirebaseUser user = FirebaseAuth.getInstance().getCurrentUser();
+        // The rules only let users write their own index; another account finishes it later
+        if (userId == null || user == null || !userId.equals(user.getUid())) {
+            return Result.success();
+        }
+        boolean vendor = ROLE_VENDOR.equals(role);
+
+        DatabaseReference root = FirebaseDatabase.getInstance().getReference();
+        try {
+            String indexPath = vendor ? VendorOrderIndex.VENDOR_ORDERS_PATH : OrderSubmission.CUSTOMER_ORDERS_PATH;
+            Set<String> indexed = new HashSet<>();
+            DataSnapshot index = Tasks.await(root.child(indexPath).child(userId).get());
+            for (DataSnapshot child : index.getChildren()) {
+                indexed.add(child.getKey());
+            }
+            long lastOrderAt = 0;
+            if (!vendor) {
+                Long stored = Tasks.await(root.child(OrderSubmission.CUSTOMER_STATS_PATH).child(userId)
+                        .child("lastOrderAt").get()).getValue(Long.class);
+                lastOrderAt = stored != null ? stored : 0;
+            }
+
+            int added = 0;
+            String cursorKey = null;
+            while (!isStopped()) {
+                Query query = root.child(VendorOrderIndex.ORDERS_PATH).orderByChild(vendor ? "vendorId" : "customerId")
+                        .startAt(userId, cursorKey)
+                        .endAt(userId)
+                        .limitToFirst(SCAN_PAGE_SIZE);
+                DataSnapshot page = Tasks.await(query.get());
+
+                Map<String, Map<String, Object>> scanned = new LinkedHashMap<>();
+                for (DataSnapshot child : page.getChildren()) {
+                    Object value = child.getValue();
+                    if (value instanceof Map && !child.getKey().equals(cursorKey)) {
+                        scanned.put(child.getKey(), asOrderMap(value));
+                    }
+                    cursorKey = child.getKey();
+                }
+
+                List<Map<String, Object>> updates = new ArrayList<>();
+                if (vendor) {
+                    updates.addAll(VendorOrderIndex.backfillUpdates(userId, scanned, indexed, MAX_WRITES_PER_UPDATE));
+                } else {
+                    for (OrderSubmission.Plan plan : OrderSubmission.backfillPlans(userId, scanned, indexed,
+                            lastOrderAt, MAX_WRITES_PER_UPDATE)) {
+                        updates.add(FirebaseManager.withIncrements(plan.writes, plan.increments));
+                        Object written = plan.writes.get(OrderSubmission.CUSTOMER_STATS_PATH + "/" + userId + "/lastOrderAt");
+                        if (written instanceof Long) {
+                            lastOrderAt = Math.max(lastOrderAt, (Long) written);
+                        }
+                    }
+                }
+                for (Map<String, Object> update : updates) {
+                    Tasks.await(root.updateChildren(update));
+                }
+                added += updates.size();
+                indexed.addAll(scanned.keySet());
+                if (page.getChildrenCount() < SCAN_PAGE_SIZE) {
+                    store(getApplicationContext()).edit()
+                            .putBoolean(doneKey(role, userId), true)
+                            .apply();
+                    break;
+                }
+            }
+            Log.d(TAG, "Backfill updates written: " + added);
+            return Result.success();
+
+        } catch (Exception e) {
+            Log.e(TAG, "Order index backfill failed, will retry", e);
+            return Result.retry();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> asOrderMap(Object value) {
+        return (Map<String, Object>) value;
+    }
+}
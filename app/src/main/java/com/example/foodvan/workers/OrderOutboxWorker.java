@@ -0,0 +1,337 @@
+package com.example.foodvan.workers;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.work.BackoffPolicy;
+import androidx.work.Constraints;
+import androidx.work.ExistingWorkPolicy;
+import androidx.work.NetworkType;
+import androidx.work.OneTimeWorkRequest;
+import androidx.work.WorkManager;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+
+import com.example.foodvan.database.OrderDatabase;
+import com.example.foodvan.database.OrderMutationEntity;
+import com.example.foodvan.database.OrderOutboxDao;
+import com.example.foodvan.utils.OrderOutbox;
+import com.example.foodvan.utils.VendorOrderIndex;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.TaskCompletionSource;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.DatabaseError;
+import com.google.firebase.database.DatabaseException;
+import com.google.firebase.database.DatabaseReference;
+import com.google.firebase.database.FirebaseDatabase;
+import com.google.firebase.database.MutableData;
+import com.google.firebase.database.Transaction;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.FirebaseFirestoreException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * OrderOutboxWorker - Flushes queued order status changes once the device is online.
+ *
+ * Pending rows are read in queue order, coalesced to one write per order and sent in
+ * batches of OrderOutbox.MAX_ORDERS_PER_FLUSH: a transaction per order for Realtime Database
+ * orders, a single transaction for Firestore orders. Each write is merged with the server
+ * copy last-writer-wins inside its transaction, so neither a retried batch nor a concurrent
+ * writer rolls an order back. Changes the server rejects for good are dead-lettered rather
+ * than holding up the queue.
+ */
+public class OrderOutboxWorker extends Worker {
+
+    private static final String TAG = "OrderOutboxWorker";
+    public static final String WORK_NAME = "order_outbox_flush";
+
+    // Rows coalesced per pass; later changes for the same order are picked up by the next pass
+    private static final int MAX_MUTATIONS_PER_PASS = 2000;
+    private static final long BACKOFF_SECONDS = 30;
+    // Stays under SQLite's bound-parameter limit
+    private static final int MAX_IDS_PER_DELETE = 500;
+
+    private final OrderOutboxDao outboxDao;
+
+    public OrderOutboxWorker(@NonNull Context context, @NonNull WorkerParameters workerParams) {
+        super(context, workerParams);
+        outboxDao = OrderDatabase.getInstance(context).orderOutboxDao();
+    }
+
+    /**
+     * Schedules a flush for when the device has a connection. Changes queued while a flush is
+     * already running are handled by an appended run rather than being dropped.
+     */
+    public static void schedule(Context context) {
+        Constraints constraints = new Constraints.Builder()
+                .setRequiredNetworkType(NetworkType.CONNECTED)
+                .build();
+
+        OneTimeWorkRequest request = new OneTimeWorkRequest.Builder(OrderOutboxWorker.class)
+                .setConstraints(constraints)
+                .setBackoffCriteria(BackoffPolicy.EXPONENTIAL, BACKOFF_SECONDS, TimeUnit.SECONDS)
+                .addTag(WORK_NAME)
+                .build();
+
+        WorkManager.getInstance(context)
+                .enqueueUniqueWork(WORK_NAME, ExistingWorkPolicy.APPEND_OR_REPLACE, request);
+    }
+
+    @NonNull
+    @Override
+    public Result doWork() {
+        try {
+            int flushedOrders = 0;
+            List<OrderMutationEntity> pending;
+            while (!(pending = outboxDao.getPending(MAX_MUTATIONS_PER_PASS)).isEmpty()) {
+                List<OrderOutbox.Mutation> mutations = new ArrayList<>(pending.size());
+                for (OrderMutationEntity entity : pending) {
+                    mutations.add(entity.toMutation());
+                }
+
+                for (List<OrderOutbox.PendingWrite> batch : OrderOutbox.batches(OrderOutbox.coalesce(mutations))) {
+                    if (OrderOutbox.BACKEND_FIRESTORE.equals(batch.get(0).backend)) {
+                        flushFirestore(batch);
+                    } else {
+                        flushRealtime(batch);
+                    }
+                    flushedOrders += batch.size();
+                }
+            }
+            Log.d(TAG, "Outbox flushed, orders written or dead-lettered: " + flushedOrders);
+            return Result.success();
+
+        } catch (Exception e) {
+            // Unflushed rows stay queued; WorkManager retries with backoff
+            Log.e(TAG, "Outbox flush failed, will retry", e);
+            return Result.retry();
+        }
+    }
+
+    /**
+     * One transaction per order on the copy the vendor owns (the index entry, or the order
+     * itself without a vendor), resolved against what the server holds at commit time, so a
+     * concurrent newer change is never overwritten. The other copy follows in one update.
+     */
+    private void flushRealtime(List<OrderOutbox.PendingWrite> batch) throws Exception {
+        DatabaseReference root = FirebaseDatabase.getInstance().getReference();
+
+        List<Task<DataSnapshot>> commits = new ArrayList<>(batch.size());
+        for (OrderOutbox.PendingWrite write : batch) {
+            String path = write.vendorId != null
+                    ? VendorOrderIndex.vendorOrderPath(write.vendorId, write.orderId)
+                    : VendorOrderIndex.orderPath(write.orderId);
+            commits.add(resolveInTransaction(root.child(path), write));
+        }
+        Tasks.await(Tasks.whenAllComplete(commits));
+
+        Map<String, Object> mirror = new HashMap<>();
+        List<Long> flushed = new ArrayList<>();
+        Exception transientFailure = null;
+        for (int i = 0; i < batch.size(); i++) {
+            OrderOutbox.PendingWrite write = batch.get(i);
+            Task<DataSnapshot> commit = commits.get(i);
+            if (!commit.isSuccessful()) {
+                Exception error = commit.getException();
+                if (isPermanent(error)) {
+                    deadLetter(write.mutationIds, error);
+                } else {
+                    transientFailure = error;
+                }
+                continue;
+            }
+            Map<String, Object> committed = asMap(commit.getResult().getValue());
+            Map<String, Object> fields = OrderOutbox.mirroredFields(write, committed);
+            if (write.vendorId != null) {
+                for (Map.Entry<String, Object> field : fields.entrySet()) {
+                    mirror.put(VendorOrderIndex.orderPath(write.orderId) + "/" + field.getKey(), field.getValue());
+                }
+            } else if (committed != null && committed.get("vendorId") instanceof String) {
+                String vendorId = (String) committed.get("vendorId");
+                for (Map.Entry<String, Object> field : fields.entrySet()) {
+                    mirror.put(VendorOrderIndex.vendorOrderPath(vendorId, write.orderId) + "/" + field.getKey(),
+                            field.getValue());
+                }
+            }
+            flushed.addAll(write.mutationIds);
+        }
+
+        if (!mirror.isEmpty()) {
+            try {
+                Tasks.await(root.updateChildren(mirror));
+            } catch (ExecutionException e) {
+                if (!isPermanent(e.getCause())) {
+                    throw e;
+                }
+                // The vendor's copy is already right; only the mirror was refused
+                Log.w(TAG, "Order copies not updated: " + e.getCause().getMessage());
+            }
+        }
+        deleteFlushed(flushed);
+        if (transientFailure != null) {
+            throw transientFailure;
+        }
+    }
+
+    private static Task<DataSnapshot> resolveInTransaction(DatabaseReference ref, OrderOutbox.PendingWrite write) {
+        TaskCompletionSource<DataSnapshot> result = new TaskCompletionSource<>();
+        ref.runTransaction(new Transaction.Handler() {
+            @NonNull
+            @Override
+            public Transaction.Result doTransaction(@NonNull MutableData currentData) {
+                // Called again with the server's copy if the local guess was out of date
+                Map<String, Object> server = asMap(currentData.getValue());
+                Map<String, Object> fields = OrderOutbox.resolve(write, server);
+                if (fields.containsKey(OrderOutbox.FIELD_STATUS)) {
+                    Object orderTime = server.get(VendorOrderIndex.ORDER_TIME);
+                    fields.put(VendorOrderIndex.STATUS_KEY, VendorOrderIndex.statusKey(write.status,
+                            orderTime instanceof Number ? ((Number) orderTime).longValue() : 0));
+                }
+                for (Map.Entry<String, Object> field : fields.entrySet()) {
+                    currentData.child(field.getKey()).setValue(field.getValue());
+                }
+                return Transaction.success(currentData);
+            }
+
+            @Override
+            public void onComplete(DatabaseError error, boolean committed, DataSnapshot snapshot) {
+                if (error != null) {
+                    result.setException(new FlushException(error.getMessage(), isPermanent(error)));
+                } else {
+                    result.setResult(snapshot);
+                }
+            }
+        }, false);
+        return result.getTask();
+    }
+
+    /**
+     * One transaction for the batch. If the server rejects it for good, the orders are sent
+     * one at a time so only the one it refuses is dead-lettered.
+     */
+    private void flushFirestore(List<OrderOutbox.PendingWrite> batch) throws Exception {
+        try {
+            commitFirestore(batch);
+        } catch (ExecutionException e) {
+            if (!isPermanent(e.getCause())) {
+                throw e;
+            }
+            if (batch.size() == 1) {
+                deadLetter(batch.get(0).mutationIds, e.getCause());
+                return;
+            }
+            for (OrderOutbox.PendingWrite write : batch) {
+                flushFirestore(Collections.singletonList(write));
+            }
+            return;
+        }
+        deleteFlushed(mutationIds(batch));
+    }
+
+    private void commitFirestore(List<OrderOutbox.PendingWrite> batch) throws Exception {
+        FirebaseFirestore firestore = FirebaseFirestore.getInstance();
+
+        Tasks.await(firestore.runTransaction(transaction -> {
+            // Transactions need every read before the first write
+            List<DocumentReference> refs = new ArrayList<>(batch.size());
+            List<DocumentSnapshot> snapshots = new ArrayList<>(batch.size());
+            for (OrderOutbox.PendingWrite write : batch) {
+                DocumentReference ref = firestore.collection("orders").document(write.orderId);
+                refs.add(ref);
+                snapshots.add(transaction.get(ref));
+            }
+
+            for (int i = 0; i < batch.size(); i++) {
+                DocumentSnapshot snapshot = snapshots.get(i);
+                Map<String, Object> fields = OrderOutbox.resolve(batch.get(i),
+                        snapshot.exists() ? snapshot.getData() : null);
+                if (!fields.isEmpty()) {
+                    transaction.update(refs.get(i), fields);
+                }
+            }
+            return null;
+        }));
+    }
+
+    /**
+     * Whether the server will refuse this write however often it is sent, e.g. the rules deny
+     * it or it fails validation. Network, auth token and contention failures are worth a retry.
+     */
+    private static boolean isPermanent(Throwable error) {
+        if (error instanceof FlushException) {
+            return ((FlushException) error).permanent;
+        }
+        if (error instanceof FirebaseFirestoreException) {
+            switch (((FirebaseFirestoreException) error).getCode()) {
+                case PERMISSION_DENIED:
+                case INVALID_ARGUMENT:
+                case NOT_FOUND:
+                case OUT_OF_RANGE:
+                case UNIMPLEMENTED:
+                    return true;
+                default:
+                    return false;
+            }
+        }
+        if (error instanceof DatabaseException) {
+            // updateChildren failures carry the error message but not its code
+            String message = error.getMessage();
+            return message != null && message.toLowerCase(Locale.US).contains("permission denied");
+        }
+        return false;
+    }
+
+    private static boolean isPermanent(DatabaseError error) {
+        return error.getCode() == DatabaseError.PERMISSION_DENIED
+                || error.getCode() == DatabaseError.USER_CODE_EXCEPTION;
+    }
+
+    private void deadLetter(List<Long> ids, Throwable error) {
+        String message = error != null && error.getMessage() != null ? error.getMessage() : "Rejected";
+        Log.w(TAG, "Outbox rows " + ids + " rejected by the server, dead-lettered: " + message);
+        long now = System.currentTimeMillis();
+        for (int start = 0; start < ids.size(); start += MAX_IDS_PER_DELETE) {
+            outboxDao.markFailed(ids.subList(start, Math.min(start + MAX_IDS_PER_DELETE, ids.size())), now, message);
+        }
+    }
+
+    private void deleteFlushed(List<Long> ids) {
+        for (int start = 0; start < ids.size(); start += MAX_IDS_PER_DELETE) {
+            outboxDao.deleteByIds(ids.subList(start, Math.min(start + MAX_IDS_PER_DELETE, ids.size())));
+        }
+    }
+
+    private static List<Long> mutationIds(List<OrderOutbox.PendingWrite> batch) {
+        List<Long> ids = new ArrayList<>();
+        for (OrderOutbox.PendingWrite write : batch) {
+            ids.addAll(write.mutationIds);
+        }
+        return ids;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> asMap(Object value) {
+        return value instanceof Map ? (Map<String, Object>) value : null;
+    }
+
+    private static final class FlushException extends Exception {
+        final boolean permanent;
+
+        FlushException(String message, boolean permanent) {
+            super(message);
+            this.permanent = permanent;
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.example.foodvan.utils;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+public class BulkWriteEngineTest {
+
+    private static final int ITEMS = 20_000;
+
+    private ExecutorService store;
+    private ScheduledExecutorService timer;
+
+    @Before
+    public void setUp() {
+        store = Executors.newFixedThreadPool(8);
+        timer = Executors.newSingleThreadScheduledExecutor();
+    }
+
+    @After
+    public void tearDown() {
+        store.shutdownNow();
+        timer.shutdownNow();
+    }
+
+    @Test
+    public void updates20kItemsInLimitRespectingChunksWithRetries() throws Exception {
+        Map<String, Double> prices = new ConcurrentHashMap<>();
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < ITEMS; i++) {
+            ids.add("item" + i);
+            prices.put("item" + i, 100.0);
+        }
+
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        AtomicInteger commits = new AtomicInteger();
+        Map<Integer, Integer> attempts = new ConcurrentHashMap<>();
+        // Failed asserts on the writer's threads would be lost; checked on this thread instead
+        AtomicInteger oversized = new AtomicInteger();
+        List<Long> delays = Collections.synchronizedList(new ArrayList<>());
+
+        // Fake store: applies a chunk atomically, and rejects the first attempt of every fifth chunk
+        BulkWriteEngine<String> engine = new BulkWriteEngine<>(1, 1, 4, 3, (task, delayMillis) -> {
+            delays.add(delayMillis);
+            // Scaled down so the test doesn't sleep through real backoff
+            timer.schedule(task, delayMillis / 100, TimeUnit.MILLISECONDS);
+        });
+        BulkWriteEngine.ChunkWriter<String> writer = (chunkIndex, chunk, callback) -> {
+            if (chunk.size() + 1 > BulkWriteEngine.MAX_WRITES_PER_BATCH) {
+                oversized.incrementAndGet();
+            }
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            store.execute(() -> {
+                int attempt = attempts.merge(chunkIndex, 1, Integer::sum);
+                inFlight.decrementAndGet();
+                if (chunkIndex % 5 == 0 && attempt == 1) {
+                    callback.onError("DEADLINE_EXCEEDED");
+                    return;
+                }
+                for (String id : chunk) {
+                    prices.put(id, 110.0); // Absolute value, so replays are harmless
+                }
+                commits.incrementAndGet();
+                callback.onSuccess();
+            });
+        };
+
+        CountDownLatch done = new CountDownLatch(1);
+        AtomicInteger written = new AtomicInteger();
+        AtomicInteger progressEvents = new AtomicInteger();
+        AtomicReference<String> error = new AtomicReference<>();
+        engine.run(ids, writer, new BulkWriteEngine.Listener() {
+            @Override
+            public void onChunkCommitted(int completedChunks, int totalChunks, int itemsWritten) {
+                progressEvents.incrementAndGet();
+            }
+
+            @Override
+            public void onComplete(int itemsWritten) {
+                written.set(itemsWritten);
+                done.countDown();
+            }
+
+            @Override
+            public void onError(String e) {
+                error.set(e);
+                done.countDown();
+            }
+        });
+
+        assertTrue(done.await(30, TimeUnit.SECONDS));
+        int chunks = (ITEMS + engine.getChunkSize() - 1) / engine.getChunkSize();
+
+        assertNull(error.get());
+        assertEquals(ITEMS, written.get());
+        assertEquals(chunks, commits.get());
+        assertEquals(chunks, progressEvents.get());
+        assertEquals(0, oversized.get());
+        assertTrue(maxInFlight.get() <= 4);
+        for (double price : prices.values()) {
+            assertEquals(110.0, price, 0.0);
+        }
+        // One delayed retry per rejected chunk
+        assertEquals((chunks + 4) / 5, delays.size());
+        for (long delay : delays) {
+            assertTrue(delay >= BulkWriteEngine.BASE_BACKOFF_MS / 2 && delay <= BulkWriteEngine.BASE_BACKOFF_MS);
+        }
+    }
+
+    @Test
+    public void reportsErrorAfterMaxAttempts() throws Exception {
+        List<Long> delays = new ArrayList<>();
+        BulkWriteEngine<String> engine = new BulkWriteEngine<>(2, 1, 1, 3, (task, delayMillis) -> {
+            delays.add(delayMillis);
+            task.run();
+        });
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            ids.add("item" + i);
+        }
+        AtomicInteger calls = new AtomicInteger();
+        AtomicReference<String> error = new AtomicReference<>();
+        AtomicInteger completions = new AtomicInteger();
+
+        engine.run(ids, (chunkIndex, chunk, callback) -> {
+            calls.incrementAndGet();
+            if (chunkIndex == 0) {
+                callback.onError("PERMISSION_DENIED");
+            } else {
+                callback.onSuccess();
+            }
+        }, new BulkWriteEngine.Listener() {
+            @Override
+            public void onChunkCommitted(int completedChunks, int totalChunks, int itemsWritten) {
+            }
+
+            @Override
+            public void onComplete(int itemsWritten) {
+                completions.incrementAndGet();
+            }
+
+            @Override
+            public void onError(String e) {
+                error.set(e);
+            }
+        });
+
+        assertEquals(249, engine.getChunkSize());
+        assertEquals("PERMISSION_DENIED", error.get());
+        assertEquals(0, completions.get());
+        // Chunk 0 is tried three times and no later chunk is started after the failure
+        assertEquals(3, calls.get());
+        // The second retry waits on a doubled step
+        assertEquals(2, delays.size());
+        assertTrue(delays.get(0) >= 250 && delays.get(0) <= 500);
+        assertTrue(delays.get(1) >= 500 && delays.get(1) <= 1_000);
+    }
+
+    @Test
+    public void backoffGrowsUpToTheCap() {
+        long[][] bounds = {{2, 250, 500}, {3, 500, 1_000}, {5, 2_000, 4_000}, {6, 4_000, 8_000}, {40, 4_000, 8_000}};
+        for (int i = 0; i < 100; i++) {
+            for (long[] bound : bounds) {
+                long delay = BulkWriteEngine.backoffMillis((int) bound[0]);
+                assertTrue("attempt " + bound[0] + ": " + delay, delay >= bound[1] && delay <= bound[2]);
+            }
+        }
+    }
+}
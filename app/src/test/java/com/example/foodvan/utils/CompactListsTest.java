@@ -0,0 +1,87 @@
+package com.example.foodvan.utils;
+
+import com.example.foodvan.database.Converters;
+import com.example.foodvan.models.Order;
+import com.google.gson.Gson;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class CompactListsTest {
+
+    @Test
+    public void stringsRoundTripIncludingAwkwardValues() {
+        List<String> values = Arrays.asList("https://x/a.jpg?alt=media", "", null, "12:34;-:", "पनीर 🍢");
+        String encoded = Converters.fromStringList(values);
+
+        assertTrue(CompactLists.isCompact(encoded));
+        assertEquals(values, Converters.toStringList(encoded));
+        assertEquals(Collections.emptyList(), Converters.toStringList(Converters.fromStringList(new ArrayList<>())));
+        assertNull(Converters.toStringList(Converters.fromStringList(null)));
+    }
+
+    @Test
+    public void legacyJsonRowsStillRead() {
+        Gson gson = new Gson();
+        List<String> urls = Arrays.asList("a.jpg", "b.jpg");
+        assertEquals(urls, Converters.toStringList(gson.toJson(urls)));
+
+        List<Order.OrderItem> items = Arrays.asList(new Order.OrderItem("m1", "Paneer Roll", 120, 2));
+        List<Order.OrderItem> read = Converters.toOrderItems(gson.toJson(items));
+        assertEquals("Paneer Roll", read.get(0).getItemName());
+        assertEquals(2, read.get(0).getQuantity());
+    }
+
+    @Test
+    public void orderItemsRoundTrip() {
+        Order.OrderItem roll = new Order.OrderItem("m1", "Paneer Roll", 120.5, 2);
+        roll.setSpecialInstructions("No onion; extra chutney");
+        Order.OrderItem tea = new Order.OrderItem("m2", null, 0.1 + 0.2, 1);
+        String encoded = Converters.fromOrderItems(Arrays.asList(roll, tea));
+
+        List<Order.OrderItem> read = Converters.toOrderItems(encoded);
+        assertEquals(2, read.size());
+        assertEquals("m1", read.get(0).getItemId());
+        assertEquals(120.5, read.get(0).getPrice(), 0);
+        assertEquals("No onion; extra chutney", read.get(0).getSpecialInstructions());
+        assertNull(read.get(1).getItemName());
+        assertEquals(0.1 + 0.2, read.get(1).getPrice(), 0);
+        assertNull(read.get(1).getSpecialInstructions());
+    }
+
+    @Test
+    public void lazyListBehavesLikeAnArrayList() throws Exception {
+        List<String> list = CompactLists.decodeStrings(CompactLists.encodeStrings(Arrays.asList("a", "bb", "ccc")));
+        assertEquals("ccc", list.get(2));
+        assertEquals("a", list.get(0));
+        try {
+            list.get(3);
+            fail("expected IndexOutOfBoundsException");
+        } catch (IndexOutOfBoundsException expected) {
+            // Same as ArrayList
+        }
+
+        list.add("dddd");
+        list.set(0, "z");
+        list.remove(1);
+        assertEquals(Arrays.asList("z", "ccc", "dddd"), list);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(CompactLists.decodeStrings(CompactLists.encodeStrings(Arrays.asList("x", "y"))));
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            assertEquals(Arrays.asList("x", "y"), in.readObject());
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.foodvan.utils;
+
+import com.example.foodvan.models.MenuItem;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class DishSearchIndexTest {
+
+    private static final double LAT = 12.9716;
+    private static final double LON = 77.5946;
+    private static final String[] BASES = {"Paneer", "Chicken", "Veg", "Aloo", "Pani"};
+    private static final String[] KINDS = {"Roll", "Rolls", "Tikka", "Biryani", "Puri"};
+
+    private static MenuItem dish(String id, String name, String category) {
+        MenuItem item = new MenuItem(id, null, name, "Made fresh", 100);
+        item.setCategory(category);
+        item.setAvailable(true);
+        return item;
+    }
+
+    private static List<String> ids(List<DishSearchIndex.Hit> hits) {
+        List<String> ids = new ArrayList<>();
+        for (DishSearchIndex.Hit hit : hits) {
+            ids.add(hit.item.getId());
+        }
+        return ids;
+    }
+
+    @Test
+    public void matchesEveryWordByPrefixAndRanksNameAboveCategory() {
+        DishSearchIndex index = new DishSearchIndex();
+        index.putMenu("near", LAT, LON, 4.0, Arrays.asList(
+                dish("a", "Paneer Roll", "Rolls & Wraps"),
+                dish("b", "Chicken Tikka", "Rolls & Wraps"),
+                dish("c", "Masala Chai", "Beverages")));
+        index.putMenu("far", LAT + 0.03, LON, 4.0, Arrays.asList(
+                dish("d", "Paneer Roll", "Rolls & Wraps")));
+
+        assertEquals(Arrays.asList("a", "d"), ids(index.search("paneer roll", LAT, LON, 5, 10)));
+        assertEquals(Arrays.asList("a", "d"), ids(index.search("  PAN ro", LAT, LON, 5, 10)));
+        // "roll" in the name beats "rolls" only in the category
+        assertEquals(Arrays.asList("a", "d", "b"), ids(index.search("roll", LAT, LON, 5, 10)));
+        assertTrue(index.search("paneer chai", LAT, LON, 5, 10).isEmpty());
+        // The second van is about 3.3 km north
+        assertEquals(Arrays.asList("a"), ids(index.search("paneer", LAT, LON, 2, 10)));
+        assertEquals(Arrays.asList("a"), ids(index.search("roll", LAT, LON, 5, 1)));
+    }
+
+    @Test
+    public void menuChangesAndMovesAreIncremental() {
+        DishSearchIndex index = new DishSearchIndex();
+        MenuItem soldOut = dish("x", "Paneer Tikka", "Starters");
+        soldOut.setAvailable(false);
+        index.putMenu("van", LAT, LON, 4.0, Arrays.asList(dish("a", "Paneer Roll", "Rolls"), soldOut));
+        assertEquals(2, index.size());
+        assertEquals(Arrays.asList("a"), ids(index.search("paneer", LAT, LON, 5, 10)));
+
+        index.putMenu("van", LAT, LON, 4.0, Arrays.asList(dish("b", "Aloo Tikki", "Street Food")));
+        assertTrue(index.search("paneer", LAT, LON, 5, 10).isEmpty());
+        assertEquals(Arrays.asList("b"), ids(index.search("aloo", LAT, LON, 5, 10)));
+
+        index.moveVan("van", LAT + 0.5, LON, 4.0);
+        assertTrue(index.search("aloo", LAT, LON, 5, 10).isEmpty());
+        assertEquals(Arrays.asList("b"), ids(index.search("aloo", LAT + 0.5, LON, 5, 10)));
+
+        index.removeVan("van");
+        assertEquals(0, index.size());
+        assertTrue(index.search("aloo", LAT + 0.5, LON, 5, 10).isEmpty());
+    }
+
+    @Test
+    public void agreesWithAFullScanAcrossUpdates() {
+        Random random = new Random(9);
+        DishSearchIndex index = new DishSearchIndex();
+        Map<String, double[]> positions = new HashMap<>();
+        Map<String, List<MenuItem>> menus = new HashMap<>();
+        int nextItem = 0;
+        for (int round = 0; round < 400; round++) {
+            String vanId = "van_" + random.nextInt(60);
+            double lat = LAT + (random.nextDouble() - 0.5) * 0.2;
+            double lon = LON + (random.nextDouble() - 0.5) * 0.2;
+            List<MenuItem> menu = new ArrayList<>();
+            for (int i = random.nextInt(30); i > 0; i--) {
+                MenuItem item = dish("item_" + nextItem++,
+                        BASES[random.nextInt(BASES.length)] + " " + KINDS[random.nextInt(KINDS.length)], "Mains");
+                item.setAvailable(random.nextInt(10) != 0);
+                menu.add(item);
+            }
+            index.putMenu(vanId, lat, lon, 3 + random.nextInt(3), menu);
+            positions.put(vanId, new double[]{lat, lon});
+            menus.put(vanId, menu);
+        }
+
+        String[] queries = {"paneer", "pan", "roll", "paneer roll", "p r", "chicken biryani", "puri", "tikka veg"};
+        for (String query : queries) {
+            double radius = 1 + random.nextInt(8);
+            List<String> expected = new ArrayList<>();
+            for (Map.Entry<String, List<MenuItem>> entry : menus.entrySet()) {
+                double[] at = positions.get(entry.getKey());
+                if (DishSearchIndex.distanceKm(LAT, LON, at[0], at[1]) > radius) {
+                    continue;
+                }
+                for (MenuItem item : entry.getValue()) {
+                    if (item.isAvailable() && matchesAllWords(query, item.getName() + " mains made fresh")) {
+                        expected.add(item.getId());
+                    }
+                }
+            }
+            List<DishSearchIndex.Hit> hits = index.search(query, LAT, LON, radius, 100_000);
+            List<String> actual = ids(hits);
+            expected.sort(null);
+            actual.sort(null);
+            assertEquals(query, expected, actual);
+            for (int i = 1; i < hits.size(); i++) {
+                assertTrue(hits.get(i - 1).score >= hits.get(i).score);
+            }
+            assertEquals(ids(hits).subList(0, Math.min(5, hits.size())),
+                    ids(index.search(query, LAT, LON, radius, 5)));
+        }
+    }
+
+    private static boolean matchesAllWords(String query, String text) {
+        List<String> words = Arrays.asList(DishSearchIndex.tokenize(text));
+        for (String term : DishSearchIndex.tokenize(query)) {
+            boolean found = false;
+            for (String word : words) {
+                found |= word.startsWith(term);
+            }
+            if (!found) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.foodvan.utils;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class FavoriteIndexTest {
+
+    @Test
+    public void itemKeyedAndLegacyPushKeyedFavoritesAreBothTracked() {
+        FavoriteIndex index = new FavoriteIndex();
+        index.put("item_1", "item_1");
+        index.put("item_2", "-NxLegacyPushKey");
+
+        assertTrue(index.contains("item_1"));
+        assertTrue(index.contains("item_2"));
+        assertFalse(index.contains("item_3"));
+        assertFalse(index.contains(null));
+        assertEquals("-NxLegacyPushKey", index.keyFor("item_2"));
+    }
+
+    @Test
+    public void childRemovalByKeyDropsTheRightItem() {
+        FavoriteIndex index = new FavoriteIndex();
+        index.put("item_1", "item_1");
+        index.put("item_2", "-NxLegacyPushKey");
+
+        assertEquals("item_2", index.removeKey("-NxLegacyPushKey"));
+        assertEquals("item_1", index.removeKey("item_1"));
+        assertNull(index.removeKey("unknown"));
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    public void batchLookupForAMenuPage() {
+        FavoriteIndex index = new FavoriteIndex();
+        List<String> menu = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            menu.add("item_" + i);
+            if (i % 7 == 0) {
+                index.put("item_" + i, "item_" + i);
+            }
+        }
+
+        Set<String> favorites = index.filterFavorites(menu);
+
+        assertEquals(15, favorites.size());
+        assertTrue(favorites.contains("item_0"));
+        assertTrue(favorites.contains("item_98"));
+        assertFalse(favorites.contains("item_1"));
+    }
+
+    @Test
+    public void snapshotRestoresAcrossLaunches() {
+        FavoriteIndex index = new FavoriteIndex();
+        index.put("item_1", "item_1");
+        index.put("item_2", "-NxLegacyPushKey");
+
+        FavoriteIndex restored = new FavoriteIndex();
+        restored.restore(index.snapshot());
+
+        assertEquals(new HashSet<>(Arrays.asList("item_1", "item_2")),
+                restored.filterFavorites(Arrays.asList("item_1", "item_2", "item_3")));
+        assertEquals("-NxLegacyPushKey", restored.keyFor("item_2"));
+    }
+}
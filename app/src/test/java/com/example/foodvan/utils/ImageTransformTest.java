@@ -0,0 +1,147 @@
+package com.example.foodvan.utils;
+
+import org.junit.Test;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Iterator;
+import java.util.Random;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+
+import static org.junit.Assert.*;
+
+public class ImageTransformTest {
+
+    @Test
+    public void inSampleSizeKeepsDecodedImageAboveTarget() {
+        assertEquals(1, ImageTransform.calculateInSampleSize(1000, 800, 1280, 1280));
+        assertEquals(2, ImageTransform.calculateInSampleSize(4000, 3000, 1280, 1280));
+        assertEquals(8, ImageTransform.calculateInSampleSize(4000, 3000, 320, 320));
+        assertEquals(1, ImageTransform.calculateInSampleSize(0, 0, 320, 320));
+    }
+
+    @Test
+    public void targetSizeKeepsAspectRatioAndNeverUpscales() {
+        assertArrayEquals(new int[]{1280, 960}, ImageTransform.targetSize(4000, 3000, 1280, 1280));
+        assertArrayEquals(new int[]{720, 1280}, ImageTransform.targetSize(1080, 1920, 1280, 1280));
+        assertArrayEquals(new int[]{640, 480}, ImageTransform.targetSize(640, 480, 1280, 1280));
+    }
+
+    @Test
+    public void cameraPhotoShrinksToFullAndThumbnailVariants() throws Exception {
+        byte[] original = syntheticPhoto(4000, 3000);
+
+        ImageTransform.Result result = ImageTransform.transform(new ImageIoCodec(original), original.length,
+                ImageTransform.Spec.FULL, ImageTransform.Spec.THUMBNAIL);
+
+        assertArrayEquals(new int[]{1280, 960}, result.dimensions[0]);
+        assertArrayEquals(new int[]{320, 240}, result.dimensions[1]);
+        assertTrue(result.reduction(0) > 0.8);
+        assertTrue(result.reduction(1) > 0.98);
+    }
+
+    private static byte[] syntheticPhoto(int width, int height) throws Exception {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Random random = new Random(42);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int noise = random.nextInt(24);
+                int r = Math.min(255, (x * 255 / width) + noise);
+                int g = Math.min(255, (y * 255 / height) + noise);
+                int b = Math.min(255, ((x + y) % 256) / 2 + noise);
+                image.setRGB(x, y, (r << 16) | (g << 8) | b);
+            }
+        }
+        return encodeJpeg(image, 95);
+    }
+
+    private static byte[] encodeJpeg(BufferedImage image, int quality) throws Exception {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        param.setCompressionQuality(quality / 100f);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream stream = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(stream);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    /** Stands in for BitmapFactory: subsampled decode through ImageIO, JPEG re-encode. */
+    private static class ImageIoCodec implements ImageTransform.Codec<BufferedImage> {
+        private final byte[] source;
+
+        ImageIoCodec(byte[] source) {
+            this.source = source;
+        }
+
+        @Override
+        public int[] readBounds() throws Exception {
+            try (ImageInputStream in = ImageIO.createImageInputStream(new ByteArrayInputStream(source))) {
+                ImageReader reader = ImageIO.getImageReaders(in).next();
+                reader.setInput(in);
+                int[] bounds = {reader.getWidth(0), reader.getHeight(0)};
+                reader.dispose();
+                return bounds;
+            }
+        }
+
+        @Override
+        public BufferedImage decode(int inSampleSize) throws Exception {
+            try (ImageInputStream in = ImageIO.createImageInputStream(new ByteArrayInputStream(source))) {
+                Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+                ImageReader reader = readers.next();
+                reader.setInput(in);
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(inSampleSize, inSampleSize, 0, 0);
+                BufferedImage image = reader.read(0, param);
+                reader.dispose();
+                return image;
+            }
+        }
+
+        @Override
+        public int width(BufferedImage image) {
+            return image.getWidth();
+        }
+
+        @Override
+        public int height(BufferedImage image) {
+            return image.getHeight();
+        }
+
+        @Override
+        public BufferedImage resize(BufferedImage image, int width, int height) {
+            BufferedImage resized = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = resized.createGraphics();
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.drawImage(image, 0, 0, width, height, null);
+            g.dispose();
+            return resized;
+        }
+
+        @Override
+        public byte[] encode(BufferedImage image, int quality) throws Exception {
+            return encodeJpeg(image, quality);
+        }
+
+        @Override
+        public void recycle(BufferedImage image) {
+            image.flush();
+        }
+    }
+}
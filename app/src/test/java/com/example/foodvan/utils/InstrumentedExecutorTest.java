@@ -0,0 +1,158 @@
+package com.example.foodvan.utils;
+
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.Assert.*;
+
+public class InstrumentedExecutorTest {
+
+    private static final long MS = 1_000_000L;
+
+    /**
+     * Worker threads replaced by a queue the test steps through, with a clock it advances.
+     */
+    private static final class FakeWorkers implements java.util.concurrent.Executor {
+        final ArrayDeque<Runnable> pending = new ArrayDeque<>();
+        long now;
+
+        @Override
+        public void execute(Runnable runnable) {
+            pending.add(runnable);
+        }
+
+        void runAll() {
+            while (!pending.isEmpty()) {
+                pending.poll().run();
+            }
+        }
+    }
+
+    private static final class FakeMainThread implements TaskScope.MainThread {
+        final Map<Long, List<Runnable>> scheduled = new TreeMap<>();
+        long now;
+
+        @Override
+        public void execute(Runnable runnable) {
+            executeDelayed(runnable, 0);
+        }
+
+        @Override
+        public void executeDelayed(Runnable runnable, long delayMillis) {
+            scheduled.computeIfAbsent(now + delayMillis, t -> new ArrayList<>()).add(runnable);
+        }
+
+        @Override
+        public void remove(Runnable runnable) {
+            for (List<Runnable> runnables : scheduled.values()) {
+                runnables.remove(runnable);
+            }
+        }
+
+        void advanceTo(long time) {
+            now = time;
+            for (Map.Entry<Long, List<Runnable>> entry : new TreeMap<>(scheduled).entrySet()) {
+                if (entry.getKey() <= time) {
+                    scheduled.remove(entry.getKey());
+                    for (Runnable runnable : entry.getValue()) {
+                        runnable.run();
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void userVisibleWorkOvertakesQueuedBackgroundSync() {
+        FakeWorkers workers = new FakeWorkers();
+        InstrumentedExecutor pool = new InstrumentedExecutor("io", 1, workers, () -> workers.now, null);
+        List<String> order = new ArrayList<>();
+
+        pool.execute(InstrumentedExecutor.Priority.BACKGROUND, () -> order.add("sync-1"));
+        pool.execute(InstrumentedExecutor.Priority.BACKGROUND, () -> order.add("sync-2"));
+        pool.execute(InstrumentedExecutor.Priority.USER_VISIBLE, () -> order.add("menu"));
+        workers.runAll();
+
+        assertEquals(Arrays.asList("menu", "sync-1", "sync-2"), order);
+    }
+
+    @Test
+    public void concurrencyIsBoundedAndQueueDepthTracked() {
+        FakeWorkers workers = new FakeWorkers();
+        InstrumentedExecutor pool = new InstrumentedExecutor("io", 3, workers, () -> workers.now, null);
+
+        for (int i = 0; i < 10; i++) {
+            pool.execute(() -> { });
+        }
+
+        // Ten submissions never ask for more than three worker threads
+        assertEquals(3, workers.pending.size());
+        assertEquals(3, pool.stats().running);
+        assertEquals(10, pool.stats().queueDepth);
+        assertEquals(10, pool.stats().maxQueueDepth);
+
+        workers.runAll();
+        InstrumentedExecutor.Stats stats = pool.stats();
+        assertEquals(0, stats.running);
+        assertEquals(0, stats.queueDepth);
+        assertEquals(10, stats.completed);
+    }
+
+    @Test
+    public void waitAndRunTimesFollowTheClock() {
+        FakeWorkers workers = new FakeWorkers();
+        InstrumentedExecutor pool = new InstrumentedExecutor("cpu", 1, workers, () -> workers.now, null);
+
+        pool.execute(() -> workers.now += 30 * MS);
+        pool.execute(() -> workers.now += 10 * MS);
+        pool.execute(() -> {
+            workers.now += 5 * MS;
+            throw new IllegalStateException("parse error");
+        });
+        workers.now = 20 * MS;
+        workers.runAll();
+
+        InstrumentedExecutor.Stats stats = pool.stats();
+        // Waits: 20, 50 and 60 ms; runs: 30, 10 and 5 ms
+        assertEquals(130 * MS, stats.totalWaitNanos);
+        assertEquals(60 * MS, stats.maxWaitNanos);
+        assertEquals(45 * MS, stats.totalRunNanos);
+        assertEquals(30 * MS, stats.maxRunNanos);
+        assertEquals(2, stats.completed);
+        assertEquals(1, stats.failed);
+        assertEquals(15 * MS, stats.averageRunNanos());
+    }
+
+    @Test
+    public void cancelledScopeDropsQueuedWorkAndUndeliveredCallbacks() {
+        FakeWorkers workers = new FakeWorkers();
+        InstrumentedExecutor io = new InstrumentedExecutor("io", 1, workers, () -> workers.now, null);
+        InstrumentedExecutor cpu = new InstrumentedExecutor("cpu", 1, workers, () -> workers.now, null);
+        FakeMainThread main = new FakeMainThread();
+        TaskScope screen = new TaskScope(io, cpu, main);
+        TaskScope other = new TaskScope(io, cpu, main);
+        List<String> ran = new ArrayList<>();
+
+        other.io(() -> ran.add("other-io"));
+        screen.io(() -> ran.add("screen-io"));
+        screen.cpu(() -> ran.add("screen-cpu"));
+        screen.mainDelayed(() -> ran.add("screen-reply"), 2000);
+        other.mainDelayed(() -> ran.add("other-reply"), 2000);
+
+        screen.cancel();
+        screen.io(() -> ran.add("after-cancel"));
+        workers.runAll();
+        main.advanceTo(2000);
+
+        assertEquals(Arrays.asList("other-io", "other-reply"), ran);
+        assertTrue(screen.isCancelled());
+        assertEquals(1, io.stats().cancelled);
+        assertEquals(1, cpu.stats().cancelled);
+    }
+}
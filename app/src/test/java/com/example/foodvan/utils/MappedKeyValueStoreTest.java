@@ -0,0 +1,148 @@
+package com.example.foodvan.utils;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.Assert.*;
+
+public class MappedKeyValueStoreTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void valuesSurviveReopen() throws IOException {
+        File file = new File(folder.getRoot(), "kv/FoodVanSession.kv");
+        MappedKeyValueStore store = MappedKeyValueStore.open(file);
+        store.edit()
+                .putBoolean("isLoggedIn", true)
+                .putString("userName", "Asha नाम")
+                .putLong("phoneLastUpdated", 1_717_200_000_000L)
+                .putFloat("min_rating", 3.5f)
+                .putInt("count", 7)
+                .apply();
+        store.edit().putString("userName", null).putString("userEmail", "a@b.c").apply();
+        store.close();
+
+        MappedKeyValueStore reopened = MappedKeyValueStore.open(file);
+        assertTrue(reopened.getBoolean("isLoggedIn", false));
+        assertFalse(reopened.contains("userName"));
+        assertEquals("a@b.c", reopened.getString("userEmail", ""));
+        assertEquals(1_717_200_000_000L, reopened.getLong("phoneLastUpdated", 0));
+        assertEquals(3.5f, reopened.getFloat("min_rating", 0f), 0f);
+        assertEquals(7, reopened.getInt("count", 0));
+        // Wrong type reads fall back to the default
+        assertEquals(0L, reopened.getLong("count", 0L));
+        reopened.close();
+    }
+
+    @Test
+    public void tornRecordIsDroppedOnReplay() throws IOException {
+        File file = new File(folder.getRoot(), "torn.kv");
+        MappedKeyValueStore store = MappedKeyValueStore.open(file);
+        store.edit().putString("cart_items", "[1]").apply();
+        int intact = store.logSize();
+        store.edit().putString("cart_items", "[1,2]").putString("van_id", "v1").apply();
+        store.close();
+
+        // Corrupt the payload of the second record, as if the process died mid-write
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(intact + MappedKeyValueStore.RECORD_HEADER_SIZE + 6);
+            raf.write(0x7f);
+        }
+
+        MappedKeyValueStore reopened = MappedKeyValueStore.open(file);
+        assertEquals("[1]", reopened.getString("cart_items", null));
+        assertFalse(reopened.contains("van_id"));
+        assertEquals(intact, reopened.logSize());
+
+        // New writes continue from the last good record
+        reopened.edit().putString("van_id", "v2").apply();
+        reopened.close();
+        assertEquals("v2", MappedKeyValueStore.open(file).getString("van_id", null));
+    }
+
+    @Test
+    public void clearAndImportBehaveLikePreferences() throws IOException {
+        File file = new File(folder.getRoot(), "about.kv");
+        MappedKeyValueStore store = MappedKeyValueStore.open(file);
+        Map<String, Object> legacy = new HashMap<>();
+        legacy.put("about_data", "{}");
+        legacy.put("last_update", 42L);
+        legacy.put("flag", true);
+        store.importAll(legacy);
+        assertEquals(legacy, store.getAll());
+
+        // Puts in the same editor as clear() survive it
+        store.edit().clear().putString("about_data", "{\"v\":2}").apply();
+        store.close();
+
+        MappedKeyValueStore reopened = MappedKeyValueStore.open(file);
+        assertEquals(1, reopened.getAll().size());
+        assertEquals("{\"v\":2}", reopened.getString("about_data", null));
+    }
+
+    @Test
+    public void logIsCompactedWhenTheMappingFills() throws IOException {
+        File file = new File(folder.getRoot(), "cart.kv");
+        MappedKeyValueStore store = MappedKeyValueStore.open(file);
+        String cart = repeat("{\"itemId\":\"item\",\"quantity\":2}", 40);
+        for (int i = 0; i < 2_000; i++) {
+            store.edit().putString("cart_items", cart + i).putString("van_id", "v" + (i % 3)).apply();
+        }
+        assertTrue(store.logSize() < MappedKeyValueStore.INITIAL_CAPACITY);
+        store.close();
+
+        MappedKeyValueStore reopened = MappedKeyValueStore.open(file);
+        assertEquals(cart + 1999, reopened.getString("cart_items", null));
+        assertEquals("v1", reopened.getString("van_id", null));
+        assertTrue(file.length() <= 2 * MappedKeyValueStore.INITIAL_CAPACITY);
+    }
+
+    /**
+     * 10k single-key updates to a settings-sized store all land, and the untouched entries
+     * survive the compactions along the way. The cost against SharedPreferences' XML rewrite
+     * is measured in :benchmarks (KeyValueStoreBenchmark).
+     */
+    @Test
+    public void tenThousandUpdatesSurviveReopen() throws IOException {
+        int updates = 10_000;
+        Map<String, Object> initial = new TreeMap<>();
+        for (int i = 0; i < 20; i++) {
+            initial.put("setting_" + i, "value_" + i);
+        }
+        initial.put("cart_items", repeat("{\"itemId\":\"item\",\"quantity\":2}", 40));
+
+        File file = new File(folder.getRoot(), "bench.kv");
+        MappedKeyValueStore store = MappedKeyValueStore.open(file);
+        store.importAll(initial);
+        for (int i = 0; i < updates; i++) {
+            store.edit().putString("setting_" + (i % 20), "value_" + i).apply();
+        }
+        store.close();
+
+        MappedKeyValueStore reopened = MappedKeyValueStore.open(file);
+        for (int i = 0; i < 20; i++) {
+            assertEquals("value_" + (updates - 20 + i), reopened.getString("setting_" + i, null));
+        }
+        assertEquals(initial.get("cart_items"), reopened.getString("cart_items", null));
+        assertEquals(21, reopened.getAll().size());
+        reopened.close();
+    }
+
+    private static String repeat(String value, int times) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < times; i++) {
+            builder.append(value);
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.foodvan.utils;
+
+import com.example.foodvan.models.MenuItem;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class MenuCatalogCodecTest {
+
+    private static MenuItem item(int i) {
+        MenuItem item = new MenuItem("item_" + i, "van_1", "Paneer Roll " + i, "Soft roll, \"spicy\"\nwith chutney", 89.5 + i);
+        item.setVendorId("vendor_1");
+        item.setImageUrl(i % 2 == 0 ? null : "https://example.com/img/" + i + ".jpg");
+        item.setCategory(i % 3 == 0 ? "" : "Rolls & Wraps");
+        item.setIngredients("paneer:onion:mint\u0001");
+        item.setRating(4.25);
+        item.setDiscount(i % 4 == 0 ? 10 : 0);
+        item.setTotalRatings(120 + i);
+        item.setPreparationTime(12);
+        item.setCalories(-1);
+        item.setOrderCount(i * 7);
+        item.setVegetarian(i % 2 == 0);
+        item.setSpicy(i % 5 == 0);
+        item.setAvailable(i % 7 != 0);
+        item.setNew(i == 3);
+        item.setCreatedAt(1_700_000_000_000L + i);
+        item.setLastUpdated(Long.MAX_VALUE - i);
+        return item;
+    }
+
+    private static String describe(MenuItem item) {
+        return Arrays.asList(item.getItemId(), item.getVanId(), item.getVendorId(), item.getName(),
+                item.getDescription(), item.getImageUrl(), item.getThumbnailUrl(), item.getCategory(),
+                item.getIngredients(), item.getPrice(), item.getRating(), item.getDiscount(),
+                item.getTotalRatings(), item.getPreparationTime(), item.getCalories(), item.getOrderCount(),
+                item.isVegetarian(), item.isVegan(), item.isGlutenFree(), item.isSpicy(), item.isAvailable(),
+                item.isBestSeller(), item.isNew(), item.getCreatedAt(), item.getLastUpdated()).toString();
+    }
+
+    @Test
+    public void roundTripsEveryStoredField() {
+        List<MenuItem> items = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            items.add(item(i));
+        }
+        MenuCatalogCodec.Catalog catalog = new MenuCatalogCodec.Catalog(42, 1_700_000_123_456L, items);
+
+        MenuCatalogCodec.Catalog decoded = MenuCatalogCodec.decode(MenuCatalogCodec.encode(catalog));
+
+        assertEquals(42, decoded.version);
+        assertEquals(1_700_000_123_456L, decoded.fetchedAt);
+        assertEquals(items.size(), decoded.items.size());
+        for (int i = 0; i < items.size(); i++) {
+            assertEquals(describe(items.get(i)), describe(decoded.items.get(i)));
+        }
+
+        MenuCatalogCodec.Catalog empty = MenuCatalogCodec.decode(MenuCatalogCodec.encode(
+                new MenuCatalogCodec.Catalog(-1, 0, Collections.emptyList())));
+        assertEquals(-1, empty.version);
+        assertTrue(empty.items.isEmpty());
+    }
+
+    @Test
+    public void rejectsOtherLayoutsAndTruncatedFiles() {
+        String encoded = MenuCatalogCodec.encode(
+                new MenuCatalogCodec.Catalog(3, 10, Arrays.asList(item(1), item(2))));
+
+        String otherLayout = new CompactLists.Writer(16).writeInt(MenuCatalogCodec.LAYOUT + 1).toString()
+                + encoded.substring(new CompactLists.Writer(16).writeInt(MenuCatalogCodec.LAYOUT).toString().length());
+        assertThrows(IllegalArgumentException.class, () -> MenuCatalogCodec.decode(otherLayout));
+        assertThrows(IllegalArgumentException.class,
+                () -> MenuCatalogCodec.decode(encoded.substring(0, encoded.length() / 2)));
+        assertThrows(IllegalArgumentException.class, () -> MenuCatalogCodec.decode(""));
+    }
+
+    @Test
+    public void catalogItemsCannotBeChanged() {
+        List<MenuItem> items = new ArrayList<>(Collections.singletonList(item(1)));
+        MenuCatalogCodec.Catalog catalog = new MenuCatalogCodec.Catalog(1, 1, items);
+        items.clear();
+
+        assertEquals(1, catalog.items.size());
+        assertThrows(UnsupportedOperationException.class, () -> catalog.items.add(item(2)));
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.foodvan.utils;
+
+import com.example.foodvan.models.MenuFilter;
+import com.example.foodvan.models.MenuItem;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class MenuFacetEngineTest {
+
+    private static final String[] CATEGORIES = {"Biryani", "Chaat", "Rolls & Wraps", "Beverages"};
+    private static final String[] NAMES = {"Paneer Roll", "Pani Puri", "Masala Chai", "Veg Biryani", "Chicken Roll"};
+
+    private static List<MenuItem> menu(int count, long seed) {
+        Random random = new Random(seed);
+        List<MenuItem> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String name = NAMES[random.nextInt(NAMES.length)];
+            MenuItem item = new MenuItem("item_" + i, "van_0", random.nextInt(20) == 0 ? null : name,
+                    "Fresh " + name.toLowerCase(), 20 + random.nextInt(30) * 10);
+            item.setCategory(random.nextInt(15) == 0 ? null : CATEGORIES[random.nextInt(CATEGORIES.length)]);
+            item.setVegetarian(random.nextBoolean());
+            item.setSpicy(random.nextInt(4) == 0);
+            item.setAvailable(random.nextInt(10) < 8);
+            item.setDiscount(random.nextInt(5) == 0 ? 10 : 0);
+            items.add(item);
+        }
+        return items;
+    }
+
+    private static MenuFilter randomFilter(Random random) {
+        MenuFilter filter = new MenuFilter();
+        String[] queries = {"", "", "pa", "pan", "paneer", "roll", "chai", "  Biryani "};
+        filter.setSearchQuery(queries[random.nextInt(queries.length)]);
+        if (random.nextBoolean()) {
+            filter.setAllCategoriesSelected(false);
+            List<String> selected = new ArrayList<>();
+            for (String category : CATEGORIES) {
+                if (random.nextBoolean()) {
+                    selected.add(category);
+                }
+            }
+            filter.setSelectedCategories(selected);
+        }
+        filter.setShowAvailable(random.nextInt(4) != 0);
+        filter.setShowOutOfStock(random.nextInt(4) != 0);
+        filter.setMinPrice(random.nextBoolean() ? 0 : 50 + random.nextInt(100));
+        filter.setMaxPrice(random.nextBoolean() ? 1000 : 150 + random.nextInt(200));
+        filter.setVegetarianOnly(random.nextInt(3) == 0);
+        filter.setNonVegetarianOnly(!filter.isVegetarianOnly() && random.nextInt(4) == 0);
+        filter.setSpecialOffersOnly(random.nextInt(5) == 0);
+        return filter;
+    }
+
+    @Test
+    public void matchesFilterUtilsAcrossIncrementalUpdates() {
+        List<MenuItem> items = menu(2_000, 7);
+        MenuFacetEngine engine = new MenuFacetEngine(items);
+        Random random = new Random(11);
+
+        for (int round = 0; round < 200; round++) {
+            MenuFilter filter = randomFilter(random);
+            filter.setSortBy(MenuFilter.SortOption.NAME_A_TO_Z);
+
+            List<MenuItem> expected = FilterUtils.applyFilter(items, filter);
+            List<MenuItem> actual = engine.update(filter).getItems();
+            FilterUtils.applySorting(actual, filter.getSortBy());
+            assertEquals("round " + round, expected, actual);
+        }
+    }
+
+    @Test
+    public void facetsLeaveOutTheirOwnFilter() {
+        List<MenuItem> items = menu(1_000, 3);
+        MenuFacetEngine engine = new MenuFacetEngine(items);
+
+        MenuFilter filter = new MenuFilter();
+        filter.setAllCategoriesSelected(false);
+        filter.setSelectedCategories(Collections.singletonList("Chaat"));
+        filter.setShowOutOfStock(false);
+        filter.setMinPrice(100);
+        filter.setMaxPrice(200);
+        MenuFacetEngine.Result result = engine.update(filter);
+
+        for (String category : CATEGORIES) {
+            MenuFilter only = new MenuFilter(filter);
+            only.setSelectedCategories(Collections.singletonList(category));
+            assertEquals(category, FilterUtils.applyFilter(items, only).size(), result.getCategoryCount(category));
+        }
+
+        MenuFilter anyStock = new MenuFilter(filter);
+        anyStock.setShowOutOfStock(true);
+        List<MenuItem> ignoringStock = FilterUtils.applyFilter(items, anyStock);
+        int available = 0;
+        for (MenuItem item : ignoringStock) {
+            available += item.isAvailable() ? 1 : 0;
+        }
+        assertEquals(available, result.getAvailableCount());
+        assertEquals(ignoringStock.size() - available, result.getOutOfStockCount());
+
+        MenuFilter anyPrice = new MenuFilter(filter);
+        anyPrice.setMinPrice(0);
+        anyPrice.setMaxPrice(Float.MAX_VALUE);
+        List<MenuItem> ignoringPrice = FilterUtils.applyFilter(items, anyPrice);
+        float[] bounds = FilterUtils.getPriceRange(ignoringPrice);
+        assertEquals(bounds[0] + 10, result.getMinPrice(), 0);
+        assertEquals(bounds[1] - 10, result.getMaxPrice(), 0);
+
+        int spicy = 0;
+        for (MenuItem item : result.getItems()) {
+            spicy += item.isSpicy() ? 1 : 0;
+        }
+        assertEquals(spicy, result.getTagCount("Spicy"));
+    }
+
+    @Test
+    public void categoriesAndBoundsCoverTheWholeMenu() {
+        List<MenuItem> items = menu(500, 5);
+        MenuFilter filter = new MenuFilter();
+        filter.setSearchQuery("no such dish");
+        MenuFacetEngine.Result result = new MenuFacetEngine(items).update(filter);
+
+        assertTrue(result.getItems().isEmpty());
+        assertEquals(FilterUtils.getAvailableCategories(items), result.getCategories());
+        assertArrayEquals(FilterUtils.getPriceRange(items), result.getCatalogPriceRange(), 0);
+        assertTrue(Float.isNaN(result.getMinPrice()));
+
+        MenuFacetEngine.Result empty = new MenuFacetEngine(null).update(new MenuFilter());
+        assertEquals(Arrays.asList(), empty.getCategories());
+        assertArrayEquals(new float[]{0f, 1000f}, empty.getCatalogPriceRange(), 0);
+    }
+}
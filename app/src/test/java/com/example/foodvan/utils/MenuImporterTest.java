@@ -0,0 +1,205 @@
+package com.example.foodvan.utils;
+
+import com.example.foodvan.models.MenuItem;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class MenuImporterTest {
+
+    private static final int ROWS = 50_000;
+    private static final int BATCH_SIZE = 499;
+    private static final int MAX_IN_FLIGHT = 3;
+
+    private ExecutorService executor;
+    private ExecutorService committer;
+
+    @Before
+    public void setUp() {
+        executor = Executors.newFixedThreadPool(3);
+        committer = Executors.newSingleThreadExecutor();
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+        committer.shutdownNow();
+    }
+
+    @Test
+    public void importsLargeCsvWithBoundedRowsInMemory() throws Exception {
+        AtomicInteger committed = new AtomicInteger();
+        AtomicInteger batches = new AtomicInteger();
+        AtomicInteger oversized = new AtomicInteger();
+
+        MenuImporter.BatchWriter writer = (items, callback) -> {
+            if (items.size() > MenuImporter.MAX_WRITES_PER_BATCH) {
+                oversized.incrementAndGet();
+            }
+            committer.execute(() -> {
+                committed.addAndGet(items.size());
+                batches.incrementAndGet();
+                callback.onSuccess();
+            });
+        };
+
+        // Rows read from the file but not yet committed are what the importer holds in memory
+        MenuImporter.RowSource csv = new CsvRowReader(new GeneratedCsv(ROWS), GeneratedCsv.sizeOf(ROWS));
+        AtomicInteger read = new AtomicInteger();
+        AtomicInteger peakBuffered = new AtomicInteger();
+        MenuImporter.RowSource counting = new MenuImporter.RowSource() {
+            @Override
+            public void read(MenuImporter.RowHandler handler) throws Exception {
+                csv.read(cells -> {
+                    int buffered = read.incrementAndGet() - committed.get();
+                    peakBuffered.accumulateAndGet(buffered, Math::max);
+                    handler.onRow(cells);
+                });
+            }
+
+            @Override
+            public double getProgress() {
+                return csv.getProgress();
+            }
+        };
+
+        List<Integer> progress = new ArrayList<>();
+        MenuImporter importer = new MenuImporter("vendor1", executor, writer, BATCH_SIZE, MAX_IN_FLIGHT);
+        MenuImporter.Result result = importer.run(counting,
+                (percent, status) -> {
+                    synchronized (progress) {
+                        progress.add(percent);
+                    }
+                });
+
+        assertEquals(ROWS, result.imported);
+        assertEquals(0, result.skipped);
+        assertEquals(ROWS, committed.get());
+        assertEquals((ROWS + BATCH_SIZE - 1) / BATCH_SIZE, batches.get());
+        assertEquals(0, oversized.get());
+        // The header, MAX_IN_FLIGHT chunks being written and the one being filled, whatever the file size
+        assertTrue("peak " + peakBuffered.get(), peakBuffered.get() <= 1 + (MAX_IN_FLIGHT + 1) * BATCH_SIZE);
+        assertFalse(progress.isEmpty());
+    }
+
+    @Test
+    public void skipsInvalidRowsAndParsesQuotedFields() throws Exception {
+        String csv = "Name,Description,Price,Category,Available,ImageURL\r\n"
+                + "\"Masala, Dosa\",\"Crispy \"\"rice\"\" crepe\nwith chutney\",80,South Indian,true,\n"
+                + ",Missing name,50,Snacks,true,\n"
+                + "Samosa,,not-a-price,Snacks,true,\n"
+                + "Chai,,-5,Drinks,true,\n"
+                + "Lassi,,40,,no,\n";
+        List<MenuItem> written = new ArrayList<>();
+        MenuImporter importer = new MenuImporter("vendor1", Runnable::run, (items, callback) -> {
+            written.addAll(items);
+            callback.onSuccess();
+        });
+
+        MenuImporter.Result result = importer.run(new CsvRowReader(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), csv.length()), null);
+
+        assertEquals(2, result.imported);
+        assertEquals(3, result.skipped);
+        assertEquals("Masala, Dosa", written.get(0).getName());
+        assertEquals("Crispy \"rice\" crepe\nwith chutney", written.get(0).getDescription());
+        assertEquals(80.0, written.get(0).getPrice(), 0.0);
+        assertEquals("Other", written.get(1).getCategory());
+        assertFalse(written.get(1).isAvailable());
+    }
+
+    @Test
+    public void commitFailureStopsImport() {
+        MenuImporter importer = new MenuImporter("vendor1", Runnable::run,
+                (items, callback) -> callback.onError("quota exceeded"), 10, 1);
+        try {
+            importer.run(new CsvRowReader(new GeneratedCsv(1000), 0), null);
+            fail("Expected import to fail");
+        } catch (Exception e) {
+            assertEquals("quota exceeded", e.getMessage());
+        }
+    }
+
+    @Test
+    public void failureWaitsForCommitsInFlight() {
+        AtomicInteger calls = new AtomicInteger();
+        AtomicInteger unsettled = new AtomicInteger();
+        MenuImporter.BatchWriter writer = (items, callback) -> {
+            int call = calls.incrementAndGet();
+            unsettled.incrementAndGet();
+            committer.execute(() -> {
+                try {
+                    Thread.sleep(call == 1 ? 100 : 20);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                unsettled.decrementAndGet();
+                if (call == 2) {
+                    callback.onError("quota exceeded");
+                } else {
+                    callback.onSuccess();
+                }
+            });
+        };
+        MenuImporter importer = new MenuImporter("vendor1", executor, writer, 10, MAX_IN_FLIGHT);
+        try {
+            importer.run(new CsvRowReader(new GeneratedCsv(1000), 0), null);
+            fail("Expected import to fail");
+        } catch (Exception e) {
+            assertEquals("quota exceeded", e.getMessage());
+        }
+        // Nothing dispatched after the failure, and nothing still writing once run() returned
+        assertTrue(calls.get() <= MAX_IN_FLIGHT + 1);
+        assertEquals(0, unsettled.get());
+    }
+
+    /** Produces CSV rows on demand so the test itself never holds the file in memory. */
+    private static class GeneratedCsv extends InputStream {
+        private static final byte[] HEADER =
+                "Name,Description,Price,Category,Available,ImageURL\n".getBytes(StandardCharsets.UTF_8);
+
+        private final int rows;
+        private int row = -1;
+        private byte[] current = HEADER;
+        private int pos;
+
+        GeneratedCsv(int rows) {
+            this.rows = rows;
+        }
+
+        static long sizeOf(int rows) {
+            long size = HEADER.length;
+            for (int i = 0; i < rows; i++) {
+                size += line(i).length;
+            }
+            return size;
+        }
+
+        private static byte[] line(int i) {
+            return ("Item " + i + ",Description " + i + "," + (10 + i % 200) + ".50,Category "
+                    + (i % 12) + "," + (i % 7 != 0) + ",\n").getBytes(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public int read() {
+            if (pos == current.length) {
+                if (++row >= rows) return -1;
+                current = line(row);
+                pos = 0;
+            }
+            return current[pos++] & 0xff;
+        }
+    }
+}
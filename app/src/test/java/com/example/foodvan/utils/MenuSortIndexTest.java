@@ -0,0 +1,109 @@
+package com.example.foodvan.utils;
+
+import com.example.foodvan.models.MenuFilter;
+import com.example.foodvan.models.MenuItem;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class MenuSortIndexTest {
+
+    private static MenuItem item(int id, Random random) {
+        MenuItem item = new MenuItem("item_" + id, "van_0", random.nextInt(10) == 0 ? null : "Dish " + random.nextInt(50),
+                null, 20 + random.nextInt(20) * 10);
+        item.setOrderCount(random.nextInt(5));
+        item.setRating(random.nextInt(3));
+        item.setCreatedAt(random.nextInt(30));
+        item.setLastUpdated(random.nextInt(3));
+        return item;
+    }
+
+    private static List<MenuItem> menu(int count, Random random) {
+        List<MenuItem> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            items.add(item(i, random));
+        }
+        return items;
+    }
+
+    private static List<MenuItem> stableSorted(List<MenuItem> items, MenuFilter.SortOption option) {
+        List<MenuItem> sorted = new ArrayList<>(items);
+        FilterUtils.applySorting(sorted, option);
+        return sorted;
+    }
+
+    @Test
+    public void everyOrderMatchesAStableSort() {
+        List<MenuItem> items = menu(1_000, new Random(1));
+        MenuSortIndex<MenuFilter.SortOption> index = new MenuSortIndex<>(FilterUtils::comparator);
+        index.setItems(items);
+
+        for (MenuFilter.SortOption option : MenuFilter.SortOption.values()) {
+            assertEquals(option.name(), stableSorted(items, option), index.select(option, null));
+            assertSame(index.permutation(option), index.permutation(option));
+        }
+    }
+
+    @Test
+    public void selectKeepsOnlyMatchingPositions() {
+        List<MenuItem> items = menu(300, new Random(2));
+        MenuSortIndex<MenuFilter.SortOption> index = new MenuSortIndex<>(FilterUtils::comparator);
+        index.setItems(items);
+
+        BitSet matches = new BitSet();
+        List<MenuItem> expected = new ArrayList<>();
+        for (int i = 0; i < items.size(); i += 3) {
+            matches.set(i);
+            expected.add(items.get(i));
+        }
+        assertEquals(stableSorted(expected, MenuFilter.SortOption.PRICE_HIGH_TO_LOW),
+                index.select(MenuFilter.SortOption.PRICE_HIGH_TO_LOW, matches));
+    }
+
+    @Test
+    public void replacedItemsAreMergedIntoCachedOrders() {
+        Random random = new Random(3);
+        List<MenuItem> items = menu(2_000, random);
+        MenuSortIndex<MenuFilter.SortOption> index = new MenuSortIndex<>(FilterUtils::comparator);
+        index.setItems(items);
+        for (MenuFilter.SortOption option : MenuFilter.SortOption.values()) {
+            index.permutation(option);
+        }
+
+        for (int round = 0; round < 20; round++) {
+            // A reload: fresh objects, a few edited, removed, added and one moved
+            List<MenuItem> reloaded = new ArrayList<>();
+            for (MenuItem old : items) {
+                if (random.nextInt(100) == 0) {
+                    continue;
+                }
+                MenuItem copy = new MenuItem(old.getId(), old.getVanId(), old.getName(), null, old.getPrice());
+                copy.setOrderCount(old.getOrderCount());
+                copy.setRating(old.getRating());
+                copy.setCreatedAt(old.getCreatedAt());
+                copy.setLastUpdated(old.getLastUpdated());
+                if (random.nextInt(50) == 0) {
+                    copy.setPrice(copy.getPrice() + 10);
+                    copy.setName("Renamed " + random.nextInt(50));
+                }
+                reloaded.add(copy);
+            }
+            for (int i = 0; i < 10; i++) {
+                reloaded.add(random.nextInt(reloaded.size()), item(10_000 + round * 10 + i, random));
+            }
+            reloaded.add(reloaded.remove(random.nextInt(reloaded.size())));
+
+            index.setItems(reloaded);
+            for (MenuFilter.SortOption option : MenuFilter.SortOption.values()) {
+                assertEquals("round " + round + " " + option, stableSorted(reloaded, option), index.select(option, null));
+            }
+            items = reloaded;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.foodvan.utils;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class MetricsRegistryTest {
+
+    @Test
+    public void bucketsCoverEveryValueInOrder() {
+        for (long value : new long[]{0, 1, 31, 32, 33, 63, 64, 1_000, 123_456_789L, 1L << 36}) {
+            int index = LatencyHistogram.bucketIndex(value);
+            assertTrue(value + " below its bucket", LatencyHistogram.bucketLowerBound(index) <= value);
+            if (index + 1 < LatencyHistogram.BUCKET_COUNT) {
+                assertTrue(value + " above its bucket", LatencyHistogram.bucketLowerBound(index + 1) > value);
+            }
+        }
+        assertEquals(LatencyHistogram.BUCKET_COUNT - 1, LatencyHistogram.bucketIndex(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void percentilesWithinThreePercent() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        long[] values = new long[100_000];
+        Random random = new Random(7);
+        for (int i = 0; i < values.length; i++) {
+            // Log-uniform between 1 us and 1 s, like real call latencies
+            values[i] = (long) Math.pow(10, 3 + random.nextDouble() * 6);
+            histogram.record(values[i]);
+        }
+        java.util.Arrays.sort(values);
+
+        for (double p : new double[]{50, 90, 99, 99.9}) {
+            long exact = values[(int) Math.ceil(p / 100 * values.length) - 1];
+            long reported = histogram.getPercentile(p);
+            assertEquals("p" + p, exact, reported, exact * 0.03);
+        }
+        assertEquals(values.length, histogram.getCount());
+        assertEquals(values[0], histogram.getMin());
+        assertEquals(values[values.length - 1], histogram.getMax());
+        assertEquals(values[values.length - 1], histogram.getPercentile(100));
+    }
+
+    @Test
+    public void emptyAndResetHistogramsReportZero() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getPercentile(50));
+        assertEquals(0, histogram.getMin());
+
+        histogram.record(5_000);
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMax());
+        assertEquals(0, histogram.getMean(), 0);
+    }
+
+    @Test
+    public void timersCountersAndGaugesRecordByName() {
+        long[] now = {0};
+        MetricsRegistry registry = new MetricsRegistry(() -> now[0]);
+
+        long start = registry.startTimer();
+        now[0] = 2_000_000;
+        registry.stopTimer("orders.load", start);
+        registry.increment("orders.load.ok");
+        registry.increment("orders.load.ok");
+        registry.adjustGauge("listeners.dashboard", 1);
+        registry.adjustGauge("listeners.dashboard", 1);
+        registry.adjustGauge("listeners.dashboard", -1);
+
+        assertEquals(2, registry.getCounter("orders.load.ok"));
+        assertEquals(0, registry.getCounter("orders.load.error"));
+        assertEquals(1, registry.getGauge("listeners.dashboard"));
+        assertEquals(2_000_000, registry.histogram("orders.load").getMax());
+
+        registry.reset();
+        assertEquals(0, registry.getCounter("orders.load.ok"));
+        assertEquals(0, registry.histogram("orders.load").getCount());
+        assertEquals("gauges survive a reset", 1, registry.getGauge("listeners.dashboard"));
+    }
+
+    @Test
+    public void jsonReportsLatenciesInMicroseconds() {
+        long[] now = {0};
+        MetricsRegistry registry = new MetricsRegistry(() -> now[0]);
+        long start = registry.startTimer();
+        now[0] = 1_500_000;
+        registry.stopTimer("menu.getMenuItems", start);
+        registry.increment("menu.getMenuItems.ok");
+        registry.setGauge("nodes.dashboard", 12);
+
+        JsonObject root = JsonParser.parseString(registry.toJson(1_760_000_000_000L)).getAsJsonObject();
+        assertEquals(1_760_000_000_000L, root.get("timestamp").getAsLong());
+        assertEquals(1, root.getAsJsonObject("counters").get("menu.getMenuItems.ok").getAsLong());
+        assertEquals(12, root.getAsJsonObject("gauges").get("nodes.dashboard").getAsLong());
+        JsonObject latency = root.getAsJsonObject("histograms").getAsJsonObject("menu.getMenuItems");
+        assertEquals(1, latency.get("count").getAsLong());
+        assertEquals(1500.0, latency.get("maxUs").getAsDouble(), 0);
+        assertEquals(1500.0, latency.get("p50Us").getAsDouble(), 1500 * 0.03);
+    }
+}
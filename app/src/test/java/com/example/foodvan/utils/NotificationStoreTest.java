@@ -0,0 +1,176 @@
+package com.example.foodvan.utils;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class NotificationStoreTest {
+
+    private static final String VENDOR = "vendor_0";
+    private static final long NOW = 1_717_200_000_000L;
+    private static final long DAY = 24L * 60 * 60 * 1000;
+    private static final long TTL = NotificationStore.ttlMillis(NotificationStore.DEFAULT_TTL_DAYS);
+
+    @Test
+    public void createWritesUnreadItemAndCountsIt() {
+        Map<String, Object> fields = new HashMap<>();
+        fields.put("title", "New Order Received");
+
+        NotificationStore.Update update = NotificationStore.create(VENDOR, "n1", fields, NOW, TTL);
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> item = (Map<String, Object>) update.writes.get("notifications/vendor_0/n1");
+        assertEquals("New Order Received", item.get("title"));
+        assertEquals(NOW, item.get(NotificationStore.CREATED_AT));
+        assertEquals(NOW + TTL, item.get(NotificationStore.EXPIRES_AT));
+        assertEquals(false, item.get(NotificationStore.READ));
+        assertEquals(1L, update.increments.get("notification_meta/vendor_0/unread_count"));
+    }
+
+    @Test
+    public void deleteOnlyDecrementsForUnreadItems() {
+        Map<String, Boolean> deleted = new HashMap<>();
+        deleted.put("n1", true);
+        deleted.put("n2", false);
+
+        NotificationStore.Update update = NotificationStore.delete(VENDOR, deleted);
+
+        assertTrue(update.writes.containsKey("notifications/vendor_0/n1"));
+        assertNull(update.writes.get("notifications/vendor_0/n2"));
+        assertEquals(-1L, update.increments.get(NotificationStore.unreadCountPath(VENDOR)));
+        assertTrue(NotificationStore.markRead(VENDOR, Collections.<String>emptyList()).isEmpty());
+    }
+
+    @Test
+    public void purgeRemovesOnlyExpiredItems() {
+        Map<String, Map<String, Object>> scanned = new LinkedHashMap<>();
+        scanned.put("old_unread", item(NOW - 40 * DAY, false));
+        scanned.put("old_read", item(NOW - 31 * DAY, true));
+        scanned.put("fresh", item(NOW - DAY, false));
+
+        NotificationStore.Update update = NotificationStore.purgeExpired(VENDOR, scanned, NOW);
+
+        assertEquals(2, update.writes.size());
+        assertFalse(update.writes.containsKey("notifications/vendor_0/fresh"));
+        assertEquals(-1L, update.increments.get(NotificationStore.unreadCountPath(VENDOR)));
+        assertEquals(0, NotificationStore.displayCount(-2L));
+        assertEquals(0, NotificationStore.displayCount(null));
+    }
+
+    @Test
+    public void legacyItemsGetTimestampsAndAreCountedOnce() {
+        Map<String, Map<String, Object>> items = new LinkedHashMap<>();
+        Map<String, Object> legacy = new HashMap<>();
+        legacy.put("title", "Old");
+        legacy.put("timestamp", NOW - DAY);
+        items.put("legacy", legacy);
+        Map<String, Object> undated = new HashMap<>();
+        undated.put(NotificationStore.READ, true);
+        items.put("undated", undated);
+        items.put("current", item(NOW - DAY, false));
+
+        NotificationStore.Update update = NotificationStore.fillMissingFields(VENDOR, items, NOW, TTL);
+
+        assertEquals(NOW - DAY, update.writes.get("notifications/vendor_0/legacy/createdAt"));
+        assertEquals(NOW - DAY + TTL, update.writes.get("notifications/vendor_0/legacy/expiresAt"));
+        assertEquals(false, update.writes.get("notifications/vendor_0/legacy/read"));
+        assertEquals(NOW, update.writes.get("notifications/vendor_0/undated/createdAt"));
+        assertFalse(update.writes.containsKey("notifications/vendor_0/undated/read"));
+        assertEquals(5, update.writes.size());
+        assertEquals(1L, update.increments.get(NotificationStore.unreadCountPath(VENDOR)));
+
+        Map<String, Map<String, Object>> filled = new LinkedHashMap<>();
+        filled.put("current", item(NOW - DAY, false));
+        assertTrue(NotificationStore.fillMissingFields(VENDOR, filled, NOW, TTL).isEmpty());
+    }
+
+    @Test
+    public void seedSetsTheCounterAndMarksItSeeded() {
+        NotificationStore.Update seed = NotificationStore.seed(VENDOR, 7);
+
+        assertEquals(7L, seed.writes.get(NotificationStore.unreadCountPath(VENDOR)));
+        assertEquals(true, seed.writes.get(NotificationStore.counterSeededPath(VENDOR)));
+        assertTrue(seed.increments.isEmpty());
+        assertEquals("order_o1", NotificationStore.eventId("order", "o1"));
+    }
+
+    /**
+     * A vendor with 10k notifications: every change goes through the store's updates, and the
+     * counter always equals the number of unread items without ever scanning the list.
+     * Mark-all-read and clear are each a single write.
+     */
+    @Test
+    public void counterTracksTenThousandNotifications() {
+        Map<String, Object> tree = new HashMap<>();
+        long[] counter = {0};
+        for (int i = 0; i < 10_000; i++) {
+            apply(tree, counter, NotificationStore.create(VENDOR, "n" + i, new HashMap<>(), NOW - i * 1000L, TTL));
+        }
+        assertEquals(10_000, counter[0]);
+
+        List<String> firstReads = new ArrayList<>();
+        for (int i = 0; i < 10_000; i += 3) {
+            firstReads.add("n" + i);
+        }
+        apply(tree, counter, NotificationStore.markRead(VENDOR, firstReads));
+        assertEquals(countUnread(tree), counter[0]);
+
+        NotificationStore.Update markAll = NotificationStore.markRead(VENDOR, unreadIds(tree));
+        apply(tree, counter, markAll);
+        assertEquals(0, counter[0]);
+        assertEquals(0, countUnread(tree));
+        assertEquals(1, markAll.increments.size());
+
+        NotificationStore.Update clear = NotificationStore.clear(VENDOR);
+        assertEquals(2, clear.writes.size());
+        assertNull(clear.writes.get("notifications/vendor_0"));
+    }
+
+    private static void apply(Map<String, Object> tree, long[] counter, NotificationStore.Update update) {
+        for (Map.Entry<String, Object> write : update.writes.entrySet()) {
+            String path = write.getKey();
+            if (path.endsWith("/" + NotificationStore.READ)) {
+                String itemPath = path.substring(0, path.length() - NotificationStore.READ.length() - 1);
+                @SuppressWarnings("unchecked")
+                Map<String, Object> item = (Map<String, Object>) tree.get(itemPath);
+                item.put(NotificationStore.READ, write.getValue());
+            } else if (write.getValue() == null) {
+                tree.remove(path);
+            } else {
+                tree.put(path, write.getValue());
+            }
+        }
+        for (Number delta : update.increments.values()) {
+            counter[0] += delta.longValue();
+        }
+    }
+
+    private static List<String> unreadIds(Map<String, Object> tree) {
+        List<String> ids = new ArrayList<>();
+        for (Map.Entry<String, Object> entry : tree.entrySet()) {
+            if (Boolean.FALSE.equals(((Map<?, ?>) entry.getValue()).get(NotificationStore.READ))) {
+                ids.add(entry.getKey().substring(entry.getKey().lastIndexOf('/') + 1));
+            }
+        }
+        return ids;
+    }
+
+    private static long countUnread(Map<String, Object> tree) {
+        return unreadIds(tree).size();
+    }
+
+    private static Map<String, Object> item(long createdAt, boolean read) {
+        Map<String, Object> item = new HashMap<>();
+        item.put(NotificationStore.CREATED_AT, createdAt);
+        item.put(NotificationStore.EXPIRES_AT, createdAt + TTL);
+        item.put(NotificationStore.READ, read);
+        return item;
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.foodvan.utils;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.Assert.*;
+
+public class OrderArchiveTest {
+
+    private static final String VENDOR = "vendor_0";
+    private static final long DAY = 24L * 60 * 60 * 1000;
+    private static final long NOW = 1_717_200_000_000L; // 2024-06-01
+    private static final long HORIZON = OrderArchive.horizonMillis(OrderArchive.DEFAULT_HORIZON_DAYS);
+    private static final String[] STATUSES = {"PLACED", "PREPARING", "DELIVERED", "DELIVERED", "DELIVERED", "CANCELLED"};
+
+    @Test
+    public void partitionsByUtcMonth() {
+        assertEquals("2024-05", OrderArchive.partition(NOW - 1));
+        assertEquals("2024-06", OrderArchive.partition(NOW));
+        assertEquals("order_archive/v1/2024-06/o1", OrderArchive.archivePath("v1", NOW, "o1"));
+        assertEquals("order_archive/_none/2024-06/o1", OrderArchive.archivePath("", NOW, "o1"));
+    }
+
+    @Test
+    public void onlyFinishedOrdersPastTheHorizonAreArchivable() {
+        assertTrue(OrderArchive.isArchivable(order("DELIVERED", NOW - 40 * DAY, NOW - 40 * DAY, 100), NOW, HORIZON));
+        assertTrue(OrderArchive.isArchivable(order("cancelled", NOW - 40 * DAY, null, 100), NOW, HORIZON));
+        // Placed long ago but still being worked on
+        assertFalse(OrderArchive.isArchivable(order("PREPARING", NOW - 40 * DAY, NOW - 40 * DAY, 100), NOW, HORIZON));
+        // Old order that changed recently
+        assertFalse(OrderArchive.isArchivable(order("DELIVERED", NOW - 40 * DAY, NOW - DAY, 100), NOW, HORIZON));
+    }
+
+    @Test
+    public void planMovesOrderAndLeavesSummary() {
+        Map<String, Map<String, Object>> scanned = new LinkedHashMap<>();
+        scanned.put("o1", order("DELIVERED", NOW - 40 * DAY, NOW - 40 * DAY, 120));
+        scanned.put("o2", order("CANCELLED", NOW - 40 * DAY, NOW - 40 * DAY, 80));
+        scanned.put("o3", order("PLACED", NOW - 40 * DAY, NOW - 40 * DAY, 50));
+
+        OrderArchive.Batch batch = OrderArchive.plan(VENDOR, scanned, NOW, HORIZON);
+
+        String month = OrderArchive.partition(NOW - 40 * DAY);
+        assertEquals(2, batch.archivedOrderIds.size());
+        assertSame(scanned.get("o1"), batch.writes.get("order_archive/vendor_0/" + month + "/o1"));
+        assertTrue(batch.writes.containsKey("orders/o1"));
+        assertNull(batch.writes.get("orders/o1"));
+        assertNull(batch.writes.get("vendor_orders/vendor_0/o2"));
+        assertFalse(batch.writes.containsKey("orders/o3"));
+
+        String summary = "vendor_stats/vendor_0/archived/" + month;
+        assertEquals(2L, batch.increments.get(summary + "/orders"));
+        assertEquals(1L, batch.increments.get(summary + "/completed"));
+        assertEquals(1L, batch.increments.get(summary + "/cancelled"));
+        assertEquals(120.0, batch.increments.get(summary + "/revenue"));
+    }
+
+    /**
+     * A year of orders for one vendor, archived in scan pages the way the worker does it.
+     * Afterwards the live index holds only active and recent orders, every order is in
+     * exactly one tier, the summaries account for everything moved, and a second run is a no-op.
+     */
+    @Test
+    public void yearOfOrdersConvergesToActiveOnlyLiveTree() {
+        Random random = new Random(3);
+        Map<String, Object> tree = new HashMap<>();
+        Map<String, Double> counters = new HashMap<>();
+        TreeMap<Long, String> byTime = new TreeMap<>();
+        int total = 20_000;
+        int expectedLive = 0;
+        for (int i = 0; i < total; i++) {
+            long orderTime = NOW - (long) (random.nextDouble() * 365 * DAY);
+            String status = STATUSES[random.nextInt(STATUSES.length)];
+            Long lastUpdated = random.nextInt(10) == 0 ? null : orderTime + random.nextInt(3) * DAY;
+            Map<String, Object> order = order(status, orderTime, lastUpdated, 50 + random.nextInt(400));
+            String orderId = "o" + i;
+            tree.put(VendorOrderIndex.orderPath(orderId), order);
+            tree.put(VendorOrderIndex.vendorOrderPath(VENDOR, orderId), order);
+            byTime.put(orderTime * 100_000 + i, orderId);
+            if (!OrderArchive.isArchivable(order, NOW, HORIZON)) expectedLive++;
+        }
+
+        int archived = runArchiver(tree, counters, byTime);
+        assertEquals(total - expectedLive, archived);
+        assertEquals(expectedLive, countPrefix(tree, VendorOrderIndex.VENDOR_ORDERS_PATH + "/" + VENDOR + "/"));
+        assertEquals(expectedLive, countPrefix(tree, VendorOrderIndex.ORDERS_PATH + "/"));
+        assertEquals(total - expectedLive, countPrefix(tree, OrderArchive.ARCHIVE_PATH + "/"));
+
+        double summarized = 0;
+        for (Map.Entry<String, Double> counter : counters.entrySet()) {
+            if (counter.getKey().endsWith("/orders")) summarized += counter.getValue();
+        }
+        assertEquals(archived, summarized, 0);
+
+        Map<String, Double> before = new HashMap<>(counters);
+        assertEquals(0, runArchiver(tree, counters, byTime));
+        assertEquals(before, counters);
+    }
+
+    /**
+     * Scans vendor_orders in orderTime pages up to the cutoff and applies each page's batch
+     * atomically, like OrderArchiveWorker.
+     */
+    private static int runArchiver(Map<String, Object> tree, Map<String, Double> counters, TreeMap<Long, String> byTime) {
+        int archived = 0;
+        long cutoff = (NOW - HORIZON) * 100_000 + 99_999;
+        List<String> ids = new ArrayList<>(byTime.headMap(cutoff, true).values());
+        for (int start = 0; start < ids.size(); start += 200) {
+            Map<String, Map<String, Object>> page = new LinkedHashMap<>();
+            for (String orderId : ids.subList(start, Math.min(start + 200, ids.size()))) {
+                @SuppressWarnings("unchecked")
+                Map<String, Object> order = (Map<String, Object>) tree.get(VendorOrderIndex.vendorOrderPath(VENDOR, orderId));
+                if (order != null) page.put(orderId, order);
+            }
+            OrderArchive.Batch batch = OrderArchive.plan(VENDOR, page, NOW, HORIZON);
+            for (Map.Entry<String, Object> write : batch.writes.entrySet()) {
+                if (write.getValue() == null) {
+                    tree.remove(write.getKey());
+                } else {
+                    tree.put(write.getKey(), write.getValue());
+                }
+            }
+            for (Map.Entry<String, Number> increment : batch.increments.entrySet()) {
+                counters.merge(increment.getKey(), increment.getValue().doubleValue(), Double::sum);
+            }
+            archived += batch.archivedOrderIds.size();
+        }
+        return archived;
+    }
+
+    private static int countPrefix(Map<String, Object> tree, String prefix) {
+        int count = 0;
+        for (String path : tree.keySet()) {
+            if (path.startsWith(prefix)) count++;
+        }
+        return count;
+    }
+
+    private static Map<String, Object> order(String status, long orderTime, Long lastUpdated, double total) {
+        Map<String, Object> order = new HashMap<>();
+        order.put("status", status);
+        order.put("orderTime", orderTime);
+        if (lastUpdated != null) order.put("lastUpdated", lastUpdated);
+        order.put("totalAmount", total);
+        order.put("statusKey", VendorOrderIndex.statusKey(status, orderTime));
+        return order;
+    }
+}
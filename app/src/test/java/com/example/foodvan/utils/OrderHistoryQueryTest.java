@@ -0,0 +1,33 @@
+package com.example.foodvan.utils;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class OrderHistoryQueryTest {
+
+    @Test
+    public void searchTextBecomesPrefixMatchPerWord() {
+        assertEquals("dosa*", OrderHistoryQuery.toFtsMatch("Dosa"));
+        assertEquals("order* 1712*", OrderHistoryQuery.toFtsMatch("  ORDER_1712 "));
+        assertEquals("van* ab*", OrderHistoryQuery.toFtsMatch("van \"ab\""));
+    }
+
+    @Test
+    public void operatorsAndBlankInputNeverReachFts() {
+        assertNull(OrderHistoryQuery.toFtsMatch(null));
+        assertNull(OrderHistoryQuery.toFtsMatch("   "));
+        assertNull(OrderHistoryQuery.toFtsMatch("\"*-()"));
+        assertEquals("a* b*", OrderHistoryQuery.toFtsMatch("a*-b"));
+    }
+
+    @Test
+    public void filtersMapToCachedStatuses() {
+        assertNull(OrderHistoryQuery.statusesFor(OrderHistoryQuery.FILTER_ALL));
+        assertEquals(Arrays.asList("DELIVERED", "COMPLETED"), OrderHistoryQuery.statusesFor(OrderHistoryQuery.FILTER_DELIVERED));
+        assertEquals(Arrays.asList("CANCELLED", "REJECTED"), OrderHistoryQuery.statusesFor(OrderHistoryQuery.FILTER_CANCELLED));
+        assertTrue(OrderHistoryQuery.statusesFor(OrderHistoryQuery.FILTER_ONGOING).contains("PREPARING"));
+    }
+}
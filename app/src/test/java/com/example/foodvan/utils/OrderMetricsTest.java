@@ -0,0 +1,47 @@
+package com.example.foodvan.utils;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class OrderMetricsTest {
+
+    private static final long DAY = 24L * 60 * 60 * 1000;
+    private static final long NOW = 100 * DAY;
+
+    @Test
+    public void countsOrdersIntoWindowsAndStatuses() {
+        OrderMetrics metrics = new OrderMetrics(NOW - DAY, NOW - 7 * DAY, NOW - 30 * DAY);
+
+        metrics.add("completed", 200.0, NOW - DAY / 2);
+        metrics.add("COMPLETED", 100.0, NOW - 3 * DAY);
+        metrics.add("pending", null, NOW - 5 * DAY);
+        metrics.add("cancelled", 50.0, NOW - 20 * DAY);
+        metrics.add("ready", 10.0, NOW - 60 * DAY);
+
+        assertEquals(1, metrics.getTodayOrders());
+        assertEquals(3, metrics.getWeekOrders());
+        assertEquals(4, metrics.getMonthOrders());
+        assertEquals(2, metrics.getCompleted());
+        assertEquals(1, metrics.getPending());
+        assertEquals(1, metrics.getCancelled());
+        // Revenue is not limited to the week, as on the analytics screen
+        assertEquals(360.0, metrics.getTotalRevenue(), 0.0);
+        assertEquals(120.0, metrics.getAverageOrderValue(), 0.0);
+        assertEquals(66, metrics.getCompletionRate());
+    }
+
+    @Test
+    public void ignoresOrdersWithoutTimestamp() {
+        OrderMetrics metrics = new OrderMetrics(NOW - DAY, NOW - 7 * DAY, NOW - 30 * DAY);
+
+        metrics.add("completed", 500.0, null);
+        metrics.add("completed", 500.0, 0L);
+
+        assertEquals(0, metrics.getWeekOrders());
+        assertEquals(0, metrics.getCompleted());
+        assertEquals(0.0, metrics.getTotalRevenue(), 0.0);
+        assertEquals(0.0, metrics.getAverageOrderValue(), 0.0);
+        assertEquals(0, metrics.getCompletionRate());
+    }
+}
@@ -0,0 +1,230 @@
+package com.example.foodvan.utils;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for OrderOutbox coalescing and last-writer-wins merging
+ */
+public class OrderOutboxTest {
+
+    private static final String[] FLOW = {"CONFIRMED", "PREPARING", "READY", "DELIVERED"};
+    private static final String[] TIME_FIELDS = {"confirmedTime", "readyTime", "deliveredTime", "cancelledAt"};
+
+    @Test
+    public void coalesce_keepsLatestStatusAndEveryTimestamp() {
+        List<OrderOutbox.Mutation> mutations = new ArrayList<>();
+        mutations.add(new OrderOutbox.Mutation(1, OrderOutbox.BACKEND_REALTIME, "o1", "v1", "CONFIRMED", 100, null));
+        mutations.add(new OrderOutbox.Mutation(2, OrderOutbox.BACKEND_REALTIME, "o2", "v1", "CONFIRMED", 150, null));
+        mutations.add(new OrderOutbox.Mutation(3, OrderOutbox.BACKEND_REALTIME, "o1", "v1", "READY", 200, null));
+        mutations.add(new OrderOutbox.Mutation(4, OrderOutbox.BACKEND_REALTIME, "o1", "v1", "DELIVERED", 300, null));
+
+        List<OrderOutbox.PendingWrite> writes = OrderOutbox.coalesce(mutations);
+
+        assertEquals(2, writes.size());
+        OrderOutbox.PendingWrite o1 = writes.get(0);
+        assertEquals("DELIVERED", o1.status);
+        assertEquals(300, o1.statusTime);
+        assertEquals(Long.valueOf(100), o1.timestamps.get("confirmedTime"));
+        assertEquals(Long.valueOf(200), o1.timestamps.get("readyTime"));
+        assertEquals(Long.valueOf(300), o1.timestamps.get("deliveredTime"));
+        assertEquals(3, o1.mutationIds.size());
+    }
+
+    @Test
+    public void resolve_olderQueuedStatusDoesNotOverwriteNewerServerStatus() {
+        OrderOutbox.PendingWrite write = OrderOutbox.coalesce(listOf(
+                new OrderOutbox.Mutation(1, OrderOutbox.BACKEND_FIRESTORE, "o1", null, "READY", 500, null))).get(0);
+
+        Map<String, Object> server = new HashMap<>();
+        server.put("status", "cancelled");
+        server.put("lastUpdated", 900L);
+        server.put("cancelledAt", 900L);
+
+        Map<String, Object> fields = OrderOutbox.resolve(write, server);
+
+        assertNull(fields.get("status"));
+        assertEquals(500L, fields.get("readyTime"));
+    }
+
+    @Test
+    public void resolve_missingOrderIsNotRecreated() {
+        OrderOutbox.PendingWrite write = OrderOutbox.coalesce(listOf(
+                new OrderOutbox.Mutation(1, OrderOutbox.BACKEND_REALTIME, "gone", "v1", "READY", 500, null))).get(0);
+
+        assertTrue(OrderOutbox.resolve(write, null).isEmpty());
+    }
+
+    @Test
+    public void batches_splitByBackendAndSize() {
+        List<OrderOutbox.Mutation> mutations = new ArrayList<>();
+        for (int i = 0; i < 250; i++) {
+            String backend = i % 5 == 0 ? OrderOutbox.BACKEND_FIRESTORE : OrderOutbox.BACKEND_REALTIME;
+            mutations.add(new OrderOutbox.Mutation(i, backend, "o" + i, "v1", "READY", i, null));
+        }
+
+        List<List<OrderOutbox.PendingWrite>> batches = OrderOutbox.batches(OrderOutbox.coalesce(mutations));
+
+        // 200 realtime orders -> 2 batches, 50 firestore orders -> 1 batch
+        assertEquals(3, batches.size());
+        for (List<OrderOutbox.PendingWrite> batch : batches) {
+            assertTrue(batch.size() <= OrderOutbox.MAX_ORDERS_PER_FLUSH);
+            for (OrderOutbox.PendingWrite write : batch) {
+                assertEquals(batch.get(0).backend, write.backend);
+            }
+        }
+    }
+
+    /**
+     * A vendor device spends four hours offline queueing thousands of transitions while a
+     * second, online device keeps changing some of the same orders. After reconnecting, with
+     * one batch failing half way and the whole flush then replayed, every order must hold the
+     * newest status across both devices and the newest value of each timestamp field.
+     */
+    @Test
+    public void offlineQueue_convergesWithConcurrentOnlineWriter() {
+        Random random = new Random(42);
+        int orderCount = 400;
+        long start = 1_700_000_000_000L;
+        long offlineMillis = 4 * 60 * 60 * 1000L;
+
+        Map<String, Map<String, Object>> server = new HashMap<>();
+        Map<String, Map<String, Object>> expected = new HashMap<>();
+        int[] offlineStep = new int[orderCount];
+        int[] onlineStep = new int[orderCount];
+        for (int i = 0; i < orderCount; i++) {
+            Map<String, Object> order = new HashMap<>();
+            order.put("status", "PLACED");
+            order.put("orderTime", start - 1000 + i);
+            order.put("lastUpdated", start - 1000 + i);
+            server.put("o" + i, order);
+            expected.put("o" + i, new HashMap<>(order));
+        }
+
+        List<OrderOutbox.Mutation> queue = new ArrayList<>();
+        long id = 0;
+        for (long t = start; t < start + offlineMillis; t += 1 + random.nextInt(3000)) {
+            int index = random.nextInt(orderCount);
+            String orderId = "o" + index;
+            if (random.nextInt(4) == 0) {
+                // Online device writes straight to the server
+                String status = nextStatus(random, onlineStep, index);
+                applyTransition(server.get(orderId), status, t);
+                applyTransition(expected.get(orderId), status, t);
+            } else {
+                String status = nextStatus(random, offlineStep, index);
+                String reason = "CANCELLED".equals(status) ? "Out of stock" : null;
+                queue.add(new OrderOutbox.Mutation(++id, OrderOutbox.BACKEND_REALTIME, orderId, "v1", status, t, reason));
+                applyTransition(expected.get(orderId), status, t);
+                if (reason != null) {
+                    expected.get(orderId).put("cancellationReason", reason);
+                }
+            }
+        }
+        assertTrue("expected thousands of queued transitions", queue.size() > 3000);
+
+        List<OrderOutbox.PendingWrite> writes = OrderOutbox.coalesce(queue);
+        List<List<OrderOutbox.PendingWrite>> batches = OrderOutbox.batches(writes);
+        assertTrue(writes.size() <= orderCount);
+        assertEquals((writes.size() + OrderOutbox.MAX_ORDERS_PER_FLUSH - 1) / OrderOutbox.MAX_ORDERS_PER_FLUSH,
+                batches.size());
+
+        // First attempt dies after half of the second batch reached the server
+        flush(server, batches.get(0));
+        flush(server, batches.get(1).subList(0, batches.get(1).size() / 2));
+        // Retry replays everything that was not acknowledged, plus a duplicate full run
+        for (List<OrderOutbox.PendingWrite> batch : batches.subList(1, batches.size())) {
+            flush(server, batch);
+        }
+        for (List<OrderOutbox.PendingWrite> batch : batches) {
+            flush(server, batch);
+        }
+
+        for (int i = 0; i < orderCount; i++) {
+            String orderId = "o" + i;
+            Map<String, Object> actual = server.get(orderId);
+            Map<String, Object> want = expected.get(orderId);
+            assertEquals(orderId, want.get("status"), actual.get("status"));
+            assertEquals(orderId, want.get("lastUpdated"), actual.get("lastUpdated"));
+            for (String field : TIME_FIELDS) {
+                assertEquals(orderId + " " + field, want.get(field), actual.get(field));
+            }
+        }
+
+        // Once converged, another flush has nothing left to write
+        for (OrderOutbox.PendingWrite write : writes) {
+            assertTrue(OrderOutbox.resolve(write, server.get(write.orderId)).isEmpty());
+        }
+    }
+
+    private static void flush(Map<String, Map<String, Object>> server, List<OrderOutbox.PendingWrite> batch) {
+        for (OrderOutbox.PendingWrite write : batch) {
+            Map<String, Object> order = server.get(write.orderId);
+            order.putAll(OrderOutbox.resolve(write, order));
+        }
+    }
+
+    /**
+     * Applies a transition the way a last-writer-wins store would see it: the status only if
+     * newer, each timestamp field only if newer.
+     */
+    private static void applyTransition(Map<String, Object> order, String status, long time) {
+        if (time > (Long) order.get("lastUpdated")) {
+            order.put("status", status);
+            order.put("lastUpdated", time);
+        }
+        String field = OrderOutbox.timestampField(status);
+        if (field != null) {
+            Object current = order.get(field);
+            if (current == null || time > (Long) current) {
+                order.put(field, time);
+            }
+        }
+    }
+
+    private static String nextStatus(Random random, int[] steps, int index) {
+        if (random.nextInt(20) == 0) {
+            return "CANCELLED";
+        }
+        String status = FLOW[steps[index] % FLOW.length];
+        steps[index]++;
+        return status;
+    }
+
+    @Test
+    public void mirroredFields_copyWhatTheServerHoldsEvenWhenNothingChanged() {
+        OrderOutbox.PendingWrite write = OrderOutbox.coalesce(listOf(
+                new OrderOutbox.Mutation(1, OrderOutbox.BACKEND_REALTIME, "o1", "v1", "READY", 500, null))).get(0);
+
+        // A replay after the index already took the change: nothing to resolve, all to mirror
+        Map<String, Object> committed = new HashMap<>();
+        committed.put("status", "READY");
+        committed.put("statusKey", "READY_0000000000100");
+        committed.put("lastUpdated", 500L);
+        committed.put("readyTime", 500L);
+        committed.put("customerName", "Asha");
+        assertTrue(OrderOutbox.resolve(write, committed).isEmpty());
+
+        Map<String, Object> mirrored = OrderOutbox.mirroredFields(write, committed);
+        assertEquals(4, mirrored.size());
+        assertEquals("READY", mirrored.get("status"));
+        assertEquals("READY_0000000000100", mirrored.get("statusKey"));
+        assertNull(mirrored.get("customerName"));
+        assertTrue(OrderOutbox.mirroredFields(write, null).isEmpty());
+    }
+
+    private static List<OrderOutbox.Mutation> listOf(OrderOutbox.Mutation mutation) {
+        List<OrderOutbox.Mutation> list = new ArrayList<>();
+        list.add(mutation);
+        return list;
+    }
+}
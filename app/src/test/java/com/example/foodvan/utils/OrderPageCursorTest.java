@@ -0,0 +1,162 @@
+package com.example.foodvan.utils;
+
+import com.example.foodvan.models.Order;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class OrderPageCursorTest {
+
+    private static final int PAGE_SIZE = 5;
+    private static final Comparator<Order> BY_TIME_THEN_ID =
+            Comparator.comparingLong(Order::getOrderTime).thenComparing(Order::getOrderId);
+
+    /**
+     * The three Firestore queries OrderRepository pages with, over an in-memory collection.
+     */
+    private static final class FakeOrders {
+        final List<Order> all = new ArrayList<>();
+        int queries;
+
+        void add(String orderId, long orderTime) {
+            Order order = new Order();
+            order.setOrderId(orderId);
+            order.setOrderTime(orderTime);
+            all.add(order);
+        }
+
+        List<Order> newest(int limit) {
+            queries++;
+            List<Order> sorted = new ArrayList<>(all);
+            sorted.sort(BY_TIME_THEN_ID.reversed());
+            return sorted.subList(0, Math.min(limit, sorted.size()));
+        }
+
+        List<Order> after(long orderTime, String orderId, int limit) {
+            queries++;
+            List<Order> page = new ArrayList<>();
+            all.stream().sorted(BY_TIME_THEN_ID)
+                    .filter(o -> o.getOrderTime() > orderTime
+                            || (o.getOrderTime() == orderTime && o.getOrderId().compareTo(orderId) > 0))
+                    .limit(limit)
+                    .forEach(page::add);
+            return page;
+        }
+
+        List<Order> before(long orderTime, String orderId, int limit) {
+            queries++;
+            List<Order> page = new ArrayList<>();
+            all.stream().sorted(BY_TIME_THEN_ID.reversed())
+                    .filter(o -> o.getOrderTime() < orderTime
+                            || (o.getOrderTime() == orderTime && o.getOrderId().compareTo(orderId) < 0))
+                    .limit(limit)
+                    .forEach(page::add);
+            return page;
+        }
+    }
+
+    private static void syncNewer(FakeOrders remote, OrderPageCursor cursor, Set<String> cached) {
+        boolean more;
+        do {
+            List<Order> page = cursor.isEmpty()
+                    ? remote.newest(PAGE_SIZE)
+                    : remote.after(cursor.newestOrderTime, cursor.newestOrderId, PAGE_SIZE);
+            for (Order order : page) {
+                assertTrue("fetched twice: " + order.getOrderId(), cached.add(order.getOrderId()));
+            }
+            more = cursor.onNewerPage(page, PAGE_SIZE);
+        } while (more);
+    }
+
+    private static void loadOlder(FakeOrders remote, OrderPageCursor cursor, Set<String> cached) {
+        List<Order> page = remote.before(cursor.oldestOrderTime, cursor.oldestOrderId, PAGE_SIZE);
+        for (Order order : page) {
+            assertTrue("fetched twice: " + order.getOrderId(), cached.add(order.getOrderId()));
+        }
+        cursor.onOlderPage(page, PAGE_SIZE);
+    }
+
+    @Test
+    public void pagingFetchesEveryOrderOnceAcrossTiesAndNewArrivals() {
+        FakeOrders remote = new FakeOrders();
+        for (int i = 0; i < 23; i++) {
+            // Pairs of orders share a time, so the id has to break the tie
+            remote.add(String.format("o%02d", i), 1000 + i / 2);
+        }
+        OrderPageCursor cursor = new OrderPageCursor();
+        Set<String> cached = new HashSet<>();
+
+        // The first sync reads only the newest page and stops
+        syncNewer(remote, cursor, cached);
+        assertEquals(1, remote.queries);
+        assertEquals(PAGE_SIZE, cached.size());
+        assertFalse(cursor.reachedEnd);
+        assertEquals("o22", cursor.newestOrderId);
+        assertEquals("o18", cursor.oldestOrderId);
+
+        // Two pages and a bit arrive, some at the newest cached time
+        remote.add("o22a", 1011);
+        for (int i = 0; i < 11; i++) {
+            remote.add("n" + i, 2000 + i);
+        }
+        remote.queries = 0;
+        syncNewer(remote, cursor, cached);
+        assertEquals(3, remote.queries);
+        assertEquals("n10", cursor.newestOrderId);
+
+        while (!cursor.reachedEnd) {
+            loadOlder(remote, cursor, cached);
+        }
+        assertEquals(remote.all.size(), cached.size());
+
+        // Caught up: one empty page each way
+        remote.queries = 0;
+        syncNewer(remote, cursor, cached);
+        loadOlder(remote, cursor, cached);
+        assertEquals(2, remote.queries);
+        assertTrue(cursor.reachedEnd);
+    }
+
+    @Test
+    public void shortFirstPageReachesTheEnd() {
+        FakeOrders remote = new FakeOrders();
+        remote.add("a", 1);
+        remote.add("b", 2);
+        OrderPageCursor cursor = new OrderPageCursor();
+
+        assertFalse(cursor.onNewerPage(remote.newest(PAGE_SIZE), PAGE_SIZE));
+        assertTrue(cursor.reachedEnd);
+        assertEquals("b", cursor.newestOrderId);
+        assertEquals("a", cursor.oldestOrderId);
+
+        // An empty history keeps no cursor, so the next sync is a first sync again
+        OrderPageCursor empty = new OrderPageCursor();
+        assertFalse(empty.onNewerPage(Collections.emptyList(), PAGE_SIZE));
+        assertTrue(empty.isEmpty());
+    }
+
+    @Test
+    public void idsAreChunkedToTheQueryLimit() {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 61; i++) {
+            ids.add("o" + i);
+        }
+        List<List<String>> chunks = OrderPageCursor.chunk(ids, 30);
+        assertEquals(3, chunks.size());
+        assertEquals(30, chunks.get(0).size());
+        assertEquals(Arrays.asList("o60"), chunks.get(2));
+        List<String> joined = new ArrayList<>();
+        chunks.forEach(joined::addAll);
+        assertEquals(ids, joined);
+        assertTrue(OrderPageCursor.chunk(Collections.<String>emptyList(), 30).isEmpty());
+    }
+}
@@ -0,0 +1,247 @@
+package com.example.foodvan.utils;
+
+import com.example.foodvan.models.Order;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TimeZone;
+
+import static org.junit.Assert.*;
+
+public class OrderSubmissionTest {
+
+    private static final String DAY = "2024-05-01";
+
+    @Test
+    public void planWritesOrderIndexesAndRollupsTogether() {
+        Order order = newOrder("o1", "cust_1", "vendor_1", 250.0);
+        OrderSubmission.Plan plan = OrderSubmission.plan(order, DAY);
+
+        assertSame(order, plan.writes.get("orders/o1"));
+        assertSame(order, plan.writes.get("vendor_orders/vendor_1/o1"));
+        assertTrue(plan.writes.get("customer_orders/cust_1/o1") instanceof Map);
+        assertEquals(1, plan.increments.get("customer_stats/cust_1/totalOrders"));
+        assertEquals(250.0, plan.increments.get("customer_stats/cust_1/totalSpent"));
+        assertEquals(1, plan.increments.get("vendor_stats/vendor_1/daily/" + DAY + "/orders"));
+        assertEquals("o1", plan.writes.get("vendor_stats/vendor_1/lastOrderId"));
+        assertEquals(250.0, plan.increments.get("vendor_stats/vendor_1/totalRevenue"));
+    }
+
+    @Test
+    public void dayKeyIsTheUtcDateWhateverTheDeviceZone() {
+        TimeZone saved = TimeZone.getDefault();
+        try {
+            TimeZone.setDefault(TimeZone.getTimeZone("Asia/Kolkata"));
+            // 2024-05-01T23:30Z is already May 2nd in India
+            assertEquals("2024-05-01", OrderSubmission.dayKey(1714606200000L));
+        } finally {
+            TimeZone.setDefault(saved);
+        }
+    }
+
+    @Test
+    public void backfillIndexesMissingOrdersAndAddsTheirTotals() {
+        Map<String, Map<String, Object>> orders = new LinkedHashMap<>();
+        for (int i = 0; i < 5; i++) {
+            Map<String, Object> order = new HashMap<>();
+            order.put("orderTime", 1000L + i);
+            order.put("totalAmount", 10.0 * (i + 1));
+            order.put("vendorId", "vendor_1");
+            order.put("status", "DELIVERED");
+            orders.put("o" + i, order);
+        }
+
+        List<OrderSubmission.Plan> plans = OrderSubmission.backfillPlans("cust_1", orders,
+                new HashSet<>(Arrays.asList("o2")), 1003L, 3);
+
+        assertEquals(2, plans.size());
+        OrderSubmission.Plan first = plans.get(0);
+        assertEquals(3, first.increments.get("customer_stats/cust_1/totalOrders"));
+        assertEquals(10.0 + 20.0 + 40.0, first.increments.get("customer_stats/cust_1/totalSpent"));
+        // o3 is no newer than the stored lastOrderAt
+        assertFalse(first.writes.containsKey("customer_stats/cust_1/lastOrderAt"));
+        Map<?, ?> summary = (Map<?, ?>) first.writes.get("customer_orders/cust_1/o0");
+        assertEquals(1000L, summary.get("orderTime"));
+        assertFalse(summary.containsKey("status"));
+        assertFalse(first.writes.containsKey("customer_orders/cust_1/o2"));
+
+        OrderSubmission.Plan second = plans.get(1);
+        assertEquals(1, second.increments.get("customer_stats/cust_1/totalOrders"));
+        assertEquals(1004L, second.writes.get("customer_stats/cust_1/lastOrderAt"));
+
+        assertTrue(OrderSubmission.backfillPlans("cust_1", orders, orders.keySet(), 0, 3).isEmpty());
+    }
+
+    @Test
+    public void placementIsOneRoundTrip() {
+        FakeStore store = new FakeStore();
+        int[] placed = new int[1];
+
+        new OrderSubmission(store).submit(newOrder("o1", "cust_1", "vendor_1", 100.0), DAY, listener(placed));
+
+        assertEquals(1, placed[0]);
+        assertEquals(1, store.roundTrips);
+        assertEquals(1.0, store.counter("vendor_stats/vendor_1/totalOrders"), 0);
+    }
+
+    @Test
+    public void lostAcknowledgementIsNotCountedTwice() {
+        FakeStore store = new FakeStore();
+        store.loseNextAck = true;
+        int[] placed = new int[1];
+
+        new OrderSubmission(store).submit(newOrder("o1", "cust_1", "vendor_1", 100.0), DAY, listener(placed));
+
+        assertEquals(1, placed[0]);
+        assertEquals(2, store.roundTrips);
+        assertEquals(1.0, store.counter("customer_stats/cust_1/totalOrders"), 0);
+        assertEquals(100.0, store.counter("vendor_stats/vendor_1/totalRevenue"), 0);
+    }
+
+    @Test
+    public void duplicateSubmissionIsRejectedAsAWhole() {
+        FakeStore store = new FakeStore();
+        Order order = newOrder("o1", "cust_1", "vendor_1", 100.0);
+        int[] placed = new int[1];
+
+        OrderSubmission submission = new OrderSubmission(store);
+        submission.submit(order, DAY, listener(placed));
+        submission.submit(order, DAY, listener(placed));
+
+        assertEquals(2, placed[0]);
+        assertEquals(1.0, store.counter("vendor_stats/vendor_1/totalOrders"), 0);
+    }
+
+    @Test
+    public void failedWriteIsRetriedUpToTheLimit() {
+        FakeStore store = new FakeStore();
+        store.failNextWrites = OrderSubmission.MAX_ATTEMPTS;
+        String[] error = new String[1];
+
+        new OrderSubmission(store).submit(newOrder("o1", "cust_1", "vendor_1", 100.0), DAY,
+                new OrderSubmission.OnSubmitListener() {
+                    @Override
+                    public void onSuccess() {
+                        fail("write never landed");
+                    }
+
+                    @Override
+                    public void onFailure(String e) {
+                        error[0] = e;
+                    }
+                });
+
+        assertEquals("network", error[0]);
+        assertFalse(store.data.containsKey("orders/o1"));
+        assertEquals(0.0, store.counter("vendor_stats/vendor_1/totalOrders"), 0);
+    }
+
+    @Test
+    public void roundTripsPerOrderUnderFlakyNetwork() {
+        FakeStore store = new FakeStore();
+        Random random = new Random(7);
+        int orders = 2000;
+        double revenue = 0;
+        int[] placed = new int[1];
+
+        OrderSubmission submission = new OrderSubmission(store);
+        for (int i = 0; i < orders; i++) {
+            // One in ten placements loses its acknowledgement, one in twenty fails outright
+            int roll = random.nextInt(20);
+            store.loseNextAck = roll < 2;
+            store.failNextWrites = roll == 2 ? 1 : 0;
+            double amount = 50 + random.nextInt(500);
+            revenue += amount;
+            submission.submit(newOrder("o" + i, "cust_" + (i % 50), "vendor_" + (i % 5), amount), DAY, listener(placed));
+        }
+
+        double roundTripsPerOrder = (double) store.roundTrips / orders;
+        assertEquals(orders, placed[0]);
+        assertTrue(roundTripsPerOrder < 1.5);
+        double vendorOrders = 0;
+        double vendorRevenue = 0;
+        for (int v = 0; v < 5; v++) {
+            vendorOrders += store.counter("vendor_stats/vendor_" + v + "/daily/" + DAY + "/orders");
+            vendorRevenue += store.counter("vendor_stats/vendor_" + v + "/totalRevenue");
+        }
+        assertEquals(orders, vendorOrders, 0);
+        assertEquals(revenue, vendorRevenue, 0.001);
+    }
+
+    private static OrderSubmission.OnSubmitListener listener(int[] placed) {
+        return new OrderSubmission.OnSubmitListener() {
+            @Override
+            public void onSuccess() {
+                placed[0]++;
+            }
+
+            @Override
+            public void onFailure(String error) {
+                fail(error);
+            }
+        };
+    }
+
+    private static Order newOrder(String orderId, String customerId, String vendorId, double total) {
+        Order order = new Order(orderId, customerId, vendorId, "van_1");
+        order.setOrderTime(1_700_000_000_000L);
+        order.setTotalAmount(total);
+        return order;
+    }
+
+    /**
+     * In-memory database with the customer_orders write-once rule and atomic multi-path updates.
+     */
+    private static class FakeStore implements OrderSubmission.Store {
+        final Map<String, Object> data = new HashMap<>();
+        final Map<String, Double> counters = new HashMap<>();
+        int roundTrips;
+        int failNextWrites;
+        boolean loseNextAck;
+
+        @Override
+        public void update(Map<String, Object> writes, Map<String, Number> increments,
+                           OrderSubmission.WriteCallback callback) {
+            roundTrips++;
+            if (failNextWrites > 0) {
+                failNextWrites--;
+                callback.onFailure("network");
+                return;
+            }
+            for (String path : writes.keySet()) {
+                if (path.startsWith(OrderSubmission.CUSTOMER_ORDERS_PATH + "/") && data.containsKey(path)) {
+                    callback.onFailure("permission denied");
+                    return;
+                }
+            }
+            data.putAll(writes);
+            for (Map.Entry<String, Number> increment : increments.entrySet()) {
+                counters.merge(increment.getKey(), increment.getValue().doubleValue(), Double::sum);
+            }
+            if (loseNextAck) {
+                loseNextAck = false;
+                callback.onFailure("disconnected");
+            } else {
+                callback.onSuccess();
+            }
+        }
+
+        @Override
+        public void exists(String path, OrderSubmission.ExistsCallback callback) {
+            roundTrips++;
+            callback.onResult(data.containsKey(path));
+        }
+
+        double counter(String path) {
+            Double value = counters.get(path);
+            return value != null ? value : 0;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.foodvan.utils;
+
+import com.example.foodvan.models.MenuItem;
+import com.example.foodvan.models.MenuItemMapper;
+import com.example.foodvan.models.Order;
+import com.example.foodvan.models.OrderMapper;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class SnapshotMapperTest {
+
+    /**
+     * An order as the realtime database hands it back: whole numbers are Longs, the rest Doubles.
+     */
+    private static Map<String, Object> orderSnapshot() {
+        Map<String, Object> item = new HashMap<>();
+        item.put("itemId", "m1");
+        item.put("itemName", "Paneer Roll");
+        item.put("price", 120L);
+        item.put("quantity", 2L);
+        item.put("totalPrice", 240L);
+
+        Map<String, Object> order = new HashMap<>();
+        order.put("orderId", "o1");
+        order.put("vendorId", "v1");
+        order.put("status", "PREPARING");
+        order.put("items", Arrays.asList(item));
+        order.put("subtotal", 240L);
+        order.put("tax", 12.0);
+        order.put("totalAmount", 282.5);
+        order.put("estimatedDeliveryTime", 25L);
+        order.put("orderTime", 1_760_000_000_000L);
+        // Written by the getters but read-only on the model
+        order.put("statusKey", "whatever");
+        order.put("formattedTotalAmount", "₹282.50");
+        return order;
+    }
+
+    @Test
+    public void readsSnapshotValuesWithFirebaseWidening() {
+        Order order = OrderMapper.INSTANCE.fromMap(orderSnapshot());
+
+        assertEquals("o1", order.getOrderId());
+        assertEquals("PREPARING", order.getStatus());
+        assertEquals(240.0, order.getSubtotal(), 0);
+        assertEquals(282.5, order.getTotalAmount(), 0);
+        assertEquals(25, order.getEstimatedDeliveryTime());
+        assertEquals(1_760_000_000_000L, order.getOrderTime());
+
+        List<Order.OrderItem> items = order.getItems();
+        assertEquals(1, items.size());
+        assertEquals("Paneer Roll", items.get(0).getItemName());
+        assertEquals(2, items.get(0).getQuantity());
+        assertEquals(120.0, items.get(0).getPrice(), 0);
+    }
+
+    @Test
+    public void writesEveryGetterLikeTheReflectiveMapper() {
+        Order order = OrderMapper.INSTANCE.fromMap(orderSnapshot());
+        Map<String, Object> written = OrderMapper.INSTANCE.toMap(order);
+
+        assertEquals("o1", written.get(OrderMapper.ORDER_ID));
+        assertEquals(order.getStatusKey(), written.get(OrderMapper.STATUS_KEY));
+        assertEquals(2, written.get(OrderMapper.TOTAL_ITEMS));
+        assertEquals(Boolean.FALSE, written.get(OrderMapper.COMPLETED));
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> item = ((List<Map<String, Object>>) written.get(OrderMapper.ITEMS)).get(0);
+        assertEquals("Paneer Roll", item.get("itemName"));
+        assertEquals(240.0, item.get("totalPrice"));
+
+        Order reread = OrderMapper.INSTANCE.fromMap(written);
+        assertEquals(order.getTotalAmount(), reread.getTotalAmount(), 0);
+        assertEquals(order.getItems().get(0).getQuantity(), reread.getItems().get(0).getQuantity());
+    }
+
+    @Test
+    public void booleanGettersUseFirebasePropertyNames() {
+        Map<String, Object> snapshot = new HashMap<>();
+        snapshot.put("vegetarian", true);
+        snapshot.put("new", true);
+        snapshot.put("price", 99L);
+
+        MenuItem item = MenuItemMapper.INSTANCE.fromMap(snapshot);
+        assertTrue(item.isVegetarian());
+        assertTrue(item.isNew());
+        assertEquals(Boolean.TRUE, MenuItemMapper.INSTANCE.toMap(item).get(MenuItemMapper.VEGETARIAN));
+    }
+
+    @Test
+    public void mismatchedValuesThrowSoCallersCanFallBack() {
+        Map<String, Object> snapshot = orderSnapshot();
+        snapshot.put("status", 3L);
+        try {
+            OrderMapper.INSTANCE.fromMap(snapshot);
+            fail("expected a conversion error");
+        } catch (IllegalArgumentException expected) {
+            // SnapshotMappers catches this and retries with reflection
+        }
+
+        try {
+            SnapshotValues.asInt(1e12);
+            fail("expected a range error");
+        } catch (IllegalArgumentException expected) {
+            // Same range check as Firebase
+        }
+    }
+}
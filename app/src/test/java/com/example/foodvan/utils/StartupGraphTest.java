@@ -0,0 +1,182 @@
+package com.example.foodvan.utils;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+public class StartupGraphTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * The app's startup shape, with random task durations: no task starts before all of its
+     * dependencies have finished, across many runs.
+     */
+    @Test
+    public void tasksStartOnlyAfterTheirDependencies() throws Exception {
+        Random random = new Random(7);
+        for (int run = 0; run < 50; run++) {
+            Map<String, Long> started = new ConcurrentHashMap<>();
+            Map<String, Long> finished = new ConcurrentHashMap<>();
+            StartupGraph graph = new StartupGraph();
+            String[][] shape = {
+                    {"firebase"},
+                    {"session_store"},
+                    {"session", "firebase", "session_store"},
+                    {"cart"},
+                    {"filters"},
+                    {"prefetch", "session"},
+            };
+            for (String[] task : shape) {
+                String name = task[0];
+                int sleep = random.nextInt(4);
+                String[] dependsOn = Arrays.copyOfRange(task, 1, task.length);
+                StartupGraph.Task body = () -> {
+                    started.put(name, System.nanoTime());
+                    Thread.sleep(sleep);
+                    finished.put(name, System.nanoTime());
+                };
+                if (name.equals("session")) {
+                    graph.addCritical(name, body, dependsOn);
+                } else {
+                    graph.add(name, body, dependsOn);
+                }
+            }
+
+            StartupGraph.Report report = await(graph).get();
+
+            for (String[] task : shape) {
+                for (int i = 1; i < task.length; i++) {
+                    assertTrue(task[0] + " started before " + task[i] + " finished",
+                            started.get(task[0]) >= finished.get(task[i]));
+                }
+                assertEquals(StartupGraph.Status.DONE, report.timing(task[0]).status);
+            }
+        }
+    }
+
+    @Test
+    public void criticalPathCompletesBeforeSlowBackgroundWork() throws Exception {
+        CountDownLatch releaseSlow = new CountDownLatch(1);
+        List<String> events = new CopyOnWriteArrayList<>();
+        StartupGraph graph = new StartupGraph()
+                .add("firebase", () -> { })
+                .addCritical("session", () -> { }, "firebase")
+                .add("slow_prefetch", releaseSlow::await);
+        CountDownLatch done = new CountDownLatch(1);
+
+        graph.start(executor, new StartupGraph.Listener() {
+            @Override
+            public void onCriticalPathComplete(StartupGraph.Report report) {
+                events.add("critical");
+                assertEquals(StartupGraph.Status.DONE, report.timing("session").status);
+                releaseSlow.countDown();
+            }
+
+            @Override
+            public void onComplete(StartupGraph.Report report) {
+                events.add("complete");
+                done.countDown();
+            }
+        });
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(Arrays.asList("critical", "complete"), events);
+    }
+
+    @Test
+    public void independentTasksRunInParallel() throws Exception {
+        CountDownLatch bothRunning = new CountDownLatch(2);
+        StartupGraph.Task task = () -> {
+            bothRunning.countDown();
+            // Only returns if the other task is running at the same time
+            if (!bothRunning.await(2, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("ran serially");
+            }
+        };
+        StartupGraph graph = new StartupGraph().add("cart", task).add("filters", task);
+
+        StartupGraph.Report report = await(graph).get();
+
+        assertEquals(StartupGraph.Status.DONE, report.timing("cart").status);
+        assertEquals(StartupGraph.Status.DONE, report.timing("filters").status);
+        assertNotEquals(report.timing("cart").thread, report.timing("filters").thread);
+        assertTrue(report.format().contains("cart"));
+    }
+
+    @Test
+    public void failureSkipsDependentsButStillReleasesTheCriticalPath() throws Exception {
+        StartupGraph graph = new StartupGraph()
+                .add("firebase", () -> { throw new IllegalStateException("no network"); })
+                .addCritical("session", () -> { }, "firebase")
+                .add("prefetch", () -> { }, "session")
+                .add("cart", () -> { });
+
+        StartupGraph.Report report = await(graph).get();
+
+        assertEquals(StartupGraph.Status.FAILED, report.timing("firebase").status);
+        assertEquals("no network", report.timing("firebase").error.getMessage());
+        assertEquals(StartupGraph.Status.SKIPPED, report.timing("session").status);
+        assertEquals(StartupGraph.Status.SKIPPED, report.timing("prefetch").status);
+        assertEquals(StartupGraph.Status.DONE, report.timing("cart").status);
+    }
+
+    @Test
+    public void unknownDependenciesAndCyclesAreRejected() {
+        StartupGraph unknown = new StartupGraph().add("session", () -> { }, "firebase");
+        try {
+            unknown.start(executor, null);
+            fail();
+        } catch (IllegalArgumentException expected) {
+            assertTrue(expected.getMessage().contains("firebase"));
+        }
+
+        StartupGraph cycle = new StartupGraph()
+                .add("a", () -> { }, "c")
+                .add("b", () -> { }, "a")
+                .add("c", () -> { }, "b")
+                .add("d", () -> { });
+        try {
+            cycle.start(executor, null);
+            fail();
+        } catch (IllegalArgumentException expected) {
+            assertTrue(expected.getMessage().contains("cycle"));
+        }
+    }
+
+    private AtomicReference<StartupGraph.Report> await(StartupGraph graph) throws InterruptedException {
+        AtomicReference<StartupGraph.Report> result = new AtomicReference<>();
+        CountDownLatch done = new CountDownLatch(1);
+        graph.start(executor, new StartupGraph.Listener() {
+            @Override
+            public void onCriticalPathComplete(StartupGraph.Report report) {
+            }
+
+            @Override
+            public void onComplete(StartupGraph.Report report) {
+                result.set(report);
+                done.countDown();
+            }
+        });
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        return result;
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.foodvan.utils;
+
+import com.example.foodvan.models.FoodVan;
+import com.example.foodvan.models.MenuItem;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class VanPrefetchPlannerTest {
+
+    private static FoodVan van(String id, double distanceKm, double rating) {
+        FoodVan van = new FoodVan(id, "vendor_" + id, "Van " + id, null);
+        van.setDistance(distanceKm);
+        van.setRating(rating);
+        return van;
+    }
+
+    private static MenuItem item(int i, String imageUrl, String thumbnailUrl) {
+        MenuItem item = new MenuItem("item_" + i, "van_1", "Dish " + i, null, 50);
+        item.setImageUrl(imageUrl);
+        item.setThumbnailUrl(thumbnailUrl);
+        return item;
+    }
+
+    @Test
+    public void ranksByDistanceRatingAndVisits() {
+        FoodVan near = van("near", 0.2, 3.0);
+        FoodVan far = van("far", 4.0, 3.0);
+        FoodVan regular = van("regular", 1.5, 4.0);
+        FoodVan closed = van(null, 0.0, 5.0);
+        VanPrefetchPlanner planner = new VanPrefetchPlanner(2, 6, Long.MAX_VALUE);
+
+        assertEquals(Arrays.asList(near, regular), planner.rank(Arrays.asList(far, regular, closed, near), null));
+
+        Map<String, Integer> visits = new HashMap<>();
+        visits.put("far", 20);
+        assertEquals(Arrays.asList(near, far), planner.rank(Arrays.asList(far, regular, near), visits));
+
+        // Past the cap, more visits don't help
+        visits.put("far", 1_000);
+        assertEquals(VanPrefetchPlanner.score(far, 20), VanPrefetchPlanner.score(far, 1_000), 0);
+        assertTrue(new VanPrefetchPlanner(0, 6, 0).rank(Arrays.asList(near), null).isEmpty());
+    }
+
+    @Test
+    public void topKMatchesAFullSort() {
+        Random random = new Random(4);
+        List<FoodVan> vans = new ArrayList<>();
+        Map<String, Integer> visits = new HashMap<>();
+        for (int i = 0; i < 500; i++) {
+            vans.add(van("van_" + i, random.nextInt(50) / 10.0, random.nextInt(11) / 2.0));
+            if (random.nextInt(4) == 0) {
+                visits.put("van_" + i, random.nextInt(30));
+            }
+        }
+        List<FoodVan> sorted = new ArrayList<>(vans);
+        sorted.sort(Comparator.comparingDouble((FoodVan van) ->
+                VanPrefetchPlanner.score(van, visits.getOrDefault(van.getVanId(), 0))).reversed());
+
+        assertEquals(sorted.subList(0, 10), new VanPrefetchPlanner(10, 6, 0).rank(vans, visits));
+    }
+
+    @Test
+    public void budgetCoversMenusThenFirstScreenThumbnails() {
+        long budget = 2 * VanPrefetchPlanner.MENU_BYTES + 3 * VanPrefetchPlanner.THUMBNAIL_BYTES;
+        VanPrefetchPlanner planner = new VanPrefetchPlanner(3, 4, budget);
+        List<MenuItem> menu = Arrays.asList(
+                item(0, "https://img/0.jpg", "https://img/0_thumb.jpg"),
+                item(1, null, null),
+                item(2, "https://img/2.jpg", null),
+                item(3, "https://img/2.jpg", null),
+                item(4, "https://img/4.jpg", null));
+
+        assertTrue(planner.reserveMenu());
+        // Row 4 is below the first screen; rows 1 and 3 need no new download
+        assertEquals(Arrays.asList("https://img/0_thumb.jpg", "https://img/2.jpg"),
+                planner.reserveThumbnails(menu, 160));
+        assertTrue(planner.reserveMenu());
+        assertEquals(Collections.singletonList("https://img/0_thumb.jpg"), planner.reserveThumbnails(menu, 160));
+        assertEquals(0, planner.getRemainingBytes());
+        assertFalse(planner.reserveMenu());
+        assertTrue(planner.reserveThumbnails(menu, 160).isEmpty());
+    }
+}
@@ -0,0 +1,287 @@
+package com.example.foodvan.utils;
+
+import com.example.foodvan.models.Order;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class VendorOrderIndexTest {
+
+    private static final String VENDOR = "vendor_0";
+    private static final int ORDERS_PER_VENDOR = 500;
+    private static final String[] STATUSES = {"PLACED", "CONFIRMED", "PREPARING", "READY", "DELIVERED", "CANCELLED"};
+
+    @Test
+    public void statusKeySortsByStatusThenTime() {
+        assertEquals("READY_0000000001000", VendorOrderIndex.statusKey("READY", 1000));
+        assertTrue(VendorOrderIndex.statusKey("PLACED", 999).compareTo(VendorOrderIndex.statusKey("PLACED", 1000)) < 0);
+        assertTrue(VendorOrderIndex.statusKey("PLACED", 1700000000000L).compareTo("PLACED_") < 0);
+    }
+
+    @Test
+    public void statusChangeUpdatesOrderAndIndexEntryTogether() {
+        Order order = newOrder("o1", VENDOR, 5000, "PLACED");
+        Map<String, Object> updates = VendorOrderIndex.statusUpdates(order, "CONFIRMED", 6000);
+
+        for (String base : Arrays.asList("orders/o1/", "vendor_orders/vendor_0/o1/")) {
+            assertEquals("CONFIRMED", updates.get(base + "status"));
+            assertEquals("CONFIRMED_0000000005000", updates.get(base + "statusKey"));
+            assertEquals(6000L, updates.get(base + "confirmedTime"));
+            assertEquals(6000L, updates.get(base + "lastUpdated"));
+        }
+        assertEquals(8, updates.size());
+    }
+
+    @Test
+    public void pagesThroughOneVendorNewestFirst() {
+        FakeDatabase db = new FakeDatabase(VENDOR);
+        List<Order> expected = new ArrayList<>();
+        for (int i = 0; i < 95; i++) {
+            Order order = newOrder("o" + i, VENDOR, 1000 + (i / 2) * 10, STATUSES[i % STATUSES.length]);
+            db.apply(VendorOrderIndex.newOrderUpdates(order));
+            expected.add(order);
+        }
+        // Orders sharing a timestamp are tie-broken by key, just like the server
+        expected.sort(Comparator.comparingLong(Order::getOrderTime).thenComparing(Order::getOrderId).reversed());
+
+        List<Order> seen = readAllPages(db, VendorOrderIndex.STATUS_ALL);
+        assertEquals(ids(expected), ids(seen));
+
+        List<Order> placed = readAllPages(db, "PLACED");
+        assertEquals(16, placed.size());
+        for (Order order : placed) {
+            assertEquals("PLACED", order.getStatus());
+        }
+    }
+
+    @Test
+    public void statusChangeMovesOrderBetweenRanges() {
+        FakeDatabase db = new FakeDatabase(VENDOR);
+        Order order = newOrder("o1", VENDOR, 1000, "PLACED");
+        db.apply(VendorOrderIndex.newOrderUpdates(order));
+        assertEquals(1, db.page(VendorOrderIndex.firstPage("PLACED", 20)).size());
+
+        db.apply(VendorOrderIndex.statusUpdates(order, "PREPARING", 2000));
+        assertTrue(db.page(VendorOrderIndex.firstPage("PLACED", 20)).isEmpty());
+        assertEquals(1, db.page(VendorOrderIndex.firstPage("PREPARING", 20)).size());
+    }
+
+    /**
+     * Simulates the platform growing while one vendor keeps the orders screen open. The old
+     * screen listened to the whole orders node; the new one reads its first index page.
+     */
+    @Test
+    public void bytesPerVendorStayFlatAsPlatformGrowsTo1MOrders() {
+        long previousIndexBytes = -1;
+        for (int totalOrders : new int[]{10_000, 100_000, 1_000_000}) {
+            int vendors = totalOrders / ORDERS_PER_VENDOR;
+            FakeDatabase db = new FakeDatabase(VENDOR);
+            Random random = new Random(7);
+            long legacyBytes = 0;
+
+            for (int i = 0; i < totalOrders; i++) {
+                String vendorId = "vendor_" + random.nextInt(vendors);
+                Order order = newOrder("o" + i, vendorId, 1_700_000_000_000L + i * 1000L, "PLACED");
+                legacyBytes += jsonBytes(order);
+                db.apply(VendorOrderIndex.newOrderUpdates(order));
+                if (i % 4 != 0) {
+                    db.apply(VendorOrderIndex.statusUpdates(order, "DELIVERED", order.getOrderTime() + 60_000));
+                }
+            }
+
+            List<Order> page = db.page(VendorOrderIndex.firstPage(VendorOrderIndex.STATUS_ALL, VendorOrderIndex.PAGE_SIZE));
+            long indexBytes = 0;
+            for (Order order : page) {
+                assertEquals(VENDOR, order.getVendorId());
+                indexBytes += jsonBytes(order);
+            }
+
+            assertEquals(VendorOrderIndex.PAGE_SIZE, page.size());
+            assertTrue(legacyBytes > indexBytes * (totalOrders / 100));
+            if (previousIndexBytes > 0) {
+                // Same page size and same row shape, so within a few bytes of the smaller platform
+                assertEquals(previousIndexBytes, indexBytes, previousIndexBytes * 0.05);
+            }
+            previousIndexBytes = indexBytes;
+        }
+    }
+
+    @Test
+    public void backfillAddsOnlyMissingOrdersInBoundedUpdates() {
+        Map<String, Map<String, Object>> orders = new HashMap<>();
+        for (int i = 0; i < 7; i++) {
+            Map<String, Object> order = new HashMap<>();
+            order.put("status", i % 2 == 0 ? "PLACED" : "READY");
+            order.put(VendorOrderIndex.ORDER_TIME, 1000L + i);
+            orders.put("o" + i, order);
+        }
+        orders.get("o6").remove(VendorOrderIndex.ORDER_TIME);
+        Set<String> indexed = new HashSet<>(Arrays.asList("o0", "o3"));
+
+        List<Map<String, Object>> updates = VendorOrderIndex.backfillUpdates(VENDOR, orders, indexed, 2);
+
+        assertEquals(3, updates.size());
+        Map<String, Object> all = new HashMap<>();
+        for (Map<String, Object> update : updates) {
+            assertTrue(update.size() <= 2);
+            all.putAll(update);
+        }
+        assertEquals(5, all.size());
+        assertFalse(all.containsKey(VendorOrderIndex.vendorOrderPath(VENDOR, "o0")));
+        assertFalse(all.containsKey(VendorOrderIndex.vendorOrderPath(VENDOR, "o3")));
+        Map<?, ?> o1 = (Map<?, ?>) all.get(VendorOrderIndex.vendorOrderPath(VENDOR, "o1"));
+        assertEquals("READY_0000000001001", o1.get(VendorOrderIndex.STATUS_KEY));
+        assertEquals("READY", o1.get("status"));
+        Map<?, ?> o6 = (Map<?, ?>) all.get(VendorOrderIndex.vendorOrderPath(VENDOR, "o6"));
+        assertEquals("PLACED_0000000000000", o6.get(VendorOrderIndex.STATUS_KEY));
+        // The source maps are left as read
+        assertFalse(orders.get("o1").containsKey(VendorOrderIndex.STATUS_KEY));
+
+        assertTrue(VendorOrderIndex.backfillUpdates(VENDOR, orders, orders.keySet(), 2).isEmpty());
+    }
+
+    private static List<Order> readAllPages(FakeDatabase db, String status) {
+        List<Order> all = new ArrayList<>();
+        VendorOrderIndex.PageQuery query = VendorOrderIndex.firstPage(status, 10);
+        while (true) {
+            List<Order> page = VendorOrderIndex.newestFirst(query, db.page(query));
+            all.addAll(page);
+            if (page.size() < 10) {
+                return all;
+            }
+            query = VendorOrderIndex.nextPage(status, all.get(all.size() - 1), 10);
+        }
+    }
+
+    private static List<String> ids(List<Order> orders) {
+        List<String> ids = new ArrayList<>();
+        for (Order order : orders) {
+            ids.add(order.getOrderId());
+        }
+        return ids;
+    }
+
+    private static Order newOrder(String id, String vendorId, long orderTime, String status) {
+        Order order = new Order(id, "customer_" + id.hashCode() % 1000, vendorId, vendorId);
+        order.setOrderTime(orderTime);
+        order.setStatus(status);
+        order.setCustomerName("Customer " + id);
+        order.setCustomerPhone("+9198765" + String.format("%05d", Math.abs(id.hashCode()) % 100000));
+        order.setItems(Arrays.asList(
+                new Order.OrderItem("item1", "Masala Dosa", 80, 2),
+                new Order.OrderItem("item2", "Filter Coffee", 30, 1)));
+        order.setTotalAmount(190);
+        order.setPaymentMethod("UPI");
+        order.setEstimatedDeliveryTime(30);
+        return order;
+    }
+
+    /** Rough wire size of an order as the Realtime Database would send it. */
+    private static long jsonBytes(Order order) {
+        StringBuilder json = new StringBuilder(256)
+                .append("{\"orderId\":\"").append(order.getOrderId())
+                .append("\",\"customerId\":\"").append(order.getCustomerId())
+                .append("\",\"customerName\":\"").append(order.getCustomerName())
+                .append("\",\"customerPhone\":\"").append(order.getCustomerPhone())
+                .append("\",\"vendorId\":\"").append(order.getVendorId())
+                .append("\",\"vanId\":\"").append(order.getVanId())
+                .append("\",\"status\":\"").append(order.getStatus())
+                .append("\",\"statusKey\":\"").append(order.getStatusKey())
+                .append("\",\"paymentMethod\":\"").append(order.getPaymentMethod())
+                .append("\",\"totalAmount\":").append(order.getTotalAmount())
+                .append(",\"orderTime\":").append(order.getOrderTime())
+                .append(",\"estimatedDeliveryTime\":").append(order.getEstimatedDeliveryTime())
+                .append(",\"items\":[");
+        for (Order.OrderItem item : order.getItems()) {
+            json.append("{\"itemId\":\"").append(item.getItemId())
+                    .append("\",\"itemName\":\"").append(item.getItemName())
+                    .append("\",\"price\":").append(item.getPrice())
+                    .append(",\"quantity\":").append(item.getQuantity()).append("},");
+        }
+        return json.append("]}").length();
+    }
+
+    /**
+     * Applies root-level multi-path updates like the Realtime Database, but keeps only one
+     * vendor's index subtree (the part that vendor's screen can see) so 1M orders fit in memory.
+     * Queries follow the server's ordering: by child value, then by key.
+     */
+    private static class FakeDatabase {
+        private final String prefix;
+        private final Map<String, Order> entries = new HashMap<>();
+
+        FakeDatabase(String vendorId) {
+            this.prefix = VendorOrderIndex.VENDOR_ORDERS_PATH + "/" + vendorId + "/";
+        }
+
+        void apply(Map<String, Object> updates) {
+            Set<String> touched = new HashSet<>();
+            for (Map.Entry<String, Object> update : updates.entrySet()) {
+                String path = update.getKey();
+                assertTrue(path.startsWith(VendorOrderIndex.ORDERS_PATH + "/")
+                        || path.startsWith(VendorOrderIndex.VENDOR_ORDERS_PATH + "/"));
+                if (!path.startsWith(prefix)) continue;
+
+                String[] parts = path.substring(prefix.length()).split("/");
+                assertTrue("Overlapping paths in one update", touched.add(path));
+                if (parts.length == 1) {
+                    Order order = (Order) update.getValue();
+                    Order copy = new Order(order.getOrderId(), order.getCustomerId(), order.getVendorId(), order.getVanId());
+                    copy.setOrderTime(order.getOrderTime());
+                    copy.setStatus(order.getStatus());
+                    copy.setCustomerName(order.getCustomerName());
+                    copy.setCustomerPhone(order.getCustomerPhone());
+                    copy.setItems(order.getItems());
+                    copy.setTotalAmount(order.getTotalAmount());
+                    copy.setPaymentMethod(order.getPaymentMethod());
+                    copy.setEstimatedDeliveryTime(order.getEstimatedDeliveryTime());
+                    entries.put(parts[0], copy);
+                } else if (parts[1].equals("status")) {
+                    entries.get(parts[0]).setStatus((String) update.getValue());
+                }
+            }
+            // Derived key must match what was written alongside the status
+            for (Map.Entry<String, Object> update : updates.entrySet()) {
+                if (update.getKey().startsWith(prefix) && update.getKey().endsWith("/" + VendorOrderIndex.STATUS_KEY)) {
+                    String id = update.getKey().substring(prefix.length()).split("/")[0];
+                    assertEquals(entries.get(id).getStatusKey(), update.getValue());
+                }
+            }
+        }
+
+        /** Result of the page query in ascending order, as limitToLast delivers it. */
+        List<Order> page(VendorOrderIndex.PageQuery query) {
+            boolean byTime = VendorOrderIndex.ORDER_TIME.equals(query.orderBy);
+            Comparator<Order> order = byTime
+                    ? Comparator.comparingLong(Order::getOrderTime)
+                    : Comparator.comparing(Order::getStatusKey);
+            order = order.thenComparing(Order::getOrderId);
+
+            List<Order> matches = new ArrayList<>();
+            for (Order entry : entries.values()) {
+                if (query.startAt != null && entry.getStatusKey().compareTo(query.startAt) < 0) continue;
+                if (query.endAt != null) {
+                    int cmp = byTime
+                            ? Double.compare(entry.getOrderTime(), (Double) query.endAt)
+                            : entry.getStatusKey().compareTo((String) query.endAt);
+                    if (cmp > 0) continue;
+                    if (cmp == 0 && query.endAtKey != null && entry.getOrderId().compareTo(query.endAtKey) > 0) continue;
+                }
+                matches.add(entry);
+            }
+            matches.sort(order);
+            return new ArrayList<>(matches.subList(Math.max(0, matches.size() - query.limit), matches.size()));
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.foodvan.utils;
+
+import com.example.foodvan.models.SortBy;
+import com.example.foodvan.models.SortOrder;
+import com.example.foodvan.models.User;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class VendorRankerTest {
+
+    private static final double LAT = 12.9716;
+    private static final double LON = 77.5946;
+    private static final long NOW = 1_700_000_000_000L;
+    private static final String[] NAMES = {"Tandoor", "tandoor", "Chaat", "Dosa", "Momo", "Roll"};
+
+    private static User vendor(String id, double lat, double lon, double rating, int orders, long createdAt) {
+        User vendor = new User();
+        vendor.setUserId(id);
+        vendor.setBusinessName("Van " + id);
+        vendor.setLatitude(lat);
+        vendor.setLongitude(lon);
+        vendor.setRating(rating);
+        vendor.setTotalOrders(orders);
+        vendor.setCreatedAt(createdAt);
+        return vendor;
+    }
+
+    private static List<User> drain(VendorRanker.Ranking ranking, int pageSize) {
+        List<User> all = new ArrayList<>();
+        while (ranking.hasNext()) {
+            List<User> page = ranking.next(pageSize);
+            assertTrue(page.size() <= pageSize);
+            all.addAll(page);
+        }
+        assertTrue(ranking.next(pageSize).isEmpty());
+        return all;
+    }
+
+    @Test
+    public void pagesMatchTheFullSortInEveryOrder() {
+        Random random = new Random(11);
+        List<User> vendors = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            // Coarse values so ties are common
+            User vendor = vendor("v" + i, LAT + random.nextInt(20) / 100.0, LON,
+                    random.nextInt(6), random.nextInt(5), NOW - random.nextInt(4));
+            vendor.setBusinessName(NAMES[random.nextInt(NAMES.length)]);
+            vendors.add(vendor);
+        }
+        VendorRanker ranker = new VendorRanker();
+        ranker.setOrigin(LAT, LON);
+        SortBy[] orders = {SortBy.DISTANCE, SortBy.RATING, SortBy.POPULARITY, SortBy.NEWEST, SortBy.NAME, SortBy.PRICE};
+
+        for (SortBy sortBy : orders) {
+            for (SortOrder sortOrder : SortOrder.values()) {
+                List<User> expected = new ArrayList<>(vendors);
+                VendorSorter.sort(expected, sortBy, sortOrder, ranker::distanceKm);
+                String what = sortBy + " " + sortOrder;
+                assertEquals(what, expected, drain(ranker.rank(vendors, sortBy, sortOrder, NOW), 7));
+                assertEquals(what, expected.subList(0, 20), ranker.rank(vendors, sortBy, sortOrder, NOW).next(20));
+            }
+        }
+
+        // No location: distance keeps the list order either way
+        ranker.clearOrigin();
+        assertEquals(-1, ranker.distanceKm(vendors.get(0)), 0);
+        assertEquals(vendors, drain(ranker.rank(vendors, SortBy.DISTANCE, SortOrder.DESCENDING, NOW), 50));
+    }
+
+    @Test
+    public void recommendedBlendsTheWeightedFeatures() {
+        long day = TimeUnit.DAYS.toMillis(1);
+        User near = vendor("near", LAT, LON, 3.0, 10, NOW - 300 * day);
+        User popular = vendor("popular", LAT + 0.05, LON, 4.5, 5_000, NOW - 300 * day);
+        User fresh = vendor("fresh", LAT + 0.05, LON, 3.0, 0, NOW);
+        List<User> vendors = Arrays.asList(fresh, popular, near);
+        VendorRanker ranker = new VendorRanker();
+        ranker.setOrigin(LAT, LON);
+
+        assertEquals(Arrays.asList(near, popular, fresh),
+                ranker.rank(vendors, SortBy.RECOMMENDED, SortOrder.ASCENDING, NOW).next(3));
+
+        ranker.setWeights(new VendorRanker.Weights(0, 0, 0, 1));
+        assertEquals(fresh, ranker.rank(vendors, SortBy.RECOMMENDED, SortOrder.ASCENDING, NOW).next(1).get(0));
+
+        ranker.setWeights(new VendorRanker.Weights(0, 0.5, 0.5, 0));
+        assertEquals(Arrays.asList(popular, near, fresh),
+                ranker.rank(vendors, SortBy.RECOMMENDED, SortOrder.DESCENDING, NOW).next(3));
+        // Past the cap, more orders don't help
+        User busier = vendor("busier", LAT, LON, 4.5, 50_000, 0);
+        assertEquals(ranker.score(popular, NOW), ranker.score(busier, NOW), 1e-12);
+    }
+
+    @Test
+    public void cachedFeaturesFollowVendorAndLocationChanges() {
+        VendorRanker ranker = new VendorRanker();
+        ranker.setOrigin(LAT, LON);
+        User before = vendor("a", LAT + 0.01, LON, 4.0, 1, NOW);
+        float km = ranker.distanceKm(before);
+        assertEquals(1.11, km, 0.01);
+
+        // A fresh read of the same vendor, moved
+        User moved = vendor("a", LAT + 0.02, LON, 4.0, 1, NOW);
+        assertEquals(2 * km, ranker.distanceKm(moved), 0.01);
+
+        ranker.setOrigin(LAT + 0.02, LON);
+        assertEquals(0, ranker.distanceKm(moved), 1e-6);
+
+        User rated = vendor("a", LAT + 0.02, LON, 5.0, 1, NOW);
+        User other = vendor("b", LAT + 0.02, LON, 4.5, 1, NOW);
+        assertEquals(Arrays.asList(rated, other),
+                ranker.rank(Arrays.asList(other, rated), SortBy.RATING, SortOrder.ASCENDING, NOW).next(2));
+    }
+
+    @Test
+    public void cacheKeepsTheMostRecentlyUsedVendorsUpToItsCap() {
+        VendorRanker ranker = new VendorRanker(20);
+        ranker.setOrigin(LAT, LON);
+        List<User> vendors = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            vendors.add(vendor("v" + i, LAT + i / 100.0, LON, 4.0, i, NOW));
+        }
+        VendorRanker.Ranking ranking = ranker.rank(vendors, SortBy.DISTANCE, SortOrder.ASCENDING, NOW);
+        assertEquals(20, ranker.cachedVendorCount());
+        assertEquals(vendors, ranking.all());
+
+        // A narrower filter keeps the others cached for when it widens again
+        List<User> online = vendors.subList(40, 45);
+        assertEquals(online, ranker.rank(online, SortBy.DISTANCE, SortOrder.ASCENDING, NOW).next(5));
+        assertEquals(20, ranker.cachedVendorCount());
+
+        // Newly seen vendors push out the least recently used, not the ones just ranked
+        List<User> nearby = vendors.subList(0, 15);
+        assertEquals(nearby, ranker.rank(nearby, SortBy.DISTANCE, SortOrder.ASCENDING, NOW).next(15));
+        assertEquals(20, ranker.cachedVendorCount());
+        assertEquals(online, ranker.rank(online, SortBy.DISTANCE, SortOrder.ASCENDING, NOW).next(5));
+        assertEquals(20, ranker.cachedVendorCount());
+    }
+}
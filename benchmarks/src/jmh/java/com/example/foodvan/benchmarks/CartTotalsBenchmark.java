@@ -0,0 +1,48 @@
+package com.example.foodvan.benchmarks;
+
+import com.example.foodvan.utils.CartTotals;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cart pricing as the cart screen asks for it on every change. threePasses is the old
+ * CartManager.getTotal, which walked the items for the subtotal, again for the tax and again
+ * for the delivery fee.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CartTotalsBenchmark {
+
+    @Param({"5", "100", "10000"})
+    public int size;
+
+    private List<SyntheticData.CartLine> lines;
+
+    @Setup
+    public void setUp() {
+        lines = new SyntheticData().cartLines(size);
+    }
+
+    @Benchmark
+    public double total() {
+        return CartTotals.total(lines);
+    }
+
+    @Benchmark
+    public double threePasses() {
+        return CartTotals.subtotal(lines)
+                + CartTotals.tax(CartTotals.subtotal(lines))
+                + CartTotals.deliveryFee(CartTotals.subtotal(lines));
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.foodvan.benchmarks;
+
+import com.example.foodvan.database.Converters;
+import com.example.foodvan.models.Order;
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Room's type converters across a whole query result: size rows of review image lists and
+ * order item lists, written and read back the way Room calls them per row. The legacy methods
+ * are the Gson converters the compact format replaced, TypeToken per call included; the
+ * compact string reads are split into one that only asks for each list's size and one that
+ * reads every element, since elements are decoded on access.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ConvertersBenchmark {
+
+    @Param({"100", "10000", "100000", "1000000"})
+    public int size;
+
+    private List<List<String>> stringLists;
+    private List<String> stringListRows;
+    private List<List<Order.OrderItem>> orderItemLists;
+    private List<String> orderItemRows;
+    private List<String> legacyStringListRows;
+    private List<String> legacyOrderItemRows;
+    private final Gson gson = new Gson();
+
+    @Setup
+    public void setUp() {
+        SyntheticData data = new SyntheticData();
+        stringLists = data.reviewImageLists(size);
+        orderItemLists = data.orderItemLists(size);
+
+        stringListRows = new ArrayList<>(size);
+        for (List<String> list : stringLists) {
+            stringListRows.add(Converters.fromStringList(list));
+        }
+        orderItemRows = new ArrayList<>(size);
+        for (List<Order.OrderItem> items : orderItemLists) {
+            orderItemRows.add(Converters.fromOrderItems(items));
+        }
+        legacyStringListRows = new ArrayList<>(size);
+        for (List<String> list : stringLists) {
+            legacyStringListRows.add(gson.toJson(list));
+        }
+        legacyOrderItemRows = new ArrayList<>(size);
+        for (List<Order.OrderItem> items : orderItemLists) {
+            legacyOrderItemRows.add(gson.toJson(items));
+        }
+    }
+
+    @Benchmark
+    public void writeStringLists(Blackhole blackhole) {
+        for (List<String> list : stringLists) {
+            blackhole.consume(Converters.fromStringList(list));
+        }
+    }
+
+    @Benchmark
+    public void readStringLists(Blackhole blackhole) {
+        for (String row : stringListRows) {
+            List<String> list = Converters.toStringList(row);
+            for (int i = 0; i < list.size(); i++) {
+                blackhole.consume(list.get(i));
+            }
+        }
+    }
+
+    @Benchmark
+    public void readStringListSizes(Blackhole blackhole) {
+        for (String row : stringListRows) {
+            blackhole.consume(Converters.toStringList(row).size());
+        }
+    }
+
+    @Benchmark
+    public void readLegacyStringLists(Blackhole blackhole) {
+        for (String row : legacyStringListRows) {
+            Type listType = new TypeToken<List<String>>() {}.getType();
+            List<String> list = gson.fromJson(row, listType);
+            for (int i = 0; i < list.size(); i++) {
+                blackhole.consume(list.get(i));
+            }
+        }
+    }
+
+    @Benchmark
+    public void writeOrderItems(Blackhole blackhole) {
+        for (List<Order.OrderItem> items : orderItemLists) {
+            blackhole.consume(Converters.fromOrderItems(items));
+        }
+    }
+
+    @Benchmark
+    public void readOrderItems(Blackhole blackhole) {
+        for (String row : orderItemRows) {
+            blackhole.consume(Converters.toOrderItems(row));
+        }
+    }
+
+    @Benchmark
+    public void readLegacyOrderItems(Blackhole blackhole) {
+        for (String row : legacyOrderItemRows) {
+            Type listType = new TypeToken<List<Order.OrderItem>>() {}.getType();
+            blackhole.consume(gson.<List<Order.OrderItem>>fromJson(row, listType));
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.foodvan.benchmarks;
+
+import com.example.foodvan.models.MenuItem;
+import com.example.foodvan.models.User;
+import com.example.foodvan.utils.DishSearchIndex;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * "Who near me sells X" over the synthetic city: size dishes on vans of 40 items each, a
+ * customer at the centre searching 5 km. fullScan is what finding a dish without the index
+ * takes, checking every dish of every van and sorting the matches. replaceMenu is the cost of
+ * one van's menu changing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DishSearchBenchmark {
+
+    private static final int ITEMS_PER_VAN = 40;
+    private static final int LIMIT = 20;
+    private static final double RADIUS_KM = 5;
+    private static final double LAT = 12.9716;
+    private static final double LON = 77.5946;
+
+    @Param({"10000", "100000"})
+    public int size;
+
+    private List<User> vans;
+    private Map<String, List<MenuItem>> menus;
+    private DishSearchIndex index;
+    private int nextVan;
+
+    @Setup
+    public void setUp() {
+        SyntheticData data = new SyntheticData();
+        vans = data.vendors(size / ITEMS_PER_VAN);
+        menus = data.vanMenus(vans, ITEMS_PER_VAN);
+        index = new DishSearchIndex();
+        for (User van : vans) {
+            index.putMenu(van.getUserId(), van.getLatitude(), van.getLongitude(), van.getRating(),
+                    menus.get(van.getUserId()));
+        }
+    }
+
+    @Benchmark
+    public List<DishSearchIndex.Hit> twoWords() {
+        return index.search("paneer roll", LAT, LON, RADIUS_KM, LIMIT);
+    }
+
+    @Benchmark
+    public List<DishSearchIndex.Hit> commonPrefix() {
+        return index.search("ch", LAT, LON, RADIUS_KM, LIMIT);
+    }
+
+    @Benchmark
+    public List<MenuItem> fullScan() {
+        List<double[]> scored = new ArrayList<>();
+        List<MenuItem> matched = new ArrayList<>();
+        for (User van : vans) {
+            double distance = distanceKm(LAT, LON, van.getLatitude(), van.getLongitude());
+            if (distance > RADIUS_KM) {
+                continue;
+            }
+            for (MenuItem item : menus.get(van.getUserId())) {
+                String name = item.getName().toLowerCase(Locale.ROOT);
+                if (item.isAvailable() && name.contains("paneer") && name.contains("roll")) {
+                    scored.add(new double[]{item.getRating() / 5 - distance / RADIUS_KM, matched.size()});
+                    matched.add(item);
+                }
+            }
+        }
+        scored.sort((a, b) -> Double.compare(b[0], a[0]));
+        List<MenuItem> top = new ArrayList<>(LIMIT);
+        for (int i = 0; i < scored.size() && i < LIMIT; i++) {
+            top.add(matched.get((int) scored.get(i)[1]));
+        }
+        return top;
+    }
+
+    @Benchmark
+    public void replaceMenu() {
+        User van = vans.get(nextVan++ % vans.size());
+        index.putMenu(van.getUserId(), van.getLatitude(), van.getLongitude(), van.getRating(),
+                menus.get(van.getUserId()));
+    }
+
+    private static double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * 6371.0 * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.foodvan.benchmarks;
+
+import com.example.foodvan.models.MenuFilter;
+import com.example.foodvan.models.MenuItem;
+import com.example.foodvan.utils.FilterUtils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * FilterUtils.applyFilter over a vendor's menu with the filter sheet's common states: nothing
+ * set, a search, and a narrow category, price and veg filter.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FilterUtilsBenchmark {
+
+    @Param({"100", "10000", "1000000"})
+    public int size;
+
+    private List<MenuItem> items;
+    private MenuFilter defaultFilter;
+    private MenuFilter searchFilter;
+    private MenuFilter narrowFilter;
+
+    @Setup
+    public void setUp() {
+        items = new SyntheticData().menuItems(size);
+
+        defaultFilter = new MenuFilter();
+
+        searchFilter = new MenuFilter();
+        searchFilter.setSearchQuery("paneer");
+        searchFilter.setSortBy(MenuFilter.SortOption.POPULARITY);
+
+        narrowFilter = new MenuFilter();
+        narrowFilter.setAllCategoriesSelected(false);
+        narrowFilter.setSelectedCategories(Arrays.asList("Biryani", "Rolls & Wraps", "Street Food"));
+        narrowFilter.setMinPrice(100);
+        narrowFilter.setMaxPrice(300);
+        narrowFilter.setVegetarianOnly(true);
+        narrowFilter.setSortBy(MenuFilter.SortOption.PRICE_LOW_TO_HIGH);
+    }
+
+    @Benchmark
+    public List<MenuItem> noFilter() {
+        return FilterUtils.applyFilter(items, defaultFilter);
+    }
+
+    @Benchmark
+    public List<MenuItem> search() {
+        return FilterUtils.applyFilter(items, searchFilter);
+    }
+
+    @Benchmark
+    public List<MenuItem> narrow() {
+        return FilterUtils.applyFilter(items, narrowFilter);
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.foodvan.benchmarks;
+
+import com.example.foodvan.utils.MappedKeyValueStore;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One single-key update to a settings-sized store: appending a record to MappedKeyValueStore's
+ * log against rewriting and syncing the whole XML file, as a SharedPreferences commit does.
+ * Log compactions are part of the mapped store's steady state and land in its average.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class KeyValueStoreBenchmark {
+
+    private static final int SETTINGS = 20;
+
+    private File directory;
+    private MappedKeyValueStore store;
+    private File xml;
+    private Map<String, Object> prefs;
+    private int update;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("kv-bench").toFile();
+        Map<String, Object> initial = new TreeMap<>();
+        for (int i = 0; i < SETTINGS; i++) {
+            initial.put("setting_" + i, "value_" + i);
+        }
+        StringBuilder cart = new StringBuilder();
+        for (int i = 0; i < 40; i++) {
+            cart.append("{\"itemId\":\"item\",\"quantity\":2}");
+        }
+        initial.put("cart_items", cart.toString());
+
+        store = MappedKeyValueStore.open(new File(directory, "bench.kv"));
+        store.importAll(initial);
+        xml = new File(directory, "bench.xml");
+        prefs = new TreeMap<>(initial);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        store.close();
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        directory.delete();
+    }
+
+    @Benchmark
+    public void mappedLogAppend() {
+        int i = update++;
+        store.edit().putString("setting_" + (i % SETTINGS), "value_" + i).apply();
+    }
+
+    @Benchmark
+    public void xmlRewrite() throws IOException {
+        int i = update++;
+        prefs.put("setting_" + (i % SETTINGS), "value_" + i);
+        try (FileOutputStream stream = new FileOutputStream(xml);
+             Writer out = new OutputStreamWriter(stream, StandardCharsets.UTF_8)) {
+            out.write("<?xml version='1.0' encoding='utf-8' standalone='yes' ?>\n<map>\n");
+            for (Map.Entry<String, Object> entry : prefs.entrySet()) {
+                out.write("    <string name=\"" + entry.getKey() + "\">"
+                        + entry.getValue().toString().replace("&", "&amp;").replace("<", "&lt;").replace("\"", "&quot;")
+                        + "</string>\n");
+            }
+            out.write("</map>\n");
+            out.flush();
+            stream.getFD().sync();
+        }
+    }
+}
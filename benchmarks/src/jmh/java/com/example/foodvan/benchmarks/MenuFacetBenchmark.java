@@ -0,0 +1,91 @@
+package com.example.foodvan.benchmarks;
+
+import com.example.foodvan.models.MenuFilter;
+import com.example.foodvan.models.MenuItem;
+import com.example.foodvan.utils.FilterUtils;
+import com.example.foodvan.utils.MenuFacetEngine;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The filter sheet's results and facets. separatePasses is the old way, applyFilter plus the
+ * four FilterUtils helpers, none of which take the other filters into account. The engine
+ * methods alternate between two filters: one differing in every criterion, so everything is
+ * re-tested, and one differing only in price, the slider case.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MenuFacetBenchmark {
+
+    @Param({"100", "10000", "1000000"})
+    public int size;
+
+    private List<MenuItem> items;
+    private MenuFilter narrowFilter;
+    private MenuFilter searchFilter;
+    private MenuFilter cheaperFilter;
+    private MenuFacetEngine engine;
+    private boolean flip;
+
+    @Setup
+    public void setUp() {
+        items = new SyntheticData().menuItems(size);
+
+        narrowFilter = new MenuFilter();
+        narrowFilter.setAllCategoriesSelected(false);
+        narrowFilter.setSelectedCategories(Arrays.asList("Biryani", "Rolls & Wraps", "Street Food"));
+        narrowFilter.setMinPrice(100);
+        narrowFilter.setMaxPrice(300);
+        narrowFilter.setVegetarianOnly(true);
+        narrowFilter.setShowOutOfStock(false);
+
+        searchFilter = new MenuFilter();
+        searchFilter.setSearchQuery("paneer");
+        searchFilter.setSpecialOffersOnly(true);
+
+        cheaperFilter = new MenuFilter(narrowFilter);
+        cheaperFilter.setMaxPrice(200);
+
+        engine = new MenuFacetEngine(items);
+        engine.update(searchFilter);
+    }
+
+    @Benchmark
+    public void separatePasses(Blackhole blackhole) {
+        blackhole.consume(FilterUtils.applyFilter(items, narrowFilter));
+        blackhole.consume(FilterUtils.getAvailableCategories(items));
+        blackhole.consume(FilterUtils.getAvailableTags(items));
+        blackhole.consume(FilterUtils.getPriceRange(items));
+        blackhole.consume(FilterUtils.getAvailabilityCounts(items));
+    }
+
+    @Benchmark
+    public MenuFacetEngine.Result engineAllCriteriaChanged() {
+        flip = !flip;
+        return engine.update(flip ? narrowFilter : searchFilter);
+    }
+
+    @Benchmark
+    public MenuFacetEngine.Result enginePriceChanged() {
+        flip = !flip;
+        return engine.update(flip ? narrowFilter : cheaperFilter);
+    }
+
+    @Benchmark
+    public MenuFacetEngine.Result engineBuildAndUpdate() {
+        return new MenuFacetEngine(items).update(narrowFilter);
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.foodvan.benchmarks;
+
+import com.example.foodvan.models.MenuFilter;
+import com.example.foodvan.models.MenuItem;
+import com.example.foodvan.utils.FilterUtils;
+import com.example.foodvan.utils.MenuFacetEngine;
+import com.example.foodvan.utils.MenuSortIndex;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Switching sort order on an in-stock filter, each method alternating between two orders.
+ * The management methods are MenuManagementViewModel's old stream-and-sort path against a
+ * cached match set walked through the index; the sheet methods are MenuFilterViewModel's,
+ * FilterUtils.applyFilter against the facet engine plus the index. reload measures moving
+ * the cached orders to a reloaded menu with 1% of prices changed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MenuSortIndexBenchmark {
+
+    @Param({"100", "10000", "1000000"})
+    public int size;
+
+    private List<MenuItem> items;
+    private List<MenuItem> repricedItems;
+    private BitSet inStock;
+    private MenuFilter byPrice;
+    private MenuFilter byName;
+    private MenuFacetEngine engine;
+    private MenuSortIndex<MenuFilter.SortOption> sheetIndex;
+    private MenuSortIndex<MenuFilter.SortOption> reloadIndex;
+    private boolean flip;
+
+    @Setup
+    public void setUp() {
+        items = new SyntheticData().menuItems(size);
+        repricedItems = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            MenuItem item = items.get(i);
+            if (i % 100 == 0) {
+                MenuItem repriced = new MenuItem(item.getId(), item.getVanId(), item.getName(),
+                        item.getDescription(), item.getPrice() + 10);
+                repriced.setCategory(item.getCategory());
+                item = repriced;
+            }
+            repricedItems.add(item);
+        }
+
+        inStock = new BitSet(size);
+        for (int i = 0; i < size; i++) {
+            if (items.get(i).isAvailable()) {
+                inStock.set(i);
+            }
+        }
+        byPrice = new MenuFilter();
+        byPrice.setShowOutOfStock(false);
+        byPrice.setSortBy(MenuFilter.SortOption.PRICE_LOW_TO_HIGH);
+        byName = new MenuFilter(byPrice);
+        byName.setSortBy(MenuFilter.SortOption.NAME_A_TO_Z);
+
+        engine = new MenuFacetEngine(items);
+        sheetIndex = new MenuSortIndex<>(FilterUtils::comparator);
+        sheetIndex.setItems(items);
+        sheetIndex.permutation(MenuFilter.SortOption.PRICE_LOW_TO_HIGH);
+        sheetIndex.permutation(MenuFilter.SortOption.NAME_A_TO_Z);
+
+        reloadIndex = new MenuSortIndex<>(FilterUtils::comparator);
+        reloadIndex.setItems(items);
+        reloadIndex.permutation(MenuFilter.SortOption.PRICE_LOW_TO_HIGH);
+    }
+
+    @Benchmark
+    public List<MenuItem> managementStreamAndSort() {
+        flip = !flip;
+        List<MenuItem> filtered = items.stream()
+                .filter(MenuItem::isAvailable)
+                .collect(Collectors.toList());
+        if (flip) {
+            filtered.sort(Comparator.comparing(MenuItem::getPrice));
+        } else {
+            filtered.sort(Comparator.comparing(MenuItem::getName));
+        }
+        return filtered;
+    }
+
+    @Benchmark
+    public List<MenuItem> managementIndexWalk() {
+        flip = !flip;
+        return sheetIndex.select(flip ? MenuFilter.SortOption.PRICE_LOW_TO_HIGH : MenuFilter.SortOption.NAME_A_TO_Z, inStock);
+    }
+
+    @Benchmark
+    public List<MenuItem> sheetApplyFilter() {
+        flip = !flip;
+        return FilterUtils.applyFilter(items, flip ? byPrice : byName);
+    }
+
+    @Benchmark
+    public List<MenuItem> sheetEngineAndIndex() {
+        flip = !flip;
+        MenuFilter filter = flip ? byPrice : byName;
+        return sheetIndex.select(filter.getSortBy(), engine.update(filter).getMatchPositions());
+    }
+
+    @Benchmark
+    public int[] reload() {
+        flip = !flip;
+        reloadIndex.setItems(flip ? repricedItems : items);
+        return reloadIndex.permutation(MenuFilter.SortOption.PRICE_LOW_TO_HIGH);
+    }
+}
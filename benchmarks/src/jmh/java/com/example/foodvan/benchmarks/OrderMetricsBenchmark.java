@@ -0,0 +1,46 @@
+package com.example.foodvan.benchmarks;
+
+import com.example.foodvan.utils.OrderMetrics;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The analytics screen's order pass, the part of
+ * VendorAnalyticsViewModel.calculateOrderMetrics that runs after the snapshot is parsed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class OrderMetricsBenchmark {
+
+    private static final long DAY = TimeUnit.DAYS.toMillis(1);
+
+    @Param({"100", "10000", "1000000"})
+    public int size;
+
+    private SyntheticData.OrderRows rows;
+
+    @Setup
+    public void setUp() {
+        rows = new SyntheticData().orderRows(size);
+    }
+
+    @Benchmark
+    public OrderMetrics calculate() {
+        OrderMetrics metrics = new OrderMetrics(SyntheticData.NOW - DAY, SyntheticData.NOW - 7 * DAY,
+                SyntheticData.NOW - 30 * DAY);
+        for (int i = 0; i < rows.size(); i++) {
+            metrics.add(rows.statuses[i], rows.amounts[i], rows.timestamps[i]);
+        }
+        return metrics;
+    }
+}
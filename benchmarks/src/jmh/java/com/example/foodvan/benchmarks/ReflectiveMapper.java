@@ -0,0 +1,178 @@
+package com.example.foodvan.benchmarks;
+
+import com.example.foodvan.utils.SnapshotValues;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ReflectiveMapper - Stand-in for Firebase's CustomClassMapper, which isn't available off
+ * Android: the same per-class cache of getters and setters, the same setter lookup per
+ * snapshot key, and Method.invoke for every property. It is the baseline the generated
+ * mappers are measured against.
+ */
+final class ReflectiveMapper {
+
+    private static final Map<Class<?>, BeanMapper<?>> mappers = new ConcurrentHashMap<>();
+
+    private ReflectiveMapper() {
+    }
+
+    static <T> T fromMap(Map<String, Object> map, Class<T> type) {
+        return mapperFor(type).deserialize(map);
+    }
+
+    static Object serialize(Object value) {
+        if (value == null || value instanceof String || value instanceof Number || value instanceof Boolean
+                || value instanceof java.util.Date) {
+            return value;
+        }
+        if (value instanceof List) {
+            List<?> list = (List<?>) value;
+            List<Object> out = new ArrayList<>(list.size());
+            for (Object item : list) {
+                out.add(serialize(item));
+            }
+            return out;
+        }
+        if (value instanceof Map) {
+            Map<String, Object> out = new HashMap<>();
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                out.put((String) entry.getKey(), serialize(entry.getValue()));
+            }
+            return out;
+        }
+        if (value instanceof Enum) {
+            return ((Enum<?>) value).name();
+        }
+        return mapperFor(value.getClass()).serializeBean(value);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> BeanMapper<T> mapperFor(Class<T> type) {
+        return (BeanMapper<T>) mappers.computeIfAbsent(type, BeanMapper::new);
+    }
+
+    private static Object deserializeToType(Object value, Type type) {
+        if (type instanceof ParameterizedType) {
+            ParameterizedType parameterized = (ParameterizedType) type;
+            Class<?> raw = (Class<?>) parameterized.getRawType();
+            if (List.class.isAssignableFrom(raw)) {
+                if (value == null) {
+                    return null;
+                }
+                List<?> list = (List<?>) value;
+                List<Object> out = new ArrayList<>(list.size());
+                for (Object item : list) {
+                    out.add(deserializeToType(item, parameterized.getActualTypeArguments()[0]));
+                }
+                return out;
+            }
+            if (Map.class.isAssignableFrom(raw)) {
+                if (value == null) {
+                    return null;
+                }
+                Map<String, Object> out = new HashMap<>();
+                for (Map.Entry<String, Object> entry : SnapshotValues.asMap(value).entrySet()) {
+                    out.put(entry.getKey(), deserializeToType(entry.getValue(), parameterized.getActualTypeArguments()[1]));
+                }
+                return out;
+            }
+        }
+        Class<?> target = (Class<?>) type;
+        if (target == String.class) {
+            return SnapshotValues.asString(value);
+        }
+        if (target == int.class || target == Integer.class) {
+            return value == null ? null : SnapshotValues.asInt(value);
+        }
+        if (target == long.class || target == Long.class) {
+            return value == null ? null : SnapshotValues.asLong(value);
+        }
+        if (target == double.class || target == Double.class) {
+            return value == null ? null : SnapshotValues.asDouble(value);
+        }
+        if (target == boolean.class || target == Boolean.class) {
+            return value == null ? null : SnapshotValues.asBoolean(value);
+        }
+        if (target == Object.class) {
+            return value;
+        }
+        if (target == java.util.Date.class) {
+            return SnapshotValues.asDate(value);
+        }
+        return value == null ? null : mapperFor(target).deserialize(SnapshotValues.asMap(value));
+    }
+
+    private static final class BeanMapper<T> {
+
+        private final Constructor<T> constructor;
+        private final Map<String, Method> getters = new HashMap<>();
+        private final Map<String, Method> setters = new HashMap<>();
+
+        BeanMapper(Class<T> type) {
+            try {
+                constructor = type.getConstructor();
+            } catch (NoSuchMethodException e) {
+                throw new IllegalArgumentException(type + " needs a no-argument constructor", e);
+            }
+            for (Method method : type.getMethods()) {
+                if (Modifier.isStatic(method.getModifiers()) || method.getDeclaringClass() == Object.class) {
+                    continue;
+                }
+                String name = method.getName();
+                if (((name.startsWith("get") && name.length() > 3) || (name.startsWith("is") && name.length() > 2))
+                        && method.getParameterCount() == 0 && method.getReturnType() != void.class) {
+                    getters.put(propertyName(name), method);
+                } else if (name.startsWith("set") && name.length() > 3 && method.getParameterCount() == 1
+                        && method.getReturnType() == void.class) {
+                    setters.put(propertyName(name), method);
+                }
+            }
+        }
+
+        T deserialize(Map<String, Object> values) {
+            try {
+                T instance = constructor.newInstance();
+                for (Map.Entry<String, Object> entry : values.entrySet()) {
+                    Method setter = setters.get(entry.getKey());
+                    if (setter != null) {
+                        Type parameter = setter.getGenericParameterTypes()[0];
+                        setter.invoke(instance, deserializeToType(entry.getValue(), parameter));
+                    }
+                }
+                return instance;
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        Map<String, Object> serializeBean(Object bean) {
+            Map<String, Object> out = new HashMap<>();
+            try {
+                for (Map.Entry<String, Method> getter : getters.entrySet()) {
+                    out.put(getter.getKey(), serialize(getter.getValue().invoke(bean)));
+                }
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException(e);
+            }
+            return out;
+        }
+
+        private static String propertyName(String methodName) {
+            char[] chars = methodName.substring(methodName.startsWith("is") ? 2 : 3).toCharArray();
+            for (int i = 0; i < chars.length && Character.isUpperCase(chars[i]); i++) {
+                chars[i] = Character.toLowerCase(chars[i]);
+            }
+            return new String(chars);
+        }
+    }
+}
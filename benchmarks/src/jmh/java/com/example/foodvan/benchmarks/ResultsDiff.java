@@ -0,0 +1,102 @@
+package com.example.foodvan.benchmarks;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * ResultsDiff - Compares two JMH JSON result files, usually from two commits, and prints the
+ * change for every benchmark and parameter set present in both. Exits with status 1 when any
+ * score got worse by more than the threshold percentage, so it can gate a CI step.
+ *
+ * Usage: ResultsDiff baseline.json current.json [thresholdPercent]
+ */
+public final class ResultsDiff {
+
+    private ResultsDiff() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: ResultsDiff baseline.json current.json [thresholdPercent]");
+            System.exit(2);
+        }
+        Map<String, Score> baseline = read(args[0]);
+        Map<String, Score> current = read(args[1]);
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 10.0;
+
+        int regressions = 0;
+        System.out.printf("%-90s %14s %14s %9s%n", "Benchmark", "Baseline", "Current", "Change");
+        for (Map.Entry<String, Score> entry : current.entrySet()) {
+            Score before = baseline.get(entry.getKey());
+            if (before == null) {
+                continue;
+            }
+            Score after = entry.getValue();
+            double change = before.value == 0 ? 0 : (after.value - before.value) / before.value * 100;
+            // Throughput modes are better when higher, time modes when lower
+            double worse = after.higherIsBetter ? -change : change;
+            boolean regressed = worse > threshold;
+            if (regressed) {
+                regressions++;
+            }
+            System.out.printf("%-90s %14.3f %14.3f %+8.1f%% %s%s%n", entry.getKey(), before.value, after.value,
+                    change, after.unit, regressed ? "  REGRESSION" : "");
+        }
+
+        if (regressions > 0) {
+            System.out.println(regressions + " benchmark(s) regressed by more than " + threshold + "%");
+            System.exit(1);
+        }
+    }
+
+    private static Map<String, Score> read(String path) throws IOException {
+        Map<String, Score> scores = new LinkedHashMap<>();
+        try (Reader reader = Files.newBufferedReader(Paths.get(path), StandardCharsets.UTF_8)) {
+            JsonArray results = JsonParser.parseReader(reader).getAsJsonArray();
+            for (JsonElement element : results) {
+                JsonObject result = element.getAsJsonObject();
+                JsonObject metric = result.getAsJsonObject("primaryMetric");
+                String mode = result.get("mode").getAsString();
+                scores.put(key(result), new Score(metric.get("score").getAsDouble(),
+                        metric.get("scoreUnit").getAsString(), "thrpt".equals(mode)));
+            }
+        }
+        return scores;
+    }
+
+    private static String key(JsonObject result) {
+        String benchmark = result.get("benchmark").getAsString();
+        benchmark = benchmark.substring(benchmark.lastIndexOf('.', benchmark.lastIndexOf('.') - 1) + 1);
+        if (!result.has("params")) {
+            return benchmark;
+        }
+        Map<String, String> params = new TreeMap<>();
+        for (Map.Entry<String, JsonElement> param : result.getAsJsonObject("params").entrySet()) {
+            params.put(param.getKey(), param.getValue().getAsString());
+        }
+        return benchmark + params;
+    }
+
+    private static final class Score {
+        final double value;
+        final String unit;
+        final boolean higherIsBetter;
+
+        Score(double value, String unit, boolean higherIsBetter) {
+            this.value = value;
+            this.unit = unit;
+            this.higherIsBetter = higherIsBetter;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.foodvan.benchmarks;
+
+import com.example.foodvan.models.Order;
+import com.example.foodvan.models.OrderMapper;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapping a vendor's orders snapshot, items included, with the generated OrderMapper against
+ * reflective bean mapping, in both directions.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SnapshotMapperBenchmark {
+
+    @Param({"10000"})
+    public int size;
+
+    private List<Order> orders;
+    private List<Map<String, Object>> snapshots;
+
+    @Setup
+    public void setUp() {
+        orders = new SyntheticData().orders(size);
+        snapshots = new ArrayList<>(size);
+        for (Order order : orders) {
+            snapshots.add(asSnapshot(OrderMapper.INSTANCE.toMap(order)));
+        }
+    }
+
+    @Benchmark
+    public void readGenerated(Blackhole blackhole) {
+        for (int i = 0; i < snapshots.size(); i++) {
+            blackhole.consume(OrderMapper.INSTANCE.fromMap(snapshots.get(i)));
+        }
+    }
+
+    @Benchmark
+    public void readReflective(Blackhole blackhole) {
+        for (int i = 0; i < snapshots.size(); i++) {
+            blackhole.consume(ReflectiveMapper.fromMap(snapshots.get(i), Order.class));
+        }
+    }
+
+    @Benchmark
+    public void writeGenerated(Blackhole blackhole) {
+        for (int i = 0; i < orders.size(); i++) {
+            blackhole.consume(OrderMapper.INSTANCE.toMap(orders.get(i)));
+        }
+    }
+
+    @Benchmark
+    public void writeReflective(Blackhole blackhole) {
+        for (int i = 0; i < orders.size(); i++) {
+            blackhole.consume(ReflectiveMapper.serialize(orders.get(i)));
+        }
+    }
+
+    /**
+     * Recasts values the way the realtime database returns them: whole numbers as Long,
+     * dates as millis.
+     */
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> asSnapshot(Map<String, Object> written) {
+        Map<String, Object> snapshot = new HashMap<>();
+        for (Map.Entry<String, Object> entry : written.entrySet()) {
+            snapshot.put(entry.getKey(), asSnapshotValue(entry.getValue()));
+        }
+        return snapshot;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object asSnapshotValue(Object value) {
+        if (value instanceof Integer) {
+            return ((Integer) value).longValue();
+        }
+        if (value instanceof Double && (Double) value == Math.rint((Double) value)) {
+            return ((Double) value).longValue();
+        }
+        if (value instanceof Date) {
+            return ((Date) value).getTime();
+        }
+        if (value instanceof List) {
+            List<Object> list = new ArrayList<>();
+            for (Object item : (List<Object>) value) {
+                list.add(asSnapshotValue(item));
+            }
+            return list;
+        }
+        if (value instanceof Map) {
+            return asSnapshot((Map<String, Object>) value);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,290 @@
+package com.example.foodvan.benchmarks;
+
+import com.example.foodvan.models.MenuItem;
+import com.example.foodvan.models.Order;
+import com.example.foodvan.models.User;
+import com.example.foodvan.utils.CartTotals;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SyntheticData - Seeded generator for vendors, menus, orders, reviews and carts shaped like
+ * the app's real data: a few hundred dish names across a dozen categories, vans clustered
+ * around one city, popularity skewed towards a few vendors and dishes, and most orders in the
+ * last few weeks. The same seed and size always produce the same records, so runs on
+ * different commits measure the same input.
+ */
+public final class SyntheticData {
+
+    public static final long DEFAULT_SEED = 42L;
+
+    // Generated timestamps count back from here rather than the wall clock
+    public static final long NOW = 1_760_000_000_000L;
+
+    static final String[] CATEGORIES = {
+            "Starters", "Main Course", "Biryani", "Rolls & Wraps", "Chinese", "South Indian",
+            "Street Food", "Burgers", "Pizza", "Desserts", "Beverages", "Combos"
+    };
+
+    static final String[] CUISINES = {
+            "Fast Food", "Indian", "Chinese", "Italian", "Mexican", "Desserts", "Beverages",
+            "Street Food", "Healthy", "Snacks", "Seafood", "Vegetarian"
+    };
+
+    private static final String[] DISH_BASES = {
+            "Paneer", "Chicken", "Veg", "Mutton", "Egg", "Aloo", "Mushroom", "Fish", "Corn",
+            "Cheese", "Masala", "Schezwan", "Tandoori", "Butter", "Chilli", "Malai"
+    };
+
+    private static final String[] DISH_KINDS = {
+            "Tikka", "Wrap", "Roll", "Biryani", "Fried Rice", "Noodles", "Dosa", "Burger",
+            "Pizza", "Momos", "Curry", "Kebab", "Sandwich", "Pav Bhaji", "Shake", "Sundae"
+    };
+
+    private static final String[] VAN_WORDS = {
+            "Spice", "Wheels", "Express", "Junction", "Corner", "Street", "Tadka", "Bites",
+            "Grill", "Kitchen", "Tiffin", "Cafe", "Dhaba", "Truck", "Rasoi", "Station"
+    };
+
+    private static final String[] STATUSES = {"completed", "pending", "cancelled", "preparing", "ready"};
+    private static final int[] STATUS_WEIGHTS = {70, 12, 10, 5, 3};
+
+    // Bengaluru
+    private static final double CENTER_LAT = 12.9716;
+    private static final double CENTER_LON = 77.5946;
+
+    private final Random random;
+
+    public SyntheticData() {
+        this(DEFAULT_SEED);
+    }
+
+    public SyntheticData(long seed) {
+        this.random = new Random(seed);
+    }
+
+    public List<User> vendors(int count) {
+        List<User> vendors = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            User vendor = new User();
+            vendor.setUserId("vendor_" + i);
+            vendor.setRole("vendor");
+            vendor.setBusinessName(pick(VAN_WORDS) + " " + pick(VAN_WORDS) + " " + i);
+            vendor.setCuisineType(pick(CUISINES));
+            // Within about 20 km of the centre, denser towards it
+            double radius = 0.2 * Math.sqrt(random.nextDouble());
+            double angle = random.nextDouble() * 2 * Math.PI;
+            vendor.setLatitude(CENTER_LAT + radius * Math.cos(angle));
+            vendor.setLongitude(CENTER_LON + radius * Math.sin(angle));
+            vendor.setRating(round1(3.0 + 2.0 * random.nextDouble()));
+            vendor.setTotalOrders(skewed(20_000));
+            vendor.setCreatedAt(NOW - daysAgo(730));
+            vendor.setOnline(random.nextInt(10) < 7);
+            vendor.setActive(true);
+            vendors.add(vendor);
+        }
+        return vendors;
+    }
+
+    public List<MenuItem> menuItems(int count) {
+        List<MenuItem> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String name = pick(DISH_BASES) + " " + pick(DISH_KINDS);
+            MenuItem item = new MenuItem("item_" + i, "van_" + (i % 500), name,
+                    "Freshly made " + name.toLowerCase() + " with house spices", 20 + random.nextInt(58) * 10);
+            item.setCategory(pick(CATEGORIES));
+            item.setVegetarian(random.nextInt(10) < 6);
+            item.setAvailable(random.nextInt(10) < 9);
+            item.setDiscount(random.nextInt(5) == 0 ? 5 + random.nextInt(26) : 0);
+            item.setRating(round1(3.0 + 2.0 * random.nextDouble()));
+            item.setTotalRatings(skewed(2_000));
+            item.setOrderCount(skewed(5_000));
+            long created = NOW - daysAgo(365);
+            item.setCreatedAt(created);
+            item.setLastUpdated(created + (long) (random.nextDouble() * (NOW - created)));
+            items.add(item);
+        }
+        return items;
+    }
+
+    /**
+     * Menus for the given vendors' vans, itemsPerVan each, keyed by vendor ID: the corpus for
+     * searching dishes across vans.
+     */
+    public Map<String, List<MenuItem>> vanMenus(List<User> vendors, int itemsPerVan) {
+        List<MenuItem> items = menuItems(vendors.size() * itemsPerVan);
+        Map<String, List<MenuItem>> menus = new LinkedHashMap<>();
+        for (int v = 0; v < vendors.size(); v++) {
+            String vanId = vendors.get(v).getUserId();
+            List<MenuItem> menu = new ArrayList<>(items.subList(v * itemsPerVan, (v + 1) * itemsPerVan));
+            for (MenuItem item : menu) {
+                item.setVanId(vanId);
+            }
+            menus.put(vanId, menu);
+        }
+        return menus;
+    }
+
+    /**
+     * Orders as the analytics screen reads them: status, total and timestamp, boxed the way
+     * DataSnapshot.getValue returns them. A few have no timestamp, like legacy rows.
+     */
+    public OrderRows orderRows(int count) {
+        OrderRows rows = new OrderRows(count);
+        for (int i = 0; i < count; i++) {
+            rows.statuses[i] = weightedStatus();
+            rows.amounts[i] = random.nextInt(50) == 0 ? null : (double) (50 + random.nextInt(1500));
+            rows.timestamps[i] = random.nextInt(100) == 0 ? null : NOW - recentDaysAgo();
+        }
+        return rows;
+    }
+
+    /**
+     * The items of each order, 1 to 6 lines with quantities skewed low.
+     */
+    public List<List<Order.OrderItem>> orderItemLists(int count) {
+        List<List<Order.OrderItem>> orders = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int lines = 1 + random.nextInt(6);
+            List<Order.OrderItem> items = new ArrayList<>(lines);
+            for (int j = 0; j < lines; j++) {
+                items.add(new Order.OrderItem("item_" + random.nextInt(100_000),
+                        pick(DISH_BASES) + " " + pick(DISH_KINDS),
+                        20 + random.nextInt(58) * 10, 1 + (random.nextInt(4) == 0 ? random.nextInt(4) : 0)));
+            }
+            orders.add(items);
+        }
+        return orders;
+    }
+
+    /**
+     * Complete orders with their items, as the vendor screens load them.
+     */
+    public List<Order> orders(int count) {
+        List<List<Order.OrderItem>> itemLists = orderItemLists(count);
+        List<Order> orders = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Order order = new Order("order_" + i, "customer_" + random.nextInt(50_000),
+                    "vendor_" + skewed(500), "van_" + random.nextInt(500));
+            order.setCustomerName(pick(VAN_WORDS) + " Customer");
+            order.setCustomerPhone("+9198" + (10_000_000 + random.nextInt(90_000_000)));
+            order.setVanName(pick(VAN_WORDS) + " " + pick(VAN_WORDS));
+            order.setItems(itemLists.get(i));
+            order.setDeliveryFee(random.nextInt(3) == 0 ? 0 : 30);
+            order.setStatus(weightedStatus().toUpperCase());
+            order.setPaymentMethod(random.nextBoolean() ? "UPI" : "CASH");
+            order.setPaymentStatus("PAID");
+            order.setDeliveryAddress(random.nextInt(1000) + ", " + pick(VAN_WORDS) + " Road");
+            order.setEstimatedDeliveryTime(15 + random.nextInt(30));
+            order.setOrderTime(NOW - recentDaysAgo());
+            order.calculateTotals();
+            orders.add(order);
+        }
+        return orders;
+    }
+
+    /**
+     * Per-review string lists as stored in Room: image URLs, 0 to 4 per review, most with none.
+     */
+    public List<List<String>> reviewImageLists(int count) {
+        List<List<String>> reviews = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int images = random.nextInt(3) == 0 ? 1 + random.nextInt(4) : 0;
+            List<String> urls = new ArrayList<>(images);
+            for (int j = 0; j < images; j++) {
+                urls.add("https://firebasestorage.googleapis.com/v0/b/foodvan/o/reviews%2F"
+                        + Long.toHexString(random.nextLong()) + ".jpg?alt=media");
+            }
+            reviews.add(urls);
+        }
+        return reviews;
+    }
+
+    public List<CartLine> cartLines(int count) {
+        List<CartLine> lines = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            lines.add(new CartLine(20 + random.nextInt(58) * 10, 1 + random.nextInt(3)));
+        }
+        return lines;
+    }
+
+    public static final class OrderRows {
+        public final String[] statuses;
+        public final Double[] amounts;
+        public final Long[] timestamps;
+
+        OrderRows(int count) {
+            statuses = new String[count];
+            amounts = new Double[count];
+            timestamps = new Long[count];
+        }
+
+        public int size() {
+            return statuses.length;
+        }
+    }
+
+    public static final class CartLine implements CartTotals.Line {
+        private final double price;
+        private final int quantity;
+
+        CartLine(double price, int quantity) {
+            this.price = price;
+            this.quantity = quantity;
+        }
+
+        @Override
+        public double getPrice() {
+            return price;
+        }
+
+        @Override
+        public int getQuantity() {
+            return quantity;
+        }
+    }
+
+    private String pick(String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private String weightedStatus() {
+        int roll = random.nextInt(100);
+        for (int i = 0; i < STATUSES.length; i++) {
+            roll -= STATUS_WEIGHTS[i];
+            if (roll < 0) {
+                return STATUSES[i];
+            }
+        }
+        return STATUSES[0];
+    }
+
+    /**
+     * Long-tailed count: most values small, a few close to max.
+     */
+    private int skewed(int max) {
+        double u = random.nextDouble();
+        return (int) (max * u * u * u);
+    }
+
+    private long daysAgo(int maxDays) {
+        return (long) (random.nextDouble() * TimeUnit.DAYS.toMillis(maxDays));
+    }
+
+    /**
+     * Mostly within the last few weeks, thinning out over three months.
+     */
+    private long recentDaysAgo() {
+        double u = random.nextDouble();
+        return (long) (u * u * TimeUnit.DAYS.toMillis(90));
+    }
+
+    private static double round1(double value) {
+        return Math.round(value * 10) / 10.0;
+    }
+}
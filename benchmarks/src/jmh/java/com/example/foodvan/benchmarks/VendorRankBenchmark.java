@@ -0,0 +1,94 @@
+package com.example.foodvan.benchmarks;
+
+import com.example.foodvan.models.SortBy;
+import com.example.foodvan.models.SortOrder;
+import com.example.foodvan.models.User;
+import com.example.foodvan.utils.VendorRanker;
+import com.example.foodvan.utils.VendorSorter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The home list's first screenful, PAGE vans, as FilterManager ranks it now against the full
+ * sort it used to run. fullSort copies and sorts everything as VendorSorter does, and for
+ * RECOMMENDED, which VendorSorter lacks, sorts by the ranker's score. The ranker keeps its
+ * features across calls as FilterManager's does; firstPageColdCache starts from an empty one.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class VendorRankBenchmark {
+
+    private static final int PAGE = 20;
+    private static final double USER_LAT = 12.9352;
+    private static final double USER_LON = 77.6245;
+
+    @Param({"10000", "100000"})
+    public int size;
+
+    @Param({"DISTANCE", "POPULARITY", "NAME", "RECOMMENDED"})
+    public SortBy sortBy;
+
+    private List<User> vendors;
+    private VendorRanker ranker;
+    private long now;
+
+    @Setup
+    public void setUp() {
+        vendors = new SyntheticData().vendors(size);
+        ranker = newRanker();
+        now = System.currentTimeMillis();
+        ranker.rank(vendors, sortBy, SortOrder.ASCENDING, now).next(PAGE);
+    }
+
+    @Benchmark
+    public List<User> fullSort() {
+        List<User> copy = new ArrayList<>(vendors);
+        if (sortBy == SortBy.RECOMMENDED) {
+            copy.sort(Comparator.comparingDouble((User vendor) -> ranker.score(vendor, now)).reversed());
+        } else {
+            VendorSorter.sort(copy, sortBy, SortOrder.ASCENDING, VendorSortBenchmark::distanceKm);
+        }
+        return copy.subList(0, PAGE);
+    }
+
+    @Benchmark
+    public List<User> firstPage() {
+        return ranker.rank(vendors, sortBy, SortOrder.ASCENDING, now).next(PAGE);
+    }
+
+    @Benchmark
+    public List<User> secondPage() {
+        VendorRanker.Ranking ranking = ranker.rank(vendors, sortBy, SortOrder.ASCENDING, now);
+        ranking.next(PAGE);
+        return ranking.next(PAGE);
+    }
+
+    @Benchmark
+    public List<User> firstPageColdCache() {
+        return newRanker().rank(vendors, sortBy, SortOrder.ASCENDING, now).next(PAGE);
+    }
+
+    @Benchmark
+    public List<User> allPages() {
+        return ranker.rank(vendors, sortBy, SortOrder.ASCENDING, now).next(size);
+    }
+
+    private static VendorRanker newRanker() {
+        VendorRanker ranker = new VendorRanker();
+        ranker.setOrigin(USER_LAT, USER_LON);
+        return ranker;
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.foodvan.benchmarks;
+
+import com.example.foodvan.models.SortBy;
+import com.example.foodvan.models.SortOrder;
+import com.example.foodvan.models.User;
+import com.example.foodvan.utils.VendorSorter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The home list's vendor sort as FilterManager runs it. Each call sorts a fresh copy, so
+ * copyOnly is the floor to subtract. Distances use the haversine formula in place of
+ * android.location.Location, recomputed per comparison as FilterManager does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class VendorSortBenchmark {
+
+    private static final double USER_LAT = 12.9352;
+    private static final double USER_LON = 77.6245;
+    private static final double EARTH_RADIUS_KM = 6371.0;
+
+    @Param({"100", "10000", "1000000"})
+    public int size;
+
+    @Param({"DISTANCE", "RATING", "POPULARITY", "NAME"})
+    public SortBy sortBy;
+
+    private List<User> vendors;
+
+    @Setup
+    public void setUp() {
+        vendors = new SyntheticData().vendors(size);
+    }
+
+    @Benchmark
+    public List<User> copyOnly() {
+        return new ArrayList<>(vendors);
+    }
+
+    @Benchmark
+    public List<User> sortAscending() {
+        List<User> copy = new ArrayList<>(vendors);
+        VendorSorter.sort(copy, sortBy, SortOrder.ASCENDING, VendorSortBenchmark::distanceKm);
+        return copy;
+    }
+
+    @Benchmark
+    public List<User> sortDescending() {
+        List<User> copy = new ArrayList<>(vendors);
+        VendorSorter.sort(copy, sortBy, SortOrder.DESCENDING, VendorSortBenchmark::distanceKm);
+        return copy;
+    }
+
+    static float distanceKm(User vendor) {
+        double dLat = Math.toRadians(vendor.getLatitude() - USER_LAT);
+        double dLon = Math.toRadians(vendor.getLongitude() - USER_LON);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(USER_LAT)) * Math.cos(Math.toRadians(vendor.getLatitude()))
+                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return (float) (EARTH_RADIUS_KM * 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a)));
+    }
+}
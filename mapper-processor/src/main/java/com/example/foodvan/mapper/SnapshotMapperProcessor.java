@@ -0,0 +1,485 @@
+package com.example.foodvan.mapper;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+
+/**
+ * SnapshotMapperProcessor - Generates a reflection-free mapper for each {@link SnapshotModel}
+ * class, plus an index of all of them that the app's SnapshotMappers loads.
+ *
+ * Properties are found the way Firebase's CustomClassMapper finds them: public getX()/isX()
+ * getters are written and public setX() setters are read, named by the accessor with its
+ * leading capitals lower-cased. Keys without a setter are skipped on read, as Firebase does.
+ * Supported property types are primitives and their boxes, String, Date, Object, enums, other
+ * {@code @SnapshotModel} classes, and Lists and String-keyed Maps of those; anything else is a
+ * compile error, so the mapper can never silently drop a field Firebase would have written.
+ */
+@SupportedAnnotationTypes("com.example.foodvan.mapper.SnapshotModel")
+public class SnapshotMapperProcessor extends AbstractProcessor {
+
+    // Runtime side of the generated code, in the app
+    private static final String RUNTIME_PACKAGE = "com.example.foodvan.utils";
+    private static final String MAPPER = RUNTIME_PACKAGE + ".SnapshotMapper";
+    private static final String VALUES = RUNTIME_PACKAGE + ".SnapshotValues";
+    private static final String INDEX = "GeneratedSnapshotMappers";
+
+    private Elements elements;
+    private Types types;
+    private Filer filer;
+    private Messager messager;
+    private boolean indexWritten;
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment round) {
+        elements = processingEnv.getElementUtils();
+        types = processingEnv.getTypeUtils();
+        filer = processingEnv.getFiler();
+        messager = processingEnv.getMessager();
+
+        List<TypeElement> models = new ArrayList<>();
+        for (Element element : round.getElementsAnnotatedWith(SnapshotModel.class)) {
+            TypeElement model = (TypeElement) element;
+            if (checkModel(model)) {
+                models.add(model);
+            }
+        }
+        if (models.isEmpty()) {
+            return false;
+        }
+        if (indexWritten) {
+            messager.printMessage(Diagnostic.Kind.ERROR,
+                    "@SnapshotModel classes must all be compiled in the same round", models.get(0));
+            return false;
+        }
+        for (TypeElement model : models) {
+            writeMapper(model);
+        }
+        writeIndex(models);
+        indexWritten = true;
+        return false;
+    }
+
+    private boolean checkModel(TypeElement model) {
+        boolean ok = true;
+        if (model.getKind() != ElementKind.CLASS || model.getModifiers().contains(Modifier.ABSTRACT)) {
+            error(model, "@SnapshotModel must be a concrete class");
+            ok = false;
+        }
+        if (!model.getModifiers().contains(Modifier.PUBLIC)
+                || (model.getNestingKind() == NestingKind.MEMBER && !model.getModifiers().contains(Modifier.STATIC))) {
+            error(model, "@SnapshotModel must be public and, if nested, static");
+            ok = false;
+        }
+        boolean hasNoArgConstructor = false;
+        for (ExecutableElement constructor : ElementFilter.constructorsIn(model.getEnclosedElements())) {
+            if (constructor.getParameters().isEmpty() && constructor.getModifiers().contains(Modifier.PUBLIC)) {
+                hasNoArgConstructor = true;
+            }
+        }
+        if (!hasNoArgConstructor) {
+            error(model, "@SnapshotModel needs a public no-argument constructor");
+            ok = false;
+        }
+        return ok;
+    }
+
+    // Properties
+
+    private static final class Property {
+        final String name;
+        ExecutableElement getter;
+        ExecutableElement setter;
+
+        Property(String name) {
+            this.name = name;
+        }
+    }
+
+    private Map<String, Property> properties(TypeElement model) {
+        Map<String, Property> properties = new LinkedHashMap<>();
+        TypeElement object = elements.getTypeElement("java.lang.Object");
+        for (ExecutableElement method : ElementFilter.methodsIn(elements.getAllMembers(model))) {
+            Set<Modifier> modifiers = method.getModifiers();
+            if (!modifiers.contains(Modifier.PUBLIC) || modifiers.contains(Modifier.STATIC)
+                    || method.getEnclosingElement().equals(object) || hasAnnotation(method, "Exclude")) {
+                continue;
+            }
+            String methodName = method.getSimpleName().toString();
+            if (isGetter(method, methodName)) {
+                Property property = properties.computeIfAbsent(propertyName(method), Property::new);
+                if (property.getter != null) {
+                    error(method, "Conflicting getters for property '" + property.name + "'");
+                }
+                property.getter = method;
+            } else if (isSetter(method, methodName)) {
+                Property property = properties.computeIfAbsent(propertyName(method), Property::new);
+                if (property.setter != null) {
+                    error(method, "Conflicting setters for property '" + property.name + "'");
+                }
+                property.setter = method;
+            }
+        }
+        return properties;
+    }
+
+    private static boolean isGetter(ExecutableElement method, String name) {
+        boolean prefixed = (name.startsWith("get") && name.length() > 3) || (name.startsWith("is") && name.length() > 2);
+        return prefixed && method.getParameters().isEmpty() && method.getReturnType().getKind() != TypeKind.VOID;
+    }
+
+    private static boolean isSetter(ExecutableElement method, String name) {
+        return name.startsWith("set") && name.length() > 3 && method.getParameters().size() == 1
+                && method.getReturnType().getKind() == TypeKind.VOID;
+    }
+
+    private String propertyName(ExecutableElement method) {
+        String annotated = annotationValue(method, "PropertyName");
+        if (annotated != null) {
+            return annotated;
+        }
+        String name = method.getSimpleName().toString();
+        char[] chars = name.substring(name.startsWith("is") ? 2 : 3).toCharArray();
+        // Same rule as Firebase: lower-case every leading capital, so getURL() is "url"
+        for (int i = 0; i < chars.length && Character.isUpperCase(chars[i]); i++) {
+            chars[i] = Character.toLowerCase(chars[i]);
+        }
+        return new String(chars);
+    }
+
+    private static boolean hasAnnotation(Element element, String simpleName) {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            if (mirror.getAnnotationType().asElement().getSimpleName().contentEquals(simpleName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String annotationValue(Element element, String simpleName) {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            if (mirror.getAnnotationType().asElement().getSimpleName().contentEquals(simpleName)) {
+                for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry
+                        : mirror.getElementValues().entrySet()) {
+                    if (entry.getKey().getSimpleName().contentEquals("value")) {
+                        return String.valueOf(entry.getValue().getValue());
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    // Type conversions
+
+    /**
+     * Expression converting the raw snapshot value in {@code value} to {@code type}, or null if
+     * the type isn't supported.
+     */
+    private String readExpression(TypeMirror type, String value) {
+        switch (type.getKind()) {
+            case BOOLEAN:
+                return VALUES + ".asBoolean(" + value + ")";
+            case INT:
+                return VALUES + ".asInt(" + value + ")";
+            case LONG:
+                return VALUES + ".asLong(" + value + ")";
+            case DOUBLE:
+                return VALUES + ".asDouble(" + value + ")";
+            case FLOAT:
+                return VALUES + ".asFloat(" + value + ")";
+            case DECLARED:
+                break;
+            default:
+                return null;
+        }
+        DeclaredType declared = (DeclaredType) type;
+        TypeElement element = (TypeElement) declared.asElement();
+        String name = element.getQualifiedName().toString();
+        switch (name) {
+            case "java.lang.String":
+                return VALUES + ".asString(" + value + ")";
+            case "java.lang.Object":
+                return value;
+            case "java.util.Date":
+                return VALUES + ".asDate(" + value + ")";
+            case "java.lang.Boolean":
+                return boxed(value, VALUES + ".asBoolean(" + value + ")", name);
+            case "java.lang.Integer":
+                return boxed(value, VALUES + ".asInt(" + value + ")", name);
+            case "java.lang.Long":
+                return boxed(value, VALUES + ".asLong(" + value + ")", name);
+            case "java.lang.Double":
+                return boxed(value, VALUES + ".asDouble(" + value + ")", name);
+            case "java.lang.Float":
+                return boxed(value, VALUES + ".asFloat(" + value + ")", name);
+            case "java.util.List": {
+                String element0 = readFunction(typeArgument(declared, 0));
+                return element0 == null ? null : VALUES + ".asList(" + value + ", " + element0 + ")";
+            }
+            case "java.util.Map": {
+                if (!isString(typeArgument(declared, 0))) {
+                    return null;
+                }
+                String element1 = readFunction(typeArgument(declared, 1));
+                return element1 == null ? null : VALUES + ".asStringMap(" + value + ", " + element1 + ")";
+            }
+            default:
+                break;
+        }
+        if (element.getKind() == ElementKind.ENUM) {
+            return VALUES + ".asEnum(" + value + ", " + name + ".class)";
+        }
+        if (element.getAnnotation(SnapshotModel.class) != null) {
+            return mapperName(element) + ".INSTANCE.fromValue(" + value + ")";
+        }
+        return null;
+    }
+
+    private static String boxed(String value, String expression, String type) {
+        return value + " == null ? null : (" + type + ") " + expression;
+    }
+
+    /**
+     * A java.util.function.Function from a raw value to type, for list and map elements.
+     */
+    private String readFunction(TypeMirror type) {
+        if (type == null) {
+            return null;
+        }
+        String body = readExpression(type, "v");
+        return body == null ? null : "v -> " + body;
+    }
+
+    /**
+     * Expression converting a model value to what Firebase would have written for it.
+     */
+    private String writeExpression(TypeMirror type, String value) {
+        if (type.getKind().isPrimitive()) {
+            return value;
+        }
+        if (type.getKind() != TypeKind.DECLARED) {
+            return null;
+        }
+        DeclaredType declared = (DeclaredType) type;
+        TypeElement element = (TypeElement) declared.asElement();
+        String name = element.getQualifiedName().toString();
+        switch (name) {
+            case "java.lang.String":
+            case "java.lang.Object":
+            case "java.util.Date":
+            case "java.lang.Boolean":
+            case "java.lang.Integer":
+            case "java.lang.Long":
+            case "java.lang.Double":
+            case "java.lang.Float":
+                return value;
+            case "java.util.List": {
+                TypeMirror item = typeArgument(declared, 0);
+                String converted = item == null ? null : writeExpression(item, "v");
+                if (converted == null) {
+                    return null;
+                }
+                return converted.equals("v") ? value : VALUES + ".toList(" + value + ", v -> " + converted + ")";
+            }
+            case "java.util.Map": {
+                TypeMirror item = typeArgument(declared, 1);
+                String converted = item == null || !isString(typeArgument(declared, 0)) ? null : writeExpression(item, "v");
+                if (converted == null) {
+                    return null;
+                }
+                return converted.equals("v") ? value : VALUES + ".toStringMap(" + value + ", v -> " + converted + ")";
+            }
+            default:
+                break;
+        }
+        if (element.getKind() == ElementKind.ENUM) {
+            return VALUES + ".enumName(" + value + ")";
+        }
+        if (element.getAnnotation(SnapshotModel.class) != null) {
+            return mapperName(element) + ".INSTANCE.toValue(" + value + ")";
+        }
+        return null;
+    }
+
+    private static TypeMirror typeArgument(DeclaredType type, int index) {
+        List<? extends TypeMirror> arguments = type.getTypeArguments();
+        return index < arguments.size() ? arguments.get(index) : null;
+    }
+
+    private static boolean isString(TypeMirror type) {
+        return type != null && type.toString().equals("java.lang.String");
+    }
+
+    // Output
+
+    private String mapperName(TypeElement model) {
+        String packageName = elements.getPackageOf(model).getQualifiedName().toString();
+        return packageName + "." + mapperSimpleName(model);
+    }
+
+    private String mapperSimpleName(TypeElement model) {
+        String packageName = elements.getPackageOf(model).getQualifiedName().toString();
+        String binary = model.getQualifiedName().toString().substring(packageName.length() + 1);
+        return binary.replace('.', '_') + "Mapper";
+    }
+
+    static String constantName(String property) {
+        StringBuilder constant = new StringBuilder();
+        for (int i = 0; i < property.length(); i++) {
+            char c = property.charAt(i);
+            if (Character.isUpperCase(c) && i > 0) {
+                constant.append('_');
+            }
+            constant.append(Character.isLetterOrDigit(c) ? Character.toUpperCase(c) : '_');
+        }
+        return constant.toString().toUpperCase(Locale.US);
+    }
+
+    private void writeMapper(TypeElement model) {
+        Map<String, Property> properties = properties(model);
+        String packageName = elements.getPackageOf(model).getQualifiedName().toString();
+        String simpleName = mapperSimpleName(model);
+        String modelName = model.getQualifiedName().toString();
+
+        StringBuilder out = new StringBuilder();
+        out.append("// Generated by SnapshotMapperProcessor from ").append(modelName).append(". Do not edit.\n");
+        out.append("package ").append(packageName).append(";\n\n");
+        out.append("public final class ").append(simpleName)
+                .append(" implements ").append(MAPPER).append('<').append(modelName).append("> {\n\n");
+        out.append("    public static final ").append(simpleName).append(" INSTANCE = new ")
+                .append(simpleName).append("();\n\n");
+        for (Property property : properties.values()) {
+            out.append("    public static final String ").append(constantName(property.name))
+                    .append(" = \"").append(property.name).append("\";\n");
+        }
+        out.append("\n    private ").append(simpleName).append("() {\n    }\n\n");
+
+        out.append("    @Override\n");
+        out.append("    public Class<").append(modelName).append("> type() {\n");
+        out.append("        return ").append(modelName).append(".class;\n");
+        out.append("    }\n\n");
+
+        out.append("    @Override\n");
+        out.append("    public ").append(modelName).append(" fromMap(java.util.Map<String, Object> map) {\n");
+        out.append("        ").append(modelName).append(" target = new ").append(modelName).append("();\n");
+        out.append("        for (java.util.Map.Entry<String, Object> entry : map.entrySet()) {\n");
+        out.append("            Object value = entry.getValue();\n");
+        out.append("            switch (entry.getKey()) {\n");
+        for (Property property : properties.values()) {
+            if (property.setter == null) {
+                continue;
+            }
+            TypeMirror type = property.setter.getParameters().get(0).asType();
+            String read = readExpression(type, "value");
+            if (read == null) {
+                unsupported(property.setter, type, property.name);
+                continue;
+            }
+            out.append("                case ").append(constantName(property.name)).append(":\n");
+            out.append("                    target.").append(property.setter.getSimpleName())
+                    .append('(').append(read).append(");\n");
+            out.append("                    break;\n");
+        }
+        out.append("                default:\n");
+        out.append("                    // No setter; Firebase ignores these too\n");
+        out.append("                    break;\n");
+        out.append("            }\n");
+        out.append("        }\n");
+        out.append("        return target;\n");
+        out.append("    }\n\n");
+
+        int getters = 0;
+        for (Property property : properties.values()) {
+            if (property.getter != null) {
+                getters++;
+            }
+        }
+        out.append("    @Override\n");
+        out.append("    public java.util.Map<String, Object> toMap(").append(modelName).append(" source) {\n");
+        out.append("        java.util.Map<String, Object> map = new java.util.HashMap<>(")
+                .append(getters * 4 / 3 + 1).append(");\n");
+        for (Property property : properties.values()) {
+            if (property.getter == null) {
+                continue;
+            }
+            TypeMirror type = property.getter.getReturnType();
+            String write = writeExpression(type, "source." + property.getter.getSimpleName() + "()");
+            if (write == null) {
+                unsupported(property.getter, type, property.name);
+                continue;
+            }
+            out.append("        map.put(").append(constantName(property.name)).append(", ").append(write).append(");\n");
+        }
+        out.append("        return map;\n");
+        out.append("    }\n");
+        out.append("}\n");
+
+        write(packageName + "." + simpleName, out, model);
+    }
+
+    private void writeIndex(List<TypeElement> models) {
+        StringBuilder out = new StringBuilder();
+        out.append("// Generated by SnapshotMapperProcessor. Do not edit.\n");
+        out.append("package ").append(RUNTIME_PACKAGE).append(";\n\n");
+        out.append("final class ").append(INDEX).append(" {\n\n");
+        out.append("    private ").append(INDEX).append("() {\n    }\n\n");
+        out.append("    static void registerAll(java.util.Map<Class<?>, SnapshotMapper<?>> mappers) {\n");
+        for (TypeElement model : models) {
+            out.append("        mappers.put(").append(model.getQualifiedName()).append(".class, ")
+                    .append(mapperName(model)).append(".INSTANCE);\n");
+        }
+        out.append("    }\n");
+        out.append("}\n");
+        write(RUNTIME_PACKAGE + "." + INDEX, out, models.toArray(new Element[0]));
+    }
+
+    private void write(String className, CharSequence source, Element... originatingElements) {
+        try (Writer writer = filer.createSourceFile(className, originatingElements).openWriter()) {
+            writer.write(source.toString());
+        } catch (IOException e) {
+            messager.printMessage(Diagnostic.Kind.ERROR, "Could not write " + className + ": " + e.getMessage());
+        }
+    }
+
+    private void unsupported(Element accessor, TypeMirror type, String property) {
+        error(accessor, "Unsupported type " + type + " for property '" + property
+                + "'; mark the accessor @Exclude or teach SnapshotMapperProcessor about it");
+    }
+
+    private void error(Element element, String message) {
+        messager.printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.foodvan.mapper;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a Firebase model for SnapshotMapperProcessor, which generates a {@code <Name>Mapper}
+ * next to it that converts between the model and snapshot maps without reflection. The mapper
+ * follows the same bean rules as Firebase's own mapping: every public getter is written, every
+ * public setter is read, and {@code @Exclude} and {@code @PropertyName} are honoured.
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.TYPE)
+public @interface SnapshotModel {
+}